@@ -19,7 +19,9 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.ant.internal.core.AntClassLoader;
+import org.eclipse.ant.internal.core.AntClassLoaderPool;
 import org.eclipse.ant.internal.core.AntCoreUtil;
+import org.eclipse.ant.internal.core.TargetInfoCache;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtensionPoint;
 import org.eclipse.core.runtime.IStatus;
@@ -177,8 +179,10 @@ public class AntCorePlugin extends Plugin {
 	@Override
 	@SuppressWarnings("deprecation")
 	public void stop(BundleContext context) throws Exception {
+		TargetInfoCache.shutdown();
 		super.stop(context);
 		AntCoreUtil.setBundleContext(null);
+		AntClassLoaderPool.getDefault().invalidate();
 		if (preferences != null) {
 			savePluginPreferences();
 		}
@@ -229,6 +233,7 @@ public class AntCorePlugin extends Plugin {
 	 *            Whether or not to mark that the plug-in is running headless or not
 	 */
 	public void setRunningHeadless(boolean headless) {
+		AntClassLoaderPool.getDefault().invalidate();
 		preferences = new AntCorePreferences(extractExtensions(PT_TASKS), extractExtensions(PT_EXTRA_CLASSPATH), extractExtensions(PT_TYPES), extractExtensions(PT_PROPERTIES), headless);
 	}
 
@@ -33,10 +33,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
 
+import org.eclipse.ant.internal.core.AntClassLoaderPool;
 import org.eclipse.ant.internal.core.AntClasspathEntry;
 import org.eclipse.ant.internal.core.AntObject;
 import org.eclipse.ant.internal.core.IAntCoreConstants;
 import org.eclipse.ant.internal.core.InternalCoreAntMessages;
+import org.eclipse.ant.internal.core.TargetInfoCache;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -1622,8 +1624,10 @@ public class AntCorePreferences implements IPropertyChangeListener {
 			updateProperties(prefs);
 			updatePropertyFiles(prefs);
 			boolean classpathChanged = AntCorePlugin.getPlugin().getPluginPreferences().needsSaving();
+			TargetInfoCache.getDefault().invalidate();
 			AntCorePlugin.getPlugin().savePluginPreferences();
 			if (classpathChanged) {
+				AntClassLoaderPool.getDefault().invalidate();
 				prefs.setValue(IAntCoreConstants.PREFERENCE_CLASSPATH_CHANGED, true);
 			}
 			prefs.setValue(IAntCoreConstants.PREFERENCE_CLASSPATH_CHANGED, false);
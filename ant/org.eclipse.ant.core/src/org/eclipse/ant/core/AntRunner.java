@@ -23,10 +23,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.TreeMap;
 
-import org.eclipse.ant.internal.core.AntClassLoader;
+import org.eclipse.ant.internal.core.AntClassLoaderPool;
+import org.eclipse.ant.internal.core.ConcurrentBuildManager;
 import org.eclipse.ant.internal.core.IAntCoreConstants;
 import org.eclipse.ant.internal.core.InternalCoreAntMessages;
+import org.eclipse.ant.internal.core.TargetInfoCache;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -53,7 +56,6 @@ import org.eclipse.osgi.util.NLS;
  */
 public class AntRunner implements IApplication {
 
-	private static boolean buildRunning = false;
 	protected String buildFileLocation = IAntCoreConstants.DEFAULT_BUILD_FILENAME;
 	protected List<String> buildListeners;
 	protected String[] targets;
@@ -65,6 +67,7 @@ public class AntRunner implements IApplication {
 	protected String[] propertyFiles;
 	protected URL[] customClasspath;
 	protected String antHome;
+	private boolean concurrentExecution = false;
 	private IProgressMonitor progressMonitor = null;
 
 	/**
@@ -221,6 +224,10 @@ public class AntRunner implements IApplication {
 
 	/**
 	 * Returns the buildfile target information.
+	 * <p>
+	 * The target information is cached and reused for as long as the build file, the files it imports and the property files that were read are
+	 * unchanged and this runner is configured identically.
+	 * </p>
 	 *
 	 * @return an array containing the target information
 	 *
@@ -232,6 +239,11 @@ public class AntRunner implements IApplication {
 	public synchronized TargetInfo[] getAvailableTargets() throws CoreException {
 		Class<?> classInternalAntRunner = null;
 		Object runner = null;
+		String cacheKey = getTargetCacheKey();
+		TargetInfo[] cached = TargetInfoCache.getDefault().get(cacheKey);
+		if (cached != null) {
+			return cached;
+		}
 		ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
 		try {
 			classInternalAntRunner = getInternalAntRunner();
@@ -248,6 +260,16 @@ public class AntRunner implements IApplication {
 			for (Object target : infos) {
 				targetInfo[i++] = (TargetInfo) target;
 			}
+
+			Method getTargetSourceFiles = classInternalAntRunner.getMethod("getTargetSourceFiles", (Class[]) null); //$NON-NLS-1$
+			List<?> sourceFiles = (List<?>) getTargetSourceFiles.invoke(runner, (Object[]) null);
+			if (sourceFiles != null) {
+				ArrayList<String> files = new ArrayList<>(sourceFiles.size());
+				for (Object file : sourceFiles) {
+					files.add((String) file);
+				}
+				TargetInfoCache.getDefault().put(cacheKey, targetInfo, files);
+			}
 			return targetInfo;
 		}
 		catch (NoClassDefFoundError e) {
@@ -274,6 +296,21 @@ public class AntRunner implements IApplication {
 		}
 	}
 
+	/*
+	 * Returns the key of the cached target information: the build file location and every setting of this runner that is used to compute the
+	 * targets
+	 */
+	private String getTargetCacheKey() {
+		StringBuilder key = new StringBuilder(buildFileLocation);
+		key.append('\n').append(antHome);
+		key.append('\n').append(userProperties == null ? null : new TreeMap<>(userProperties));
+		key.append('\n').append(Arrays.toString(propertyFiles));
+		key.append('\n').append(Arrays.toString(arguments));
+		key.append('\n').append(Arrays.toString(customClasspath));
+		key.append('\n').append(Arrays.toString(AntCorePlugin.getPlugin().getPreferences().getURLs()));
+		return key.toString();
+	}
+
 	private void basicConfigure(Class<?> classInternalAntRunner, Object runner) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
 		Method setBuildFileLocation = classInternalAntRunner.getMethod("setBuildFileLocation", new Class[] { String.class }); //$NON-NLS-1$
 		setBuildFileLocation.invoke(runner, new Object[] { buildFileLocation });
@@ -296,7 +333,7 @@ public class AntRunner implements IApplication {
 	 * <code>org.apache.tools.ant.Project.getReferences()</code>). A long- running task could, for example, get the monitor during its execution and
 	 * check for cancellation. The key value to retrieve the progress monitor instance is <code>AntCorePlugin.ECLIPSE_PROGRESS_MONITOR</code>.
 	 *
-	 * Only one build can occur at any given time.
+	 * Unless concurrent execution has been enabled using {@link #setConcurrentExecution(boolean)}, only one build can occur at any given time.
 	 *
 	 * Sets the current threads context class loader to the AntClassLoader for the duration of the build.
 	 *
@@ -306,12 +343,12 @@ public class AntRunner implements IApplication {
 	 *             Thrown if a build is already occurring or if an exception occurs during the build
 	 */
 	public void run(IProgressMonitor monitor) throws CoreException {
-		if (buildRunning) {
+		boolean exclusive = !concurrentExecution;
+		if (!ConcurrentBuildManager.acquire(exclusive)) {
 			IStatus status = new Status(IStatus.ERROR, AntCorePlugin.PI_ANTCORE, AntCorePlugin.ERROR_RUNNING_BUILD, NLS.bind(InternalCoreAntMessages.AntRunner_Already_in_progess, new String[] {
 					buildFileLocation }), null);
 			throw new CoreException(status);
 		}
-		buildRunning = true;
 		Object runner = null;
 		Class<?> classInternalAntRunner = null;
 		ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
@@ -350,6 +387,11 @@ public class AntRunner implements IApplication {
 
 			basicConfigure(classInternalAntRunner, runner);
 
+			if (concurrentExecution) {
+				Method setConcurrentExecution = classInternalAntRunner.getMethod("setConcurrentExecution", new Class[] { boolean.class }); //$NON-NLS-1$
+				setConcurrentExecution.invoke(runner, new Object[] { Boolean.TRUE });
+			}
+
 			// add progress monitor
 			if (monitor != null) {
 				progressMonitor = monitor;
@@ -388,7 +430,7 @@ public class AntRunner implements IApplication {
 			throw new CoreException(status);
 		}
 		finally {
-			buildRunning = false;
+			ConcurrentBuildManager.release(exclusive);
 			Thread.currentThread().setContextClassLoader(originalClassLoader);
 		}
 	}
@@ -521,14 +563,14 @@ public class AntRunner implements IApplication {
 	}
 
 	private ClassLoader getClassLoader() {
+		AntCorePreferences preferences = AntCorePlugin.getPlugin().getPreferences();
 		if (customClasspath == null) {
-			return AntCorePlugin.getPlugin().getNewClassLoader();
+			return AntClassLoaderPool.getDefault().getClassLoader(preferences.getURLs(), preferences.getPluginClassLoaders(), false);
 		}
-		AntCorePreferences preferences = AntCorePlugin.getPlugin().getPreferences();
 		ArrayList<URL> fullClasspath = new ArrayList<>();
 		fullClasspath.addAll(Arrays.asList(customClasspath));
 		fullClasspath.addAll(Arrays.asList(preferences.getExtraClasspathURLs()));
-		return new AntClassLoader(fullClasspath.toArray(new URL[fullClasspath.size()]), preferences.getPluginClassLoaders());
+		return AntClassLoaderPool.getDefault().getClassLoader(fullClasspath.toArray(new URL[fullClasspath.size()]), preferences.getPluginClassLoaders(), false);
 	}
 
 	/**
@@ -579,16 +621,34 @@ public class AntRunner implements IApplication {
 		this.antHome = antHome;
 	}
 
+	/**
+	 * Sets whether this build may run concurrently with other builds in the same JRE. By default a build requires exclusive use of the JRE as it
+	 * replaces <code>System.out</code>, <code>System.err</code>, <code>System.in</code> and the security manager for its duration.
+	 * <p>
+	 * Concurrent builds instead share thread scoped output redirection and a shared guard against the JRE being exited. A concurrent build cannot
+	 * start while an exclusive build is running and vice versa. Concurrent builds do not read from <code>System.in</code> and must agree on the Ant
+	 * home and the Ant classpath, as both are reflected in JRE wide system properties.
+	 * </p>
+	 *
+	 * @param concurrent
+	 *            whether this build may run concurrently with other concurrent builds
+	 * @since 3.6
+	 */
+	public void setConcurrentExecution(boolean concurrent) {
+		this.concurrentExecution = concurrent;
+	}
+
 	/**
 	 * Returns whether an Ant build is already in progress
 	 *
-	 * Only one Ant build can occur at any given time.
+	 * Only one Ant build can occur at any given time, unless the builds have been configured for concurrent execution.
 	 *
 	 * @since 2.1
 	 * @return boolean
+	 * @see #setConcurrentExecution(boolean)
 	 */
 	public static boolean isBuildRunning() {
-		return buildRunning;
+		return ConcurrentBuildManager.isBuildRunning();
 	}
 
 	/**
@@ -20,6 +20,10 @@ import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class AntClassLoader extends URLClassLoader {
 
@@ -30,7 +34,56 @@ public class AntClassLoader extends URLClassLoader {
 
 	protected ClassLoader[] fPluginLoaders;
 
-	private ClassLoader fContextClassloader = null;
+	/**
+	 * The context class loader to use while loading from the plug-in class loaders, per thread as the same class loader may be used by several
+	 * threads at once
+	 */
+	private final ThreadLocal<ClassLoader> fContextClassloader = new ThreadLocal<>();
+
+	private final AtomicInteger fDefinedClassCount = new AtomicInteger();
+
+	/**
+	 * The maximum number of names remembered as not being available from any plug-in class loader
+	 */
+	private static final int MAX_MISSES = 2000;
+
+	/**
+	 * Maps class names to the plug-in class loader that provided them
+	 */
+	private final Map<String, ClassLoader> fClassOwners = new ConcurrentHashMap<>();
+
+	/**
+	 * Maps resource names to the plug-in class loader that provided them
+	 */
+	private final Map<String, ClassLoader> fResourceOwners = new ConcurrentHashMap<>();
+
+	/**
+	 * Bounded caches of the class and resource names that none of the plug-in class loaders provide. Ant probes for many classes that do not exist,
+	 * and each miss costs a <code>ClassNotFoundException</code> per plug-in class loader.
+	 */
+	private final Map<String, Boolean> fMissingClasses = new MissCache();
+	private final Map<String, Boolean> fMissingResources = new MissCache();
+	private final Map<String, Boolean> fMissingResourceSets = new MissCache();
+
+	/**
+	 * Maps package names to the plug-in class loader known to provide classes or resources of that package
+	 */
+	private final Map<String, ClassLoader> fPackageIndex = new ConcurrentHashMap<>();
+
+	private boolean fUsePackageIndex = Boolean.getBoolean("org.eclipse.ant.core.packageIndex"); //$NON-NLS-1$
+
+	private static class MissCache extends LinkedHashMap<String, Boolean> {
+		private static final long serialVersionUID = 1L;
+
+		MissCache() {
+			super(64, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+			return size() > MAX_MISSES;
+		}
+	}
 
 	public AntClassLoader(URL[] urls, ClassLoader[] pluginLoaders) {
 		super(urls, ClassLoader.getSystemClassLoader());
@@ -50,29 +103,44 @@ public class AntClassLoader extends URLClassLoader {
 			return result;
 		}
 
-		return super.findClass(name);
+		result = super.findClass(name);
+		fDefinedClassCount.incrementAndGet();
+		return result;
 	}
 
 	protected Class<?> loadClassPlugins(String name) {
+		if (fPluginLoaders == null || isCachedMiss(fMissingClasses, name)) {
+			return null;
+		}
 		// remove this class loader as the context class loader
 		// when loading classes from plug-ins...see bug 94471
 		ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
-		if (fContextClassloader != null) {
-			Thread.currentThread().setContextClassLoader(fContextClassloader);
+		ClassLoader contextClassloader = fContextClassloader.get();
+		if (contextClassloader != null) {
+			Thread.currentThread().setContextClassLoader(contextClassloader);
 		}
 		try {
+			ClassLoader knownOwner = fClassOwners.get(name);
+			if (knownOwner == null) {
+				knownOwner = getIndexedLoader(name, '.');
+			}
+			ClassLoader owner = knownOwner;
 			Class<?> result = null;
-			if (fPluginLoaders != null) {
-				for (int i = 0; (i < fPluginLoaders.length) && (result == null); i++) {
-					try {
-						result = fPluginLoaders[i].loadClass(name);
-					}
-					catch (ClassNotFoundException e) {
-						// Ignore exception now. If necessary we'll throw
-						// a ClassNotFoundException in loadClass(String)
-					}
+			if (knownOwner != null) {
+				result = loadClass(knownOwner, name);
+			}
+			for (int i = 0; (i < fPluginLoaders.length) && (result == null); i++) {
+				if (fPluginLoaders[i] != knownOwner) {
+					owner = fPluginLoaders[i];
+					result = loadClass(owner, name);
 				}
 			}
+			if (result == null) {
+				cacheMiss(fMissingClasses, name);
+			} else {
+				fClassOwners.put(name, owner);
+				index(name, '.', owner);
+			}
 			return result;
 		}
 		finally {
@@ -80,6 +148,17 @@ public class AntClassLoader extends URLClassLoader {
 		}
 	}
 
+	private Class<?> loadClass(ClassLoader loader, String name) {
+		try {
+			return loader.loadClass(name);
+		}
+		catch (ClassNotFoundException e) {
+			// Ignore exception now. If necessary we'll throw
+			// a ClassNotFoundException in loadClass(String)
+			return null;
+		}
+	}
+
 	@Override
 	public URL findResource(String name) {
 		if (fAllowPluginLoading || !(name.startsWith(ANT_URL_PREFIX))) {
@@ -93,22 +172,39 @@ public class AntClassLoader extends URLClassLoader {
 	}
 
 	private URL findResourcePlugins(String name) {
+		if (fPluginLoaders == null || isCachedMiss(fMissingResources, name)) {
+			return null;
+		}
 		// remove this class loader as the context class loader
 		// when loading resources from plug-ins...see bug 94471
 		ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
-		if (fContextClassloader != null) {
-			Thread.currentThread().setContextClassLoader(fContextClassloader);
+		ClassLoader contextClassloader = fContextClassloader.get();
+		if (contextClassloader != null) {
+			Thread.currentThread().setContextClassLoader(contextClassloader);
 		}
 		try {
-			URL result = null;
-			if (fPluginLoaders != null) {
-				for (ClassLoader loader : fPluginLoaders) {
-					result = loader.getResource(name);
-					if (result != null) {
-						return result;
-					}
+			ClassLoader owner = fResourceOwners.get(name);
+			if (owner == null) {
+				owner = getIndexedLoader(name, '/');
+			}
+			if (owner != null) {
+				URL result = owner.getResource(name);
+				if (result != null) {
+					return result;
 				}
 			}
+			for (ClassLoader loader : fPluginLoaders) {
+				if (loader == owner) {
+					continue;
+				}
+				URL result = loader.getResource(name);
+				if (result != null) {
+					fResourceOwners.put(name, loader);
+					index(name, '/', loader);
+					return result;
+				}
+			}
+			cacheMiss(fMissingResources, name);
 		}
 		finally {
 			Thread.currentThread().setContextClassLoader(originalClassLoader);
@@ -119,13 +215,14 @@ public class AntClassLoader extends URLClassLoader {
 	@Override
 	public Enumeration<URL> findResources(String name) throws IOException {
 		ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
-		if (fContextClassloader != null) {
-			Thread.currentThread().setContextClassLoader(fContextClassloader);
+		ClassLoader contextClassloader = fContextClassloader.get();
+		if (contextClassloader != null) {
+			Thread.currentThread().setContextClassLoader(contextClassloader);
 		}
 		ArrayList<URL> all = new ArrayList<>();
 		try {
 			if (fAllowPluginLoading || !(name.startsWith(ANT_URL_PREFIX) || name.startsWith(ANT_URL_PREFIX, 1))) {
-				if (fPluginLoaders != null) {
+				if (fPluginLoaders != null && !isCachedMiss(fMissingResourceSets, name)) {
 					Enumeration<URL> result = null;
 					for (ClassLoader loader : fPluginLoaders) {
 						result = loader.getResources(name);
@@ -133,6 +230,9 @@ public class AntClassLoader extends URLClassLoader {
 							all.add(result.nextElement());
 						}
 					}
+					if (all.isEmpty()) {
+						cacheMiss(fMissingResourceSets, name);
+					}
 				}
 			}
 
@@ -151,6 +251,58 @@ public class AntClassLoader extends URLClassLoader {
 		}
 	}
 
+	/**
+	 * Returns the plug-in class loader recorded in the package index for the package of the given class or resource name, or <code>null</code> if
+	 * the index is disabled or does not know the package.
+	 */
+	private ClassLoader getIndexedLoader(String name, char separator) {
+		if (!fUsePackageIndex) {
+			return null;
+		}
+		int index = name.lastIndexOf(separator);
+		if (index <= 0) {
+			return null;
+		}
+		return fPackageIndex.get(name.substring(0, index).replace('/', '.'));
+	}
+
+	private void index(String name, char separator, ClassLoader owner) {
+		if (!fUsePackageIndex) {
+			return;
+		}
+		int index = name.lastIndexOf(separator);
+		if (index > 0) {
+			fPackageIndex.putIfAbsent(name.substring(0, index).replace('/', '.'), owner);
+		}
+	}
+
+	private boolean isCachedMiss(Map<String, Boolean> cache, String name) {
+		synchronized (cache) {
+			return cache.containsKey(name);
+		}
+	}
+
+	private void cacheMiss(Map<String, Boolean> cache, String name) {
+		synchronized (cache) {
+			cache.put(name, Boolean.TRUE);
+		}
+	}
+
+	/**
+	 * Sets whether lookups should be routed straight to the plug-in class loader that is known to own the package of the requested class or
+	 * resource. The index is learned from successful lookups; when the indexed class loader cannot find a name the remaining plug-in class loaders
+	 * are still searched in order. As a package that is split across plug-ins may then be resolved from a different plug-in than without the index,
+	 * the index is disabled by default. It can also be enabled by setting the <code>org.eclipse.ant.core.packageIndex</code> system property to
+	 * <code>true</code>.
+	 *
+	 * @param usePackageIndex
+	 *            whether to route lookups using the package index
+	 * @since 3.6
+	 */
+	public void setUsePackageIndex(boolean usePackageIndex) {
+		fUsePackageIndex = usePackageIndex;
+	}
+
 	/**
 	 * Sets whether this class loader will allow Apache Ant classes or resources to be found or loaded from its set of plug-in class loaders.
 	 *
@@ -161,7 +313,37 @@ public class AntClassLoader extends URLClassLoader {
 		fAllowPluginLoading = allowLoading;
 	}
 
+	/**
+	 * Returns the number of classes this class loader has defined from its own classpath, as opposed to classes delegated to the plug-in class
+	 * loaders.
+	 *
+	 * @return the number of classes defined by this class loader
+	 */
+	public int getDefinedClassCount() {
+		return fDefinedClassCount.get();
+	}
+
+	/**
+	 * Sets the context class loader to use on the current thread while classes or resources are loaded from the plug-in class loaders.
+	 *
+	 * @param classLoader
+	 *            the context class loader or <code>null</code> to keep the context class loader of the thread
+	 */
 	public void setPluginContextClassloader(ClassLoader classLoader) {
-		fContextClassloader = classLoader;
+		if (classLoader == null) {
+			fContextClassloader.remove();
+		} else {
+			fContextClassloader.set(classLoader);
+		}
+	}
+
+	/**
+	 * Returns the context class loader used on the current thread while classes or resources are loaded from the plug-in class loaders.
+	 *
+	 * @return the context class loader or <code>null</code> if none has been set for the current thread
+	 * @since 3.6
+	 */
+	public ClassLoader getPluginContextClassloader() {
+		return fContextClassloader.get();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,367 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.internal.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * A pool of warm {@link AntClassLoader}s keyed by a fingerprint of their classpath.
+ * <p>
+ * Builds that run with an identical classpath (the same URLs, in the same order, with the same plug-in class loaders) reuse the same class
+ * loader, so the Ant classes only have to be loaded and compiled once. The fingerprint includes the size and modification stamp of each local
+ * classpath entry, and of every file below a directory entry, so that a rebuilt task library or task project results in a new class loader. The
+ * pool is bounded: the least recently used loader is evicted once the capacity is reached and a timer drops the loaders that have not been used
+ * for a while. The pool is flushed whenever the Ant classpath preferences change.
+ * </p>
+ * <p>
+ * Evicted class loaders are not closed, as a running build, or a thread it started, may still be loading classes through them. As with the class
+ * loaders created before there was a pool, their open jar files are released once they are garbage collected.
+ * </p>
+ * <p>
+ * Pooling can be disabled by setting the <code>org.eclipse.ant.core.classLoaderPool</code> system property to <code>false</code>.
+ * </p>
+ *
+ * @since 3.6
+ */
+public final class AntClassLoaderPool {
+
+	/**
+	 * The maximum number of class loaders kept in the pool
+	 */
+	private static final int MAX_POOL_SIZE = 4;
+
+	/**
+	 * The time in milliseconds after which an unused class loader is dropped from the pool
+	 */
+	private static final long MAX_IDLE_TIME = 10 * 60 * 1000;
+
+	/**
+	 * The interval in milliseconds at which idle class loaders are looked for while the pool is not empty
+	 */
+	private static final long EVICTION_INTERVAL = 60 * 1000;
+
+	private static final AntClassLoaderPool fgDefault = new AntClassLoaderPool(!"false".equals(System.getProperty("org.eclipse.ant.core.classLoaderPool"))); //$NON-NLS-1$ //$NON-NLS-2$
+
+	private final boolean fEnabled;
+
+	private final LinkedHashMap<Key, Entry> fPool = new LinkedHashMap<>(MAX_POOL_SIZE, 0.75f, true);
+
+	private long fHits = 0;
+	private long fMisses = 0;
+	private long fEvictions = 0;
+	private long fInvalidations = 0;
+
+	private Timer fEvictionTimer;
+
+	AntClassLoaderPool(boolean enabled) {
+		fEnabled = enabled;
+	}
+
+	/**
+	 * Returns the shared class loader pool.
+	 *
+	 * @return the shared pool
+	 */
+	public static AntClassLoaderPool getDefault() {
+		return fgDefault;
+	}
+
+	/**
+	 * Returns a class loader for the given classpath, reusing a pooled class loader if one with an identical fingerprint exists.
+	 *
+	 * @param urls
+	 *            the URLs of the Ant runtime classpath
+	 * @param pluginLoaders
+	 *            the plug-in class loaders, in lookup order
+	 * @param allowLoading
+	 *            whether the plug-in class loaders may load the Apache Ant classes
+	 * @return a class loader for the given classpath
+	 */
+	public AntClassLoader getClassLoader(URL[] urls, ClassLoader[] pluginLoaders, boolean allowLoading) {
+		if (!fEnabled) {
+			return newClassLoader(urls, pluginLoaders, allowLoading);
+		}
+		Key key = new Key(urls, pluginLoaders, allowLoading);
+		long now = System.currentTimeMillis();
+		synchronized (fPool) {
+			evictIdle(now);
+			Entry entry = fPool.get(key);
+			if (entry != null) {
+				fHits++;
+				entry.lastUsed = now;
+				return entry.loader;
+			}
+			fMisses++;
+			AntClassLoader loader = newClassLoader(urls, pluginLoaders, allowLoading);
+			fPool.put(key, new Entry(loader, now));
+			if (fPool.size() > MAX_POOL_SIZE) {
+				Iterator<Entry> iter = fPool.values().iterator();
+				iter.next();
+				iter.remove();
+				fEvictions++;
+			}
+			scheduleEviction();
+			return loader;
+		}
+	}
+
+	private AntClassLoader newClassLoader(URL[] urls, ClassLoader[] pluginLoaders, boolean allowLoading) {
+		AntClassLoader loader = new AntClassLoader(urls, pluginLoaders);
+		loader.allowPluginClassLoadersToLoadAnt(allowLoading);
+		return loader;
+	}
+
+	private void evictIdle(long now) {
+		for (Iterator<Entry> iter = fPool.values().iterator(); iter.hasNext();) {
+			if (now - iter.next().lastUsed > MAX_IDLE_TIME) {
+				iter.remove();
+				fEvictions++;
+			}
+		}
+		if (fPool.isEmpty()) {
+			cancelEviction();
+		}
+	}
+
+	/**
+	 * Starts the timer dropping idle class loaders, unless it is already running. Must be called while holding the pool lock.
+	 */
+	private void scheduleEviction() {
+		if (fEvictionTimer != null) {
+			return;
+		}
+		fEvictionTimer = new Timer("Ant class loader pool eviction", true); //$NON-NLS-1$
+		fEvictionTimer.schedule(new TimerTask() {
+			@Override
+			public void run() {
+				synchronized (fPool) {
+					evictIdle(System.currentTimeMillis());
+				}
+			}
+		}, EVICTION_INTERVAL, EVICTION_INTERVAL);
+	}
+
+	/**
+	 * Stops the timer dropping idle class loaders. Must be called while holding the pool lock.
+	 */
+	private void cancelEviction() {
+		if (fEvictionTimer != null) {
+			fEvictionTimer.cancel();
+			fEvictionTimer = null;
+		}
+	}
+
+	/**
+	 * Drops all pooled class loaders. Class loaders that are in use by running builds are not affected, they are simply no longer handed out.
+	 */
+	public void invalidate() {
+		synchronized (fPool) {
+			if (!fPool.isEmpty()) {
+				fPool.clear();
+				fInvalidations++;
+			}
+			cancelEviction();
+		}
+	}
+
+	/**
+	 * Returns the number of requests that were served by a pooled class loader.
+	 *
+	 * @return the number of pool hits
+	 */
+	public long getHitCount() {
+		synchronized (fPool) {
+			return fHits;
+		}
+	}
+
+	/**
+	 * Returns the number of requests that required a new class loader.
+	 *
+	 * @return the number of pool misses
+	 */
+	public long getMissCount() {
+		synchronized (fPool) {
+			return fMisses;
+		}
+	}
+
+	/**
+	 * Returns the number of class loaders dropped because the pool was full or the class loader was idle.
+	 *
+	 * @return the number of evictions
+	 */
+	public long getEvictionCount() {
+		synchronized (fPool) {
+			return fEvictions;
+		}
+	}
+
+	/**
+	 * Returns the number of class loaders currently held by the pool.
+	 *
+	 * @return the pool size
+	 */
+	public int getSize() {
+		synchronized (fPool) {
+			return fPool.size();
+		}
+	}
+
+	/**
+	 * Returns the number of classes defined by the class loaders currently held by the pool, as an indication of the memory retained by the pool.
+	 *
+	 * @return the number of classes retained by the pool
+	 */
+	public int getRetainedClassCount() {
+		synchronized (fPool) {
+			int count = 0;
+			for (Entry entry : fPool.values()) {
+				count += entry.loader.getDefinedClassCount();
+			}
+			return count;
+		}
+	}
+
+	@Override
+	public String toString() {
+		synchronized (fPool) {
+			StringBuilder buffer = new StringBuilder("AntClassLoaderPool("); //$NON-NLS-1$
+			buffer.append("size=").append(fPool.size()); //$NON-NLS-1$
+			buffer.append(", hits=").append(fHits); //$NON-NLS-1$
+			buffer.append(", misses=").append(fMisses); //$NON-NLS-1$
+			buffer.append(", evictions=").append(fEvictions); //$NON-NLS-1$
+			buffer.append(", invalidations=").append(fInvalidations); //$NON-NLS-1$
+			buffer.append(", retainedClasses=").append(getRetainedClassCount()); //$NON-NLS-1$
+			buffer.append(')');
+			return buffer.toString();
+		}
+	}
+
+	private static class Entry {
+		final AntClassLoader loader;
+		long lastUsed;
+
+		Entry(AntClassLoader loader, long lastUsed) {
+			this.loader = loader;
+			this.lastUsed = lastUsed;
+		}
+	}
+
+	/**
+	 * The fingerprint of a classpath: the URLs with the size and time stamp of the local entries, and the identity and order of the plug-in class
+	 * loaders. The stamp of a directory entry covers all the files below it, as rebuilding a class does not change the directory itself.
+	 */
+	private static class Key {
+		private final String[] fUrls;
+		private final long[] fStamps;
+		private final ClassLoader[] fPluginLoaders;
+		private final boolean fAllowLoading;
+		private final int fHashCode;
+
+		Key(URL[] urls, ClassLoader[] pluginLoaders, boolean allowLoading) {
+			fUrls = new String[urls.length];
+			fStamps = new long[urls.length * 3];
+			for (int i = 0; i < urls.length; i++) {
+				fUrls[i] = urls[i].toExternalForm();
+				if ("file".equals(urls[i].getProtocol())) { //$NON-NLS-1$
+					stamp(new File(urls[i].getPath()), fStamps, 3 * i);
+				}
+			}
+			fPluginLoaders = pluginLoaders == null ? new ClassLoader[0] : pluginLoaders.clone();
+			fAllowLoading = allowLoading;
+			int hash = Arrays.hashCode(fUrls);
+			hash = 31 * hash + Arrays.hashCode(fStamps);
+			for (ClassLoader loader : fPluginLoaders) {
+				hash = 31 * hash + System.identityHashCode(loader);
+			}
+			fHashCode = 31 * hash + (allowLoading ? 1 : 0);
+		}
+
+		/**
+		 * Accumulates the latest modification time, the total size and the number of the files at or below the given file. Symbolic links are not
+		 * followed, so that a link cycle below a directory entry cannot make the walk endless.
+		 */
+		private static void stamp(File file, long[] stamps, int index) {
+			try {
+				Files.walkFileTree(file.toPath(), new SimpleFileVisitor<Path>() {
+					@Override
+					public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+						add(attrs, 0);
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+						add(attrs, attrs.size());
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFileFailed(Path path, IOException e) {
+						// a missing or unreadable entry only counts
+						stamps[index + 2]++;
+						return FileVisitResult.CONTINUE;
+					}
+
+					private void add(BasicFileAttributes attrs, long size) {
+						stamps[index] = Math.max(stamps[index], attrs.lastModifiedTime().toMillis());
+						stamps[index + 1] += size;
+						stamps[index + 2]++;
+					}
+				});
+			}
+			catch (IOException e) {
+				// not reached, failures are reported to visitFileFailed
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return fHashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			if (fHashCode != other.fHashCode || fAllowLoading != other.fAllowLoading || fPluginLoaders.length != other.fPluginLoaders.length) {
+				return false;
+			}
+			for (int i = 0; i < fPluginLoaders.length; i++) {
+				if (fPluginLoaders[i] != other.fPluginLoaders[i]) {
+					return false;
+				}
+			}
+			return Arrays.equals(fUrls, other.fUrls) && Arrays.equals(fStamps, other.fStamps);
+		}
+	}
+}
@@ -52,12 +52,24 @@ public class AntSecurityManager extends SecurityManager {
 		this(securityManager, restrictedThread, true);
 	}
 
+	/**
+	 * Returns whether the given thread is subject to the exit and system property restrictions of this manager.
+	 *
+	 * @param thread
+	 *            the thread to check
+	 * @return whether the given thread is restricted
+	 * @since 3.6
+	 */
+	protected boolean isRestrictedThread(Thread thread) {
+		return thread == fRestrictedThread;
+	}
+
 	@Override
 	public void checkExit(int status) {
 		// no exit allowed from the restricted thread...System.exit is being called
 		// by some ant task...do not want Eclipse to exit if
 		// in the same VM.
-		if (Thread.currentThread() == fRestrictedThread) {
+		if (isRestrictedThread(Thread.currentThread())) {
 			throw new AntSecurityException();
 		}
 		if (fSecurityManager != null) {
@@ -67,7 +79,7 @@ public class AntSecurityManager extends SecurityManager {
 
 	@Override
 	public void checkPermission(Permission perm) {
-		if (!fAllowSettingSystemProperties && fgPropertyPermission.implies(perm) && fRestrictedThread == Thread.currentThread()) {
+		if (!fAllowSettingSystemProperties && fgPropertyPermission.implies(perm) && isRestrictedThread(Thread.currentThread())) {
 			// attempting to write a system property
 			throw new AntSecurityException();
 		}
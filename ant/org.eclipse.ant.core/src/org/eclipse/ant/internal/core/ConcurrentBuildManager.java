@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.internal.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Manages the JVM wide state shared by Ant builds that run concurrently in the same VM.
+ * <p>
+ * Rather than swapping <code>System.out</code> and <code>System.err</code> for the duration of each build, the first concurrent build installs
+ * streams that dispatch to the streams registered for the calling thread (or any thread it spawned), and falls back to the original streams for
+ * every other thread. In the same way a single {@link AntSecurityManager} guards all threads running a concurrent build against VM exit. The
+ * original streams and security manager are restored once the last concurrent build has finished.
+ * </p>
+ * <p>
+ * This class lives in the Ant core plug-in rather than in the Ant support library so that it is shared between the class loaders of all running
+ * builds.
+ * </p>
+ *
+ * @since 3.6
+ */
+public final class ConcurrentBuildManager {
+
+	private static final InheritableThreadLocal<PrintStream[]> fgThreadStreams = new InheritableThreadLocal<>();
+
+	private static int fgBuildCount = 0;
+	private static boolean fgExclusiveBuildRunning = false;
+	private static int fgRunningBuildCount = 0;
+	private static int fgRegisteredThreadCount = 0;
+
+	private static PrintStream fgOriginalOut;
+	private static PrintStream fgOriginalErr;
+	private static SecurityManager fgOriginalSecurityManager;
+
+	private ConcurrentBuildManager() {
+		// no instances
+	}
+
+	/**
+	 * Reserves the right to run a build. An exclusive build may only start when no other build is running and concurrent builds may only start while
+	 * no exclusive build is running.
+	 *
+	 * @param exclusive
+	 *            whether the build requires exclusive use of the VM wide state
+	 * @return <code>true</code> if the build may start, <code>false</code> otherwise
+	 */
+	public static synchronized boolean acquire(boolean exclusive) {
+		if (fgExclusiveBuildRunning || (exclusive && fgBuildCount > 0)) {
+			return false;
+		}
+		if (exclusive) {
+			fgExclusiveBuildRunning = true;
+		} else {
+			fgBuildCount++;
+		}
+		return true;
+	}
+
+	/**
+	 * Releases a reservation obtained through {@link #acquire(boolean)}.
+	 *
+	 * @param exclusive
+	 *            whether the reservation was for an exclusive build
+	 */
+	public static synchronized void release(boolean exclusive) {
+		if (exclusive) {
+			fgExclusiveBuildRunning = false;
+		} else if (fgBuildCount > 0) {
+			fgBuildCount--;
+		}
+	}
+
+	/**
+	 * Returns whether any build, exclusive or concurrent, currently holds a reservation.
+	 *
+	 * @return whether a build is running
+	 */
+	public static synchronized boolean isBuildRunning() {
+		return fgExclusiveBuildRunning || fgBuildCount > 0;
+	}
+
+	/**
+	 * Marks the start of a concurrent build. The given setup of VM wide state, such as system properties, runs while no other concurrent build can
+	 * start or finish.
+	 *
+	 * @param setup
+	 *            the setup of the build
+	 * @see #buildFinished(Runnable)
+	 */
+	public static synchronized void buildStarted(Runnable setup) {
+		fgRunningBuildCount++;
+		setup.run();
+	}
+
+	/**
+	 * Marks the end of a concurrent build started with {@link #buildStarted(Runnable)}. When no other concurrent build is running anymore, the given
+	 * cleanup of VM wide state runs, while no other concurrent build can start.
+	 *
+	 * @param cleanup
+	 *            the cleanup to run if this is the last running build
+	 */
+	public static synchronized void buildFinished(Runnable cleanup) {
+		if (fgRunningBuildCount > 0 && --fgRunningBuildCount == 0) {
+			cleanup.run();
+		}
+	}
+
+	/**
+	 * Registers the output and error streams of the build running on the calling thread. Output written to <code>System.out</code> and
+	 * <code>System.err</code> by this thread, or by threads it creates, is routed to the given streams until {@link #unregisterThread()} is called.
+	 *
+	 * @param out
+	 *            the stream receiving the standard output of the build
+	 * @param err
+	 *            the stream receiving the error output of the build
+	 */
+	public static synchronized void registerThread(PrintStream out, PrintStream err) {
+		if (fgRegisteredThreadCount++ == 0) {
+			fgOriginalOut = System.out;
+			fgOriginalErr = System.err;
+			fgOriginalSecurityManager = System.getSecurityManager();
+			System.setOut(new PrintStream(new ThreadDemuxOutputStream(fgOriginalOut, false), true));
+			System.setErr(new PrintStream(new ThreadDemuxOutputStream(fgOriginalErr, true), true));
+			System.setSecurityManager(new BuildThreadSecurityManager(fgOriginalSecurityManager));
+		}
+		fgThreadStreams.set(new PrintStream[] { out, err });
+	}
+
+	/**
+	 * Removes the stream registration of the calling thread. Once no thread is registered anymore the original streams and security manager are
+	 * restored.
+	 */
+	public static synchronized void unregisterThread() {
+		if (fgThreadStreams.get() == null) {
+			return;
+		}
+		fgThreadStreams.remove();
+		if (--fgRegisteredThreadCount == 0) {
+			System.setOut(fgOriginalOut);
+			System.setErr(fgOriginalErr);
+			if (System.getSecurityManager() instanceof BuildThreadSecurityManager) {
+				System.setSecurityManager(fgOriginalSecurityManager);
+			}
+			fgOriginalOut = null;
+			fgOriginalErr = null;
+			fgOriginalSecurityManager = null;
+		}
+	}
+
+	/**
+	 * Returns whether the calling thread is running (or was spawned by) a concurrent build.
+	 *
+	 * @return whether the calling thread belongs to a concurrent build
+	 */
+	public static boolean isBuildThread() {
+		return fgThreadStreams.get() != null;
+	}
+
+	/**
+	 * Output stream that writes to the stream registered for the current thread, or to the original stream if the current thread is not part of a
+	 * concurrent build.
+	 */
+	private static class ThreadDemuxOutputStream extends OutputStream {
+
+		private final PrintStream fFallback;
+		private final boolean fIsErrorStream;
+
+		ThreadDemuxOutputStream(PrintStream fallback, boolean isErrorStream) {
+			fFallback = fallback;
+			fIsErrorStream = isErrorStream;
+		}
+
+		private PrintStream getStream() {
+			PrintStream[] streams = fgThreadStreams.get();
+			if (streams == null) {
+				return fFallback;
+			}
+			return fIsErrorStream ? streams[1] : streams[0];
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			getStream().write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			getStream().write(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			getStream().flush();
+		}
+	}
+
+	/**
+	 * Security manager restricting every thread that belongs to a concurrent build.
+	 */
+	private static class BuildThreadSecurityManager extends AntSecurityManager {
+
+		BuildThreadSecurityManager(SecurityManager securityManager) {
+			super(securityManager, null);
+		}
+
+		@Override
+		protected boolean isRestrictedThread(Thread thread) {
+			return isBuildThread();
+		}
+	}
+}
@@ -0,0 +1,331 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.internal.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.ant.core.AntCorePlugin;
+import org.eclipse.ant.core.ProjectInfo;
+import org.eclipse.ant.core.TargetInfo;
+
+/**
+ * A cache of the target information computed for build files by <code>AntRunner.getAvailableTargets()</code>.
+ * <p>
+ * Entries are keyed by the build file location and the configuration of the runner (Ant home, classpath, arguments and user properties). Each
+ * entry records the size and modification stamp of the build file, of every file it imports or includes and of the property files that were read
+ * while computing the targets; the entry is only reused while none of those files have changed. The cache is bounded, flushed whenever the Ant
+ * preferences are saved and persisted to the plug-in state location so that it survives restarts.
+ * </p>
+ *
+ * @since 3.6
+ */
+public final class TargetInfoCache {
+
+	private static final int MAX_ENTRIES = 200;
+
+	/**
+	 * Version of the persisted format, to be increased on every format change
+	 */
+	private static final int FORMAT_VERSION = 2;
+
+	private static final String CACHE_FILE_NAME = "targetInfoCache.dat"; //$NON-NLS-1$
+
+	private static TargetInfoCache fgDefault;
+
+	private final LinkedHashMap<String, Entry> fEntries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	private boolean fDirty = false;
+	private long fLoadLimit;
+
+	/**
+	 * Returns the shared target information cache, loading its persisted state on first access.
+	 *
+	 * @return the shared cache
+	 */
+	public static synchronized TargetInfoCache getDefault() {
+		if (fgDefault == null) {
+			fgDefault = new TargetInfoCache();
+			File file = getCacheFile();
+			if (file != null && file.isFile()) {
+				try {
+					fgDefault.load(file);
+				}
+				catch (IOException | RuntimeException e) {
+					// stale or corrupt cache, start over
+					fgDefault.fEntries.clear();
+				}
+			}
+		}
+		return fgDefault;
+	}
+
+	/**
+	 * Saves the shared cache to the plug-in state location if it has been created and changed.
+	 */
+	public static synchronized void shutdown() {
+		if (fgDefault == null) {
+			return;
+		}
+		File file = getCacheFile();
+		if (file != null) {
+			try {
+				fgDefault.save(file);
+			}
+			catch (IOException e) {
+				AntCorePlugin.log(e);
+			}
+		}
+		fgDefault = null;
+	}
+
+	private static File getCacheFile() {
+		AntCorePlugin plugin = AntCorePlugin.getPlugin();
+		if (plugin == null) {
+			return null;
+		}
+		try {
+			return plugin.getStateLocation().append(CACHE_FILE_NAME).toFile();
+		}
+		catch (IllegalStateException e) {
+			// no instance location
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the cached target information for the given key, or <code>null</code> if there is none or if any of the files it was computed from
+	 * has changed since.
+	 *
+	 * @param key
+	 *            the key describing the build file and runner configuration
+	 * @return the cached targets or <code>null</code>
+	 */
+	public synchronized TargetInfo[] get(String key) {
+		Entry entry = fEntries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		for (int i = 0; i < entry.files.length; i++) {
+			File file = new File(entry.files[i]);
+			if (file.lastModified() != entry.stamps[2 * i] || file.length() != entry.stamps[2 * i + 1]) {
+				fEntries.remove(key);
+				fDirty = true;
+				return null;
+			}
+		}
+		return entry.targets.clone();
+	}
+
+	/**
+	 * Caches the target information computed for the given key.
+	 *
+	 * @param key
+	 *            the key describing the build file and runner configuration
+	 * @param targets
+	 *            the computed targets
+	 * @param files
+	 *            the absolute paths of all the files the targets were computed from
+	 */
+	public synchronized void put(String key, TargetInfo[] targets, List<String> files) {
+		Entry entry = new Entry();
+		entry.targets = targets.clone();
+		entry.files = files.toArray(new String[files.size()]);
+		entry.stamps = new long[entry.files.length * 2];
+		for (int i = 0; i < entry.files.length; i++) {
+			File file = new File(entry.files[i]);
+			entry.stamps[2 * i] = file.lastModified();
+			entry.stamps[2 * i + 1] = file.length();
+		}
+		fEntries.put(key, entry);
+		fDirty = true;
+	}
+
+	/**
+	 * Removes all cached target information.
+	 */
+	public synchronized void invalidate() {
+		if (!fEntries.isEmpty()) {
+			fEntries.clear();
+			fDirty = true;
+		}
+	}
+
+	private void save(File file) throws IOException {
+		if (!fDirty) {
+			return;
+		}
+		// write a temporary file and rename it so that a failed save never leaves a truncated cache behind
+		File tempFile = new File(file.getParentFile(), file.getName() + ".tmp"); //$NON-NLS-1$
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(fEntries.size());
+			for (Map.Entry<String, Entry> mapEntry : fEntries.entrySet()) {
+				Entry entry = mapEntry.getValue();
+				writeUTF8(out, mapEntry.getKey());
+				out.writeInt(entry.files.length);
+				for (int i = 0; i < entry.files.length; i++) {
+					writeUTF8(out, entry.files[i]);
+					out.writeLong(entry.stamps[2 * i]);
+					out.writeLong(entry.stamps[2 * i + 1]);
+				}
+				// targets of one build file share their project information
+				Map<ProjectInfo, Integer> projects = new IdentityHashMap<>();
+				out.writeInt(entry.targets.length);
+				for (TargetInfo target : entry.targets) {
+					Integer projectIndex = projects.get(target.getProject());
+					if (projectIndex == null) {
+						out.writeInt(-1);
+						writeString(out, target.getProject().getName());
+						writeString(out, target.getProject().getDescription());
+						projects.put(target.getProject(), Integer.valueOf(projects.size()));
+					} else {
+						out.writeInt(projectIndex.intValue());
+					}
+					writeUTF8(out, target.getName());
+					writeString(out, target.getDescription());
+					out.writeBoolean(target.isDefault());
+					String[] dependencies = target.getDependencies();
+					out.writeInt(dependencies.length);
+					for (String dependency : dependencies) {
+						writeUTF8(out, dependency);
+					}
+				}
+			}
+		}
+		catch (IOException e) {
+			tempFile.delete();
+			throw e;
+		}
+		try {
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		fDirty = false;
+	}
+
+	private void load(File file) throws IOException {
+		fLoadLimit = file.length();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != FORMAT_VERSION) {
+				return;
+			}
+			int entryCount = readCount(in);
+			for (int e = 0; e < entryCount; e++) {
+				String key = readUTF8(in);
+				Entry entry = new Entry();
+				int fileCount = readCount(in);
+				entry.files = new String[fileCount];
+				entry.stamps = new long[fileCount * 2];
+				for (int i = 0; i < fileCount; i++) {
+					entry.files[i] = readUTF8(in);
+					entry.stamps[2 * i] = in.readLong();
+					entry.stamps[2 * i + 1] = in.readLong();
+				}
+				int targetCount = readCount(in);
+				entry.targets = new TargetInfo[targetCount];
+				ProjectInfo[] projects = new ProjectInfo[targetCount];
+				int projectCount = 0;
+				for (int i = 0; i < targetCount; i++) {
+					int projectIndex = in.readInt();
+					ProjectInfo project;
+					if (projectIndex < 0) {
+						project = new ProjectInfo(readString(in), readString(in));
+						projects[projectCount++] = project;
+					} else if (projectIndex < projectCount) {
+						project = projects[projectIndex];
+					} else {
+						throw new IOException("Invalid project index: " + projectIndex); //$NON-NLS-1$
+					}
+					String name = readUTF8(in);
+					String description = readString(in);
+					boolean isDefault = in.readBoolean();
+					String[] dependencies = new String[readCount(in)];
+					for (int j = 0; j < dependencies.length; j++) {
+						dependencies[j] = readUTF8(in);
+					}
+					entry.targets[i] = new TargetInfo(project, name, description, dependencies, isDefault);
+				}
+				fEntries.put(key, entry);
+			}
+		}
+	}
+
+	private void writeString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			writeUTF8(out, value);
+		}
+	}
+
+	private String readString(DataInputStream in) throws IOException {
+		return in.readBoolean() ? readUTF8(in) : null;
+	}
+
+	/**
+	 * Writes the string as length-prefixed UTF-8 bytes, as <code>DataOutputStream.writeUTF</code> cannot write strings longer than 64KB.
+	 */
+	private void writeUTF8(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private String readUTF8(DataInputStream in) throws IOException {
+		int length = readCount(in);
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads a count or a length, which cannot be negative nor exceed the size of the cache file being loaded.
+	 */
+	private int readCount(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		if (count < 0 || count > fLoadLimit) {
+			throw new IOException("Invalid count: " + count); //$NON-NLS-1$
+		}
+		return count;
+	}
+
+	private static class Entry {
+		TargetInfo[] targets;
+		String[] files;
+		long[] stamps;
+	}
+}
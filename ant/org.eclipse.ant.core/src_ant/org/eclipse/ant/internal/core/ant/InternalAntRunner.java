@@ -52,6 +52,7 @@ import org.apache.tools.ant.ProjectHelper;
 import org.apache.tools.ant.Target;
 import org.apache.tools.ant.TaskAdapter;
 import org.apache.tools.ant.XmlLogger;
+import org.apache.tools.ant.types.resources.FileProvider;
 import org.eclipse.ant.core.AntCorePlugin;
 import org.eclipse.ant.core.AntCorePreferences;
 import org.eclipse.ant.core.AntSecurityException;
@@ -63,6 +64,7 @@ import org.eclipse.ant.core.Type;
 import org.eclipse.ant.internal.core.AbstractEclipseBuildLogger;
 import org.eclipse.ant.internal.core.AntCoreUtil;
 import org.eclipse.ant.internal.core.AntSecurityManager;
+import org.eclipse.ant.internal.core.ConcurrentBuildManager;
 import org.eclipse.ant.internal.core.IAntCoreConstants;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.FileLocator;
@@ -161,6 +163,14 @@ public class InternalAntRunner {
 
 	private boolean unknownTargetsFound = false;
 
+	private List<String> sourceFiles = null;
+
+	/**
+	 * Indicates whether this build runs concurrently with other builds in the same VM and must therefore not replace the VM wide streams and
+	 * security manager.
+	 */
+	private boolean concurrentExecution = false;
+
 	/**
 	 * Adds a build listener.
 	 *
@@ -426,7 +436,19 @@ public class InternalAntRunner {
 			if (isVersionCompatible("1.5")) { //$NON-NLS-1$
 				new InputHandlerSetter().setInputHandler(antProject, "org.eclipse.ant.internal.core.ant.NullInputHandler"); //$NON-NLS-1$
 			}
-			parseBuildFile(antProject);
+			MissingImportsListener missingImports = isVersionCompatible("1.6") ? new MissingImportsListener() : null; //$NON-NLS-1$
+			if (missingImports != null) {
+				antProject.addBuildListener(missingImports);
+			}
+			try {
+				parseBuildFile(antProject);
+			}
+			finally {
+				if (missingImports != null) {
+					antProject.removeBuildListener(missingImports);
+				}
+			}
+			sourceFiles = collectSourceFiles(antProject, missingImports == null ? new ArrayList<>() : missingImports.getMissingFiles());
 			defaultTarget = antProject.getDefaultTarget();
 			Hashtable<String, Target> projectTargets = antProject.getTargets();
 			ArrayList<TargetInfo> infos = new ArrayList<>();
@@ -463,6 +485,52 @@ public class InternalAntRunner {
 		}
 	}
 
+	/**
+	 * Returns the absolute paths of the files the targets returned by the last call to {@link #getTargets()} were computed from: the build file, every
+	 * file it imported or included, the files of optional imports that did not exist and the property files that were loaded. Returns <code>null</code> if the targets have not been computed or if
+	 * they depend on resources that are not local files.
+	 *
+	 * @return the source files of the last computed targets or <code>null</code>
+	 */
+	public List<String> getTargetSourceFiles() {
+		return sourceFiles;
+	}
+
+	private List<String> collectSourceFiles(Project project, List<File> missingImports) {
+		ArrayList<String> files = new ArrayList<>();
+		files.add(new File(getBuildFileLocation()).getAbsolutePath());
+		Object helper = project.getReference("ant.projectHelper"); //$NON-NLS-1$
+		if (helper instanceof ProjectHelper) {
+			// the import stack retains every build file parsed for the project
+			for (Object source : ((ProjectHelper) helper).getImportStack()) {
+				File file = null;
+				if (source instanceof File) {
+					file = (File) source;
+				} else if (isVersionCompatible("1.8") && source instanceof FileProvider) { //$NON-NLS-1$
+					file = ((FileProvider) source).getFile();
+				}
+				if (file == null) {
+					return null;
+				}
+				String path = file.getAbsolutePath();
+				if (!files.contains(path)) {
+					files.add(path);
+				}
+			}
+		}
+		// creating the file of a skipped optional import changes the targets
+		for (File missing : missingImports) {
+			String path = missing.getAbsolutePath();
+			if (!files.contains(path)) {
+				files.add(path);
+			}
+		}
+		for (String propertyFile : propertyFiles) {
+			files.add(AntCoreUtil.getFileRelativeToBaseDir(propertyFile, null, getBuildFileLocation()).getAbsolutePath());
+		}
+		return files;
+	}
+
 	/**
 	 * Returns a list of target names in the build script.
 	 *
@@ -598,7 +666,11 @@ public class InternalAntRunner {
 		SecurityManager originalSM = System.getSecurityManager();
 		setJavaClassPath();
 		executed = true;
-		processAntHome(false);
+		if (concurrentExecution) {
+			ConcurrentBuildManager.buildStarted(() -> processAntHome(false));
+		} else {
+			processAntHome(false);
+		}
 		try {
 			if (argList != null && (argList.remove("-projecthelp") || argList.remove("-p"))) { //$NON-NLS-1$ //$NON-NLS-2$
 				projectHelp = true;
@@ -617,9 +689,13 @@ public class InternalAntRunner {
 
 			addInputHandler(getCurrentProject());
 
-			remapSystemIn();
-			System.setOut(new PrintStream(new DemuxOutputStream(getCurrentProject(), false)));
-			System.setErr(new PrintStream(new DemuxOutputStream(getCurrentProject(), true)));
+			if (concurrentExecution) {
+				ConcurrentBuildManager.registerThread(new PrintStream(new DemuxOutputStream(getCurrentProject(), false)), new PrintStream(new DemuxOutputStream(getCurrentProject(), true)));
+			} else {
+				remapSystemIn();
+				System.setOut(new PrintStream(new DemuxOutputStream(getCurrentProject(), false)));
+				System.setErr(new PrintStream(new DemuxOutputStream(getCurrentProject(), true)));
+			}
 
 			if (!projectHelp) {
 				fireBuildStarted(getCurrentProject());
@@ -662,7 +738,9 @@ public class InternalAntRunner {
 			} else {
 				// set the system property that any input handler
 				// can check to see if handling input is allowed
-				System.setProperty("eclipse.ant.noInput", "true"); //$NON-NLS-1$//$NON-NLS-2$
+				if (!concurrentExecution) {
+					System.setProperty("eclipse.ant.noInput", "true"); //$NON-NLS-1$//$NON-NLS-2$
+				}
 				if (isVersionCompatible("1.5") && (inputHandlerClassname == null || inputHandlerClassname.length() == 0)) { //$NON-NLS-1$
 					InputHandlerSetter setter = new InputHandlerSetter();
 					setter.setInputHandler(getCurrentProject(), "org.eclipse.ant.internal.core.ant.FailInputHandler"); //$NON-NLS-1$
@@ -697,7 +775,9 @@ public class InternalAntRunner {
 			if (extraArguments != null) {
 				printArguments(getCurrentProject());
 			}
-			System.setSecurityManager(new AntSecurityManager(originalSM, Thread.currentThread()));
+			if (!concurrentExecution) {
+				System.setSecurityManager(new AntSecurityManager(originalSM, Thread.currentThread()));
+			}
 
 			if (targets == null) {
 				targets = new Vector<>(1);
@@ -728,31 +808,45 @@ public class InternalAntRunner {
 			throw e;
 		}
 		finally {
-			System.setErr(originalErr);
-			System.setOut(originalOut);
-			System.setIn(originalIn);
-			if (System.getSecurityManager() instanceof AntSecurityManager) {
-				System.setSecurityManager(originalSM);
-			}
+			try {
+				if (concurrentExecution) {
+					ConcurrentBuildManager.unregisterThread();
+				} else {
+					System.setErr(originalErr);
+					System.setOut(originalOut);
+					System.setIn(originalIn);
+					if (System.getSecurityManager() instanceof AntSecurityManager) {
+						System.setSecurityManager(originalSM);
+					}
+				}
 
-			if (!projectHelp) {
-				if (AntCorePlugin.getPlugin().getBundle().getState() != Bundle.ACTIVE) {
-					return;
+				if (!projectHelp) {
+					if (AntCorePlugin.getPlugin().getBundle().getState() != Bundle.ACTIVE) {
+						return;
+					}
+					fireBuildFinished(getCurrentProject(), error);
 				}
-				fireBuildFinished(getCurrentProject(), error);
-			}
 
-			// close any user specified build log
-			if (err != originalErr) {
-				err.close();
-			}
-			if (out != originalOut) {
-				out.close();
-			}
+				// close any user specified build log
+				if (err != originalErr) {
+					err.close();
+				}
+				if (out != originalOut) {
+					out.close();
+				}
 
-			processAntHome(true);
-			if (!allowInput) {
-				System.getProperties().remove("eclipse.ant.noInput"); //$NON-NLS-1$
+				if (!concurrentExecution) {
+					processAntHome(true);
+				}
+				if (!allowInput && !concurrentExecution) {
+					System.getProperties().remove("eclipse.ant.noInput"); //$NON-NLS-1$
+				}
+			}
+			finally {
+				// the last running concurrent build restores the system properties
+				if (concurrentExecution) {
+					ConcurrentBuildManager.buildFinished(() -> processAntHome(true));
+				}
 			}
 		}
 	}
@@ -788,6 +882,18 @@ public class InternalAntRunner {
 		this.buildAntHome = antHome;
 	}
 
+	/**
+	 * Sets whether this build runs concurrently with other builds in the same VM. A concurrent build routes its output through thread scoped
+	 * streams rather than replacing <code>System.out</code>, <code>System.err</code> and <code>System.in</code>, and relies on the shared guard of
+	 * the {@link ConcurrentBuildManager} to prevent the VM from being exited.
+	 *
+	 * @param concurrent
+	 *            whether this build runs concurrently with other builds
+	 */
+	public void setConcurrentExecution(boolean concurrent) {
+		this.concurrentExecution = concurrent;
+	}
+
 	/**
 	 * Creates and returns the default build logger for logging build events to the ant log.
 	 *
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ *  Copyright (c) 2020 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.internal.core.ant;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.tools.ant.BuildEvent;
+import org.apache.tools.ant.BuildListener;
+import org.apache.tools.ant.Location;
+import org.apache.tools.ant.ProjectHelper;
+import org.apache.tools.ant.Task;
+import org.apache.tools.ant.UnknownElement;
+import org.apache.tools.ant.util.FileUtils;
+
+/**
+ * Records the files of the <code>&lt;import&gt;</code> and <code>&lt;include&gt;</code> tasks that did not exist while a build file was parsed.
+ * Optional imports of missing files are skipped by Ant, so they are not part of the import stack of the project helper.
+ */
+class MissingImportsListener implements BuildListener {
+
+	private final List<File> missingFiles = new ArrayList<>();
+
+	/**
+	 * @return the absolute files that were imported or included while they did not exist
+	 */
+	List<File> getMissingFiles() {
+		return missingFiles;
+	}
+
+	@Override
+	public void taskFinished(BuildEvent event) {
+		Task task = event.getTask();
+		if (!(task instanceof UnknownElement)) {
+			return;
+		}
+		UnknownElement element = (UnknownElement) task;
+		String namespace = element.getNamespace();
+		if (namespace != null && namespace.length() > 0 && !ProjectHelper.ANT_CORE_URI.equals(namespace)) {
+			return;
+		}
+		if (!"import".equals(element.getTag()) && !"include".equals(element.getTag())) { //$NON-NLS-1$ //$NON-NLS-2$
+			return;
+		}
+		Object file = element.getWrapper().getAttributeMap().get("file"); //$NON-NLS-1$
+		Location location = element.getLocation();
+		if (file == null || location == null || location.getFileName() == null) {
+			return;
+		}
+		// resolved as the import task does, relative to the importing file
+		File parent = new File(location.getFileName()).getAbsoluteFile().getParentFile();
+		File imported = FileUtils.getFileUtils().resolveFile(parent, element.getProject().replaceProperties(file.toString()));
+		if (!imported.exists() && !missingFiles.contains(imported)) {
+			missingFiles.add(imported);
+		}
+	}
+
+	@Override
+	public void buildStarted(BuildEvent event) {
+		// nothing to do
+	}
+
+	@Override
+	public void buildFinished(BuildEvent event) {
+		// nothing to do
+	}
+
+	@Override
+	public void targetStarted(BuildEvent event) {
+		// nothing to do
+	}
+
+	@Override
+	public void targetFinished(BuildEvent event) {
+		// nothing to do
+	}
+
+	@Override
+	public void taskStarted(BuildEvent event) {
+		// nothing to do
+	}
+
+	@Override
+	public void messageLogged(BuildEvent event) {
+		// nothing to do
+	}
+}
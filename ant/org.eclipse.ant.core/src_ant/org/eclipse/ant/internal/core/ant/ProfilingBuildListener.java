@@ -0,0 +1,367 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.internal.core.ant;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.tools.ant.BuildEvent;
+import org.apache.tools.ant.BuildListener;
+import org.apache.tools.ant.Project;
+import org.apache.tools.ant.Target;
+import org.apache.tools.ant.Task;
+import org.eclipse.ant.core.AntCorePlugin;
+
+/**
+ * Records the wall time, CPU time and allocated bytes of every target and task of a build and writes them as a folded stack file (for flame graph
+ * tools) and a JSON file when the build has finished.
+ * <p>
+ * The listener is added with <code>AntRunner.addBuildListener("org.eclipse.ant.internal.core.ant.ProfilingBuildListener")</code> or the
+ * <code>-listener</code> argument. The Ant property <code>eclipse.ant.profile</code> is the path the files are written to, with the
+ * <code>.folded</code> and <code>.json</code> extensions appended. It defaults to <code>ant-profile-&lt;project name&gt;</code> in the temporary
+ * directory.
+ * </p>
+ * <p>
+ * Each thread keeps the frame of the target or task it is running, so the targets of projects called through <code>&lt;ant&gt;</code> and
+ * <code>&lt;antcall&gt;</code> nest below the calling task, and threads started by a task, such as the ones of <code>&lt;parallel&gt;</code>,
+ * nest below that task. CPU time and allocated bytes are measured for the thread that runs the target or task only, and are reported as
+ * <code>-1</code> if the VM does not support measuring them.
+ * </p>
+ */
+public class ProfilingBuildListener implements BuildListener {
+
+	/**
+	 * The Ant property specifying the path of the profile files
+	 */
+	public static final String PROFILE_PROPERTY = "eclipse.ant.profile"; //$NON-NLS-1$
+
+	private final InheritableThreadLocal<Frame> fCurrentFrame = new InheritableThreadLocal<>();
+	private final ThreadMXBean fThreadBean = ManagementFactory.getThreadMXBean();
+	private final boolean fCpuTimeSupported;
+	private Method fAllocatedBytesMethod;
+
+	private Project fMainProject;
+	private Node fRoot;
+	private long fBuildStart;
+
+	public ProfilingBuildListener() {
+		fCpuTimeSupported = fThreadBean.isCurrentThreadCpuTimeSupported() && fThreadBean.isThreadCpuTimeEnabled();
+		try {
+			// com.sun.management.ThreadMXBean is not available on every VM
+			Class<?> type = Class.forName("com.sun.management.ThreadMXBean", false, fThreadBean.getClass().getClassLoader()); //$NON-NLS-1$
+			if (type.isInstance(fThreadBean) && Boolean.TRUE.equals(type.getMethod("isThreadAllocatedMemoryEnabled").invoke(fThreadBean))) { //$NON-NLS-1$
+				fAllocatedBytesMethod = type.getMethod("getThreadAllocatedBytes", long.class); //$NON-NLS-1$
+			}
+		}
+		catch (Exception e) {
+			fAllocatedBytesMethod = null;
+		}
+	}
+
+	@Override
+	public synchronized void buildStarted(BuildEvent event) {
+		fMainProject = event.getProject();
+		fRoot = new Node(getProjectName(fMainProject), "build"); //$NON-NLS-1$
+		fBuildStart = System.nanoTime();
+		fCurrentFrame.remove();
+	}
+
+	@Override
+	public void buildFinished(BuildEvent event) {
+		Node root;
+		synchronized (this) {
+			if (fRoot == null || event.getProject() != fMainProject) {
+				return;
+			}
+			root = fRoot;
+			root.count = 1;
+			root.wall = System.nanoTime() - fBuildStart;
+			root.cpu = -1;
+			root.allocated = -1;
+			fRoot = null;
+			fCurrentFrame.remove();
+		}
+		String path = event.getProject().getProperty(PROFILE_PROPERTY);
+		if (path == null) {
+			path = new File(System.getProperty("java.io.tmpdir"), "ant-profile-" + root.name).getAbsolutePath(); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		try {
+			writeFolded(root, new File(path + ".folded")); //$NON-NLS-1$
+			writeJson(root, new File(path + ".json")); //$NON-NLS-1$
+		}
+		catch (IOException e) {
+			AntCorePlugin.log(e);
+		}
+	}
+
+	@Override
+	public void targetStarted(BuildEvent event) {
+		Target target = event.getTarget();
+		if (target == null) {
+			return;
+		}
+		String name = target.getName();
+		Project project = event.getProject();
+		if (project != null && project != fMainProject) {
+			name = getProjectName(project) + '.' + name;
+		}
+		push(target, name, "target"); //$NON-NLS-1$
+	}
+
+	@Override
+	public void targetFinished(BuildEvent event) {
+		pop(event.getTarget());
+	}
+
+	@Override
+	public void taskStarted(BuildEvent event) {
+		Task task = event.getTask();
+		if (task == null) {
+			return;
+		}
+		push(task, '<' + task.getTaskName() + '>', "task"); //$NON-NLS-1$
+	}
+
+	@Override
+	public void taskFinished(BuildEvent event) {
+		pop(event.getTask());
+	}
+
+	@Override
+	public void messageLogged(BuildEvent event) {
+		// nothing to record
+	}
+
+	private void push(Object owner, String name, String kind) {
+		long cpu = getCpuTime();
+		long allocated = getAllocatedBytes();
+		synchronized (this) {
+			if (fRoot == null) {
+				return;
+			}
+			Frame parent = fCurrentFrame.get();
+			Node node = (parent == null ? fRoot : parent.node).getChild(name, kind);
+			fCurrentFrame.set(new Frame(owner, node, parent, System.nanoTime(), cpu, allocated));
+		}
+	}
+
+	private void pop(Object owner) {
+		if (owner == null) {
+			return;
+		}
+		long cpu = getCpuTime();
+		long allocated = getAllocatedBytes();
+		synchronized (this) {
+			long now = System.nanoTime();
+			Frame frame = fCurrentFrame.get();
+			while (frame != null && frame.owner != owner) {
+				frame = frame.parent;
+			}
+			if (frame == null) {
+				// not started by this thread
+				return;
+			}
+			// frames left open by a failure end with the frame that is finished
+			for (Frame open = fCurrentFrame.get(); open != frame.parent; open = open.parent) {
+				open.close(now, cpu, allocated);
+			}
+			fCurrentFrame.set(frame.parent);
+		}
+	}
+
+	private long getCpuTime() {
+		return fCpuTimeSupported ? fThreadBean.getCurrentThreadCpuTime() : -1;
+	}
+
+	private long getAllocatedBytes() {
+		if (fAllocatedBytesMethod == null) {
+			return -1;
+		}
+		try {
+			return ((Long) fAllocatedBytesMethod.invoke(fThreadBean, Long.valueOf(Thread.currentThread().getId()))).longValue();
+		}
+		catch (Exception e) {
+			return -1;
+		}
+	}
+
+	private String getProjectName(Project project) {
+		String name = project == null ? null : project.getName();
+		return name == null || name.isEmpty() ? "build" : name; //$NON-NLS-1$
+	}
+
+	/**
+	 * Writes one line per executed stack with the self wall time in microseconds, as expected by flame graph tools.
+	 */
+	private void writeFolded(Node root, File file) throws IOException {
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+			writeFolded(root, new StringBuilder(), writer);
+		}
+	}
+
+	private void writeFolded(Node node, StringBuilder stack, Writer writer) throws IOException {
+		int length = stack.length();
+		if (length > 0) {
+			stack.append(';');
+		}
+		// ';' separates the frames and the last space the value
+		stack.append(node.name.replace(';', ':').replace(' ', '_'));
+		if (node.count > 0) {
+			long self = node.getSelfWall() / 1000;
+			writer.write(stack.toString());
+			writer.write(' ');
+			writer.write(Long.toString(self));
+			writer.write('\n');
+		}
+		for (Node child : node.children.values()) {
+			writeFolded(child, stack, writer);
+		}
+		stack.setLength(length);
+	}
+
+	private void writeJson(Node root, File file) throws IOException {
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+			writer.write("{\"timeUnit\":\"ns\",\"memoryUnit\":\"bytes\",\"root\":"); //$NON-NLS-1$
+			writeJson(root, writer);
+			writer.write("}\n"); //$NON-NLS-1$
+		}
+	}
+
+	private void writeJson(Node node, Writer writer) throws IOException {
+		writer.write("{\"name\":"); //$NON-NLS-1$
+		writeJsonString(node.name, writer);
+		writer.write(",\"kind\":\""); //$NON-NLS-1$
+		writer.write(node.kind);
+		writer.write("\",\"count\":"); //$NON-NLS-1$
+		writer.write(Integer.toString(node.count));
+		writer.write(",\"wall\":"); //$NON-NLS-1$
+		writer.write(Long.toString(node.wall));
+		writer.write(",\"selfWall\":"); //$NON-NLS-1$
+		writer.write(Long.toString(node.getSelfWall()));
+		writer.write(",\"cpu\":"); //$NON-NLS-1$
+		writer.write(Long.toString(node.cpu));
+		writer.write(",\"allocated\":"); //$NON-NLS-1$
+		writer.write(Long.toString(node.allocated));
+		writer.write(",\"children\":["); //$NON-NLS-1$
+		boolean first = true;
+		for (Node child : node.children.values()) {
+			if (!first) {
+				writer.write(',');
+			}
+			first = false;
+			writeJson(child, writer);
+		}
+		writer.write("]}"); //$NON-NLS-1$
+	}
+
+	private void writeJsonString(String value, Writer writer) throws IOException {
+		writer.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				writer.write('\\');
+				writer.write(c);
+			} else if (c < 0x20) {
+				writer.write(String.format("\\u%04x", Integer.valueOf(c))); //$NON-NLS-1$
+			} else {
+				writer.write(c);
+			}
+		}
+		writer.write('"');
+	}
+
+	/**
+	 * The accumulated measurements of all executions of a target or task with the same stack.
+	 */
+	private static class Node {
+		final String name;
+		final String kind;
+		final Map<String, Node> children = new LinkedHashMap<>();
+		int count;
+		long wall;
+		long cpu;
+		long allocated;
+
+		Node(String name, String kind) {
+			this.name = name;
+			this.kind = kind;
+		}
+
+		Node getChild(String childName, String childKind) {
+			String key = childKind + ':' + childName;
+			Node child = children.get(key);
+			if (child == null) {
+				child = new Node(childName, childKind);
+				children.put(key, child);
+			}
+			return child;
+		}
+
+		/**
+		 * Returns the wall time not spent in children. Children running in parallel threads may take longer than their parent in total.
+		 */
+		long getSelfWall() {
+			long self = wall;
+			for (Node child : children.values()) {
+				self -= child.wall;
+			}
+			return Math.max(self, 0);
+		}
+	}
+
+	/**
+	 * A running target or task.
+	 */
+	private static class Frame {
+		final Object owner;
+		final Node node;
+		final Frame parent;
+		final long startWall;
+		final long startCpu;
+		final long startAllocated;
+
+		Frame(Object owner, Node node, Frame parent, long startWall, long startCpu, long startAllocated) {
+			this.owner = owner;
+			this.node = node;
+			this.parent = parent;
+			this.startWall = startWall;
+			this.startCpu = startCpu;
+			this.startAllocated = startAllocated;
+		}
+
+		void close(long endWall, long endCpu, long endAllocated) {
+			node.count++;
+			node.wall += endWall - startWall;
+			node.cpu = add(node.cpu, startCpu, endCpu);
+			node.allocated = add(node.allocated, startAllocated, endAllocated);
+		}
+
+		private static long add(long total, long start, long end) {
+			if (start < 0 || end < 0 || total < 0) {
+				return -1;
+			}
+			return total + end - start;
+		}
+	}
+}
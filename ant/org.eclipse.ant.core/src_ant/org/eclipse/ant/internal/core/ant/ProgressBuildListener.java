@@ -13,9 +13,12 @@
  *******************************************************************************/
 package org.eclipse.ant.internal.core.ant;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
@@ -24,6 +27,7 @@ import java.util.Set;
 
 import org.apache.tools.ant.BuildEvent;
 import org.apache.tools.ant.BuildListener;
+import org.apache.tools.ant.MagicNames;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.Target;
 import org.apache.tools.ant.Task;
@@ -46,6 +50,11 @@ public class ProgressBuildListener implements BuildListener {
 	protected Project parentProject;
 	private Thread currentTaskThread;
 
+	/**
+	 * The work estimated for the targets of the buildfiles in the project chain, see {@link #estimateWork(Target)}
+	 */
+	private final Map<Object, Map<String, Integer>> workEstimates = new HashMap<>();
+
 	/**
 	 * Contains the progress monitor instances for the various projects in a chain.
 	 */
@@ -121,35 +130,61 @@ public class ProgressBuildListener implements BuildListener {
 	protected int computeWork(List<Target> targets) {
 		int result = 0;
 		for (Target target : targets) {
-			result = result + countTarget(target, new ArrayList<>());
+			result = result + estimateWork(target);
 		}
 		return result;
 	}
 
-	protected int countTarget(Target target, List<String> alreadySeen) {
-		int result = 1;
+	/**
+	 * Returns the work of executing the given target: one for the target and each target it depends on, directly or indirectly. The estimates are
+	 * remembered per buildfile, so the projects of the same buildfile started through &lt;ant&gt; or &lt;antcall&gt; reuse them.
+	 */
+	protected int estimateWork(Target target) {
 		Project project = target.getProject();
+		Object key = project.getProperty(MagicNames.ANT_FILE);
+		if (key == null) {
+			key = project;
+		}
+		Map<String, Integer> estimates = workEstimates.computeIfAbsent(key, k -> new HashMap<>());
+		Integer work = estimates.get(target.getName());
+		if (work == null) {
+			work = Integer.valueOf(computeWork(project, target));
+			estimates.put(target.getName(), work);
+		}
+		return work.intValue();
+	}
+
+	/**
+	 * Walks the dependencies of the given target rather than sorting them with {@link Project#topoSort(String, Hashtable, boolean)}, which logs the
+	 * build sequence and fails on unknown or circular dependencies. Such dependencies are reported when the target is executed, here unknown targets
+	 * are skipped and each target is counted once.
+	 */
+	private int computeWork(Project project, Target target) {
 		Hashtable<String, Target> targets = project.getTargets();
-		String targetName;
-		Target dependency;
-		for (Enumeration<String> dependencies = target.getDependencies(); dependencies.hasMoreElements();) {
-			targetName = dependencies.nextElement();
-			if (alreadySeen.contains(targetName)) { // circular dependency or common dependency
-				return result;
-			}
-			alreadySeen.add(targetName);
-			dependency = targets.get(targetName);
-			if (dependency != null) {
-				result = result + countTarget(dependency, alreadySeen);
+		Set<String> visited = new HashSet<>();
+		Deque<Target> pending = new ArrayDeque<>();
+		visited.add(target.getName());
+		pending.push(target);
+		int result = 0;
+		while (!pending.isEmpty()) {
+			Target current = pending.pop();
+			result++;
+			// we have to handle antcall tasks as well
+			for (Task task : current.getTasks()) {
+				if (task instanceof CallTarget) {
+					// As we do not have access to the information (at least in Ant 1.4.1)
+					// describing what target is executed by this antcall task, we assume
+					// a scenario where it depends on all targets of the project but itself.
+					result = result + (targets.size() - 1);
+				}
 			}
-		}
-		// we have to handle antcall tasks as well
-		for (Task task : target.getTasks()) {
-			if (task instanceof CallTarget) {
-				// As we do not have access to the information (at least in Ant 1.4.1)
-				// describing what target is executed by this antcall task, we assume
-				// a scenario where it depends on all targets of the project but itself.
-				result = result + (targets.size() - 1);
+			Enumeration<String> dependencies = current.getDependencies();
+			while (dependencies.hasMoreElements()) {
+				String name = dependencies.nextElement();
+				Target dependency = targets.get(name);
+				if (dependency != null && visited.add(name)) {
+					pending.push(dependency);
+				}
 			}
 		}
 		return result;
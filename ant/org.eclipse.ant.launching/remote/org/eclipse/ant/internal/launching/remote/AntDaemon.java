@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.internal.launching.remote;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Properties;
+
+/**
+ * A long-lived VM that runs the Ant builds requested by the workbench, so that builds in a separate JRE do not pay for starting a VM and loading
+ * Ant every time.
+ * <p>
+ * The daemon listens on the port given as first argument for a single connection from the workbench. Requests and responses are lines of UTF-8
+ * text:
+ * <ul>
+ * <li><code>ping</code> is answered with <code>pong</code></li>
+ * <li><code>build</code>, followed by the number of arguments and one argument per line, runs a build with the given command line arguments and is
+ * answered with <code>done</code> once the build has finished. Line breaks and backslashes within an argument are escaped as <code>\n</code>,
+ * <code>\r</code> and <code>\\</code>. The build reports to the workbench through the port of its build logger, as it does
+ * in a VM started for a single build.</li>
+ * <li><code>exit</code> ends the daemon</li>
+ * </ul>
+ * The daemon also exits once the connection is closed, or when no request has been received for the number of milliseconds given as second
+ * argument.
+ * </p>
+ */
+public class AntDaemon {
+
+	public static final String PING = "ping"; //$NON-NLS-1$
+	public static final String PONG = "pong"; //$NON-NLS-1$
+	public static final String BUILD = "build"; //$NON-NLS-1$
+	public static final String DONE = "done"; //$NON-NLS-1$
+	public static final String EXIT = "exit"; //$NON-NLS-1$
+
+	private static final String ENCODING = "UTF-8"; //$NON-NLS-1$
+
+	public static void main(String[] args) {
+		try {
+			int port = Integer.parseInt(args[0]);
+			int idleTimeout = Integer.parseInt(args[1]);
+			new AntDaemon().serve(port, idleTimeout);
+		}
+		catch (Throwable t) {
+			t.printStackTrace();
+			System.exit(1);
+		}
+		System.exit(0);
+	}
+
+	private void serve(int port, int idleTimeout) throws IOException {
+		Socket socket;
+		ServerSocket serverSocket = new ServerSocket(port, 1, InetAddress.getByName(null));
+		try {
+			// the workbench connects as soon as the VM has started
+			serverSocket.setSoTimeout(idleTimeout);
+			socket = serverSocket.accept();
+		}
+		finally {
+			serverSocket.close();
+		}
+		try {
+			socket.setSoTimeout(idleTimeout);
+			BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), ENCODING));
+			Writer writer = new OutputStreamWriter(socket.getOutputStream(), ENCODING);
+			String request;
+			while ((request = reader.readLine()) != null) {
+				if (PING.equals(request)) {
+					respond(writer, PONG);
+				} else if (BUILD.equals(request)) {
+					String[] arguments = new String[Integer.parseInt(reader.readLine())];
+					for (int i = 0; i < arguments.length; i++) {
+						arguments[i] = unescape(reader.readLine());
+					}
+					runBuild(arguments);
+					respond(writer, DONE);
+				} else if (EXIT.equals(request)) {
+					return;
+				}
+			}
+		}
+		catch (SocketTimeoutException e) {
+			// idle for too long
+		}
+		finally {
+			socket.close();
+		}
+	}
+
+	private String unescape(String argument) {
+		if (argument == null || argument.indexOf('\\') == -1) {
+			return argument;
+		}
+		StringBuilder unescaped = new StringBuilder(argument.length());
+		for (int i = 0; i < argument.length(); i++) {
+			char c = argument.charAt(i);
+			if (c == '\\' && i + 1 < argument.length()) {
+				c = argument.charAt(++i);
+				if (c == 'n') {
+					c = '\n';
+				} else if (c == 'r') {
+					c = '\r';
+				}
+			}
+			unescaped.append(c);
+		}
+		return unescaped.toString();
+	}
+
+	private void respond(Writer writer, String response) throws IOException {
+		writer.write(response);
+		writer.write('\n');
+		writer.flush();
+	}
+
+	/**
+	 * Runs a build, restoring the system properties afterwards so that the next build starts from the same state.
+	 */
+	private void runBuild(String[] arguments) {
+		Properties properties = (Properties) System.getProperties().clone();
+		try {
+			InternalAntRunner.runBuild(arguments);
+		}
+		catch (Throwable t) {
+			// failures of the build itself are reported through the build logger
+		}
+		finally {
+			System.setProperties(properties);
+		}
+	}
+}
@@ -149,6 +149,16 @@ public class InternalAntRunner {
 		System.exit(0);
 	}
 
+	/**
+	 * Runs a build in the VM of an {@link AntDaemon}. Unlike {@link #main(String[])} the VM is not exited once the build has finished.
+	 *
+	 * @param args
+	 *            the command line arguments of the build
+	 */
+	static void runBuild(String[] args) {
+		new InternalAntRunner().run(getArrayList(args));
+	}
+
 	/*
 	 * Helper method to ensure an array is converted into an ArrayList.
 	 */
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.internal.launching.remote.logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Writes the messages of a remote build logger to the event socket in frames. Messages are collected in a buffer that is written and flushed as a
+ * single frame once it is full, or at the latest {@link #MAX_DELAY} milliseconds after the first message of the frame was added. Each message is
+ * terminated by a line feed so that the receiving side reads the same messages as before batching was introduced.
+ */
+class BufferedMessageWriter {
+
+	/**
+	 * The number of characters after which a frame is written
+	 */
+	static final int MAX_FRAME_SIZE = 16 * 1024;
+
+	/**
+	 * The time in milliseconds a message may wait in the buffer before its frame is written
+	 */
+	static final long MAX_DELAY = 5;
+
+	private final Writer fWriter;
+	private final char[] fBuffer = new char[MAX_FRAME_SIZE];
+	private int fCount = 0;
+	private long fFrameStarted;
+	private boolean fClosed = false;
+
+	/**
+	 * Writes the pending frame once its delay has expired
+	 */
+	private class FlushThread extends Thread {
+		FlushThread() {
+			super("Ant Build Logger Flush"); //$NON-NLS-1$
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			synchronized (BufferedMessageWriter.this) {
+				while (!fClosed) {
+					try {
+						if (fCount == 0) {
+							BufferedMessageWriter.this.wait();
+							continue;
+						}
+						long remaining = MAX_DELAY - (System.nanoTime() - fFrameStarted) / 1000000L;
+						if (remaining > 0) {
+							BufferedMessageWriter.this.wait(remaining);
+							continue;
+						}
+						flush();
+					}
+					catch (InterruptedException e) {
+						return;
+					}
+				}
+			}
+		}
+	}
+
+	BufferedMessageWriter(OutputStream stream) {
+		fWriter = new OutputStreamWriter(stream);
+		new FlushThread().start();
+	}
+
+	/**
+	 * Adds the given message, terminated by a line feed, to the current frame.
+	 *
+	 * @param message
+	 *            the message to send
+	 */
+	synchronized void writeMessage(String message) {
+		if (fClosed) {
+			return;
+		}
+		int length = message.length();
+		if (fCount + length + 1 > fBuffer.length) {
+			flush();
+			if (length + 1 > fBuffer.length) {
+				// larger than a frame, send on its own
+				try {
+					fWriter.write(message);
+					fWriter.write('\n');
+					fWriter.flush();
+				}
+				catch (IOException e) {
+					fClosed = true;
+				}
+				return;
+			}
+		}
+		if (fCount == 0) {
+			fFrameStarted = System.nanoTime();
+			notifyAll();
+		}
+		message.getChars(0, length, fBuffer, fCount);
+		fCount += length;
+		fBuffer[fCount++] = '\n';
+		if (fCount == fBuffer.length) {
+			flush();
+		}
+	}
+
+	/**
+	 * Writes the current frame, if any, to the socket.
+	 */
+	synchronized void flush() {
+		if (fCount == 0 || fClosed) {
+			fCount = 0;
+			return;
+		}
+		try {
+			fWriter.write(fBuffer, 0, fCount);
+			fWriter.flush();
+		}
+		catch (IOException e) {
+			// the listener has gone away, drop any further messages
+			fClosed = true;
+		}
+		fCount = 0;
+	}
+
+	/**
+	 * Writes the current frame and closes the underlying stream.
+	 */
+	synchronized void close() {
+		flush();
+		fClosed = true;
+		notifyAll();
+		try {
+			fWriter.close();
+		}
+		catch (IOException e) {
+			// do nothing
+		}
+	}
+}
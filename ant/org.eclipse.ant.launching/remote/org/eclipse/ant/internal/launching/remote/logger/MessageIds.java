@@ -20,4 +20,15 @@ public class MessageIds {
 	// constants need to start greater than the Project.MSG_* constants
 	public final static String TASK = "6"; //$NON-NLS-1$
 	public final static String TARGET = "7"; //$NON-NLS-1$
+	/**
+	 * A line logged by a task: <code>8&lt;priority&gt;,</code> followed by the task name, the line and the file name, each prefixed by its length
+	 * and a colon, and finally the line number. An empty task name or file name stands for the one of the previous task record. A negative
+	 * line number means that the location of the task is unknown.
+	 */
+	public final static String TASK_RECORD = "8"; //$NON-NLS-1$
+	/**
+	 * A started target: <code>9</code> followed by the target name prefixed by its length and a colon and, if the location of the target is
+	 * known, by the file name prefixed by its length and a colon and the line number.
+	 */
+	public final static String TARGET_RECORD = "9"; //$NON-NLS-1$
 }
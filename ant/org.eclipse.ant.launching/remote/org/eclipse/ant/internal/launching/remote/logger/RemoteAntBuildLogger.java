@@ -13,11 +13,8 @@
  *******************************************************************************/
 package org.eclipse.ant.internal.launching.remote.logger;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.io.PrintWriter;
-import java.io.StringReader;
 import java.net.Socket;
 import java.util.ArrayList;
 import java.util.List;
@@ -50,9 +47,9 @@ public class RemoteAntBuildLogger extends DefaultLogger {
 	 */
 	private Socket fEventSocket;
 	/**
-	 * Print writer for sending messages
+	 * Writer for sending messages in frames
 	 */
-	private PrintWriter fWriter;
+	private BufferedMessageWriter fWriter;
 	/**
 	 * Host to connect to, default is the localhost
 	 */
@@ -92,7 +89,9 @@ public class RemoteAntBuildLogger extends DefaultLogger {
 		for (int i = 1; i < 5; i++) {
 			try {
 				fEventSocket = new Socket(fHost, fEventPort);
-				fWriter = new PrintWriter(fEventSocket.getOutputStream(), true);
+				// messages are batched by the writer, so do not delay the frames any further
+				fEventSocket.setTcpNoDelay(true);
+				fWriter = new BufferedMessageWriter(fEventSocket.getOutputStream());
 				return;
 			}
 			catch (IOException e) {
@@ -136,7 +135,16 @@ public class RemoteAntBuildLogger extends DefaultLogger {
 			return;
 		}
 
-		fWriter.println(msg);
+		fWriter.writeMessage(msg);
+	}
+
+	/**
+	 * Sends the messages that are waiting to be batched with further messages.
+	 */
+	protected void flushMessages() {
+		if (fWriter != null) {
+			fWriter.flush();
+		}
 	}
 
 	@Override
@@ -264,12 +272,7 @@ public class RemoteAntBuildLogger extends DefaultLogger {
 
 	private void processEvent(BuildEvent event) {
 		if (event.getTask() != null && !emacsMode) {
-			try {
-				marshalTaskMessage(event);
-			}
-			catch (IOException e) {
-				// do nothing
-			}
+			marshalTaskMessage(event);
 		} else {
 			marshalMessage(event);
 		}
@@ -284,34 +287,26 @@ public class RemoteAntBuildLogger extends DefaultLogger {
 	}
 
 	protected void marshalMessage(int priority, String message) {
-		try {
-			BufferedReader r = new BufferedReader(new StringReader(message));
-			String line = r.readLine();
-			StringBuffer messageLine;
-			while (line != null) {
-				messageLine = new StringBuffer();
-				if (priority != -1) {
-					messageLine.append(priority);
-					messageLine.append(',');
-				}
-				messageLine.append(line);
-				sendMessage(messageLine.toString());
-				line = r.readLine();
+		StringBuilder messageLine = new StringBuilder();
+		int start = 0;
+		while (start < message.length()) {
+			int end = getLineEnd(message, start);
+			messageLine.setLength(0);
+			if (priority != -1) {
+				messageLine.append(priority);
+				messageLine.append(',');
 			}
-		}
-		catch (IOException e) {
-			// do nothing
+			messageLine.append(message, start, end);
+			sendMessage(messageLine.toString());
+			start = getNextLineStart(message, end);
 		}
 	}
 
-	private void marshalTaskMessage(BuildEvent event) throws IOException {
+	private void marshalTaskMessage(BuildEvent event) {
 		String eventMessage = event.getMessage();
 		if (eventMessage.length() == 0) {
 			return;
 		}
-		BufferedReader r = new BufferedReader(new StringReader(eventMessage));
-		String line = r.readLine();
-		StringBuffer message;
 		String taskName = event.getTask().getTaskName();
 		if (taskName != null && taskName.equals(fLastTaskName)) {
 			taskName = IAntCoreConstants.EMPTY_STRING;
@@ -334,26 +329,26 @@ public class RemoteAntBuildLogger extends DefaultLogger {
 			lineNumber = -1;
 		}
 		int priority = event.getPriority();
-		while (line != null) {
-			message = new StringBuffer(MessageIds.TASK);
+		String taskField = String.valueOf(taskName);
+		StringBuilder message = new StringBuilder();
+		int start = 0;
+		while (start < eventMessage.length()) {
+			int end = getLineEnd(eventMessage, start);
+			message.setLength(0);
+			message.append(MessageIds.TASK_RECORD);
 			message.append(priority);
 			message.append(',');
-			message.append(taskName);
-			message.append(',');
-			message.append(line.length());
-			message.append(',');
-			message.append(line);
-			message.append(',');
-			if (!fileName.equals(fLastFileName)) {
-				message.append(fileName.length());
-				message.append(',');
-				message.append(fileName);
+			appendField(message, taskField, 0, taskField.length());
+			appendField(message, eventMessage, start, end);
+			if (fileName.equals(fLastFileName)) {
+				appendField(message, fileName, 0, 0);
+			} else {
+				appendField(message, fileName, 0, fileName.length());
 			}
-			message.append(',');
 			message.append(lineNumber);
 			sendMessage(message.toString());
 			fLastFileName = fileName;
-			line = r.readLine();
+			start = getNextLineStart(eventMessage, end);
 		}
 	}
 
@@ -362,24 +357,56 @@ public class RemoteAntBuildLogger extends DefaultLogger {
 		Location location = AntDebugState.getLocation(target);
 
 		StringBuilder message = new StringBuilder();
-		message.append(MessageIds.TARGET);
-		message.append(',');
-		message.append(target.getName());
-		message.append(':');
-		message.append(',');
+		message.append(MessageIds.TARGET_RECORD);
+		String name = target.getName();
+		appendField(message, name, 0, name.length());
 		if (location != null && location != Location.UNKNOWN_LOCATION) {
 			// if a target has a valid location then we are on an Ant that is
 			// new enough to have the accessor methods on Location
 			String fileName = location.getFileName();
-			message.append(fileName.length());
-			message.append(',');
-			message.append(fileName);
-			message.append(',');
+			appendField(message, fileName, 0, fileName.length());
 			message.append(location.getLineNumber());
 		}
 		sendMessage(message.toString());
 	}
 
+	/**
+	 * Appends the given range of the value prefixed by its length and a colon.
+	 */
+	private static void appendField(StringBuilder message, String value, int start, int end) {
+		message.append(end - start);
+		message.append(':');
+		if (end > start) {
+			message.append(value, start, end);
+		}
+	}
+
+	/**
+	 * Returns the end of the line starting at the given index, the line terminators being the ones recognized by
+	 * <code>BufferedReader.readLine()</code>.
+	 */
+	private static int getLineEnd(String message, int start) {
+		int end = start;
+		while (end < message.length()) {
+			char c = message.charAt(end);
+			if (c == '\n' || c == '\r') {
+				break;
+			}
+			end++;
+		}
+		return end;
+	}
+
+	/**
+	 * Returns the start of the line following the line ending at the given index.
+	 */
+	private static int getNextLineStart(String message, int lineEnd) {
+		if (lineEnd + 1 < message.length() && message.charAt(lineEnd) == '\r' && message.charAt(lineEnd + 1) == '\n') {
+			return lineEnd + 2;
+		}
+		return lineEnd + 1;
+	}
+
 	@Override
 	public void buildStarted(BuildEvent event) {
 		establishConnection();
@@ -190,6 +190,7 @@ public class RemoteAntDebugBuildLogger extends RemoteAntBuildLogger implements I
 		fDebugState = new AntDebugState(this);
 		super.buildStarted(event);
 		marshalMessage(-1, DebugMessageIds.BUILD_STARTED);
+		flushMessages();
 		if (fRequestPort != -1) {
 			try {
 				fServerSocket = new ServerSocket(fRequestPort);
@@ -283,6 +284,8 @@ public class RemoteAntDebugBuildLogger extends RemoteAntBuildLogger implements I
 		}
 
 		if (shouldSuspend) {
+			// the console has to be up to date when the client shows the suspended build
+			flushMessages();
 			if (detail != null) {
 				StringBuilder message = new StringBuilder(DebugMessageIds.SUSPENDED);
 				message.append(detail);
@@ -13,47 +13,154 @@
  *******************************************************************************/
 package org.eclipse.ant.internal.launching;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.eclipse.ant.internal.launching.launchConfigurations.AntStreamsProxy;
+import org.eclipse.debug.core.ILaunch;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.Launch;
+import org.eclipse.debug.core.model.IProcess;
 import org.eclipse.debug.core.model.ISourceLocator;
+import org.eclipse.debug.core.model.IStreamsProxy;
 
 /**
  * Stores link descriptors for Launch for further use of TaskLinkManager
+ * <p>
+ * The descriptors are indexed by the console line they apply to, so that the descriptor of a line can be found and consumed in constant time.
+ * At most {@link #MAX_LINK_DESCRIPTORS} descriptors are kept, the oldest descriptors are dropped once that number is exceeded as their lines are
+ * unlikely to still appear in the console.
+ * </p>
  */
 public class AntLaunch extends Launch {
-	List<LinkDescriptor> linkDescriptors;
+
+	/**
+	 * The maximum number of link descriptors waiting for their line to appear in the console
+	 */
+	static final int MAX_LINK_DESCRIPTORS = 10000;
+
+	/**
+	 * The pending descriptors by line, each in the order they were added
+	 */
+	private final Map<String, ArrayDeque<LinkDescriptor>> linkDescriptors = new HashMap<>();
+
+	/**
+	 * All descriptors in the order they were added, including descriptors that have been consumed since
+	 */
+	private final ArrayDeque<LinkDescriptor> linkDescriptorQueue = new ArrayDeque<>();
 
 	public AntLaunch(ILaunchConfiguration launchConfiguration, String mode, ISourceLocator locator) {
 		super(launchConfiguration, mode, locator);
-		linkDescriptors = new ArrayList<>();
+	}
+
+	@Override
+	public void launchRemoved(ILaunch launch) {
+		super.launchRemoved(launch);
+		if (this.equals(launch)) {
+			// release the output kept for the console, including any temporary files
+			for (IProcess process : getProcesses()) {
+				IStreamsProxy proxy = process.getStreamsProxy();
+				if (proxy instanceof AntStreamsProxy) {
+					((AntStreamsProxy) proxy).dispose();
+				}
+			}
+		}
 	}
 
 	public void addLinkDescriptor(String line, String fileName, int lineNumber, int offset, int length) {
 		if (fileName != null && fileName.trim().length() > 0) {
+			LinkDescriptor descriptor = new LinkDescriptor(line, fileName, lineNumber, offset, length);
 			synchronized (linkDescriptors) {
-				linkDescriptors.add(new LinkDescriptor(line, fileName, lineNumber, offset, length));
+				if (linkDescriptorQueue.size() >= MAX_LINK_DESCRIPTORS) {
+					dropOldestLinkDescriptor();
+				}
+				linkDescriptors.computeIfAbsent(line, key -> new ArrayDeque<>(1)).addLast(descriptor);
+				linkDescriptorQueue.addLast(descriptor);
+			}
+		}
+	}
+
+	/**
+	 * Removes the oldest entry of the queue, and the descriptor itself if it has not been consumed yet.
+	 */
+	private void dropOldestLinkDescriptor() {
+		LinkDescriptor oldest = linkDescriptorQueue.pollFirst();
+		ArrayDeque<LinkDescriptor> descriptors = linkDescriptors.get(oldest.getLine());
+		// a pending descriptor is always the oldest one of its line
+		if (descriptors != null && descriptors.peekFirst() == oldest) {
+			descriptors.pollFirst();
+			if (descriptors.isEmpty()) {
+				linkDescriptors.remove(oldest.getLine());
 			}
 		}
 	}
 
+	/**
+	 * Removes and returns the oldest pending link descriptor for the given console line.
+	 * 
+	 * @param line
+	 *            the trimmed text of the console line
+	 * @return the link descriptor for the line or <code>null</code> if there is none
+	 */
+	public LinkDescriptor removeLinkDescriptor(String line) {
+		synchronized (linkDescriptors) {
+			ArrayDeque<LinkDescriptor> descriptors = linkDescriptors.get(line);
+			if (descriptors == null) {
+				return null;
+			}
+			LinkDescriptor descriptor = descriptors.pollFirst();
+			if (descriptors.isEmpty()) {
+				linkDescriptors.remove(line);
+			}
+			// consumed entries are dropped from the queue once they reach its head
+			while (!linkDescriptorQueue.isEmpty() && !isPending(linkDescriptorQueue.peekFirst())) {
+				linkDescriptorQueue.pollFirst();
+			}
+			return descriptor;
+		}
+	}
+
+	private boolean isPending(LinkDescriptor descriptor) {
+		ArrayDeque<LinkDescriptor> descriptors = linkDescriptors.get(descriptor.getLine());
+		return descriptors != null && descriptors.peekFirst() == descriptor;
+	}
+
 	public void removeLinkDescriptor(LinkDescriptor ld) {
 		synchronized (linkDescriptors) {
-			linkDescriptors.remove(ld);
+			ArrayDeque<LinkDescriptor> descriptors = linkDescriptors.get(ld.getLine());
+			if (descriptors != null && descriptors.remove(ld) && descriptors.isEmpty()) {
+				linkDescriptors.remove(ld.getLine());
+			}
+			linkDescriptorQueue.remove(ld);
 		}
 	}
 
 	public List<LinkDescriptor> getLinkDescriptors() {
 		synchronized (linkDescriptors) {
-			return new ArrayList<>(linkDescriptors);
+			Set<LinkDescriptor> pending = Collections.newSetFromMap(new IdentityHashMap<LinkDescriptor, Boolean>());
+			for (ArrayDeque<LinkDescriptor> descriptors : linkDescriptors.values()) {
+				pending.addAll(descriptors);
+			}
+			List<LinkDescriptor> result = new ArrayList<>(pending.size());
+			for (LinkDescriptor descriptor : linkDescriptorQueue) {
+				if (pending.contains(descriptor)) {
+					result.add(descriptor);
+				}
+			}
+			return result;
 		}
 	}
 
 	public void clearLinkDescriptors() {
 		synchronized (linkDescriptors) {
 			linkDescriptors.clear();
+			linkDescriptorQueue.clear();
 		}
 	}
 
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.ant.internal.launching;
 
+import org.eclipse.ant.internal.launching.launchConfigurations.AntDaemonManager;
 import org.eclipse.core.externaltools.internal.IExternalToolConstants;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Plugin;
@@ -92,6 +93,7 @@ public class AntLaunching extends Plugin {
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		AntDaemonManager.shutdown();
 		plugin = null;
 		super.stop(context);
 	}
@@ -29,6 +29,8 @@ public class AntLaunchingPreferenceInitializer extends AbstractPreferenceInitial
 		IEclipsePreferences node = DefaultScope.INSTANCE.getNode(AntLaunching.getUniqueIdentifier());
 		if (node != null) {
 			node.putInt(IAntLaunchingPreferenceConstants.ANT_COMMUNICATION_TIMEOUT, 20000);
+			node.putBoolean(IAntLaunchingPreferenceConstants.ANT_DAEMON, false);
+			node.putInt(IAntLaunchingPreferenceConstants.ANT_DAEMON_IDLE_TIMEOUT, 600000);
 			try {
 				node.flush();
 			}
@@ -23,4 +23,15 @@ public interface IAntLaunchingPreferenceConstants {
 	 * JRE to capture the output
 	 */
 	public static final String ANT_COMMUNICATION_TIMEOUT = "timeout"; //$NON-NLS-1$
+
+	/**
+	 * boolean preference identifier constant which specifies whether Ant builds in a separate JRE are run by a long-lived daemon VM rather than by a
+	 * VM started for each build
+	 */
+	public static final String ANT_DAEMON = "antDaemon"; //$NON-NLS-1$
+
+	/**
+	 * int preference identifier constant which specifies the time in milliseconds after which an unused Ant daemon VM exits
+	 */
+	public static final String ANT_DAEMON_IDLE_TIMEOUT = "antDaemonIdleTimeout"; //$NON-NLS-1$
 }
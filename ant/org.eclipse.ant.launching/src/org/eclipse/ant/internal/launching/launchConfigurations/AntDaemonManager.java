@@ -0,0 +1,422 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.internal.launching.launchConfigurations;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.ant.internal.launching.AntLaunching;
+import org.eclipse.ant.internal.launching.IAntLaunchingPreferenceConstants;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.debug.core.DebugException;
+import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
+import org.eclipse.debug.core.ILaunchManager;
+import org.eclipse.debug.core.Launch;
+import org.eclipse.debug.core.model.IProcess;
+import org.eclipse.jdt.launching.IJavaLaunchConfigurationConstants;
+import org.eclipse.jdt.launching.IVMInstall;
+import org.eclipse.jdt.launching.SocketUtil;
+
+/**
+ * Manages the daemon VMs that run Ant builds in a separate JRE when the {@link IAntLaunchingPreferenceConstants#ANT_DAEMON} preference is set.
+ * <p>
+ * Daemons are keyed by everything that determines the VM they run in: the JRE, the runtime classpath (which includes the Ant home), the VM
+ * arguments, the environment and the working directory. A daemon runs one build at a time, a build that finds no idle daemon for its key starts a
+ * new one. Idle daemons are checked with a ping before they are reused and are replaced if they do not answer. They exit on their own once they
+ * have not been used for the idle timeout.
+ * </p>
+ */
+public final class AntDaemonManager {
+
+	private static final String DAEMON_MAIN_TYPE_NAME = "org.eclipse.ant.internal.launching.remote.AntDaemon"; //$NON-NLS-1$
+
+	// requests and responses, see org.eclipse.ant.internal.launching.remote.AntDaemon
+	private static final String PING = "ping"; //$NON-NLS-1$
+	private static final String PONG = "pong"; //$NON-NLS-1$
+	private static final String BUILD = "build"; //$NON-NLS-1$
+	private static final String DONE = "done"; //$NON-NLS-1$
+
+	/**
+	 * The time in milliseconds an idle daemon has to answer a ping
+	 */
+	private static final int HEALTH_CHECK_TIMEOUT = 2000;
+
+	/**
+	 * The time in milliseconds between the checks whether a running build has been terminated
+	 */
+	private static final int TERMINATE_POLL_INTERVAL = 500;
+
+	/**
+	 * The maximum number of idle daemons kept for the same key
+	 */
+	private static final int MAX_IDLE_DAEMONS = 2;
+
+	private static AntDaemonManager fgDefault;
+
+	private final Map<String, List<Daemon>> fIdleDaemons = new HashMap<>();
+	private final Set<Daemon> fBusyDaemons = new HashSet<>();
+	private boolean fShutdown = false;
+	private int fStartedDaemonCount = 0;
+
+	/**
+	 * Returns the shared daemon manager.
+	 *
+	 * @return the shared manager
+	 */
+	public static synchronized AntDaemonManager getDefault() {
+		if (fgDefault == null) {
+			fgDefault = new AntDaemonManager();
+		}
+		return fgDefault;
+	}
+
+	/**
+	 * Ends all daemon VMs, including the ones running a build.
+	 */
+	public static synchronized void shutdown() {
+		if (fgDefault != null) {
+			fgDefault.dispose();
+			fgDefault = null;
+		}
+	}
+
+	/**
+	 * Returns whether builds in a separate JRE should be run by daemon VMs.
+	 *
+	 * @return whether the daemon mode is enabled
+	 */
+	public static boolean isEnabled() {
+		return Platform.getPreferencesService().getBoolean(AntLaunching.getUniqueIdentifier(), IAntLaunchingPreferenceConstants.ANT_DAEMON, false, null);
+	}
+
+	/**
+	 * Returns a healthy idle daemon for the VM described by the given configuration, starting a new daemon if there is none. The daemon is reserved
+	 * for the caller until the build handed to {@link Daemon#runBuild(String[], AntProcess)} has finished.
+	 *
+	 * @param configuration
+	 *            the configuration of the separate JRE build
+	 * @param delegate
+	 *            the delegate that would launch the VM of the build
+	 * @param monitor
+	 *            the progress monitor
+	 * @return the reserved daemon
+	 * @throws CoreException
+	 *             if no daemon could be started
+	 */
+	public Daemon acquire(ILaunchConfiguration configuration, AntJavaLaunchDelegate delegate, IProgressMonitor monitor) throws CoreException {
+		String key = getKey(configuration, delegate);
+		while (true) {
+			Daemon daemon;
+			synchronized (this) {
+				List<Daemon> idle = fIdleDaemons.get(key);
+				if (idle == null || idle.isEmpty()) {
+					break;
+				}
+				daemon = idle.remove(idle.size() - 1);
+				fBusyDaemons.add(daemon);
+			}
+			if (daemon.isHealthy()) {
+				return daemon;
+			}
+			release(daemon, false);
+		}
+		Daemon daemon = startDaemon(key, configuration, delegate, monitor);
+		synchronized (this) {
+			if (fShutdown) {
+				daemon.destroy();
+				throw newConnectException(null);
+			}
+			fStartedDaemonCount++;
+			fBusyDaemons.add(daemon);
+		}
+		return daemon;
+	}
+
+	/**
+	 * Returns the number of daemon VMs this manager has started.
+	 *
+	 * @return the number of started daemons
+	 */
+	public synchronized int getStartedDaemonCount() {
+		return fStartedDaemonCount;
+	}
+
+	private String getKey(ILaunchConfiguration configuration, AntJavaLaunchDelegate delegate) throws CoreException {
+		StringBuilder key = new StringBuilder();
+		IVMInstall install = delegate.verifyVMInstall(configuration);
+		key.append(install.getInstallLocation()).append('\n');
+		for (String entry : delegate.getClasspath(configuration)) {
+			key.append(entry).append(File.pathSeparatorChar);
+		}
+		key.append('\n').append(delegate.getVMArguments(configuration));
+		key.append('\n').append(delegate.verifyWorkingDirectory(configuration));
+		String[] environment = delegate.getEnvironment(configuration);
+		if (environment != null) {
+			environment = environment.clone();
+			Arrays.sort(environment);
+			for (String variable : environment) {
+				key.append('\n').append(variable);
+			}
+		}
+		return key.toString();
+	}
+
+	private Daemon startDaemon(String key, ILaunchConfiguration configuration, AntJavaLaunchDelegate delegate, IProgressMonitor monitor) throws CoreException {
+		int port = SocketUtil.findFreePort();
+		int idleTimeout = Platform.getPreferencesService().getInt(AntLaunching.getUniqueIdentifier(), IAntLaunchingPreferenceConstants.ANT_DAEMON_IDLE_TIMEOUT, 600000, null);
+		ILaunchConfigurationWorkingCopy copy = configuration.getWorkingCopy();
+		copy.setAttribute(IJavaLaunchConfigurationConstants.ATTR_MAIN_TYPE_NAME, DAEMON_MAIN_TYPE_NAME);
+		copy.setAttribute(IJavaLaunchConfigurationConstants.ATTR_PROGRAM_ARGUMENTS, port + " " + idleTimeout); //$NON-NLS-1$
+		// the daemon does not belong to the launch of any build
+		ILaunch launch = new Launch(copy, ILaunchManager.RUN_MODE, null);
+		delegate.launch(copy, ILaunchManager.RUN_MODE, launch, monitor);
+		IProcess[] processes = launch.getProcesses();
+		if (processes.length == 0) {
+			throw newConnectException(null);
+		}
+		IProcess process = processes[0];
+		int timeout = Platform.getPreferencesService().getInt(AntLaunching.getUniqueIdentifier(), IAntLaunchingPreferenceConstants.ANT_COMMUNICATION_TIMEOUT, 20000, null);
+		long deadline = System.currentTimeMillis() + timeout;
+		while (true) {
+			try {
+				Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+				return new Daemon(key, process, socket);
+			}
+			catch (IOException e) {
+				if (process.isTerminated() || monitor.isCanceled() || System.currentTimeMillis() > deadline) {
+					terminate(process);
+					throw newConnectException(e);
+				}
+			}
+			try {
+				Thread.sleep(100);
+			}
+			catch (InterruptedException e) {
+				// do nothing
+			}
+		}
+	}
+
+	private CoreException newConnectException(Throwable exception) {
+		return new CoreException(new Status(IStatus.ERROR, AntLaunching.PLUGIN_ID, AntLaunching.INTERNAL_ERROR, AntLaunchConfigurationMessages.AntDaemonManager_0, exception));
+	}
+
+	/**
+	 * Returns a daemon that has finished a build to the idle daemons, or ends it if it cannot be reused.
+	 */
+	synchronized void release(Daemon daemon, boolean reusable) {
+		fBusyDaemons.remove(daemon);
+		if (!reusable || fShutdown) {
+			daemon.destroy();
+			return;
+		}
+		List<Daemon> idle = fIdleDaemons.computeIfAbsent(daemon.fKey, k -> new ArrayList<>(MAX_IDLE_DAEMONS));
+		if (idle.size() >= MAX_IDLE_DAEMONS) {
+			daemon.destroy();
+			return;
+		}
+		idle.add(daemon);
+	}
+
+	private synchronized void dispose() {
+		fShutdown = true;
+		for (List<Daemon> idle : fIdleDaemons.values()) {
+			for (Daemon daemon : idle) {
+				daemon.destroy();
+			}
+		}
+		fIdleDaemons.clear();
+		for (Daemon daemon : fBusyDaemons) {
+			daemon.destroy();
+		}
+		fBusyDaemons.clear();
+	}
+
+	private static void terminate(IProcess process) {
+		try {
+			process.terminate();
+		}
+		catch (DebugException e) {
+			AntLaunching.log(e);
+		}
+	}
+
+	/**
+	 * A daemon VM and the connection to it.
+	 */
+	public final class Daemon {
+
+		private final String fKey;
+		private final IProcess fProcess;
+		private final Socket fSocket;
+		private final InputStream fInput;
+		private final Writer fWriter;
+
+		/**
+		 * The part of the response read before a read timed out
+		 */
+		private final StringBuilder fResponse = new StringBuilder();
+
+		Daemon(String key, IProcess process, Socket socket) throws IOException {
+			fKey = key;
+			fProcess = process;
+			fSocket = socket;
+			fInput = new BufferedInputStream(socket.getInputStream());
+			fWriter = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+		}
+
+		boolean isHealthy() {
+			if (fProcess.isTerminated()) {
+				return false;
+			}
+			try {
+				fSocket.setSoTimeout(HEALTH_CHECK_TIMEOUT);
+				send(PING);
+				return PONG.equals(readResponse());
+			}
+			catch (IOException e) {
+				return false;
+			}
+		}
+
+		/**
+		 * Runs a build in this daemon in the background. The given process is terminated once the build has finished; terminating the process
+		 * ends the daemon.
+		 *
+		 * @param arguments
+		 *            the command line arguments of the build
+		 * @param process
+		 *            the process representing the build
+		 */
+		public void runBuild(final String[] arguments, final AntProcess process) {
+			Thread thread = new Thread("Ant Daemon Build") { //$NON-NLS-1$
+				@Override
+				public void run() {
+					boolean reusable = false;
+					try {
+						String[] request = new String[arguments.length + 2];
+						request[0] = BUILD;
+						request[1] = Integer.toString(arguments.length);
+						for (int i = 0; i < arguments.length; i++) {
+							request[i + 2] = escape(arguments[i]);
+						}
+						send(request);
+						fSocket.setSoTimeout(TERMINATE_POLL_INTERVAL);
+						while (true) {
+							try {
+								reusable = DONE.equals(readResponse());
+								break;
+							}
+							catch (SocketTimeoutException e) {
+								if (process.isCanceled() || fProcess.isTerminated()) {
+									break;
+								}
+							}
+						}
+					}
+					catch (IOException e) {
+						// the daemon has gone away, the build ends with it
+					}
+					finally {
+						release(Daemon.this, reusable);
+						process.terminated();
+					}
+				}
+			};
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		private void send(String... lines) throws IOException {
+			for (String line : lines) {
+				fWriter.write(line);
+				fWriter.write('\n');
+			}
+			fWriter.flush();
+		}
+
+		/**
+		 * Escapes the line breaks and backslashes of an argument, so that the argument is sent as a single line
+		 */
+		private String escape(String argument) {
+			StringBuilder escaped = new StringBuilder(argument.length());
+			for (int i = 0; i < argument.length(); i++) {
+				char c = argument.charAt(i);
+				switch (c) {
+					case '\\':
+						escaped.append("\\\\"); //$NON-NLS-1$
+						break;
+					case '\n':
+						escaped.append("\\n"); //$NON-NLS-1$
+						break;
+					case '\r':
+						escaped.append("\\r"); //$NON-NLS-1$
+						break;
+					default:
+						escaped.append(c);
+				}
+			}
+			return escaped.toString();
+		}
+
+		private String readResponse() throws IOException {
+			while (true) {
+				int c = fInput.read();
+				if (c == -1) {
+					throw new EOFException();
+				}
+				if (c == '\n') {
+					String response = fResponse.toString();
+					fResponse.setLength(0);
+					return response;
+				}
+				fResponse.append((char) c);
+			}
+		}
+
+		void destroy() {
+			try {
+				fSocket.close();
+			}
+			catch (IOException e) {
+				// do nothing
+			}
+			if (!fProcess.isTerminated()) {
+				terminate(fProcess);
+			}
+		}
+	}
+}
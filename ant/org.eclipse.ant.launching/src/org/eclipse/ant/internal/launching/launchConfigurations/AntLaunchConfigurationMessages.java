@@ -33,6 +33,8 @@ public class AntLaunchConfigurationMessages extends NLS {
 
 	public static String ContributedClasspathEntriesEntry_1;
 
+	public static String AntDaemonManager_0;
+
 	static {
 		// load message values from bundle file
 		NLS.initializeMessages(BUNDLE_NAME, AntLaunchConfigurationMessages.class);
@@ -243,12 +243,26 @@ public class AntLaunchDelegate extends LaunchConfigurationDelegate {
 			}
 		}
 
+		// a daemon VM has no console to read input from, builds in a daemon use no input handler
+		boolean useDaemon = isSeparateJRE && captureOutput && !fMode.equals(ILaunchManager.DEBUG_MODE) && AntDaemonManager.isEnabled();
+		if (useDaemon && arguments != null) {
+			for (String argument : arguments) {
+				if (argument.startsWith("-logger")) { //$NON-NLS-1$
+					useDaemon = false;
+					break;
+				}
+			}
+		}
+		if (useDaemon) {
+			setInputHandler = false;
+		}
+
 		StringBuffer commandLine = generateCommandLine(location, arguments, userProperties, propertyFiles, targets, antHome, basedir, isSeparateJRE, captureOutput, setInputHandler);
 
 		if (isSeparateJRE) {
 			monitor.beginTask(MessageFormat.format(AntLaunchConfigurationMessages.AntLaunchDelegate_Launching__0__1, new Object[] {
 					configuration.getName() }), 10);
-			runInSeparateVM(configuration, launch, monitor, idStamp, antHome, port, requestPort, commandLine, captureOutput, setInputHandler);
+			runInSeparateVM(configuration, launch, monitor, idStamp, antHome, port, requestPort, commandLine, captureOutput, setInputHandler, useDaemon);
 		} else {
 			runInSameVM(configuration, launch, monitor, location, idStamp, runner, commandLine);
 		}
@@ -532,7 +546,7 @@ public class AntLaunchDelegate extends LaunchConfigurationDelegate {
 		commandLine.append("\""); //$NON-NLS-1$
 	}
 
-	private void runInSeparateVM(ILaunchConfiguration configuration, ILaunch launch, IProgressMonitor monitor, String idStamp, String antHome, int port, int requestPort, StringBuffer commandLine, boolean captureOutput, boolean setInputHandler) throws CoreException {
+	private void runInSeparateVM(ILaunchConfiguration configuration, ILaunch launch, IProgressMonitor monitor, String idStamp, String antHome, int port, int requestPort, StringBuffer commandLine, boolean captureOutput, boolean setInputHandler, boolean useDaemon) throws CoreException {
 		boolean debug = fMode.equals(ILaunchManager.DEBUG_MODE);
 		if (captureOutput) {
 			String encoding = DebugPlugin.getDefault().getLaunchManager().getEncoding(configuration);
@@ -577,7 +591,10 @@ public class AntLaunchDelegate extends LaunchConfigurationDelegate {
 		IProgressMonitor subMonitor = SubMonitor.convert(monitor, 10);
 		AntJavaLaunchDelegate delegate = new AntJavaLaunchDelegate();
 		delegate.preLaunchCheck(copy, ILaunchManager.RUN_MODE, subMonitor);
-		delegate.launch(copy, ILaunchManager.RUN_MODE, launch, subMonitor);
+		// the output of a user specified logger goes to the standard output of the VM, which is only shown for a VM of its own
+		if (!useDaemon || fUserSpecifiedLogger || !runInDaemon(configuration, copy, delegate, launch, idStamp, commandLine, subMonitor)) {
+			delegate.launch(copy, ILaunchManager.RUN_MODE, launch, subMonitor);
+		}
 		final IProcess[] processes = launch.getProcesses();
 		for (IProcess process : processes) {
 			setProcessAttributes(process, idStamp, null);
@@ -620,6 +637,33 @@ public class AntLaunchDelegate extends LaunchConfigurationDelegate {
 		}
 	}
 
+	/**
+	 * Hands the build to a daemon VM of the {@link AntDaemonManager}. The build is represented by an {@link AntProcess} that terminates once the
+	 * daemon has finished the build.
+	 *
+	 * @return whether the build runs in a daemon, <code>false</code> if no daemon could be started and the build has to be launched in a VM of its
+	 *         own
+	 */
+	private boolean runInDaemon(ILaunchConfiguration configuration, ILaunchConfigurationWorkingCopy copy, AntJavaLaunchDelegate delegate, ILaunch launch, String idStamp, StringBuffer commandLine, IProgressMonitor monitor) throws CoreException {
+		String[] arguments = DebugPlugin.parseArguments(delegate.getProgramArguments(copy));
+		AntDaemonManager.Daemon daemon;
+		try {
+			daemon = AntDaemonManager.getDefault().acquire(copy, delegate, monitor);
+		}
+		catch (CoreException e) {
+			AntLaunching.log(e);
+			return false;
+		}
+		Map<String, String> attributes = new HashMap<>(2);
+		attributes.put(IProcess.ATTR_PROCESS_TYPE, IAntLaunchConstants.ID_ANT_PROCESS_TYPE);
+		attributes.put(AbstractEclipseBuildLogger.ANT_PROCESS_ID, idStamp);
+
+		AntProcess process = new AntProcess(ExternalToolsCoreUtil.getLocation(configuration).toOSString(), launch, attributes);
+		setProcessAttributes(process, idStamp, commandLine);
+		daemon.runBuild(arguments, process);
+		return true;
+	}
+
 	@SuppressWarnings("deprecation")
 	private void setDefaultVM(ILaunchConfiguration configuration, ILaunchConfigurationWorkingCopy copy) {
 		try {
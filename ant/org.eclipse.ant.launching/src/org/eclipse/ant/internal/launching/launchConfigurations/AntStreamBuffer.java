@@ -0,0 +1,300 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.internal.launching.launchConfigurations;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.ant.internal.launching.AntLaunching;
+
+/**
+ * The contents of an Ant stream monitor. Text is kept in segments of a fixed size; once more than a given number of segments is held in memory the
+ * oldest segments are written to a temporary file. The contents can be read through a {@link Reader}, so they do not have to be held in memory as
+ * a whole.
+ */
+public class AntStreamBuffer {
+
+	/**
+	 * The default number of characters per segment
+	 */
+	public static final int SEGMENT_SIZE = 64 * 1024;
+
+	/**
+	 * The default number of segments kept in memory, about 8 MB per stream
+	 */
+	public static final int MAX_SEGMENTS = 64;
+
+	private final int fSegmentSize;
+	private final int fMaxSegments;
+
+	/**
+	 * The complete segments held in memory, oldest first
+	 */
+	private final ArrayDeque<String> fSegments = new ArrayDeque<>();
+	private final StringBuilder fCurrentSegment = new StringBuilder();
+
+	private File fSpillFile;
+	private Writer fSpillWriter;
+	private long fSpilledLength = 0;
+	private boolean fSpillFailed = false;
+	private long fLength = 0;
+
+	/**
+	 * Creates a buffer with the default segment size and number of segments kept in memory.
+	 */
+	public AntStreamBuffer() {
+		this(SEGMENT_SIZE, MAX_SEGMENTS);
+	}
+
+	/**
+	 * Creates a buffer.
+	 *
+	 * @param segmentSize
+	 *            the number of characters per segment
+	 * @param maxSegments
+	 *            the number of complete segments kept in memory before the oldest ones are written to disk
+	 */
+	public AntStreamBuffer(int segmentSize, int maxSegments) {
+		fSegmentSize = segmentSize;
+		fMaxSegments = maxSegments;
+	}
+
+	/**
+	 * Appends the given text to the buffer.
+	 *
+	 * @param text
+	 *            the text to append
+	 */
+	public synchronized void append(String text) {
+		int start = 0;
+		int length = text.length();
+		while (start < length) {
+			int count = Math.min(fSegmentSize - fCurrentSegment.length(), length - start);
+			fCurrentSegment.append(text, start, start + count);
+			start += count;
+			if (fCurrentSegment.length() == fSegmentSize) {
+				fSegments.add(fCurrentSegment.toString());
+				fCurrentSegment.setLength(0);
+				if (fSegments.size() > fMaxSegments) {
+					spill(fSegments.poll());
+				}
+			}
+		}
+		fLength += length;
+	}
+
+	private void spill(String segment) {
+		if (fSpillFailed) {
+			// keep the memory bounded, the oldest output is lost
+			fLength -= segment.length();
+			return;
+		}
+		try {
+			if (fSpillWriter == null) {
+				fSpillFile = File.createTempFile("antStream", ".log"); //$NON-NLS-1$ //$NON-NLS-2$
+				fSpillFile.deleteOnExit();
+				fSpillWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fSpillFile), StandardCharsets.UTF_8));
+			}
+			fSpillWriter.write(segment);
+			fSpilledLength += segment.length();
+		}
+		catch (IOException e) {
+			AntLaunching.log(e);
+			fSpillFailed = true;
+			fLength -= segment.length();
+		}
+	}
+
+	/**
+	 * Returns the number of characters in the buffer.
+	 *
+	 * @return the length of the contents
+	 */
+	public synchronized long getLength() {
+		return fLength;
+	}
+
+	/**
+	 * Returns the number of characters that have been written to disk.
+	 *
+	 * @return the length of the contents that are not held in memory
+	 */
+	public synchronized long getSpilledLength() {
+		return fSpilledLength;
+	}
+
+	/**
+	 * Returns a reader of the current contents of the buffer. Text appended afterwards is not returned by the reader. The reader has to be closed.
+	 *
+	 * @return a reader of the contents
+	 */
+	public synchronized Reader getReader() {
+		if (fSpillWriter != null) {
+			try {
+				fSpillWriter.flush();
+			}
+			catch (IOException e) {
+				AntLaunching.log(e);
+			}
+		}
+		List<String> segments = new ArrayList<>(fSegments.size() + 1);
+		segments.addAll(fSegments);
+		if (fCurrentSegment.length() > 0) {
+			segments.add(fCurrentSegment.toString());
+		}
+		return new ContentsReader(fSpilledLength > 0 ? fSpillFile : null, fSpilledLength, segments);
+	}
+
+	/**
+	 * Returns the contents of the buffer as a single string.
+	 *
+	 * @return the contents
+	 */
+	public String getContents() {
+		StringBuilder contents;
+		Reader reader;
+		synchronized (this) {
+			if (fSpilledLength == 0) {
+				contents = new StringBuilder((int) fLength);
+				for (String segment : fSegments) {
+					contents.append(segment);
+				}
+				contents.append(fCurrentSegment);
+				return contents.toString();
+			}
+			contents = new StringBuilder((int) Math.min(fLength, Integer.MAX_VALUE - 8));
+			reader = getReader();
+		}
+		char[] buffer = new char[8192];
+		try {
+			int read;
+			while ((read = reader.read(buffer)) != -1) {
+				contents.append(buffer, 0, read);
+			}
+		}
+		catch (IOException e) {
+			AntLaunching.log(e);
+		}
+		finally {
+			try {
+				reader.close();
+			}
+			catch (IOException e) {
+				// do nothing
+			}
+		}
+		return contents.toString();
+	}
+
+	/**
+	 * Removes all contents from the buffer and deletes its temporary file.
+	 */
+	public synchronized void clear() {
+		fSegments.clear();
+		fCurrentSegment.setLength(0);
+		fLength = 0;
+		fSpilledLength = 0;
+		fSpillFailed = false;
+		if (fSpillWriter != null) {
+			try {
+				fSpillWriter.close();
+			}
+			catch (IOException e) {
+				// do nothing
+			}
+			fSpillWriter = null;
+		}
+		if (fSpillFile != null) {
+			// readers still open keep the file on some platforms, it is removed on exit then
+			fSpillFile.delete();
+			fSpillFile = null;
+		}
+	}
+
+	/**
+	 * Reads the spilled part of the contents from the temporary file, followed by the segments held in memory when the reader was created.
+	 */
+	private static class ContentsReader extends Reader {
+
+		private Reader fFileReader;
+		private long fFileRemaining;
+		private final List<String> fSegments;
+		private int fSegmentIndex = 0;
+		private int fSegmentOffset = 0;
+		private final File fFile;
+
+		ContentsReader(File file, long fileLength, List<String> segments) {
+			fFile = file;
+			fFileRemaining = fileLength;
+			fSegments = segments;
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (fFileRemaining > 0) {
+				if (fFileReader == null) {
+					fFileReader = new InputStreamReader(new FileInputStream(fFile), StandardCharsets.UTF_8);
+				}
+				int read = fFileReader.read(cbuf, off, (int) Math.min(len, fFileRemaining));
+				if (read == -1) {
+					// the file has been truncated by clearing the buffer
+					fFileRemaining = 0;
+				} else {
+					fFileRemaining -= read;
+					return read;
+				}
+			}
+			if (fFileReader != null) {
+				fFileReader.close();
+				fFileReader = null;
+			}
+			while (fSegmentIndex < fSegments.size()) {
+				String segment = fSegments.get(fSegmentIndex);
+				int count = Math.min(len, segment.length() - fSegmentOffset);
+				if (count > 0) {
+					segment.getChars(fSegmentOffset, fSegmentOffset + count, cbuf, off);
+					fSegmentOffset += count;
+					return count;
+				}
+				fSegmentIndex++;
+				fSegmentOffset = 0;
+			}
+			return -1;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (fFileReader != null) {
+				fFileReader.close();
+				fFileReader = null;
+			}
+			fFileRemaining = 0;
+			fSegmentIndex = fSegments.size();
+		}
+	}
+}
@@ -18,11 +18,12 @@ import org.eclipse.debug.core.IStreamListener;
 import org.eclipse.debug.core.model.IFlushableStreamMonitor;
 
 /**
- * Stream monitor implementation for an Ant build process.
+ * Stream monitor implementation for an Ant build process. The buffered contents are bounded in memory, older output is kept in a temporary file
+ * (see {@link AntStreamBuffer}).
  */
 public class AntStreamMonitor implements IFlushableStreamMonitor {
 
-	private StringBuffer fContents = new StringBuffer();
+	private AntStreamBuffer fContents = new AntStreamBuffer();
 	private ListenerList<IStreamListener> fListeners = new ListenerList<>(1);
 	private boolean fBuffered = true;
 
@@ -33,7 +34,7 @@ public class AntStreamMonitor implements IFlushableStreamMonitor {
 
 	@Override
 	public String getContents() {
-		return fContents.toString();
+		return fContents.getContents();
 	}
 
 	@Override
@@ -57,7 +58,7 @@ public class AntStreamMonitor implements IFlushableStreamMonitor {
 
 	@Override
 	public void flushContents() {
-		fContents.setLength(0);
+		fContents.clear();
 	}
 
 	@Override
@@ -59,4 +59,15 @@ public class AntStreamsProxy implements IStreamsProxy {
 	public IStreamMonitor getVerboseStreamMonitor() {
 		return fVerboseMonitor;
 	}
+
+	/**
+	 * Discards the contents buffered by all the stream monitors.
+	 */
+	public void dispose() {
+		fErrorMonitor.flushContents();
+		fOutputMonitor.flushContents();
+		fDebugMonitor.flushContents();
+		fVerboseMonitor.flushContents();
+		fWarningMonitor.flushContents();
+	}
 }
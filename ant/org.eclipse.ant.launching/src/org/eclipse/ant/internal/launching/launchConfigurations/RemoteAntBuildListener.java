@@ -23,10 +23,10 @@ import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.StringTokenizer;
 
 import org.apache.tools.ant.Project;
 import org.eclipse.ant.internal.core.AbstractEclipseBuildLogger;
+import org.eclipse.ant.internal.core.IAntCoreConstants;
 import org.eclipse.ant.internal.launching.AntLaunch;
 import org.eclipse.ant.internal.launching.AntLaunching;
 import org.eclipse.ant.internal.launching.AntLaunchingUtil;
@@ -63,6 +63,7 @@ public class RemoteAntBuildListener implements ILaunchesListener {
 	private String fLastFileName = null;
 	private String fLastTaskName = null;
 	private boolean fBuildFailed = false;
+	private final RecordReader fRecordReader = new RecordReader();
 	/**
 	 * The encoding to use
 	 *
@@ -181,7 +182,11 @@ public class RemoteAntBuildListener implements ILaunchesListener {
 	}
 
 	protected void receiveMessage(String message) {
-		if (message.startsWith(MessageIds.TASK)) {
+		if (message.startsWith(MessageIds.TASK_RECORD)) {
+			receiveTaskRecord(message);
+		} else if (message.startsWith(MessageIds.TARGET_RECORD)) {
+			receiveTargetRecord(message);
+		} else if (message.startsWith(MessageIds.TASK)) {
 			receiveTaskMessage(message);
 		} else if (message.startsWith(MessageIds.TARGET)) {
 			receiveTargetMessage(message);
@@ -207,68 +212,103 @@ public class RemoteAntBuildListener implements ILaunchesListener {
 		}
 	}
 
+	private void receiveTargetRecord(String message) {
+		RecordReader reader = fRecordReader.reset(message, MessageIds.TARGET_RECORD.length());
+		String name = reader.readField() + ':';
+		if (reader.hasMore()) {
+			String location = reader.readField();
+			int lineNumber = reader.readInt();
+			generateLink(name, location, lineNumber, 0, name.length() - 1);
+		}
+		writeMessage(name + System.getProperty("line.separator"), Project.MSG_INFO); //$NON-NLS-1$
+	}
+
+	/**
+	 * Receives a target message of the line based format used by older versions of the remote build logger.
+	 */
 	private void receiveTargetMessage(String message) {
-		String msg = message.substring(MessageIds.TARGET.length());
-		StringTokenizer tokenizer = new StringTokenizer(msg, ","); //$NON-NLS-1$
-		msg = tokenizer.nextToken();
-		if (tokenizer.hasMoreTokens()) {
-			int locationLength = Integer.parseInt(tokenizer.nextToken());
-			String location = tokenizer.nextToken();
-			while (location.length() < locationLength) { // path with a comma in
-				// it
-				location += ","; //$NON-NLS-1$
-				location += tokenizer.nextToken();
-			}
-			int lineNumber = Integer.parseInt(tokenizer.nextToken());
-			generateLink(msg, location, lineNumber, 0, msg.length() - 1);
+		RecordReader reader = fRecordReader.reset(message, MessageIds.TARGET.length() + 1);
+		String name = reader.readUntil(',');
+		if (reader.hasMore()) {
+			int locationLength = reader.readInt();
+			reader.skip(',');
+			String location = reader.readString(locationLength);
+			reader.skip(',');
+			int lineNumber = reader.readInt();
+			generateLink(name, location, lineNumber, 0, name.length() - 1);
+		}
+		writeMessage(name + System.getProperty("line.separator"), Project.MSG_INFO); //$NON-NLS-1$
+	}
+
+	private void receiveTaskRecord(String message) {
+		RecordReader reader = fRecordReader.reset(message, MessageIds.TASK_RECORD.length());
+		int priority = reader.readInt();
+		reader.skip(',');
+		String taskName = reader.readField();
+		if (taskName.length() == 0) {
+			taskName = fLastTaskName;
+		}
+		String line = reader.readField();
+		String fileName = reader.readField();
+		if (fileName.length() == 0) {
+			fileName = fLastFileName;
+		}
+		int lineNumber = reader.readInt();
+		if (lineNumber < 0) {
+			// unknown location
+			writeTaskMessage(priority, taskName, line, null, lineNumber);
+		} else {
+			writeTaskMessage(priority, taskName, line, fileName, lineNumber);
 		}
-		writeMessage(msg + System.getProperty("line.separator"), Project.MSG_INFO); //$NON-NLS-1$
 	}
 
+	/**
+	 * Receives a task message of the line based format used by older versions of the remote build logger.
+	 */
 	private void receiveTaskMessage(String message) {
-		String msg = message.substring(MessageIds.TASK.length());
-		int index = msg.indexOf(',');
-		int priority = Integer.parseInt(msg.substring(0, index));
-		int index2 = msg.indexOf(',', index + 1);
-		String taskName = msg.substring(index + 1, index2);
+		RecordReader reader = fRecordReader.reset(message, MessageIds.TASK.length());
+		int priority = reader.readInt();
+		reader.skip(',');
+		String taskName = reader.readUntil(',');
 		if (taskName.length() == 0) {
 			taskName = fLastTaskName;
 		}
-		int index3 = msg.indexOf(',', index2 + 1);
-		int lineLength = Integer.parseInt(msg.substring(index2 + 1, index3));
-		int index4 = index3 + 1 + lineLength;
-		String line = msg.substring(index3 + 1, index4);
+		int lineLength = reader.readInt();
+		reader.skip(',');
+		String line = reader.readString(lineLength);
+		reader.skip(',');
+		String fileName = fLastFileName;
+		if (!reader.skip(',')) {
+			int locationLength = reader.readInt();
+			reader.skip(',');
+			fileName = reader.readString(locationLength);
+			reader.skip(',');
+		}
+		int lineNumber = reader.readInt();
+		writeTaskMessage(priority, taskName, line, fileName, lineNumber);
+	}
+
+	private void writeTaskMessage(int priority, String taskName, String line, String fileName, int lineNumber) {
 		StringBuilder labelBuff = new StringBuilder();
 		labelBuff.append('[');
 		labelBuff.append(taskName);
 		labelBuff.append("] "); //$NON-NLS-1$
 		labelBuff.append(line);
-		line = labelBuff.toString();
+		String label = labelBuff.toString();
 
 		fLastTaskName = taskName;
-		int locationIndex = msg.indexOf(',', index4 + 1);
-		int finalIndex = locationIndex + 1;
-		String fileName = msg.substring(index4 + 1, locationIndex);
-		int locationLength = 0;
-		if (fileName.length() == 0) {
-			fileName = fLastFileName;
-		} else {
-			finalIndex = msg.indexOf(',', locationIndex) + 1;
-			locationLength = Integer.parseInt(fileName);
-			fileName = msg.substring(finalIndex, finalIndex + locationLength);
-			locationLength += 1; // set past delimiter
+		if (fileName != null) {
+			fLastFileName = fileName;
 		}
-		fLastFileName = fileName;
-		int lineNumber = Integer.parseInt(msg.substring(finalIndex + locationLength));
 		int size = AntLaunching.LEFT_COLUMN_SIZE - (taskName.length() + 3);
 		int offset = Math.max(size - 2, 1);
 		int length = AntLaunching.LEFT_COLUMN_SIZE - size - 3;
 		if (fileName != null) {
-			generateLink(line, fileName, lineNumber, offset, length);
+			generateLink(label, fileName, lineNumber, offset, length);
 		}
 
 		StringBuffer fullMessage = new StringBuffer();
-		adornMessage(taskName, line, fullMessage);
+		adornMessage(taskName, label, fullMessage);
 		writeMessage(fullMessage.append(System.getProperty("line.separator")).toString(), priority); //$NON-NLS-1$
 	}
 
@@ -388,4 +428,79 @@ public class RemoteAntBuildListener implements ILaunchesListener {
 			}
 		}
 	}
+
+	/**
+	 * Reads the fields of a message in place, without splitting the message into intermediate strings.
+	 */
+	private static class RecordReader {
+		private String fRecord;
+		private int fPosition;
+
+		RecordReader reset(String record, int start) {
+			fRecord = record;
+			fPosition = start;
+			return this;
+		}
+
+		boolean hasMore() {
+			return fPosition < fRecord.length();
+		}
+
+		/**
+		 * Skips the given character if it is the next one.
+		 */
+		boolean skip(char c) {
+			if (fPosition < fRecord.length() && fRecord.charAt(fPosition) == c) {
+				fPosition++;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Reads a possibly negative decimal number, stopping at the first character that is not a digit.
+		 */
+		int readInt() {
+			boolean negative = skip('-');
+			int value = 0;
+			while (fPosition < fRecord.length()) {
+				char c = fRecord.charAt(fPosition);
+				if (c < '0' || c > '9') {
+					break;
+				}
+				value = value * 10 + (c - '0');
+				fPosition++;
+			}
+			return negative ? -value : value;
+		}
+
+		String readString(int length) {
+			int end = Math.min(fPosition + length, fRecord.length());
+			String value = end == fPosition ? IAntCoreConstants.EMPTY_STRING : fRecord.substring(fPosition, end);
+			fPosition = end;
+			return value;
+		}
+
+		/**
+		 * Reads up to the given delimiter, which is skipped.
+		 */
+		String readUntil(char delimiter) {
+			int end = fRecord.indexOf(delimiter, fPosition);
+			if (end == -1) {
+				end = fRecord.length();
+			}
+			String value = readString(end - fPosition);
+			skip(delimiter);
+			return value;
+		}
+
+		/**
+		 * Reads a field prefixed by its length and a colon.
+		 */
+		String readField() {
+			int length = readInt();
+			skip(':');
+			return readString(length);
+		}
+	}
 }
\ No newline at end of file
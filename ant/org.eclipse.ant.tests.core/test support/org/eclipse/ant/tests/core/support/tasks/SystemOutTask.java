@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ * 
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.tests.core.support.tasks;
+
+import org.apache.tools.ant.BuildException;
+import org.apache.tools.ant.Task;
+
+/**
+ * Writes its message directly to <code>System.out</code>, as tasks unaware of the Ant logging do
+ */
+public class SystemOutTask extends Task {
+
+	private String message;
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+	@Override
+	public void execute() throws BuildException {
+		System.out.println(message);
+	}
+}
@@ -13,9 +13,13 @@
  *******************************************************************************/
 package org.eclipse.ant.tests.core;
 
+import org.eclipse.ant.tests.core.tests.AntClassLoaderTests;
 import org.eclipse.ant.tests.core.tests.AntSecurityManagerTest;
+import org.eclipse.ant.tests.core.tests.ConcurrentBuildTests;
 import org.eclipse.ant.tests.core.tests.FrameworkTests;
 import org.eclipse.ant.tests.core.tests.OptionTests;
+import org.eclipse.ant.tests.core.tests.ProfilingBuildListenerTests;
+import org.eclipse.ant.tests.core.tests.ProgressBuildListenerTests;
 import org.eclipse.ant.tests.core.tests.ProjectTests;
 import org.eclipse.ant.tests.core.tests.PropertyTests;
 import org.eclipse.ant.tests.core.tests.TargetTests;
@@ -37,7 +41,8 @@ import org.junit.runners.Suite;
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ FrameworkTests.class, TargetTests.class, ProjectTests.class, OptionTests.class, TaskTests.class, TypeTests.class,
-		PropertyTests.class, AntSecurityManagerTest.class })
+		PropertyTests.class, AntSecurityManagerTest.class, ConcurrentBuildTests.class, AntClassLoaderTests.class,
+		ProfilingBuildListenerTests.class, ProgressBuildListenerTests.class })
 public class AutomatedSuite {
 	// SUITE
 }
\ No newline at end of file
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ *  Copyright (c) 2020 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.tests.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.ant.internal.core.AntClassLoader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the lookup caches of the Ant class loader
+ */
+@SuppressWarnings("restriction")
+public class AntClassLoaderTests {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * A plug-in class loader that provides the given class names and counts how often it is asked for a class
+	 */
+	private static class CountingLoader extends ClassLoader {
+
+		private final Set<String> fProvided;
+		final AtomicInteger fLookups = new AtomicInteger();
+		volatile ClassLoader fContextClassLoader;
+
+		CountingLoader(String... provided) {
+			super(null);
+			fProvided = new HashSet<>(Arrays.asList(provided));
+		}
+
+		@Override
+		public Class<?> loadClass(String name) throws ClassNotFoundException {
+			fLookups.incrementAndGet();
+			fContextClassLoader = Thread.currentThread().getContextClassLoader();
+			if (fProvided.contains(name)) {
+				return String.class;
+			}
+			throw new ClassNotFoundException(name);
+		}
+	}
+
+	/**
+	 * Tests that a class none of the plug-in class loaders provide is only looked up once in the plug-in class loaders
+	 */
+	@Test
+	public void testMissingClassIsCached() throws Exception {
+		CountingLoader first = new CountingLoader();
+		CountingLoader second = new CountingLoader();
+		try (AntClassLoader loader = new AntClassLoader(new URL[0], new ClassLoader[] { first, second })) {
+			for (int i = 0; i < 3; i++) {
+				try {
+					loader.loadClass("org.example.missing.Missing"); //$NON-NLS-1$
+					fail("Missing class should not be found"); //$NON-NLS-1$
+				}
+				catch (ClassNotFoundException e) {
+					// expected
+				}
+			}
+		}
+		assertEquals("Missing class should be asked of the first plug-in loader once", 1, first.fLookups.get()); //$NON-NLS-1$
+		assertEquals("Missing class should be asked of the second plug-in loader once", 1, second.fLookups.get()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that a class is looked up again in the plug-in class loader that provided it before, and that the package index routes other classes
+	 * of the same package to that class loader
+	 */
+	@Test
+	public void testOwnerIsCached() throws Exception {
+		CountingLoader first = new CountingLoader();
+		CountingLoader second = new CountingLoader("org.example.provided.First", "org.example.provided.Second"); //$NON-NLS-1$ //$NON-NLS-2$
+		try (AntClassLoader loader = new AntClassLoader(new URL[0], new ClassLoader[] { first, second })) {
+			loader.setUsePackageIndex(true);
+			assertSame(String.class, loader.loadClass("org.example.provided.First")); //$NON-NLS-1$
+			assertEquals(1, first.fLookups.get());
+			assertSame(String.class, loader.loadClass("org.example.provided.First")); //$NON-NLS-1$
+			assertSame(String.class, loader.loadClass("org.example.provided.Second")); //$NON-NLS-1$
+			assertEquals("Known owners should be asked directly", 1, first.fLookups.get()); //$NON-NLS-1$
+			assertEquals(3, second.fLookups.get());
+			assertEquals("Delegated classes should not count as defined", 0, loader.getDefinedClassCount()); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Tests that classes defined from the classpath of the Ant class loader are counted
+	 */
+	@Test
+	public void testDefinedClassCount() throws Exception {
+		String name = "org.example.defined.Defined"; //$NON-NLS-1$
+		File classes = folder.newFolder("classes"); //$NON-NLS-1$
+		writeClass(name, classes);
+		CountingLoader plugin = new CountingLoader();
+		try (AntClassLoader loader = new AntClassLoader(new URL[] { classes.toURI().toURL() }, new ClassLoader[] { plugin })) {
+			Class<?> probe = loader.loadClass(name);
+			assertSame(loader, probe.getClassLoader());
+			assertSame(probe, loader.loadClass(name));
+			assertEquals(1, loader.getDefinedClassCount());
+			assertEquals(1, plugin.fLookups.get());
+		}
+	}
+
+	/**
+	 * Tests that the plug-in context class loader only applies to the thread that set it
+	 */
+	@Test
+	public void testPluginContextClassloaderIsPerThread() throws Exception {
+		CountingLoader plugin = new CountingLoader("org.example.provided.First", "org.example.provided.Second"); //$NON-NLS-1$ //$NON-NLS-2$
+		ClassLoader context = new CountingLoader();
+		try (AntClassLoader loader = new AntClassLoader(new URL[0], new ClassLoader[] { plugin })) {
+			loader.setPluginContextClassloader(context);
+			loader.loadClass("org.example.provided.First"); //$NON-NLS-1$
+			assertSame(context, plugin.fContextClassLoader);
+
+			ClassLoader[] otherThreadContext = new ClassLoader[2];
+			Thread thread = new Thread(() -> {
+				otherThreadContext[0] = loader.getPluginContextClassloader();
+				try {
+					loader.loadClass("org.example.provided.Second"); //$NON-NLS-1$
+				}
+				catch (ClassNotFoundException e) {
+					// asserted below
+				}
+				otherThreadContext[1] = plugin.fContextClassLoader;
+			});
+			thread.setContextClassLoader(getClass().getClassLoader());
+			thread.start();
+			thread.join();
+			assertNull(otherThreadContext[0]);
+			assertSame(getClass().getClassLoader(), otherThreadContext[1]);
+			assertSame(context, loader.getPluginContextClassloader());
+
+			loader.setPluginContextClassloader(null);
+			assertNull(loader.getPluginContextClassloader());
+		}
+	}
+
+	/**
+	 * Writes the class file of an empty class with the given name below the given root
+	 */
+	private void writeClass(String name, File root) throws IOException {
+		String path = name.replace('.', '/');
+		File target = new File(root, path + ".class"); //$NON-NLS-1$
+		target.getParentFile().mkdirs();
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(target))) {
+			out.writeInt(0xCAFEBABE);
+			out.writeShort(0); // minor version
+			out.writeShort(52); // major version, Java 8
+			out.writeShort(5); // constant pool count
+			out.writeByte(7); // #1 class
+			out.writeShort(2);
+			out.writeByte(1); // #2 UTF-8
+			out.writeUTF(path);
+			out.writeByte(7); // #3 class
+			out.writeShort(4);
+			out.writeByte(1); // #4 UTF-8
+			out.writeUTF("java/lang/Object"); //$NON-NLS-1$
+			out.writeShort(0x0021); // public super
+			out.writeShort(1); // this class
+			out.writeShort(3); // super class
+			out.writeShort(0); // interfaces
+			out.writeShort(0); // fields
+			out.writeShort(0); // methods
+			out.writeShort(0); // attributes
+		}
+	}
+}
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ *  Copyright (c) 2020 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ * 
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.tests.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.ant.core.AntRunner;
+import org.eclipse.ant.tests.core.AbstractAntTest;
+import org.eclipse.core.runtime.CoreException;
+import org.junit.Test;
+
+/**
+ * Tests running several in-VM builds at the same time
+ */
+public class ConcurrentBuildTests extends AbstractAntTest {
+
+	private static final int BUILD_COUNT = 8;
+
+	/**
+	 * Runs several builds concurrently and checks that each log only contains the output of its own build
+	 */
+	@Test
+	public void testConcurrentBuildsOutputIsolated() throws Exception {
+		runConcurrentBuilds("concurrent", "[echo]"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Runs several builds concurrently with a task writing directly to <code>System.out</code> and checks that the output of each build is routed to
+	 * its own log, and that the original streams and security manager are restored once all builds have finished
+	 */
+	@Test
+	public void testConcurrentBuildsSystemOutIsolated() throws Exception {
+		runConcurrentBuilds("systemOut", "[systemOut]"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private void runConcurrentBuilds(final String target, String prefix) throws Exception {
+		final String buildFile = getBuildFile("concurrent.xml").getLocation().toFile().getAbsolutePath(); //$NON-NLS-1$
+		final File logDir = getProject().getLocation().toFile();
+		final AtomicReferenceArray<Throwable> errors = new AtomicReferenceArray<>(BUILD_COUNT);
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[BUILD_COUNT];
+		PrintStream originalOut = System.out;
+		PrintStream originalErr = System.err;
+		SecurityManager originalSecurityManager = System.getSecurityManager();
+		for (int i = 0; i < BUILD_COUNT; i++) {
+			final int id = i;
+			threads[i] = new Thread("Concurrent Ant build " + id) { //$NON-NLS-1$
+				@Override
+				public void run() {
+					try {
+						start.await();
+						runBuild(buildFile, target, id, getLogFile(logDir, id));
+					}
+					catch (Throwable t) {
+						errors.set(id, t);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join(60000);
+		}
+		for (int i = 0; i < BUILD_COUNT; i++) {
+			assertNull("Build " + i + " failed: " + errors.get(i), errors.get(i)); //$NON-NLS-1$ //$NON-NLS-2$
+			List<String> lines = Files.readAllLines(getLogFile(logDir, i).toPath(), Charset.defaultCharset());
+			assertContainsOnlyBuild(lines, prefix, i);
+		}
+		assertFalse("No build should be running", AntRunner.isBuildRunning()); //$NON-NLS-1$
+		assertSame("System.out should have been restored", originalOut, System.out); //$NON-NLS-1$
+		assertSame("System.err should have been restored", originalErr, System.err); //$NON-NLS-1$
+		assertSame("The security manager should have been restored", originalSecurityManager, System.getSecurityManager()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that an exclusive build is refused while a concurrent build is running. The concurrent build is held open until the exclusive build has
+	 * been attempted.
+	 */
+	@Test
+	public void testExclusiveBuildRefused() throws Exception {
+		final String buildFile = getBuildFile("concurrent.xml").getLocation().toFile().getAbsolutePath(); //$NON-NLS-1$
+		File dir = getProject().getLocation().toFile();
+		final File logFile = getLogFile(dir, 0);
+		final File started = new File(dir, "concurrentStarted"); //$NON-NLS-1$
+		final File release = new File(dir, "concurrentRelease"); //$NON-NLS-1$
+		started.delete();
+		release.delete();
+		final Throwable[] error = new Throwable[1];
+		Thread concurrent = new Thread("Concurrent Ant build") { //$NON-NLS-1$
+			@Override
+			public void run() {
+				try {
+					runBuild(buildFile, "held", 0, logFile, "-Dstarted.file=" + started.getAbsolutePath(), //$NON-NLS-1$ //$NON-NLS-2$
+							"-Drelease.file=" + release.getAbsolutePath()); //$NON-NLS-1$
+				}
+				catch (Throwable t) {
+					error[0] = t;
+				}
+			}
+		};
+		concurrent.start();
+		boolean refused = false;
+		try {
+			long timeout = System.currentTimeMillis() + 30000;
+			while (!started.exists() && concurrent.isAlive() && System.currentTimeMillis() < timeout) {
+				Thread.sleep(10);
+			}
+			assertTrue("The concurrent build should have started", started.exists()); //$NON-NLS-1$
+			assertTrue("A build should be running", AntRunner.isBuildRunning()); //$NON-NLS-1$
+			AntRunner runner = new AntRunner();
+			runner.setBuildFileLocation(buildFile);
+			try {
+				runner.run();
+			}
+			catch (CoreException e) {
+				refused = true;
+			}
+		}
+		finally {
+			Files.write(release.toPath(), new byte[0]);
+			concurrent.join(60000);
+			started.delete();
+			release.delete();
+		}
+		assertNull("Concurrent build failed: " + error[0], error[0]); //$NON-NLS-1$
+		assertTrue("The exclusive build should have been refused", refused); //$NON-NLS-1$
+	}
+
+	void runBuild(String buildFile, String target, int id, File logFile, String... arguments) throws CoreException {
+		AntRunner runner = new AntRunner();
+		runner.setConcurrentExecution(true);
+		runner.setBuildFileLocation(buildFile);
+		runner.setExecutionTargets(new String[] { target });
+		runner.addBuildLogger("org.apache.tools.ant.DefaultLogger"); //$NON-NLS-1$
+		List<String> allArguments = new ArrayList<>(Arrays.asList("-Dbuild.id=build" + id, "-logfile", logFile.getAbsolutePath())); //$NON-NLS-1$ //$NON-NLS-2$
+		allArguments.addAll(Arrays.asList(arguments));
+		runner.setArguments(allArguments.toArray(new String[allArguments.size()]));
+		runner.run();
+	}
+
+	File getLogFile(File dir, int id) {
+		return new File(dir, "concurrent" + id + ".log"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private void assertContainsOnlyBuild(List<String> lines, String prefix, int id) {
+		String own = "build" + id; //$NON-NLS-1$
+		int echoes = 0;
+		for (String line : lines) {
+			int index = line.indexOf("build"); //$NON-NLS-1$
+			if (line.contains(prefix)) {
+				assertTrue("Unexpected output in log of " + own + ": " + line, index >= 0 && line.substring(index).equals(own)); //$NON-NLS-1$ //$NON-NLS-2$
+				echoes++;
+			}
+		}
+		assertEquals("Wrong number of " + prefix + " lines in log of " + own, 3, echoes); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -14,14 +14,18 @@
  *******************************************************************************/
 package org.eclipse.ant.tests.core.tests;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Files;
 
 import org.eclipse.ant.core.AntCorePlugin;
 import org.eclipse.ant.core.AntCorePreferences;
@@ -29,6 +33,8 @@ import org.eclipse.ant.core.AntRunner;
 import org.eclipse.ant.core.IAntClasspathEntry;
 import org.eclipse.ant.core.Property;
 import org.eclipse.ant.core.TargetInfo;
+import org.eclipse.ant.internal.core.AntClassLoader;
+import org.eclipse.ant.internal.core.AntClassLoaderPool;
 import org.eclipse.ant.internal.core.AntClasspathEntry;
 import org.eclipse.ant.internal.core.IAntCoreConstants;
 import org.eclipse.ant.tests.core.AbstractAntTest;
@@ -273,6 +279,68 @@ public class FrameworkTests extends AbstractAntTest {
 		assertTrue("incorrect number of targets retrieved", infos != null && infos.length == 3); //$NON-NLS-1$
 	}
 
+	/**
+	 * Tests that builds with an identical classpath reuse a pooled class loader and that a classpath change flushes the pool
+	 */
+	@Test
+	public void testClassLoaderPoolReuse() throws CoreException {
+		AntClassLoaderPool pool = AntClassLoaderPool.getDefault();
+		run("echoing.xml"); //$NON-NLS-1$
+		long hits = pool.getHitCount();
+		long misses = pool.getMissCount();
+		run("echoing.xml"); //$NON-NLS-1$
+		assertSuccessful();
+		assertEquals("Second build should have reused the pooled class loader", hits + 1, pool.getHitCount()); //$NON-NLS-1$
+		assertEquals("Second build should not have created a class loader", misses, pool.getMissCount()); //$NON-NLS-1$
+
+		AntCorePreferences prefs = AntCorePlugin.getPlugin().getPreferences();
+		String path = getProject().getFolder(ProjectHelper.LIB_FOLDER).getFile("classpathOrdering1.jar").getLocation().toFile().getAbsolutePath(); //$NON-NLS-1$
+		IAntClasspathEntry entries[] = prefs.getAdditionalClasspathEntries();
+		IAntClasspathEntry newEntries[] = new IAntClasspathEntry[entries.length + 1];
+		System.arraycopy(entries, 0, newEntries, 0, entries.length);
+		newEntries[entries.length] = new AntClasspathEntry(path);
+		prefs.setAdditionalClasspathEntries(newEntries);
+		try {
+			prefs.updatePluginPreferences();
+			assertEquals("Classpath change should have flushed the pool", 0, pool.getSize()); //$NON-NLS-1$
+			run("echoing.xml"); //$NON-NLS-1$
+			assertSuccessful();
+			assertEquals("Build with a new classpath should have created a class loader", misses + 1, pool.getMissCount()); //$NON-NLS-1$
+		}
+		finally {
+			restorePreferenceDefaults();
+		}
+	}
+
+	/**
+	 * Tests that a class rebuilt below a directory classpath entry, such as the output folder of a task project, results in a new class loader
+	 */
+	@Test
+	public void testClassLoaderPoolDirectoryEntry() throws IOException {
+		File dir = new File(getProject().getLocation().toFile(), "poolClasses"); //$NON-NLS-1$
+		File classFile = new File(dir, "org/example/ExampleTask.class"); //$NON-NLS-1$
+		classFile.getParentFile().mkdirs();
+		Files.write(classFile.toPath(), new byte[] { 1 });
+		try {
+			AntClassLoaderPool pool = AntClassLoaderPool.getDefault();
+			URL[] urls = new URL[] { dir.toURI().toURL() };
+			AntClassLoader loader = pool.getClassLoader(urls, new ClassLoader[0], false);
+			assertSame("An unchanged directory entry should reuse the pooled class loader", loader, pool.getClassLoader(urls, new ClassLoader[0], false)); //$NON-NLS-1$
+
+			long dirStamp = dir.lastModified();
+			Files.write(classFile.toPath(), new byte[] { 1, 2 });
+			classFile.setLastModified(classFile.lastModified() + 2000);
+			assertEquals("Rebuilding a class should not change the directory", dirStamp, dir.lastModified()); //$NON-NLS-1$
+			assertNotSame("A rebuilt class should result in a new class loader", loader, pool.getClassLoader(urls, new ClassLoader[0], false)); //$NON-NLS-1$
+		}
+		finally {
+			classFile.delete();
+			classFile.getParentFile().delete();
+			classFile.getParentFile().getParentFile().delete();
+			dir.delete();
+		}
+	}
+
 	/**
 	 * Tests bug 389564 for a class path entry as a url representing a remote file system location
 	 * 
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ *  Copyright (c) 2020 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ * 
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.tests.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.ant.tests.core.AbstractAntTest;
+import org.junit.Test;
+
+/**
+ * Tests the profile written by the profiling build listener
+ */
+public class ProfilingBuildListenerTests extends AbstractAntTest {
+
+	private static final String LISTENER_CLASS = "org.eclipse.ant.internal.core.ant.ProfilingBuildListener"; //$NON-NLS-1$
+
+	/**
+	 * Tests that targets and tasks of called projects and parallel threads are nested below the calling task
+	 */
+	@Test
+	public void testFoldedStacks() throws Exception {
+		File profile = new File(getProject().getLocation().toFile(), "profile"); //$NON-NLS-1$
+		run("profiling.xml", new String[] { "-listener", LISTENER_CLASS, "-Declipse.ant.profile=" + profile.getAbsolutePath() }); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+		List<String> lines = Files.readAllLines(new File(profile.getAbsolutePath() + ".folded").toPath(), StandardCharsets.UTF_8); //$NON-NLS-1$
+		Map<String, Long> stacks = new HashMap<>();
+		for (String line : lines) {
+			int separator = line.lastIndexOf(' ');
+			stacks.put(line.substring(0, separator), Long.valueOf(line.substring(separator + 1)));
+		}
+		assertTrue(stacks.containsKey("Profiling;init;<echo>")); //$NON-NLS-1$
+		assertTrue(stacks.containsKey("Profiling;all;<antcall>;Profiling.called;<sleep>")); //$NON-NLS-1$
+		assertTrue(stacks.containsKey("Profiling;all;<parallel>;<echo>")); //$NON-NLS-1$
+		assertTrue("The sleep should take at least 20ms", stacks.get("Profiling;all;<antcall>;Profiling.called;<sleep>").longValue() >= 20000); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Tests that the JSON profile counts the executions of a task
+	 */
+	@Test
+	public void testJson() throws Exception {
+		File profile = new File(getProject().getLocation().toFile(), "profile"); //$NON-NLS-1$
+		run("profiling.xml", new String[] { "-listener", LISTENER_CLASS, "-Declipse.ant.profile=" + profile.getAbsolutePath() }); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+		String json = new String(Files.readAllBytes(new File(profile.getAbsolutePath() + ".json").toPath()), StandardCharsets.UTF_8); //$NON-NLS-1$
+		assertTrue(json.startsWith("{\"timeUnit\":\"ns\",\"memoryUnit\":\"bytes\",\"root\":{\"name\":\"Profiling\",\"kind\":\"build\",\"count\":1,")); //$NON-NLS-1$
+		int echo = json.indexOf("{\"name\":\"<echo>\",\"kind\":\"task\",\"count\":2,", json.indexOf("\"<parallel>\"")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue("Both echo tasks of the parallel task should be counted", echo > 0); //$NON-NLS-1$
+		assertEquals(1, json.split("\"<parallel>\"", -1).length - 1); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.tests.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.eclipse.ant.core.AntRunner;
+import org.eclipse.ant.tests.core.AbstractAntTest;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Test;
+
+/**
+ * Tests the work the progress build listener estimates for the targets of a build
+ */
+public class ProgressBuildListenerTests extends AbstractAntTest {
+
+	/**
+	 * A monitor that remembers the total work of the first task begun
+	 */
+	private static class WorkMonitor extends NullProgressMonitor {
+		int fTotalWork = -1;
+
+		@Override
+		public void beginTask(String name, int totalWork) {
+			if (fTotalWork == -1) {
+				fTotalWork = totalWork;
+			}
+		}
+	}
+
+	/**
+	 * Tests that the estimate counts a target and each target it depends on once
+	 */
+	@Test
+	public void testEstimatedWork() throws CoreException {
+		assertEquals(4, runWithMonitor("all", true)); //$NON-NLS-1$
+		assertEquals(1, runWithMonitor("init", true)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that circular dependencies are estimated once per target and fail the build when it is executed
+	 */
+	@Test
+	public void testEstimatedWorkCircular() throws CoreException {
+		assertEquals(2, runWithMonitor("circular", false)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that unknown dependencies are skipped by the estimate and fail the build when it is executed
+	 */
+	@Test
+	public void testEstimatedWorkUnknownDependency() throws CoreException {
+		assertEquals(2, runWithMonitor("unknown", false)); //$NON-NLS-1$
+	}
+
+	private int runWithMonitor(String target, boolean succeeds) throws CoreException {
+		AntRunner runner = new AntRunner();
+		runner.setBuildFileLocation(getBuildFile("estimatedWork.xml").getLocation().toFile().getAbsolutePath()); //$NON-NLS-1$
+		runner.setExecutionTargets(new String[] { target });
+		WorkMonitor monitor = new WorkMonitor();
+		try {
+			runner.run(monitor);
+			if (!succeeds) {
+				fail("The build of " + target + " should fail"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+		catch (CoreException e) {
+			if (succeeds) {
+				throw e;
+			}
+		}
+		return monitor.fTotalWork;
+	}
+}
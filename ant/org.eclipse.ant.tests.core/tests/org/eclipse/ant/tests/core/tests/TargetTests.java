@@ -19,11 +19,17 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import org.eclipse.ant.core.TargetInfo;
 import org.eclipse.ant.tests.core.AbstractAntTest;
 import org.eclipse.ant.tests.core.testplugin.AntTestChecker;
+import org.eclipse.ant.tests.core.testplugin.ProjectHelper;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.runtime.CoreException;
 import org.junit.Test;
 
@@ -117,4 +123,55 @@ public class TargetTests extends AbstractAntTest {
 				&& message.endsWith("AntTests" + File.separator + "buildfiles" + File.separator + "TestForEcho.xml")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		assertSuccessful();
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Ensures that cached target information is recomputed when an imported build file changes
+	 */
+	@Test
+	public void testTargetsRecomputedWhenImportChanges() throws Exception {
+		IFolder folder = getProject().getFolder(ProjectHelper.BUILDFILES_FOLDER);
+		IFile imported = folder.getFile("targetCacheImported.xml"); //$NON-NLS-1$
+		IFile importing = folder.getFile("targetCacheImporting.xml"); //$NON-NLS-1$
+		try {
+			imported.create(getContents("<project name=\"imported\"><target name=\"one\"/></project>"), true, null); //$NON-NLS-1$
+			importing.create(getContents("<project name=\"importing\" default=\"main\"><import file=\"targetCacheImported.xml\"/><target name=\"main\"/></project>"), true, null); //$NON-NLS-1$
+			assertEquals("Should be two targets", 2, getTargets("targetCacheImporting.xml").length); //$NON-NLS-1$ //$NON-NLS-2$
+			assertEquals("Cached targets should be returned", 2, getTargets("targetCacheImporting.xml").length); //$NON-NLS-1$ //$NON-NLS-2$
+
+			imported.setContents(getContents("<project name=\"imported\"><target name=\"one\"/><target name=\"two\"/></project>"), true, false, null); //$NON-NLS-1$
+			assertEquals("Change to the imported file should be picked up", 3, getTargets("targetCacheImporting.xml").length); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		finally {
+			importing.delete(true, null);
+			imported.delete(true, null);
+		}
+	}
+
+	/**
+	 * Ensures that cached target information is recomputed when the missing file of an optional import is created
+	 */
+	@Test
+	public void testTargetsRecomputedWhenOptionalImportCreated() throws Exception {
+		IFolder folder = getProject().getFolder(ProjectHelper.BUILDFILES_FOLDER);
+		IFile imported = folder.getFile("targetCacheOptional.xml"); //$NON-NLS-1$
+		IFile importing = folder.getFile("targetCacheOptionalImporting.xml"); //$NON-NLS-1$
+		try {
+			importing.create(getContents("<project name=\"importing\" default=\"main\"><import file=\"targetCacheOptional.xml\" optional=\"true\"/><target name=\"main\"/></project>"), true, null); //$NON-NLS-1$
+			int missing = getTargets("targetCacheOptionalImporting.xml").length; //$NON-NLS-1$
+			assertEquals("Cached targets should be returned", missing, getTargets("targetCacheOptionalImporting.xml").length); //$NON-NLS-1$ //$NON-NLS-2$
+
+			imported.create(getContents("<project name=\"optional\"><target name=\"one\"/></project>"), true, null); //$NON-NLS-1$
+			assertTrue("Creation of the imported file should be picked up", getTargets("targetCacheOptionalImporting.xml").length > missing); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		finally {
+			importing.delete(true, null);
+			if (imported.exists()) {
+				imported.delete(true, null);
+			}
+		}
+	}
+
+	private InputStream getContents(String contents) {
+		return new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.tests.ui.dtd;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.ant.internal.ui.dtd.IAttribute;
+import org.eclipse.ant.internal.ui.dtd.IDfm;
+import org.eclipse.ant.internal.ui.dtd.IElement;
+import org.eclipse.ant.internal.ui.dtd.ISchema;
+import org.eclipse.ant.internal.ui.dtd.ParseError;
+import org.eclipse.ant.internal.ui.dtd.Parser;
+import org.eclipse.ant.internal.ui.dtd.schema.SchemaSerializer;
+import org.eclipse.ant.internal.ui.editor.AntEditorCompletionProcessor;
+import org.eclipse.ant.tests.ui.testplugin.AbstractAntUITest;
+
+public class SchemaSerializerTests extends AbstractAntUITest {
+
+	public SchemaSerializerTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * Tests that the Ant DTD read back from its binary form has the same elements, attributes and dfms as the parsed DTD.
+	 */
+	public void testRoundTrip() throws IOException, ParseError {
+		ISchema parsed = parseAntDtd();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SchemaSerializer.write(parsed, 42, bytes);
+		ISchema read = SchemaSerializer.read(ByteBuffer.wrap(bytes.toByteArray()), 42);
+		assertNotNull("The schema should have been read", read); //$NON-NLS-1$
+
+		IElement[] elements = parsed.getElements();
+		assertEquals("Unexpected number of elements", elements.length, read.getElements().length); //$NON-NLS-1$
+		Map<IDfm, IDfm> visited = new IdentityHashMap<>();
+		for (IElement element : elements) {
+			IElement other = read.getElement(element.getName());
+			assertNotNull("Missing element " + element.getName(), other); //$NON-NLS-1$
+			assertEquals(element.isUndefined(), other.isUndefined());
+			assertEquals(element.isText(), other.isText());
+			assertEquals(element.isAny(), other.isAny());
+			assertEquals(element.isEmpty(), other.isEmpty());
+			assertEquals("Unexpected attributes of " + element.getName(), element.getAttributes().keySet(), other.getAttributes().keySet()); //$NON-NLS-1$
+			for (IAttribute attribute : element.getAttributes().values()) {
+				IAttribute otherAttribute = other.getAttributes().get(attribute.getName());
+				assertSame(attribute.getType(), otherAttribute.getType());
+				assertEquals(attribute.getDefault(), otherAttribute.getDefault());
+				assertEquals(attribute.isFixed(), otherAttribute.isFixed());
+				assertEquals(attribute.isRequired(), otherAttribute.isRequired());
+				assertTrue(Arrays.equals(attribute.getEnum(), otherAttribute.getEnum()));
+				assertSame(other, otherAttribute.getElement());
+			}
+			if (!element.isUndefined()) {
+				assertSameDfm(element.getDfm(), other.getDfm(), visited);
+			}
+		}
+	}
+
+	/**
+	 * Tests that a binary form written for another source is not read.
+	 */
+	public void testStaleStamp() throws IOException, ParseError {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SchemaSerializer.write(parseAntDtd(), 42, bytes);
+		assertNull("A stale schema should not be read", SchemaSerializer.read(ByteBuffer.wrap(bytes.toByteArray()), 43)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that a truncated binary form is reported as an error.
+	 */
+	public void testTruncated() throws IOException, ParseError {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		SchemaSerializer.write(parseAntDtd(), 42, bytes);
+		byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() / 2);
+		try {
+			SchemaSerializer.read(ByteBuffer.wrap(truncated), 42);
+			fail("A truncated schema should not be read"); //$NON-NLS-1$
+		}
+		catch (IOException e) {
+			// expected
+		}
+	}
+
+	private void assertSameDfm(IDfm expected, IDfm actual, Map<IDfm, IDfm> visited) {
+		IDfm previous = visited.put(expected, actual);
+		if (previous != null) {
+			assertSame("The dfm graph should have the same shape", previous, actual); //$NON-NLS-1$
+			return;
+		}
+		assertEquals(expected.isAccepting(), actual.isAccepting());
+		assertEquals(expected.isAny(), actual.isAny());
+		assertEquals(expected.isEmpty(), actual.isEmpty());
+		String[] accepts = expected.getAccepts();
+		assertTrue("Unexpected accepted symbols", Arrays.equals(accepts, actual.getAccepts())); //$NON-NLS-1$
+		if (expected.isAny()) {
+			return;
+		}
+		for (String symbol : accepts) {
+			assertEquals(symbol, actual.getAtom(symbol).getName());
+			assertSameDfm(expected.advance(symbol), actual.advance(symbol), visited);
+		}
+	}
+
+	private ISchema parseAntDtd() throws IOException, ParseError {
+		try (Reader reader = new InputStreamReader(AntEditorCompletionProcessor.class.getResourceAsStream("/org/eclipse/ant/internal/ui/editor/ant1.6.2.dtd"), StandardCharsets.UTF_8)) { //$NON-NLS-1$
+			return new Parser().parseDTD(reader, "project"); //$NON-NLS-1$
+		}
+	}
+}
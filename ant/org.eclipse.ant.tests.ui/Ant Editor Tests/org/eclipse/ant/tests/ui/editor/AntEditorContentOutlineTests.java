@@ -18,12 +18,19 @@
 package org.eclipse.ant.tests.ui.editor;
 
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.ant.internal.ui.model.AntElementNode;
+import org.eclipse.ant.internal.ui.model.AntElementNodeIndex;
 import org.eclipse.ant.internal.ui.model.AntModel;
+import org.eclipse.ant.internal.ui.model.AntPropertyNode;
+import org.eclipse.ant.internal.ui.model.AntSymbolTable;
+import org.eclipse.ant.internal.ui.model.AntTargetNode;
+import org.eclipse.ant.internal.ui.model.AntTaskNode;
 import org.eclipse.ant.internal.ui.model.IAntElement;
 import org.eclipse.ant.tests.ui.testplugin.AbstractAntUITest;
 import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
 
 /**
  * Tests the correct creation of the outline for an xml file.
@@ -190,6 +197,152 @@ public class AntEditorContentOutlineTests extends AbstractAntUITest {
 		assertEquals(offset, element.getOffset());
 	}
 
+	/**
+	 * Tests that whitespace changes between elements update the locations of the existing nodes without parsing the buildfile again and that
+	 * other changes still cause the buildfile to be parsed.
+	 */
+	public void testLayoutChangeUpdatesLocations() throws BadLocationException {
+		AntModel model = getAntModel("buildtest1.xml"); //$NON-NLS-1$
+		model.install();
+		IDocument document = getCurrentDocument();
+		AntElementNode rootProject = model.getProjectNode();
+		AntElementNode main = model.getTargetNode("main"); //$NON-NLS-1$
+		AntElementNode pretest = model.getTargetNode("pretest"); //$NON-NLS-1$
+		int mainOffset = main.getOffset();
+		int mainLength = main.getLength();
+		int projectLength = rootProject.getLength();
+
+		document.replace(document.get().indexOf("\t<target name=\"pretest\""), 0, "\n\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		model.reconcile();
+
+		assertSame("The buildfile should not have been parsed again", pretest, model.getTargetNode("pretest")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(document.get().indexOf("target name=\"pretest\""), pretest.getOffset()); //$NON-NLS-1$
+		assertEquals(mainOffset, main.getOffset());
+		assertEquals(mainLength, main.getLength());
+		assertEquals(projectLength + 2, rootProject.getLength());
+
+		document.replace(document.get().indexOf("pretest"), "pretest".length(), "posttest"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		model.reconcile();
+
+		assertNull(model.getTargetNode("pretest")); //$NON-NLS-1$
+		AntElementNode posttest = model.getTargetNode("posttest"); //$NON-NLS-1$
+		assertNotNull(posttest);
+		assertEquals(document.get().indexOf("target name=\"posttest\""), posttest.getOffset()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that a change within a target only replaces the nodes of that target, that the nodes of the other targets are kept and moved to their
+	 * new locations and that a change of the structure of the buildfile still causes the whole buildfile to be parsed.
+	 */
+	public void testTargetChangeParsesOnlyTarget() throws BadLocationException {
+		AntModel model = getAntModel("echoing.xml"); //$NON-NLS-1$
+		model.install();
+		IDocument document = getCurrentDocument();
+		AntElementNode rootProject = model.getProjectNode();
+		AntTargetNode echo1 = model.getTargetNode("echo1"); //$NON-NLS-1$
+		AntTargetNode echo2 = model.getTargetNode("echo2"); //$NON-NLS-1$
+		AntTargetNode echo3 = model.getTargetNode("echo3"); //$NON-NLS-1$
+		int projectLength = rootProject.getLength();
+
+		document.replace(document.get().indexOf("\"echo2\"/>"), "\"echo2\"".length(), "\"echo two\""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		model.reconcile();
+
+		assertSame(rootProject, model.getProjectNode());
+		assertSame("Unchanged targets should not have been parsed again", echo1, model.getTargetNode("echo1")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertSame("Unchanged targets should not have been parsed again", echo3, model.getTargetNode("echo3")); //$NON-NLS-1$ //$NON-NLS-2$
+		AntTargetNode newEcho2 = model.getTargetNode("echo2"); //$NON-NLS-1$
+		assertNotSame("The changed target should have been parsed again", echo2, newEcho2); //$NON-NLS-1$
+		assertEquals(document.get().indexOf("target name=\"echo2\""), newEcho2.getOffset()); //$NON-NLS-1$
+		IAntElement echo = newEcho2.getChildNodes().get(0);
+		assertEquals(document.get().indexOf("echo message=\"echo two\""), echo.getOffset()); //$NON-NLS-1$
+		assertSame(echo, model.getNode(echo.getOffset() + 1, false));
+		assertEquals(document.get().indexOf("target name=\"echo3\""), echo3.getOffset()); //$NON-NLS-1$
+		assertEquals(projectLength + 3, rootProject.getLength());
+
+		int end = document.get().indexOf("</target>", newEcho2.getOffset()); //$NON-NLS-1$
+		document.replace(end, 0, "</target><target name=\"echo4\">"); //$NON-NLS-1$
+		model.reconcile();
+
+		assertNotSame("A new target should cause the buildfile to be parsed", echo1, model.getTargetNode("echo1")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNotNull(model.getTargetNode("echo4")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that the offset index of the project node finds the same node as the traversal of the tree for every offset of the buildfile.
+	 */
+	public void testNodeIndexMatchesTreeTraversal() {
+		AntModel model = getAntModel("outline_select_test_build.xml"); //$NON-NLS-1$
+		AntElementNode rootProject = model.getProjectNode();
+		AntElementNodeIndex index = new AntElementNodeIndex(rootProject);
+		for (int offset = -1; offset <= getCurrentDocument().getLength() + 1; offset++) {
+			assertSame("Wrong node at offset " + offset, getNodeByTraversal(rootProject, offset), index.getNode(offset)); //$NON-NLS-1$
+			assertSame("Wrong node at offset " + offset, index.getNode(offset), model.getNode(offset, false)); //$NON-NLS-1$
+		}
+	}
+
+	private AntElementNode getNodeByTraversal(AntElementNode rootProject, int offset) {
+		for (IAntElement child : rootProject.getChildNodes()) {
+			AntElementNode node = child.getNode(offset);
+			if (node != null) {
+				return node;
+			}
+		}
+		if (rootProject.getOffset() <= offset && offset <= rootProject.getOffset() + rootProject.getLength() - 2) {
+			return rootProject;
+		}
+		return null;
+	}
+
+	/**
+	 * Tests that the symbol table of the model finds the targets, properties and references of the buildfile.
+	 */
+	public void testSymbolTable() {
+		AntModel model = getAntModel("refid.xml"); //$NON-NLS-1$
+		AntSymbolTable symbols = model.getSymbolTable();
+		assertNotNull(symbols);
+		AntTargetNode compile = symbols.getTargetNode("COMPILE"); //$NON-NLS-1$
+		assertNotNull("Target names should be matched ignoring case", compile); //$NON-NLS-1$
+		assertEquals("compile", compile.getTarget().getName()); //$NON-NLS-1$
+		assertSame(compile, model.getTargetNode("compile")); //$NON-NLS-1$
+		assertNull(symbols.getTargetNode("missing")); //$NON-NLS-1$
+		AntPropertyNode property = symbols.getPropertyNode("name with spaces"); //$NON-NLS-1$
+		assertNotNull(property);
+		assertEquals("value with spaces", property.getProperty("name with spaces")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertSame(property, model.getPropertyNode("name with spaces")); //$NON-NLS-1$
+		AntTaskNode fileset = symbols.getReferenceNode("filesetTest"); //$NON-NLS-1$
+		assertNotNull(fileset);
+		assertEquals("fileset", fileset.getTask().getTaskName()); //$NON-NLS-1$
+		assertSame(fileset, model.getReferenceNode("filesetTest")); //$NON-NLS-1$
+		assertNotNull(symbols.getReferenceNode("project.class.path2")); //$NON-NLS-1$
+		assertNull(symbols.getReferenceNode("missing")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that the symbol table of the model distinguishes extension points from targets.
+	 */
+	public void testSymbolTableExtensionPoints() {
+		AntModel model = getAntModel("antextpoint.xml"); //$NON-NLS-1$
+		AntSymbolTable symbols = model.getSymbolTable();
+		assertNotNull(symbols);
+		AntTargetNode extensionPoint = symbols.getExtensionPointNode("ep-B"); //$NON-NLS-1$
+		assertNotNull(extensionPoint);
+		assertTrue(extensionPoint.isExtensionPoint());
+		assertSame(extensionPoint, symbols.getTargetNode("ep-b")); //$NON-NLS-1$
+		assertNull(symbols.getExtensionPointNode("A")); //$NON-NLS-1$
+		assertNotNull(symbols.getTargetNode("A")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that the files imported by a buildfile are recorded
+	 */
+	public void testImportedFiles() {
+		AntModel model = getAntModel("import.xml"); //$NON-NLS-1$
+		Set<String> importedFiles = model.getImportedFiles();
+		assertEquals(1, importedFiles.size());
+		assertTrue(importedFiles.contains(getBuildFile("toBeImported.xml").getAbsolutePath())); //$NON-NLS-1$
+		assertTrue(getAntModel("refid.xml").getImportedFiles().isEmpty()); //$NON-NLS-1$
+	}
+
 	/**
 	 * Tests if target is internal or not
 	 */
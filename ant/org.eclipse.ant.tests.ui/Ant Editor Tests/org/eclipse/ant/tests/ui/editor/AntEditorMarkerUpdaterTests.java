@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.tests.ui.editor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.ant.internal.ui.editor.outline.AntEditorMarkerUpdater;
+import org.eclipse.ant.internal.ui.model.AntModelProblem;
+import org.eclipse.ant.internal.ui.model.IProblem;
+import org.eclipse.ant.tests.ui.testplugin.AbstractAntUITest;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.IJobChangeListener;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+
+/**
+ * Tests the updating of the buildfile problem markers
+ */
+public class AntEditorMarkerUpdaterTests extends AbstractAntUITest {
+
+	private static final String BUILDFILE = "buildtest1.xml"; //$NON-NLS-1$
+
+	private final AtomicInteger fRuns = new AtomicInteger();
+
+	private final IJobChangeListener fListener = new JobChangeAdapter() {
+		@Override
+		public void done(IJobChangeEvent event) {
+			if (event.getJob().belongsTo(AntEditorMarkerUpdater.FAMILY)) {
+				fRuns.incrementAndGet();
+			}
+		}
+	};
+
+	public AntEditorMarkerUpdaterTests(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		getIFile(BUILDFILE).deleteMarkers(AntEditorMarkerUpdater.BUILDFILE_PROBLEM_MARKER, false, IResource.DEPTH_ZERO);
+		Job.getJobManager().addJobChangeListener(fListener);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		Job.getJobManager().removeJobChangeListener(fListener);
+		getIFile(BUILDFILE).deleteMarkers(AntEditorMarkerUpdater.BUILDFILE_PROBLEM_MARKER, false, IResource.DEPTH_ZERO);
+		super.tearDown();
+	}
+
+	/**
+	 * Tests that markers of problems reported again are kept and only the markers of changed problems are replaced
+	 */
+	public void testOnlyChangedMarkersReplaced() throws Exception {
+		AntEditorMarkerUpdater updater = createUpdater();
+		IProblem kept = new AntModelProblem("kept", AntModelProblem.SEVERITY_ERROR, 1, 2, 1); //$NON-NLS-1$
+		IProblem changed = new AntModelProblem("changed", AntModelProblem.SEVERITY_WARNING, 5, 3, 1); //$NON-NLS-1$
+		report(updater, kept, changed);
+		IMarker[] markers = waitForMarkers();
+		assertEquals("Expecting a marker for each problem", 2, markers.length); //$NON-NLS-1$
+		IMarker keptMarker = findMarker(markers, "kept"); //$NON-NLS-1$
+		IMarker changedMarker = findMarker(markers, "changed"); //$NON-NLS-1$
+
+		IProblem replacement = new AntModelProblem("changed", AntModelProblem.SEVERITY_ERROR, 5, 3, 1); //$NON-NLS-1$
+		report(updater, kept, replacement);
+		markers = waitForMarkers();
+		assertEquals("Expecting a marker for each problem", 2, markers.length); //$NON-NLS-1$
+		assertTrue("The marker of the unchanged problem should be kept", keptMarker.exists()); //$NON-NLS-1$
+		assertEquals(keptMarker.getId(), findMarker(markers, "kept").getId()); //$NON-NLS-1$
+		assertFalse("The marker of the changed problem should be deleted", changedMarker.exists()); //$NON-NLS-1$
+		assertEquals(IMarker.SEVERITY_ERROR, findMarker(markers, "changed").getAttribute(IMarker.SEVERITY, -1)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that reports arriving in a burst are applied by a single run of the update job, with the problems reported last
+	 */
+	public void testBurstCoalesced() throws Exception {
+		AntEditorMarkerUpdater updater = createUpdater();
+		for (int i = 0; i < 10; i++) {
+			report(updater, new AntModelProblem("problem" + i, AntModelProblem.SEVERITY_ERROR, i, 1, 1)); //$NON-NLS-1$
+		}
+		IMarker[] markers = waitForMarkers();
+		assertEquals("A burst of reports should update the markers once", 1, fRuns.get()); //$NON-NLS-1$
+		assertEquals(1, markers.length);
+		assertEquals("problem9", markers[0].getAttribute(IMarker.MESSAGE, null)); //$NON-NLS-1$
+	}
+
+	private AntEditorMarkerUpdater createUpdater() {
+		AntEditorMarkerUpdater updater = new AntEditorMarkerUpdater();
+		updater.setModel(getAntModel(BUILDFILE));
+		return updater;
+	}
+
+	private void report(AntEditorMarkerUpdater updater, IProblem... problems) {
+		updater.beginReporting();
+		for (IProblem problem : problems) {
+			updater.acceptProblem(problem);
+		}
+		updater.updateMarkers();
+	}
+
+	private IMarker[] waitForMarkers() throws CoreException, InterruptedException {
+		Job.getJobManager().join(AntEditorMarkerUpdater.FAMILY, null);
+		return getIFile(BUILDFILE).findMarkers(AntEditorMarkerUpdater.BUILDFILE_PROBLEM_MARKER, false, IResource.DEPTH_ZERO);
+	}
+
+	private IMarker findMarker(IMarker[] markers, String message) {
+		for (IMarker marker : markers) {
+			if (message.equals(marker.getAttribute(IMarker.MESSAGE, null))) {
+				return marker;
+			}
+		}
+		fail("No marker for problem: " + message); //$NON-NLS-1$
+		return null;
+	}
+}
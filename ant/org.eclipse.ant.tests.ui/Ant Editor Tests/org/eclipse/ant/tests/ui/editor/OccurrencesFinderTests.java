@@ -13,10 +13,18 @@
  *******************************************************************************/
 package org.eclipse.ant.tests.ui.editor;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.ant.internal.ui.editor.AntEditor;
 import org.eclipse.ant.internal.ui.editor.OccurrencesFinder;
+import org.eclipse.ant.internal.ui.model.AntElementNode;
+import org.eclipse.ant.internal.ui.model.AntModel;
+import org.eclipse.ant.internal.ui.model.AntOccurrencesIndex;
+import org.eclipse.ant.internal.ui.model.AntProjectNode;
+import org.eclipse.ant.internal.ui.model.AntPropertyNode;
+import org.eclipse.ant.internal.ui.model.AntTargetNode;
+import org.eclipse.ant.internal.ui.model.IAntElement;
 import org.eclipse.ant.tests.ui.editor.performance.EditorTestHelper;
 import org.eclipse.ant.tests.ui.testplugin.AbstractAntUITest;
 import org.eclipse.core.resources.IFile;
@@ -347,6 +355,66 @@ public class OccurrencesFinderTests extends AbstractAntUITest {
 		}
 	}
 
+	/**
+	 * Tests that the occurrences index of the project node finds the same target and property occurrences as the traversal of the tree.
+	 */
+	public void testOccurrencesIndexMatchesTreeTraversal() {
+		AntModel model = getAntModel("occurrencesTest.xml"); //$NON-NLS-1$
+		AntProjectNode project = model.getProjectNode();
+		AntOccurrencesIndex index = project.getOccurrencesIndex();
+		assertNotNull("The occurrences should have been indexed", index); //$NON-NLS-1$
+		List<IAntElement> nodes = new ArrayList<>();
+		collectNodes(project, nodes);
+		int identifiers = 0;
+		for (IAntElement node : nodes) {
+			if (node instanceof AntTargetNode || node instanceof AntPropertyNode) {
+				assertIndexMatchesTreeTraversal(index, nodes, ((AntElementNode) node).getOccurrencesIdentifier());
+				identifiers++;
+			}
+		}
+		assertTrue("Expecting targets and properties", identifiers > 5); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that the occurrences index finds identifiers that contain the delimiters it splits texts at: a property name containing a colon and a
+	 * macro attribute reference.
+	 */
+	public void testOccurrencesIndexIdentifiersWithDelimiters() {
+		AntModel model = getAntModel("occurrencesDelimiters.xml"); //$NON-NLS-1$
+		AntProjectNode project = model.getProjectNode();
+		AntOccurrencesIndex index = project.getOccurrencesIndex();
+		assertNotNull("The occurrences should have been indexed", index); //$NON-NLS-1$
+		List<IAntElement> nodes = new ArrayList<>();
+		collectNodes(project, nodes);
+		assertTrue("Expecting the property reference in value=\"${a:b}/lib\" and the macro attribute", //$NON-NLS-1$
+				assertIndexMatchesTreeTraversal(index, nodes, "${a:b}") >= 2); //$NON-NLS-1$
+		assertTrue("Expecting the uses of @{attr} in the macro definition", //$NON-NLS-1$
+				assertIndexMatchesTreeTraversal(index, nodes, "@{attr}") > 0); //$NON-NLS-1$
+	}
+
+	/**
+	 * Asserts that the index returns the nodes containing the identifier, in the order of the traversal, and returns their number.
+	 */
+	private int assertIndexMatchesTreeTraversal(AntOccurrencesIndex index, List<IAntElement> nodes, String identifier) {
+		List<IAntElement> expected = new ArrayList<>();
+		for (IAntElement candidate : nodes) {
+			if (candidate.containsOccurrence(identifier)) {
+				expected.add(candidate);
+			}
+		}
+		assertEquals("Wrong occurrences of " + identifier, expected, index.getOccurrences(identifier)); //$NON-NLS-1$
+		return expected.size();
+	}
+
+	private void collectNodes(IAntElement node, List<IAntElement> nodes) {
+		nodes.add(node);
+		if (node.hasChildren()) {
+			for (IAntElement child : node.getChildNodes()) {
+				collectNodes(child, nodes);
+			}
+		}
+	}
+
 	private void assertContainsPosition(List<Position> positions, int offset, int length) {
 		boolean found = false;
 		for (Position position : positions) {
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ant.tests.ui.editor.performance;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.ant.internal.ui.dtd.IDfm;
+import org.eclipse.ant.internal.ui.dtd.IElement;
+import org.eclipse.ant.internal.ui.dtd.ISchema;
+import org.eclipse.ant.internal.ui.dtd.ParseError;
+import org.eclipse.ant.internal.ui.dtd.Parser;
+import org.eclipse.ant.internal.ui.editor.AntEditorCompletionProcessor;
+import org.eclipse.ant.tests.ui.performance.AbstractAntPerformanceTest;
+import org.eclipse.test.performance.Dimension;
+
+/**
+ * Measures advancing the dfms of the Ant DTD through all their accepted symbols, from one thread and from several threads sharing the dfms.
+ */
+public class DfmPerformanceTest extends AbstractAntPerformanceTest {
+
+	private static final int ROUNDS = 200;
+
+	private static final int THREADS = 4;
+
+	public void testAdvance() throws Exception {
+		tagAsSummary("Ant DTD dfm advance", Dimension.ELAPSED_PROCESS); //$NON-NLS-1$
+		List<IDfm> dfms = getDfms();
+		for (int run = 0; run < 10; run++) {
+			startMeasuring();
+			assertEquals("Unexpected rejected symbols", 0, advanceAll(dfms)); //$NON-NLS-1$
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testConcurrentAdvance() throws Exception {
+		final List<IDfm> dfms = getDfms();
+		final AtomicInteger rejected = new AtomicInteger();
+		for (int run = 0; run < 10; run++) {
+			Thread[] threads = new Thread[THREADS];
+			for (int i = 0; i < threads.length; i++) {
+				threads[i] = new Thread(() -> rejected.addAndGet(advanceAll(dfms)));
+			}
+			startMeasuring();
+			for (Thread thread : threads) {
+				thread.start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			stopMeasuring();
+		}
+		assertEquals("Unexpected rejected symbols", 0, rejected.get()); //$NON-NLS-1$
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Advances each dfm through each of its accepted symbols and through an unknown symbol.
+	 * 
+	 * @return the number of accepted symbols that were rejected and unknown symbols that were accepted
+	 */
+	private int advanceAll(List<IDfm> dfms) {
+		int rejected = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			for (IDfm dfm : dfms) {
+				for (String symbol : dfm.getAccepts()) {
+					if (dfm.advance(symbol) == null) {
+						rejected++;
+					}
+				}
+				if (!dfm.isAny() && dfm.advance("unknown") != null) { //$NON-NLS-1$
+					rejected++;
+				}
+			}
+		}
+		return rejected;
+	}
+
+	private List<IDfm> getDfms() throws IOException, ParseError {
+		ISchema schema;
+		try (Reader reader = new InputStreamReader(AntEditorCompletionProcessor.class.getResourceAsStream("/org/eclipse/ant/internal/ui/editor/ant1.6.2.dtd"), StandardCharsets.UTF_8)) { //$NON-NLS-1$
+			schema = new Parser().parseDTD(reader, "project"); //$NON-NLS-1$
+		}
+		List<IDfm> dfms = new ArrayList<>();
+		for (IElement element : schema.getElements()) {
+			if (!element.isUndefined()) {
+				dfms.add(element.getDfm());
+			}
+		}
+		return dfms;
+	}
+}
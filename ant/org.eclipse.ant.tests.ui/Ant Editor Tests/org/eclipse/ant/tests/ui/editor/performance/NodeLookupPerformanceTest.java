@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ant.tests.ui.editor.performance;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.eclipse.ant.internal.ui.model.AntElementNode;
+import org.eclipse.ant.internal.ui.model.AntModel;
+import org.eclipse.ant.internal.ui.model.AntProjectNode;
+import org.eclipse.ant.internal.ui.model.IAntElement;
+import org.eclipse.ant.tests.ui.editor.support.TestLocationProvider;
+import org.eclipse.ant.tests.ui.editor.support.TestProblemRequestor;
+import org.eclipse.ant.tests.ui.performance.AbstractAntPerformanceTest;
+import org.eclipse.jface.text.Document;
+import org.eclipse.test.performance.Dimension;
+
+/**
+ * Compares finding the node at an offset through the offset index of the project node with the traversal of the node tree, for generated
+ * buildfiles of different sizes.
+ */
+public class NodeLookupPerformanceTest extends AbstractAntPerformanceTest {
+
+	private static final int LOOKUPS = 10000;
+
+	public void testIndexLookup1000() throws IOException {
+		measureLookup(1000, true);
+	}
+
+	public void testTreeLookup1000() throws IOException {
+		measureLookup(1000, false);
+	}
+
+	public void testIndexLookup10000() throws IOException {
+		measureLookup(10000, true);
+	}
+
+	public void testTreeLookup10000() throws IOException {
+		measureLookup(10000, false);
+	}
+
+	public void testIndexLookup50000() throws IOException {
+		tagAsSummary("Ant editor node lookup; 50000 elements", Dimension.ELAPSED_PROCESS); //$NON-NLS-1$
+		measureLookup(50000, true);
+	}
+
+	public void testTreeLookup50000() throws IOException {
+		measureLookup(50000, false);
+	}
+
+	private void measureLookup(int elementCount, boolean useIndex) throws IOException {
+		AntProjectNode project = createProjectNode(elementCount);
+		assertNotNull(project);
+		int[] offsets = new int[LOOKUPS];
+		Random random = new Random(elementCount);
+		for (int i = 0; i < offsets.length; i++) {
+			offsets[i] = random.nextInt(project.getOffset() + project.getLength());
+		}
+		for (int run = 0; run < 10; run++) {
+			startMeasuring();
+			for (int offset : offsets) {
+				if (useIndex) {
+					project.getNode(offset);
+				} else {
+					getNodeByTraversal(project, offset);
+				}
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private AntElementNode getNodeByTraversal(AntProjectNode project, int offset) {
+		for (IAntElement child : project.getChildNodes()) {
+			AntElementNode node = child.getNode(offset);
+			if (node != null) {
+				return node;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Creates the model of a buildfile with the given number of elements, in targets of ten elements each.
+	 */
+	private AntProjectNode createProjectNode(int elementCount) throws IOException {
+		StringBuilder buffer = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<project name=\"lookup\" default=\"target0\">\n"); //$NON-NLS-1$
+		for (int target = 0; target < elementCount / 10; target++) {
+			buffer.append("\t<target name=\"target").append(target).append("\">\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			for (int task = 0; task < 9; task++) {
+				buffer.append("\t\t<echo message=\"").append(task).append("\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			buffer.append("\t</target>\n"); //$NON-NLS-1$
+		}
+		buffer.append("</project>\n"); //$NON-NLS-1$
+		File file = File.createTempFile("lookup", ".xml"); //$NON-NLS-1$ //$NON-NLS-2$
+		file.deleteOnExit();
+		AntModel model = new AntModel(new Document(buffer.toString()), new TestProblemRequestor(), new TestLocationProvider(file));
+		model.reconcile();
+		return model.getProjectNode();
+	}
+}
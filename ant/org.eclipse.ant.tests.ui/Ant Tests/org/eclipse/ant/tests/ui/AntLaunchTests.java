@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.tests.ui;
+
+import java.util.List;
+
+import org.eclipse.ant.internal.launching.AntLaunch;
+import org.eclipse.ant.internal.launching.LinkDescriptor;
+import org.eclipse.ant.tests.ui.testplugin.AbstractAntUITest;
+import org.eclipse.debug.core.ILaunchManager;
+
+public class AntLaunchTests extends AbstractAntUITest {
+
+	/**
+	 * The maximum number of pending link descriptors of a launch
+	 */
+	private static final int MAX_LINK_DESCRIPTORS = 10000;
+
+	public AntLaunchTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * Tests that the link descriptor of a console line is found by the line text, and that descriptors of the same line are consumed in the order
+	 * they were added.
+	 */
+	public void testMatchByLine() {
+		AntLaunch launch = new AntLaunch(null, ILaunchManager.RUN_MODE, null);
+		launch.addLinkDescriptor("[echo] first", "build.xml", 3, 0, 6); //$NON-NLS-1$ //$NON-NLS-2$
+		launch.addLinkDescriptor("[echo] same", "build.xml", 4, 0, 6); //$NON-NLS-1$ //$NON-NLS-2$
+		launch.addLinkDescriptor("[echo] same", "build.xml", 5, 0, 6); //$NON-NLS-1$ //$NON-NLS-2$
+
+		assertNull("No descriptor expected for an unknown line", launch.removeLinkDescriptor("[echo] unknown")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(4, launch.removeLinkDescriptor("[echo] same").getLineNumber()); //$NON-NLS-1$
+		assertEquals(5, launch.removeLinkDescriptor("[echo] same").getLineNumber()); //$NON-NLS-1$
+		assertNull("Descriptors should only be consumed once", launch.removeLinkDescriptor("[echo] same")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		List<LinkDescriptor> pending = launch.getLinkDescriptors();
+		assertEquals(1, pending.size());
+		assertEquals("[echo] first", pending.get(0).getLine()); //$NON-NLS-1$
+		assertEquals(3, launch.removeLinkDescriptor("[echo] first").getLineNumber()); //$NON-NLS-1$
+		assertTrue(launch.getLinkDescriptors().isEmpty());
+	}
+
+	/**
+	 * Tests that descriptors without a file name are ignored and that a descriptor removed directly is no longer matched.
+	 */
+	public void testRemoveDescriptor() {
+		AntLaunch launch = new AntLaunch(null, ILaunchManager.RUN_MODE, null);
+		launch.addLinkDescriptor("[echo] none", " ", 1, 0, 6); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNull(launch.removeLinkDescriptor("[echo] none")); //$NON-NLS-1$
+
+		launch.addLinkDescriptor("[echo] line", "build.xml", 1, 0, 6); //$NON-NLS-1$ //$NON-NLS-2$
+		launch.removeLinkDescriptor(launch.getLinkDescriptors().get(0));
+		assertNull(launch.removeLinkDescriptor("[echo] line")); //$NON-NLS-1$
+		assertTrue(launch.getLinkDescriptors().isEmpty());
+	}
+
+	/**
+	 * Tests that the oldest pending descriptors are dropped once the maximum number of descriptors is exceeded, in the order they were added.
+	 */
+	public void testOldestDescriptorsDropped() {
+		AntLaunch launch = new AntLaunch(null, ILaunchManager.RUN_MODE, null);
+		for (int i = 0; i < MAX_LINK_DESCRIPTORS + 2; i++) {
+			launch.addLinkDescriptor("[echo] line " + i, "build.xml", i, 0, 6); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		List<LinkDescriptor> pending = launch.getLinkDescriptors();
+		assertEquals("Unexpected number of pending descriptors", MAX_LINK_DESCRIPTORS, pending.size()); //$NON-NLS-1$
+		assertEquals("[echo] line 2", pending.get(0).getLine()); //$NON-NLS-1$
+		assertNull("The oldest descriptor should have been dropped", launch.removeLinkDescriptor("[echo] line 0")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNull("The oldest descriptor should have been dropped", launch.removeLinkDescriptor("[echo] line 1")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(MAX_LINK_DESCRIPTORS + 1, launch.removeLinkDescriptor("[echo] line " + (MAX_LINK_DESCRIPTORS + 1)).getLineNumber()); //$NON-NLS-1$
+	}
+}
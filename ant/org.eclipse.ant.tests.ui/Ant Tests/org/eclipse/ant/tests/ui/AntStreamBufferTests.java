@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.tests.ui;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.eclipse.ant.internal.launching.launchConfigurations.AntStreamBuffer;
+import org.eclipse.ant.tests.ui.testplugin.AbstractAntUITest;
+
+public class AntStreamBufferTests extends AbstractAntUITest {
+
+	public AntStreamBufferTests(String name) {
+		super(name);
+	}
+
+	/**
+	 * Tests that the contents are returned unchanged once older segments have been written to disk, including characters that are split across
+	 * segments.
+	 */
+	public void testSpilledContents() throws IOException {
+		AntStreamBuffer buffer = new AntStreamBuffer(16, 4);
+		try {
+			StringBuilder expected = new StringBuilder();
+			for (int i = 0; i < 500; i++) {
+				String line = "[echo] line " + i + " \u00e4\u4e2d\ud83d\ude00" + System.lineSeparator(); //$NON-NLS-1$ //$NON-NLS-2$
+				buffer.append(line);
+				expected.append(line);
+			}
+			assertTrue("Nothing was written to disk", buffer.getSpilledLength() > 0); //$NON-NLS-1$
+			assertEquals("Unexpected length", expected.length(), buffer.getLength()); //$NON-NLS-1$
+			assertEquals("Unexpected contents", expected.toString(), buffer.getContents()); //$NON-NLS-1$
+			assertEquals("Unexpected contents read", expected.toString(), read(buffer.getReader())); //$NON-NLS-1$
+		}
+		finally {
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * Tests that a reader returns the contents at the time it was created.
+	 */
+	public void testReaderSnapshot() throws IOException {
+		AntStreamBuffer buffer = new AntStreamBuffer(16, 2);
+		try {
+			buffer.append("0123456789012345678901234567890123456789012345678901234567890123456789"); //$NON-NLS-1$
+			Reader reader = buffer.getReader();
+			buffer.append("more"); //$NON-NLS-1$
+			assertEquals("Unexpected contents read", "0123456789012345678901234567890123456789012345678901234567890123456789", read(reader)); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		finally {
+			buffer.clear();
+		}
+	}
+
+	public void testClear() {
+		AntStreamBuffer buffer = new AntStreamBuffer(4, 1);
+		buffer.append("0123456789"); //$NON-NLS-1$
+		buffer.clear();
+		assertEquals("Buffer should be empty", 0, buffer.getLength()); //$NON-NLS-1$
+		assertEquals("Nothing should be on disk", 0, buffer.getSpilledLength()); //$NON-NLS-1$
+		buffer.append("after"); //$NON-NLS-1$
+		assertEquals("Unexpected contents", "after", buffer.getContents()); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private String read(Reader reader) throws IOException {
+		StringBuilder contents = new StringBuilder();
+		try {
+			char[] chars = new char[7];
+			int read;
+			while ((read = reader.read(chars)) != -1) {
+				contents.append(chars, 0, read);
+			}
+		}
+		finally {
+			reader.close();
+		}
+		return contents.toString();
+	}
+}
@@ -242,6 +242,29 @@ public class AntUtilTests extends AbstractAntUITest {
 		return System.getProperty("os.name").toLowerCase().contains("win"); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
+	/**
+	 * Tests that resolving the targets of several buildfiles at once returns the same targets as resolving them one by one.
+	 */
+	public void testGetTargetsOfSeveralBuildFiles() {
+		String[] buildFileNames = { "echoing", "import", "buildtest1", "dependencytest", "internalTargets", "macrodef" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+		String[] paths = new String[buildFileNames.length];
+		for (int i = 0; i < buildFileNames.length; i++) {
+			paths[i] = getBuildFile(buildFileNames[i] + ".xml").getAbsolutePath(); //$NON-NLS-1$
+		}
+		Map<String, AntTargetNode[]> targets = AntUtil.getTargets(paths, null);
+		assertEquals("Incorrect number of buildfiles resolved", paths.length, targets.size()); //$NON-NLS-1$
+		int i = 0;
+		for (Map.Entry<String, AntTargetNode[]> entry : targets.entrySet()) {
+			assertEquals("Buildfiles not in the given order", paths[i++], entry.getKey()); //$NON-NLS-1$
+			AntTargetNode[] expected = AntUtil.getTargets(entry.getKey());
+			assertNotNull(entry.getValue());
+			assertEquals(expected.length, entry.getValue().length);
+			for (int j = 0; j < expected.length; j++) {
+				assertEquals(expected[j].getTargetName(), entry.getValue()[j].getTargetName());
+			}
+		}
+	}
+
 	private AntTargetNode[] getAntTargetNodesOfBuildFile(String buildFileName) {
 		File buildFile = getBuildFile(buildFileName + ".xml"); //$NON-NLS-1$
 		AntTargetNode[] targets = AntUtil.getTargets(buildFile.getAbsolutePath());
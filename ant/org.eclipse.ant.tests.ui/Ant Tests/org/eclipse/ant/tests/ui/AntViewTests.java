@@ -14,13 +14,19 @@
 
 package org.eclipse.ant.tests.ui;
 
+import java.io.ByteArrayInputStream;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 
 import org.eclipse.ant.internal.ui.AntUtil;
+import org.eclipse.ant.internal.ui.model.AntBuildfileIndex;
+import org.eclipse.ant.internal.ui.model.AntBuildfileIndex.Buildfile;
 import org.eclipse.ant.internal.ui.preferences.FileFilter;
 import org.eclipse.ant.internal.ui.views.actions.AddBuildFilesAction;
 import org.eclipse.ant.tests.ui.testplugin.AbstractAntUITest;
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jface.action.ActionContributionItem;
 import org.eclipse.jface.action.IContributionItem;
@@ -63,6 +69,41 @@ public class AntViewTests extends AbstractAntUITest {
 		return null;
 	}
 
+	/**
+	 * Tests that the buildfile index picks up added, changed and removed buildfiles
+	 */
+	public void testBuildfileIndex() throws CoreException, InterruptedException {
+		AntBuildfileIndex index = AntBuildfileIndex.getDefault();
+		index.join(null);
+		assertTrue("The index should be ready", index.isReady()); //$NON-NLS-1$
+		Buildfile refid = index.getBuildfile(getIFile("refid.xml")); //$NON-NLS-1$
+		assertNotNull("refid.xml should be indexed", refid); //$NON-NLS-1$
+		assertEquals("1", refid.getDefaultTargetName()); //$NON-NLS-1$
+		assertEquals(Arrays.asList("1", "compile"), Arrays.asList(refid.getTargetNames())); //$NON-NLS-1$ //$NON-NLS-2$
+
+		IFile file = getIFile("indexTest.xml"); //$NON-NLS-1$
+		try {
+			file.create(new ByteArrayInputStream("<project name=\"index\" default=\"a\"><target name=\"a\"/></project>".getBytes(StandardCharsets.UTF_8)), true, null); //$NON-NLS-1$
+			index.join(null);
+			Buildfile buildfile = index.getBuildfile(file);
+			assertNotNull("The added buildfile should be indexed", buildfile); //$NON-NLS-1$
+			assertEquals("index", buildfile.getProjectName()); //$NON-NLS-1$
+			assertEquals(Arrays.asList("a"), Arrays.asList(buildfile.getTargetNames())); //$NON-NLS-1$
+
+			file.setContents(new ByteArrayInputStream("<project name=\"index\" default=\"b\"><target name=\"a\"/><target name=\"b\"/></project>".getBytes(StandardCharsets.UTF_8)), true, false, null); //$NON-NLS-1$
+			index.join(null);
+			buildfile = index.getBuildfile(file);
+			assertNotNull("The changed buildfile should be indexed", buildfile); //$NON-NLS-1$
+			assertEquals("b", buildfile.getDefaultTargetName()); //$NON-NLS-1$
+			assertEquals(Arrays.asList("a", "b"), Arrays.asList(buildfile.getTargetNames())); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		finally {
+			file.delete(true, null);
+		}
+		index.join(null);
+		assertFalse("The removed buildfile should not be indexed", index.contains(file.getFullPath())); //$NON-NLS-1$
+	}
+
 	public void testAntBuildFilesExtensionFilter() {
 		// Ensure coverage for the extension filter used by AddBuildFilesAction
 		// Create blocks to scope the vars to catch typos!
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.ant.tests.ui.performance;
+
+import org.eclipse.ant.internal.launching.AntLaunch;
+import org.eclipse.ant.internal.launching.launchConfigurations.MessageIds;
+import org.eclipse.ant.internal.launching.launchConfigurations.RemoteAntBuildListener;
+import org.eclipse.debug.core.ILaunchManager;
+import org.eclipse.test.performance.Dimension;
+
+/**
+ * Measures decoding the messages of a build in a separate JRE by replaying a build log of a million lines, in the compact record format and in the
+ * line based format of older remote build loggers.
+ */
+public class RemoteBuildMessagesPerformanceTest extends AbstractAntPerformanceTest {
+
+	private static final int LOG_LINES = 1000000;
+
+	/**
+	 * The number of distinct lines the replayed log is made of
+	 */
+	private static final int DISTINCT_LINES = 1000;
+
+	/**
+	 * Listener that counts the console output instead of writing it to a process
+	 */
+	private static class ReplayListener extends RemoteAntBuildListener {
+		long fCharacters = 0;
+
+		ReplayListener() {
+			super(new AntLaunch(null, ILaunchManager.RUN_MODE, null), "UTF-8"); //$NON-NLS-1$
+		}
+
+		void replay(String[] messages, int lineCount) {
+			for (int i = 0; i < lineCount; i++) {
+				receiveMessage(messages[i % messages.length]);
+			}
+		}
+
+		void dispose() {
+			shutDown();
+		}
+
+		@Override
+		protected void writeMessage(String message, int priority) {
+			fCharacters += message.length();
+		}
+	}
+
+	public void testCompactRecords() {
+		tagAsSummary("Ant remote build messages; 1000000 lines", Dimension.ELAPSED_PROCESS); //$NON-NLS-1$
+		measureReplay(createLog(true));
+	}
+
+	public void testLineBasedMessages() {
+		measureReplay(createLog(false));
+	}
+
+	private void measureReplay(String[] messages) {
+		for (int run = 0; run < 5; run++) {
+			ReplayListener listener = new ReplayListener();
+			try {
+				startMeasuring();
+				listener.replay(messages, LOG_LINES);
+				stopMeasuring();
+				assertTrue("Nothing was written to the console", listener.fCharacters > 0); //$NON-NLS-1$
+			}
+			finally {
+				listener.dispose();
+			}
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Creates the messages of a build with a target every hundred lines, the tasks of a target all being located in the same build file.
+	 */
+	private String[] createLog(boolean compact) {
+		String[] messages = new String[DISTINCT_LINES];
+		String lastTask = null;
+		String lastFile = null;
+		for (int i = 0; i < messages.length; i++) {
+			String fileName = "/workspace/project/build" + (i / 200) + ".xml"; //$NON-NLS-1$ //$NON-NLS-2$
+			if (i % 100 == 0) {
+				String target = "target" + i; //$NON-NLS-1$
+				if (compact) {
+					messages[i] = MessageIds.TARGET_RECORD + field(target) + field(fileName) + i;
+				} else {
+					messages[i] = MessageIds.TARGET + ',' + target + ":," + fileName.length() + ',' + fileName + ',' + i; //$NON-NLS-1$
+				}
+				continue;
+			}
+			String task = (i % 3 == 0) ? "javac" : "echo"; //$NON-NLS-1$ //$NON-NLS-2$
+			String line = "Compiling source file " + i + " of the project, with some more text to make it a realistic line"; //$NON-NLS-1$ //$NON-NLS-2$
+			String taskField = task.equals(lastTask) ? "" : task; //$NON-NLS-1$
+			String fileField = fileName.equals(lastFile) ? "" : fileName; //$NON-NLS-1$
+			if (compact) {
+				messages[i] = MessageIds.TASK_RECORD + "2," + field(taskField) + field(line) + field(fileField) + i; //$NON-NLS-1$
+			} else {
+				StringBuilder message = new StringBuilder(MessageIds.TASK);
+				message.append("2,").append(taskField).append(',').append(line.length()).append(',').append(line).append(','); //$NON-NLS-1$
+				if (fileField.length() > 0) {
+					message.append(fileField.length()).append(',').append(fileField);
+				}
+				message.append(',').append(i);
+				messages[i] = message.toString();
+			}
+			lastTask = task;
+			lastFile = fileName;
+		}
+		return messages;
+	}
+
+	private String field(String value) {
+		return value.length() + ":" + value; //$NON-NLS-1$
+	}
+}
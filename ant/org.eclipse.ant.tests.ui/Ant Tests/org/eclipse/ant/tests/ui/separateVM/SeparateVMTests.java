@@ -20,6 +20,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.eclipse.ant.internal.launching.AntLaunching;
+import org.eclipse.ant.internal.launching.IAntLaunchingPreferenceConstants;
+import org.eclipse.ant.internal.launching.launchConfigurations.AntDaemonManager;
 import org.eclipse.ant.internal.ui.AntUIPlugin;
 import org.eclipse.ant.internal.ui.IAntUIConstants;
 import org.eclipse.ant.internal.ui.IAntUIPreferenceConstants;
@@ -31,6 +34,8 @@ import org.eclipse.ant.tests.ui.testplugin.ProjectHelper;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
 import org.eclipse.jdt.launching.IJavaLaunchConfigurationConstants;
@@ -78,6 +83,45 @@ public class SeparateVMTests extends AbstractAntUIBuildTest {
 				+ ConsoleLineTracker.getMessage(4), ConsoleLineTracker.getMessage(4).startsWith("Total time:")); //$NON-NLS-1$
 	}
 
+	/**
+	 * Tests that the messages of a build logging more than fits into a single frame of the remote build logger all reach the console, in the
+	 * order they were logged.
+	 */
+	public void testManyMessages() throws CoreException {
+		launch("manyMessagesSepVM"); //$NON-NLS-1$
+		assertLines(1005);
+		for (int i = 0; i < 1000; i++) {
+			String expected = "[echo] " + String.format("%03d", Integer.valueOf(i)); //$NON-NLS-1$ //$NON-NLS-2$
+			assertEquals("Incorrect message", expected, ConsoleLineTracker.getMessage(i + 2).trim()); //$NON-NLS-1$
+		}
+		assertTrue("Incorrect last message. Should start with Total time:. Message: " //$NON-NLS-1$
+				+ ConsoleLineTracker.getMessage(1003), ConsoleLineTracker.getMessage(1003).startsWith("Total time:")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Tests that a second build in a separate JRE is run by the daemon VM started for the first build when the daemon preference is set.
+	 */
+	public void testDaemonReused() throws CoreException {
+		IEclipsePreferences node = InstanceScope.INSTANCE.getNode(AntLaunching.getUniqueIdentifier());
+		node.putBoolean(IAntLaunchingPreferenceConstants.ANT_DAEMON, true);
+		try {
+			int started = AntDaemonManager.getDefault().getStartedDaemonCount();
+			launch("echoingSepVM"); //$NON-NLS-1$
+			assertLines(6);
+			assertEquals("A daemon should have been started for the first build", //$NON-NLS-1$
+					started + 1, AntDaemonManager.getDefault().getStartedDaemonCount());
+			launch("echoingSepVM"); //$NON-NLS-1$
+			assertLines(6);
+			assertTrue("Incorrect message. Should start with [echo] echo1. Message: " //$NON-NLS-1$
+					+ ConsoleLineTracker.getMessage(2), ConsoleLineTracker.getMessage(2).trim().startsWith("[echo] echo1")); //$NON-NLS-1$
+			assertEquals("The second build should reuse the daemon", started + 1, AntDaemonManager.getDefault().getStartedDaemonCount()); //$NON-NLS-1$
+		}
+		finally {
+			node.remove(IAntLaunchingPreferenceConstants.ANT_DAEMON);
+			AntDaemonManager.shutdown();
+		}
+	}
+
 	/**
 	 * Tests launching Ant in a separate VM and having an extra classpath entry
 	 * designated to be available.
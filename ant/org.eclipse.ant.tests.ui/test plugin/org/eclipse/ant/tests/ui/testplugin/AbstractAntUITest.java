@@ -210,6 +210,7 @@ public abstract class AbstractAntUITest extends TestCase {
 			ProjectHelper.createLaunchConfigurationForSeparateVM("extensionPointTypeSepVM", null); //$NON-NLS-1$
 			ProjectHelper.createLaunchConfigurationForSeparateVM("input", null); //$NON-NLS-1$
 			ProjectHelper.createLaunchConfigurationForSeparateVM("environmentVar", null); //$NON-NLS-1$
+			ProjectHelper.createLaunchConfigurationForSeparateVM("manyMessagesSepVM", "manyMessages"); //$NON-NLS-1$ //$NON-NLS-2$
 
 			ProjectHelper.createLaunchConfigurationForBoth("breakpoints"); //$NON-NLS-1$
 			ProjectHelper.createLaunchConfigurationForBoth("debugAntCall"); //$NON-NLS-1$
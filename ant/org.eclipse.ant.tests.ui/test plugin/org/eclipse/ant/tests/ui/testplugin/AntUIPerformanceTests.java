@@ -14,7 +14,10 @@
 
 package org.eclipse.ant.tests.ui.testplugin;
 
+import org.eclipse.ant.tests.ui.editor.performance.DfmPerformanceTest;
+import org.eclipse.ant.tests.ui.editor.performance.NodeLookupPerformanceTest;
 import org.eclipse.ant.tests.ui.editor.performance.OpenAntEditorTest;
+import org.eclipse.ant.tests.ui.performance.RemoteBuildMessagesPerformanceTest;
 import org.eclipse.ant.tests.ui.performance.SeparateVMTests;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -25,7 +28,8 @@ import org.junit.runners.Suite;
  * run before any of the other test suites.
  */
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ OpenAntEditorTest.class, SeparateVMTests.class })
+@Suite.SuiteClasses({ OpenAntEditorTest.class, NodeLookupPerformanceTest.class, DfmPerformanceTest.class,
+		RemoteBuildMessagesPerformanceTest.class, SeparateVMTests.class })
 public class AntUIPerformanceTests {
 	// suite.addTest(new TestSuite(NonInitialTypingTest.class));
 	// suite.addTest(new TestSuite(OpenLaunchConfigurationDialogTests.class));
@@ -18,6 +18,8 @@
 package org.eclipse.ant.tests.ui.testplugin;
 
 import org.eclipse.ant.tests.ui.APITests;
+import org.eclipse.ant.tests.ui.AntLaunchTests;
+import org.eclipse.ant.tests.ui.AntStreamBufferTests;
 import org.eclipse.ant.tests.ui.AntUtilTests;
 import org.eclipse.ant.tests.ui.AntViewTests;
 import org.eclipse.ant.tests.ui.BuildTests;
@@ -27,7 +29,9 @@ import org.eclipse.ant.tests.ui.debug.PropertyTests;
 import org.eclipse.ant.tests.ui.debug.RunToLineTests;
 import org.eclipse.ant.tests.ui.debug.StackTests;
 import org.eclipse.ant.tests.ui.debug.SteppingTests;
+import org.eclipse.ant.tests.ui.dtd.SchemaSerializerTests;
 import org.eclipse.ant.tests.ui.editor.AntEditorContentOutlineTests;
+import org.eclipse.ant.tests.ui.editor.AntEditorMarkerUpdaterTests;
 import org.eclipse.ant.tests.ui.editor.AntEditorTests;
 import org.eclipse.ant.tests.ui.editor.CodeCompletionTest;
 import org.eclipse.ant.tests.ui.editor.OccurrencesFinderTests;
@@ -47,11 +51,11 @@ import org.junit.runners.Suite;
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ BuildTests.class, SeparateVMTests.class, AntEditorTests.class, CodeCompletionTest.class,
-		TaskDescriptionProviderTest.class, AntEditorContentOutlineTests.class, MigrationTests.class,
+		TaskDescriptionProviderTest.class, AntEditorContentOutlineTests.class, AntEditorMarkerUpdaterTests.class, MigrationTests.class,
 		BuilderCoreUtilsTests.class, ModelProjectTests.class, FormattingPreferencesTest.class,
 		XmlDocumentFormatterTest.class, XmlTagFormatterTest.class, XmlFormatterTest.class, AntUtilTests.class,
 		AntViewTests.class, BreakpointTests.class, RunToLineTests.class, SteppingTests.class, PropertyTests.class,
-		OccurrencesFinderTests.class, StackTests.class, APITests.class })
+		OccurrencesFinderTests.class, StackTests.class, APITests.class, AntStreamBufferTests.class, AntLaunchTests.class, SchemaSerializerTests.class })
 public class AntUITests {
 	// suite
 }
@@ -13,6 +13,10 @@
  *******************************************************************************/
 package org.eclipse.ant.internal.ui.dtd.schema;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.eclipse.ant.internal.ui.dtd.IAtom;
 import org.eclipse.ant.internal.ui.dtd.IDfm;
 import org.eclipse.ant.internal.ui.dtd.util.Factory;
@@ -21,9 +25,10 @@ import org.eclipse.ant.internal.ui.dtd.util.MapHolder;
 import org.eclipse.ant.internal.ui.dtd.util.SortedMap;
 
 /**
- * Deterministic finite state machine. Once constructed DFM is immutable and can be used by multiple threads. A Dfm node is essentially an accepting
- * flag and a hashtable mapping atoms to Dfm nodes. (Almost of org.eclipse.ant.internal.ui.dtd.util is aimed at reducing the storage overhead of
- * hundreds of little hashtables.)
+ * Deterministic finite state machine. Once constructed and frozen DFM is immutable and can be used by multiple threads. A Dfm node is essentially an
+ * accepting flag and a hashtable mapping atoms to Dfm nodes. (Almost of org.eclipse.ant.internal.ui.dtd.util is aimed at reducing the storage
+ * overhead of hundreds of little hashtables.) Freezing adds the sorted names of the atoms, so that <code>advance()</code> is a binary search that
+ * neither locks nor allocates.
  * 
  * @author Bob Foster
  */
@@ -32,10 +37,15 @@ public class Dfm extends MapHolder implements IDfm, FactoryObject {
 	public boolean accepting;
 	public boolean empty, any;
 	public int id;
-	private static int unique = 0;
+	private static final AtomicInteger unique = new AtomicInteger();
 	private static Factory factory = new Factory();
 	private Dfm fNext;
 
+	/**
+	 * The names of the keys, in the same order, or null if the dfm has not been frozen
+	 */
+	private String[] fSymbols;
+
 	public static Dfm dfm(boolean accepting) {
 		Dfm dfm = free();
 		dfm.accepting = accepting;
@@ -50,7 +60,7 @@ public class Dfm extends MapHolder implements IDfm, FactoryObject {
 		if (dfm == null)
 			dfm = new Dfm();
 		dfm.accepting = dfm.empty = dfm.any = false;
-		dfm.id = unique++;
+		dfm.id = unique.getAndIncrement();
 		return dfm;
 	}
 
@@ -66,9 +76,62 @@ public class Dfm extends MapHolder implements IDfm, FactoryObject {
 	public static void free(Dfm dfm) {
 		dfm.setKeys(null);
 		dfm.setValues(null);
+		dfm.fSymbols = null;
 		factory.setFree(dfm);
 	}
 
+	/**
+	 * Freeze the dfm and all dfms reachable from it. A frozen dfm must not be changed or freed; it must be frozen before it is published to other
+	 * threads.
+	 */
+	public static void freeze(Dfm dfm) {
+		ArrayList<Dfm> dfms = new ArrayList<>();
+		NfmParser.collect(dfm, dfms);
+		for (Dfm state : dfms) {
+			state.freeze();
+		}
+	}
+
+	void freeze() {
+		if (keys == null) {
+			fSymbols = new String[0];
+			return;
+		}
+		String[] symbols = new String[keys.length];
+		for (int i = 0; i < symbols.length; i++) {
+			symbols[i] = keys[i].toString();
+		}
+		fSymbols = symbols;
+	}
+
+	/**
+	 * Return the index of the key named name or a negative value if there is none.
+	 */
+	private int indexOf(String name) {
+		String[] symbols = fSymbols;
+		if (symbols != null) {
+			return Arrays.binarySearch(symbols, name);
+		}
+		// not frozen yet, the keys are sorted by name as well
+		if (keys == null) {
+			return -1;
+		}
+		int low = 0;
+		int high = keys.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int comp = keys[mid].toString().compareTo(name);
+			if (comp < 0) {
+				low = mid + 1;
+			} else if (comp > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
 	@Override
 	public boolean isAccepting() {
 		return accepting;
@@ -80,18 +143,18 @@ public class Dfm extends MapHolder implements IDfm, FactoryObject {
 			return this;
 		if (empty)
 			return null;
-		if (keys == null)
+		int index = indexOf(name);
+		if (index < 0)
 			return null;
-		SortedMap map = getIndirectStringMap(this);
-		Dfm dfm = (Dfm) map.get(name);
-		freeMap(map);
-		return dfm;
+		return (Dfm) values[index];
 	}
 
 	@Override
 	public String[] getAccepts() {
 		if (keys == null)
 			return new String[0];
+		if (fSymbols != null)
+			return fSymbols.clone();
 		String[] s = new String[keys.length];
 		for (int i = 0; i < s.length; i++) {
 			s[i] = keys[i].toString();
@@ -142,16 +205,14 @@ public class Dfm extends MapHolder implements IDfm, FactoryObject {
 
 	@Override
 	public IAtom getAtom(String name) {
-		Object[] allKeys = getKeys();
-		if (empty || allKeys == null) {
+		if (empty) {
 			return null;
 		}
-		SortedMap map = getIndirectStringMap(this);
-		int index = map.keyIndex(name);
+		int index = indexOf(name);
 		if (index < 0) {
 			return null;
 		}
-		return (IAtom) allKeys[index];
+		return (IAtom) keys[index];
 	}
 
 	@Override
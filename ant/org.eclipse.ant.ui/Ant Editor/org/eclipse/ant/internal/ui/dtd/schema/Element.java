@@ -28,7 +28,7 @@ public class Element extends Atom implements IElement {
 	private boolean fText;
 	private IModel fModel;
 	private Map<String, IAttribute> fMap = new HashMap<>(4);
-	private Dfm fElementDfm;
+	private volatile Dfm fElementDfm;
 
 	/**
 	 * Constructor
@@ -104,12 +104,29 @@ public class Element extends Atom implements IElement {
 	public IDfm getDfm() {
 		Dfm dfm = fElementDfm;
 		if (dfm == null) {
-			dfm = parseElementDfm();
-			fElementDfm = dfm;
+			// the nfm parser and the free lists of the nfm nodes are shared by all elements
+			synchronized (fNfmParser) {
+				dfm = fElementDfm;
+				if (dfm == null) {
+					dfm = parseElementDfm();
+					Dfm.freeze(dfm);
+					fElementDfm = dfm;
+				}
+			}
 		}
 		return dfm;
 	}
 
+	/**
+	 * Set the dfm of the element, for a schema read by the {@link SchemaSerializer}.
+	 * 
+	 * @param dfm
+	 *            Compiled and frozen dfm of the content model.
+	 */
+	void setDfm(Dfm dfm) {
+		fElementDfm = dfm;
+	}
+
 	private Dfm parseElementDfm() {
 		Dfm dfm;
 		if (fAny) {
@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.internal.ui.dtd.schema;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.ant.internal.ui.dtd.IAttribute;
+import org.eclipse.ant.internal.ui.dtd.IElement;
+import org.eclipse.ant.internal.ui.dtd.ISchema;
+
+/**
+ * Writes a compiled schema in a compact binary form and reads it back without parsing the DTD or converting content models to dfms.
+ * <p>
+ * The binary form holds a string table, the element table with the attributes of each element and the states of all element dfms with their
+ * transitions. A schema read back has the same elements, attributes and dfms as the written one but no content models:
+ * {@link IElement#getContentModel()} returns <code>null</code>. The schema must not be modified once it has been written or read.
+ * </p>
+ */
+public final class SchemaSerializer {
+
+	private static final int MAGIC = 0x41445444; // "ADTD"
+
+	/**
+	 * Version of the binary form, to be increased on every format change
+	 */
+	private static final int FORMAT_VERSION = 1;
+
+	private static final int NONE = -1;
+
+	private static final int UNDEFINED = 1;
+	private static final int TEXT = 2;
+	private static final int ANY = 4;
+	private static final int EMPTY = 8;
+	private static final int ACCEPTING = 16;
+	private static final int FIXED = 32;
+	private static final int REQUIRED = 64;
+
+	private SchemaSerializer() {
+		// no instances
+	}
+
+	/**
+	 * Writes the given schema, compiling the dfms of all its elements.
+	 *
+	 * @param schema
+	 *            the schema to write
+	 * @param stamp
+	 *            the stamp identifying the source of the schema
+	 * @param stream
+	 *            the stream to write to, not closed by this method
+	 * @throws IOException
+	 *             if the stream cannot be written or the schema contains elements or dfms that cannot be represented
+	 */
+	public static void write(ISchema schema, long stamp, OutputStream stream) throws IOException {
+		IElement[] elements = schema.getElements();
+		Arrays.sort(elements, Comparator.comparing(IElement::getName));
+		Map<IElement, Integer> elementIndices = new IdentityHashMap<>();
+		for (int i = 0; i < elements.length; i++) {
+			elementIndices.put(elements[i], Integer.valueOf(i));
+		}
+		List<Dfm> states = new ArrayList<>();
+		Map<Dfm, Integer> stateIndices = new IdentityHashMap<>();
+		int[] elementStates = new int[elements.length];
+		for (int i = 0; i < elements.length; i++) {
+			// elements that are referenced but not defined have no content model to compile
+			elementStates[i] = hasDfm(elements[i]) ? addStates(getDfm(elements[i]), states, stateIndices) : NONE;
+		}
+		StringTable strings = new StringTable();
+		for (IElement element : elements) {
+			strings.add(element.getName());
+			for (IAttribute attribute : element.getAttributes().values()) {
+				strings.add(attribute.getName());
+				strings.add(attribute.getType());
+				strings.add(attribute.getDefault());
+				if (attribute.getEnum() != null) {
+					for (String value : attribute.getEnum()) {
+						strings.add(value);
+					}
+				}
+			}
+		}
+
+		DataOutputStream out = new DataOutputStream(stream);
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		out.writeLong(stamp);
+		out.writeInt(strings.values.size());
+		for (String value : strings.values) {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+		out.writeInt(elements.length);
+		out.writeInt(states.size());
+		for (int i = 0; i < elements.length; i++) {
+			IElement element = elements[i];
+			out.writeInt(strings.indexOf(element.getName()));
+			out.writeByte((element.isUndefined() ? UNDEFINED : 0) | (element.isText() ? TEXT : 0) | (element.isAny() ? ANY : 0) | (element.isEmpty() ? EMPTY : 0));
+			out.writeInt(elementStates[i]);
+			out.writeInt(element.getAttributes().size());
+			for (IAttribute attribute : element.getAttributes().values()) {
+				out.writeInt(strings.indexOf(attribute.getName()));
+				out.writeInt(strings.indexOf(attribute.getType()));
+				out.writeInt(strings.indexOf(attribute.getDefault()));
+				out.writeByte((attribute.isFixed() ? FIXED : 0) | (attribute.isRequired() ? REQUIRED : 0));
+				String[] values = attribute.getEnum();
+				out.writeInt(values == null ? NONE : values.length);
+				if (values != null) {
+					for (String value : values) {
+						out.writeInt(strings.indexOf(value));
+					}
+				}
+			}
+		}
+		for (Dfm state : states) {
+			out.writeByte((state.accepting ? ACCEPTING : 0) | (state.any ? ANY : 0) | (state.empty ? EMPTY : 0));
+			Object[] keys = state.getKeys();
+			Object[] values = state.getValues();
+			out.writeInt(keys == null ? NONE : keys.length);
+			if (keys != null) {
+				for (int i = 0; i < keys.length; i++) {
+					Integer element = elementIndices.get(keys[i]);
+					if (element == null) {
+						throw new IOException("Unknown element in dfm: " + keys[i]); //$NON-NLS-1$
+					}
+					out.writeInt(element.intValue());
+					out.writeInt(stateIndices.get(values[i]).intValue());
+				}
+			}
+		}
+		out.flush();
+	}
+
+	private static boolean hasDfm(IElement element) {
+		return !element.isUndefined() || element.isAny() || element.isEmpty() || element.isText() || element.getContentModel() != null;
+	}
+
+	private static Dfm getDfm(IElement element) throws IOException {
+		if (!(element.getDfm() instanceof Dfm)) {
+			throw new IOException("Unknown dfm of element: " + element.getName()); //$NON-NLS-1$
+		}
+		return (Dfm) element.getDfm();
+	}
+
+	/**
+	 * Numbers the states reachable from the given dfm in depth-first order.
+	 *
+	 * @return the number of the given dfm
+	 */
+	private static int addStates(Dfm dfm, List<Dfm> states, Map<Dfm, Integer> stateIndices) {
+		Integer index = stateIndices.get(dfm);
+		if (index != null) {
+			return index.intValue();
+		}
+		int result = states.size();
+		states.add(dfm);
+		stateIndices.put(dfm, Integer.valueOf(result));
+		List<Dfm> pending = new ArrayList<>();
+		pending.add(dfm);
+		while (!pending.isEmpty()) {
+			Dfm state = pending.remove(pending.size() - 1);
+			Object[] values = state.getValues();
+			if (values == null) {
+				continue;
+			}
+			for (Object value : values) {
+				Dfm follow = (Dfm) value;
+				if (!stateIndices.containsKey(follow)) {
+					stateIndices.put(follow, Integer.valueOf(states.size()));
+					states.add(follow);
+					pending.add(follow);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Reads a schema written by {@link #write(ISchema, long, OutputStream)}.
+	 *
+	 * @param buffer
+	 *            the buffer holding the binary form
+	 * @param stamp
+	 *            the stamp identifying the expected source of the schema
+	 * @return the schema or <code>null</code> if the buffer holds a schema of another format version or stamp
+	 * @throws IOException
+	 *             if the buffer does not hold a valid schema
+	 */
+	public static ISchema read(ByteBuffer buffer, long stamp) throws IOException {
+		try {
+			if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION || buffer.getLong() != stamp) {
+				return null;
+			}
+			String[] strings = new String[buffer.getInt()];
+			for (int i = 0; i < strings.length; i++) {
+				byte[] bytes = new byte[buffer.getInt()];
+				buffer.get(bytes);
+				strings[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+			Element[] elements = new Element[buffer.getInt()];
+			Dfm[] states = new Dfm[buffer.getInt()];
+			for (int i = 0; i < states.length; i++) {
+				states[i] = Dfm.dfm(false);
+			}
+			Schema schema = new Schema();
+			for (int i = 0; i < elements.length; i++) {
+				Element element = new Element(strings[buffer.getInt()]);
+				int flags = buffer.get();
+				element.setUndefined((flags & UNDEFINED) != 0);
+				element.setText((flags & TEXT) != 0);
+				element.setAny((flags & ANY) != 0);
+				element.setEmpty((flags & EMPTY) != 0);
+				int state = buffer.getInt();
+				if (state != NONE) {
+					element.setDfm(states[state]);
+				}
+				int attributeCount = buffer.getInt();
+				for (int j = 0; j < attributeCount; j++) {
+					Attribute attribute = new Attribute(strings[buffer.getInt()], element);
+					String type = getString(strings, buffer.getInt());
+					// the type is interned, see IAttribute.getType()
+					attribute.setType(type == null ? null : type.intern());
+					attribute.setDefault(getString(strings, buffer.getInt()));
+					int attributeFlags = buffer.get();
+					attribute.setFixed((attributeFlags & FIXED) != 0);
+					attribute.setRequired((attributeFlags & REQUIRED) != 0);
+					int valueCount = buffer.getInt();
+					if (valueCount != NONE) {
+						String[] values = new String[valueCount];
+						for (int k = 0; k < valueCount; k++) {
+							values[k] = strings[buffer.getInt()];
+						}
+						attribute.setEnum(values);
+					}
+					element.addAttribute(attribute);
+				}
+				elements[i] = element;
+				schema.addElement(element);
+			}
+			for (Dfm state : states) {
+				int flags = buffer.get();
+				state.accepting = (flags & ACCEPTING) != 0;
+				state.any = (flags & ANY) != 0;
+				state.empty = (flags & EMPTY) != 0;
+				int transitionCount = buffer.getInt();
+				if (transitionCount != NONE) {
+					// written in the order of the sorted map of the dfm
+					Object[] keys = new Object[transitionCount];
+					Object[] values = new Object[transitionCount];
+					for (int i = 0; i < transitionCount; i++) {
+						keys[i] = elements[buffer.getInt()];
+						values[i] = states[buffer.getInt()];
+					}
+					state.setKeys(keys);
+					state.setValues(values);
+				}
+				state.freeze();
+			}
+			return schema;
+		}
+		catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static String getString(String[] strings, int index) {
+		return index == NONE ? null : strings[index];
+	}
+
+	private static class StringTable {
+		final List<String> values = new ArrayList<>();
+		final Map<String, Integer> indices = new HashMap<>();
+
+		void add(String value) {
+			if (value != null && !indices.containsKey(value)) {
+				indices.put(value, Integer.valueOf(values.size()));
+				values.add(value);
+			}
+		}
+
+		int indexOf(String value) {
+			return value == null ? NONE : indices.get(value).intValue();
+		}
+	}
+}
@@ -46,6 +46,7 @@ import org.eclipse.ant.internal.ui.model.AntElementNode;
 import org.eclipse.ant.internal.ui.model.AntModel;
 import org.eclipse.ant.internal.ui.model.AntModelCore;
 import org.eclipse.ant.internal.ui.model.AntProjectNode;
+import org.eclipse.ant.internal.ui.model.AntSymbolTable;
 import org.eclipse.ant.internal.ui.model.IAntElement;
 import org.eclipse.ant.internal.ui.model.IAntModelListener;
 import org.eclipse.ant.internal.ui.preferences.AntEditorPreferenceConstants;
@@ -823,11 +824,12 @@ public class AntEditor extends TextEditor implements IReconcilingParticipant, IP
 				if (model == null) {
 					return null;
 				}
+				AntSymbolTable symbols = model.getSymbolTable();
 				node = model.getReferenceNode(text);
-				if (node == null) {
-					node = model.getTargetNode(text);
+				if (node == null && symbols != null) {
+					node = symbols.getTargetNode(text);
 					if (node == null) {
-						node = model.getPropertyNode(text);
+						node = symbols.getPropertyNode(text);
 						if (node == null) {
 							String path = model.getPath(text, region.getOffset());
 							if (path != null) {
@@ -837,7 +839,7 @@ public class AntEditor extends TextEditor implements IReconcilingParticipant, IP
 
 							node = model.getDefininingTaskNode(text);
 							if (node == null) {
-								node = model.getMacroDefAttributeNode(text);
+								node = symbols.getMacroDefAttributeNode(text);
 							}
 						}
 					}
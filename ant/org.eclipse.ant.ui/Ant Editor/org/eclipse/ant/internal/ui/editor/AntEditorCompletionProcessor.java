@@ -20,12 +20,22 @@
 
 package org.eclipse.ant.internal.ui.editor;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -38,6 +48,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.zip.CRC32;
 
 import org.apache.tools.ant.AntTypeDefinition;
 import org.apache.tools.ant.BuildException;
@@ -62,6 +73,7 @@ import org.eclipse.ant.internal.ui.dtd.IElement;
 import org.eclipse.ant.internal.ui.dtd.ISchema;
 import org.eclipse.ant.internal.ui.dtd.ParseError;
 import org.eclipse.ant.internal.ui.dtd.Parser;
+import org.eclipse.ant.internal.ui.dtd.schema.SchemaSerializer;
 import org.eclipse.ant.internal.ui.editor.TaskDescriptionProvider.ProposalNode;
 import org.eclipse.ant.internal.ui.editor.templates.AntContext;
 import org.eclipse.ant.internal.ui.editor.templates.AntTemplateAccess;
@@ -183,6 +195,11 @@ public class AntEditorCompletionProcessor extends TemplateCompletionProcessor im
 
 	private static final String ANT_DTD_FILENAME = "/org/eclipse/ant/internal/ui/editor/ant1.6.2.dtd"; //$NON-NLS-1$
 
+	/**
+	 * The file in the state location holding the compiled schema of the DTD
+	 */
+	private static final String DTD_CACHE_FILENAME = "antDtd.bin"; //$NON-NLS-1$
+
 	/**
 	 * The DTD.
 	 */
@@ -237,13 +254,81 @@ public class AntEditorCompletionProcessor extends TemplateCompletionProcessor im
 	}
 
 	/**
-	 * Parses the dtd.
+	 * Parses the dtd, unless the compiled schema written to the state location the last time the dtd was parsed is still valid.
 	 */
 	private ISchema parseDtd() throws ParseError, IOException {
-		try (InputStream stream = getClass().getResourceAsStream(ANT_DTD_FILENAME); Reader reader = new InputStreamReader(stream, "UTF-8");) {//$NON-NLS-1$
+		byte[] dtd = readDtd();
+		CRC32 crc = new CRC32();
+		crc.update(dtd, 0, dtd.length);
+		long stamp = crc.getValue();
+		File cache = getDtdCacheFile();
+		if (cache != null && cache.isFile()) {
+			try {
+				// read into the heap rather than mapping the file, a mapped file cannot be replaced on all platforms
+				ISchema schema = SchemaSerializer.read(ByteBuffer.wrap(Files.readAllBytes(cache.toPath())), stamp);
+				if (schema != null) {
+					return schema;
+				}
+			}
+			catch (IOException e) {
+				// corrupt cache, parse the dtd
+			}
+		}
+		ISchema schema;
+		try (Reader reader = new InputStreamReader(new ByteArrayInputStream(dtd), StandardCharsets.UTF_8)) {
 			Parser parser = new Parser();
-			ISchema schema = parser.parseDTD(reader, "project"); //$NON-NLS-1$
-			return schema;
+			schema = parser.parseDTD(reader, "project"); //$NON-NLS-1$
+		}
+		if (cache != null && schema.getErrorException() == null) {
+			writeDtdCache(schema, stamp, cache);
+		}
+		return schema;
+	}
+
+	private byte[] readDtd() throws IOException {
+		try (InputStream stream = getClass().getResourceAsStream(ANT_DTD_FILENAME)) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(200000);
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = stream.read(buffer)) != -1) {
+				bytes.write(buffer, 0, read);
+			}
+			return bytes.toByteArray();
+		}
+	}
+
+	private File getDtdCacheFile() {
+		try {
+			return AntUIPlugin.getDefault().getStateLocation().append(DTD_CACHE_FILENAME).toFile();
+		}
+		catch (IllegalStateException e) {
+			// no instance location
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the compiled schema, compiling the dfms of all elements, so that the next parse only has to read it.
+	 */
+	private void writeDtdCache(ISchema schema, long stamp, File cache) {
+		try {
+			File temp = File.createTempFile("antDtd", ".tmp", cache.getParentFile()); //$NON-NLS-1$ //$NON-NLS-2$
+			try (OutputStream stream = new BufferedOutputStream(new FileOutputStream(temp))) {
+				SchemaSerializer.write(schema, stamp, stream);
+			}
+			catch (IOException e) {
+				temp.delete();
+				throw e;
+			}
+			try {
+				Files.move(temp.toPath(), cache.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), cache.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch (IOException e) {
+			AntUIPlugin.log(e);
 		}
 	}
 
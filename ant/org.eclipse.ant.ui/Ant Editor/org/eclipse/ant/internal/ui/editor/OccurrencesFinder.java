@@ -14,11 +14,16 @@
 package org.eclipse.ant.internal.ui.editor;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.ant.internal.ui.editor.text.XMLTextHover;
 import org.eclipse.ant.internal.ui.model.AntElementNode;
 import org.eclipse.ant.internal.ui.model.AntModel;
+import org.eclipse.ant.internal.ui.model.AntOccurrencesIndex;
+import org.eclipse.ant.internal.ui.model.AntProjectNode;
 import org.eclipse.ant.internal.ui.model.IAntElement;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
@@ -68,11 +73,15 @@ public class OccurrencesFinder {
 		if (occurrencesIdentifier == null) {
 			return null;
 		}
-		List<IAntElement> nodes = new ArrayList<>(1);
-		nodes.add(fAntModel.getProjectNode());
-		List<IAntElement> usages = new ArrayList<>();
+		Set<IAntElement> usages = new LinkedHashSet<>();
 		usages.add(node);
-		scanNodesForOccurrences(nodes, usages, occurrencesIdentifier);
+		AntProjectNode projectNode = fAntModel.getProjectNode();
+		AntOccurrencesIndex index = projectNode == null ? null : projectNode.getOccurrencesIndex();
+		if (index != null) {
+			usages.addAll(index.getOccurrences(occurrencesIdentifier));
+		} else if (projectNode != null) {
+			scanNodesForOccurrences(Collections.singletonList(projectNode), usages, occurrencesIdentifier);
+		}
 		String identifier;
 		try {
 			identifier = fDocument.get(region.getOffset(), region.getLength());
@@ -96,7 +105,7 @@ public class OccurrencesFinder {
 		return positions;
 	}
 
-	private void scanNodesForOccurrences(List<IAntElement> nodes, List<IAntElement> usages, String identifier) {
+	private void scanNodesForOccurrences(List<IAntElement> nodes, Set<IAntElement> usages, String identifier) {
 		for (IAntElement node : nodes) {
 			if (!usages.contains(node) && node.containsOccurrence(identifier)) {
 				usages.add(node);
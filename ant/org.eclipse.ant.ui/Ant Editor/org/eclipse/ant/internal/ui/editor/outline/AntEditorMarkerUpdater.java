@@ -16,9 +16,10 @@ package org.eclipse.ant.internal.ui.editor.outline;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import org.eclipse.ant.core.AntCorePlugin;
 import org.eclipse.ant.internal.core.IAntCoreConstants;
@@ -28,6 +29,8 @@ import org.eclipse.ant.internal.ui.model.IProblem;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.resources.WorkspaceJob;
 import org.eclipse.core.runtime.CoreException;
@@ -40,26 +43,93 @@ import org.eclipse.ui.texteditor.MarkerUtilities;
 
 public class AntEditorMarkerUpdater {
 
+	/**
+	 * Updates the markers with the problems reported last. Scheduled again for each report, so that reports arriving in bursts result in a single
+	 * update.
+	 */
 	class AntEditorMarkerUpdaterJob extends WorkspaceJob {
 
-		private final List<IProblem> fProblems;
-
-		public AntEditorMarkerUpdaterJob(List<IProblem> problems) {
+		public AntEditorMarkerUpdaterJob() {
 			super("Ant editor marker updater job"); //$NON-NLS-1$
-			fProblems = problems;
 			setSystem(true);
 		}
 
 		@Override
 		public IStatus runInWorkspace(IProgressMonitor monitor) {
-			updateMarkers0(fProblems);
+			List<IProblem> problems = takePendingProblems();
+			if (problems != null) {
+				try {
+					updateMarkers0(problems, monitor);
+				}
+				catch (CoreException e) {
+					AntUIPlugin.log(e);
+				}
+			}
 			return new Status(IStatus.OK, AntUIPlugin.getUniqueIdentifier(), IStatus.OK, IAntCoreConstants.EMPTY_STRING, null);
 		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return family == FAMILY;
+		}
 	}
 
+	/**
+	 * The identity of a problem marker: markers with equal keys are not recreated
+	 */
+	private static class ProblemKey {
+		private final int fOffset;
+		private final int fLength;
+		private final int fLineNumber;
+		private final int fSeverity;
+		private final String fMessage;
+
+		ProblemKey(IProblem problem) {
+			fOffset = problem.getOffset();
+			fLength = problem.getLength();
+			fLineNumber = problem.getLineNumber();
+			fSeverity = getSeverity(problem);
+			fMessage = problem.getUnmodifiedMessage();
+		}
+
+		ProblemKey(IMarker marker) {
+			fOffset = marker.getAttribute(IMarker.CHAR_START, -1);
+			fLength = marker.getAttribute(IMarker.CHAR_END, -1) - fOffset;
+			fLineNumber = marker.getAttribute(IMarker.LINE_NUMBER, -1);
+			fSeverity = marker.getAttribute(IMarker.SEVERITY, -1);
+			fMessage = marker.getAttribute(IMarker.MESSAGE, null);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(Integer.valueOf(fOffset), Integer.valueOf(fLength), Integer.valueOf(fLineNumber), Integer.valueOf(fSeverity), fMessage);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ProblemKey)) {
+				return false;
+			}
+			ProblemKey other = (ProblemKey) obj;
+			return fOffset == other.fOffset && fLength == other.fLength && fLineNumber == other.fLineNumber && fSeverity == other.fSeverity
+					&& Objects.equals(fMessage, other.fMessage);
+		}
+	}
+
+	/**
+	 * The delay in milliseconds before the markers are updated
+	 */
+	private static final long UPDATE_DELAY = 200;
+
 	private IAntModel fModel = null;
 	private List<IProblem> fCollectedProblems = new ArrayList<>();
+	private List<IProblem> fPendingProblems = null;
+	private AntEditorMarkerUpdaterJob fJob = null;
 	public static final String BUILDFILE_PROBLEM_MARKER = AntUIPlugin.PI_ANTUI + ".buildFileProblem"; //$NON-NLS-1$
+	/**
+	 * The family of the jobs updating the buildfile problem markers
+	 */
+	public static final Object FAMILY = AntEditorMarkerUpdater.class;
 	private IFile fFile = null;
 
 	public synchronized void acceptProblem(IProblem problem) {
@@ -73,19 +143,6 @@ public class AntEditorMarkerUpdater {
 		fCollectedProblems.clear();
 	}
 
-	private void removeProblems() {
-		IFile file = getFile();
-		if (file == null || !file.exists()) {
-			return;
-		}
-		try {
-			file.deleteMarkers(BUILDFILE_PROBLEM_MARKER, false, IResource.DEPTH_INFINITE);
-		}
-		catch (CoreException e) {
-			AntUIPlugin.log(e);
-		}
-	}
-
 	private void createMarker(IProblem problem) {
 		IFile file = getFile();
 		Map<String, Object> attributes = getMarkerAttributes(problem);
@@ -104,31 +161,57 @@ public class AntEditorMarkerUpdater {
 	public synchronized void updateMarkers() {
 		IFile file = getFile();
 		if (file != null) {
-			List<IProblem> problems = new ArrayList<>(fCollectedProblems.size());
-			Iterator<IProblem> e = fCollectedProblems.iterator();
-			while (e.hasNext()) {
-				problems.add(e.next());
-			}
+			// problems that have not been applied yet are replaced by the newer ones
+			fPendingProblems = new ArrayList<>(fCollectedProblems);
 			fCollectedProblems.clear();
-			AntEditorMarkerUpdaterJob job = new AntEditorMarkerUpdaterJob(problems);
-			job.setRule(ResourcesPlugin.getWorkspace().getRuleFactory().markerRule(file));
-			job.schedule();
+			if (fJob == null) {
+				fJob = new AntEditorMarkerUpdaterJob();
+				fJob.setRule(ResourcesPlugin.getWorkspace().getRuleFactory().markerRule(file));
+			}
+			fJob.schedule(UPDATE_DELAY);
 		}
 	}
 
-	private void updateMarkers0(List<IProblem> problems) {
-		removeProblems();
-		if (!shouldAddMarkers()) {
+	private synchronized List<IProblem> takePendingProblems() {
+		List<IProblem> problems = fPendingProblems;
+		fPendingProblems = null;
+		return problems;
+	}
+
+	/**
+	 * Deletes the markers that no longer match a problem and creates markers for the new problems, in a single workspace operation.
+	 */
+	private void updateMarkers0(List<IProblem> problems, IProgressMonitor monitor) throws CoreException {
+		IFile file = getFile();
+		if (file == null || !file.exists()) {
 			return;
 		}
-
-		if (problems.size() > 0) {
-			Iterator<IProblem> e = problems.iterator();
-			while (e.hasNext()) {
-				IProblem problem = e.next();
-				createMarker(problem);
+		Map<ProblemKey, IProblem> added = new LinkedHashMap<>();
+		if (shouldAddMarkers()) {
+			for (IProblem problem : problems) {
+				added.putIfAbsent(new ProblemKey(problem), problem);
+			}
+		}
+		List<IMarker> removed = new ArrayList<>();
+		for (IMarker marker : file.findMarkers(BUILDFILE_PROBLEM_MARKER, false, IResource.DEPTH_ZERO)) {
+			// a problem matched by an existing marker does not need a new one, further markers with the same key are duplicates
+			if (added.remove(new ProblemKey(marker)) == null) {
+				removed.add(marker);
 			}
 		}
+		if (removed.isEmpty() && added.isEmpty()) {
+			return;
+		}
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		IWorkspaceRunnable runnable = m -> {
+			if (!removed.isEmpty()) {
+				workspace.deleteMarkers(removed.toArray(new IMarker[removed.size()]));
+			}
+			for (IProblem problem : added.values()) {
+				createMarker(problem);
+			}
+		};
+		workspace.run(runnable, workspace.getRuleFactory().markerRule(file), IWorkspace.AVOID_UPDATE, monitor);
 	}
 
 	private IFile getFile() {
@@ -146,10 +229,7 @@ public class AntEditorMarkerUpdater {
 	private Map<String, Object> getMarkerAttributes(IProblem problem) {
 
 		Map<String, Object> attributes = new HashMap<>(11);
-		int severity = IMarker.SEVERITY_ERROR;
-		if (problem.isWarning()) {
-			severity = IMarker.SEVERITY_WARNING;
-		}
+		int severity = getSeverity(problem);
 		// marker line numbers are 1-based
 		MarkerUtilities.setMessage(attributes, problem.getUnmodifiedMessage());
 		MarkerUtilities.setLineNumber(attributes, problem.getLineNumber());
@@ -159,6 +239,13 @@ public class AntEditorMarkerUpdater {
 		return attributes;
 	}
 
+	private static int getSeverity(IProblem problem) {
+		if (problem.isWarning()) {
+			return IMarker.SEVERITY_WARNING;
+		}
+		return IMarker.SEVERITY_ERROR;
+	}
+
 	/**
 	 * Returns whether or not to add markers to the file based on the file's content type. The content type is considered an Ant buildfile if the XML
 	 * has a root &quot;project&quot; element. Content type is defined in the org.eclipse.ant.core plugin.xml.
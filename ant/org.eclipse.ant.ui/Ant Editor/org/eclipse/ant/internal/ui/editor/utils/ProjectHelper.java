@@ -62,40 +62,63 @@ public class ProjectHelper extends ProjectHelper2 {
 	/**
 	 * helper for path -&gt; URI and URI -&gt; path conversions.
 	 */
-	private static FileUtils fu = null;
+	private static volatile FileUtils fu = null;
 
 	/**
 	 * The build file that is to be parsed. Must be set if parsing is to be successful.
 	 */
 	private File buildFile = null;
 
-	private static String currentEntityName = null;
-	private static String currentEntityPath = null;
-
-	private static int currentImportStackSize = 1;
-
 	/**
-	 * The Ant Model
+	 * The state of the parse running on the current thread. Each thread has its own state so that Ant models can be parsed concurrently.
 	 */
-	private static IAntModel fgAntModel;
+	private static final ThreadLocal<ParseContext> fgParseContext = ThreadLocal.withInitial(ParseContext::new);
 
 	/**
-	 * The current Ant parsing context
+	 * Incremented whenever the cached XML readers must no longer be used
 	 */
-	private static AntXMLContext fgAntContext;
+	private static volatile int fgXMLReaderGeneration = 0;
 
-	private static AntHandler elementHandler = new ElementHandler();
 	private static AntHandler projectHandler = new ProjectHandler();
 	private static AntHandler targetHandler = new TargetHandler();
 	private static AntHandler mainHandler = new MainHandler();
 	private static LexicalHandler lexicalHandler = new LexHandler();
 
-	private static XMLReader fgXMLReader = null;
-	/*
-	 * Required to remember the project names (in case they are required for target-prefixing). The build file(s) are parsed anyway and hence the
-	 * project name is added to this map when it gets parsed.
+	/**
+	 * The per thread state of a parse: the model being built, the Ant parsing context and the state of the handlers.
 	 */
-	private static Map<String, String> parsedProjectNames = null;
+	private static class ParseContext {
+
+		/**
+		 * The Ant Model
+		 */
+		IAntModel antModel;
+
+		/**
+		 * The current Ant parsing context
+		 */
+		AntXMLContext antContext;
+
+		String currentEntityName = null;
+		String currentEntityPath = null;
+
+		int currentImportStackSize = 1;
+
+		final ElementHandler elementHandler = new ElementHandler();
+
+		XMLReader xmlReader = null;
+		int xmlReaderGeneration;
+
+		/*
+		 * Required to remember the project names (in case they are required for target-prefixing). The build file(s) are parsed anyway and hence
+		 * the project name is added to this map when it gets parsed.
+		 */
+		Map<String, String> parsedProjectNames = null;
+	}
+
+	private static ParseContext getParseContext() {
+		return fgParseContext.get();
+	}
 
 	public static class ElementHandler extends ProjectHelper2.ElementHandler {
 
@@ -106,7 +129,7 @@ public class ProjectHelper extends ProjectHelper2 {
 
 		@Override
 		public AntHandler onStartChild(String uri, String tag, String qname, Attributes attrs, AntXMLContext context) {
-			return ProjectHelper.elementHandler;
+			return getParseContext().elementHandler;
 		}
 
 		@Override
@@ -274,7 +297,7 @@ public class ProjectHelper extends ProjectHelper2 {
 	 * @return The project name
 	 */
 	public static String getProjectNameOfBuildFile(IFile buildFile) {
-		return parsedProjectNames.get(getBuildFileKey(buildFile));
+		return getProjectNameOfBuildFile(getBuildFileKey(buildFile));
 	}
 
 	/**
@@ -285,6 +308,10 @@ public class ProjectHelper extends ProjectHelper2 {
 	 * @return The project name
 	 */
 	public static String getProjectNameOfBuildFile(String absolutePath) {
+		Map<String, String> parsedProjectNames = getParseContext().parsedProjectNames;
+		if (parsedProjectNames == null) {
+			return null;
+		}
 		return parsedProjectNames.get(absolutePath);
 	}
 
@@ -309,10 +336,11 @@ public class ProjectHelper extends ProjectHelper2 {
 	 */
 	public static void storeParsedProjectName(String key, String projectName) {
 		// init if required
-		if (parsedProjectNames == null) {
-			parsedProjectNames = new HashMap<>();
+		ParseContext parseContext = getParseContext();
+		if (parseContext.parsedProjectNames == null) {
+			parseContext.parsedProjectNames = new HashMap<>();
 		}
-		parsedProjectNames.put(key, projectName);
+		parseContext.parsedProjectNames.put(key, projectName);
 	}
 
 	/**
@@ -322,9 +350,10 @@ public class ProjectHelper extends ProjectHelper2 {
 		/*
 		 * Currently only this "property-holder" is used. Extend if necessary.
 		 */
-		if (parsedProjectNames != null) {
-			parsedProjectNames.clear();
-			parsedProjectNames = null;
+		ParseContext parseContext = getParseContext();
+		if (parseContext.parsedProjectNames != null) {
+			parseContext.parsedProjectNames.clear();
+			parseContext.parsedProjectNames = null;
 		}
 	}
 
@@ -336,13 +365,13 @@ public class ProjectHelper extends ProjectHelper2 {
 					&& (uri.length() == 0 || uri.equals(ANT_CORE_URI))) {
 				return ProjectHelper.targetHandler;
 			}
-			return ProjectHelper.elementHandler;
+			return getParseContext().elementHandler;
 		}
 
 		@Override
 		public void onEndElement(String uri, String tag, AntXMLContext context) {
 			super.onEndElement(uri, tag, context);
-			if (currentImportStackSize == 1) {
+			if (getParseContext().currentImportStackSize == 1) {
 				Locator locator = context.getLocator();
 				getAntModel().setCurrentElementLength(locator.getLineNumber(), locator.getColumnNumber());
 			}
@@ -374,7 +403,7 @@ public class ProjectHelper extends ProjectHelper2 {
 				context.getProject().addTarget(IAntCoreConstants.EMPTY_STRING, context.getImplicitTarget());
 				context.setCurrentTarget(context.getImplicitTarget());
 			}
-			if (currentImportStackSize == 1) {
+			if (getParseContext().currentImportStackSize == 1) {
 				Locator locator = context.getLocator();
 				getAntModel().addProject(context.getProject(), locator.getLineNumber(), locator.getColumnNumber());
 			}
@@ -408,7 +437,7 @@ public class ProjectHelper extends ProjectHelper2 {
 	public static class TargetHandler extends ProjectHelper2.TargetHandler {
 		@Override
 		public AntHandler onStartChild(String uri, String name, String qname, Attributes attrs, AntXMLContext context) {
-			return ProjectHelper.elementHandler;
+			return getParseContext().elementHandler;
 		}
 
 		@Override
@@ -481,11 +510,12 @@ public class ProjectHelper extends ProjectHelper2 {
 			InputSource source = super.resolveEntity(publicId, systemId);
 			if (source != null) {
 				String path = getFileUtils().fromURI(source.getSystemId());
-				if (currentEntityName == null) {
-					currentEntityPath = path;
+				ParseContext parseContext = getParseContext();
+				if (parseContext.currentEntityName == null) {
+					parseContext.currentEntityPath = path;
 				} else {
-					getAntModel().addEntity(currentEntityName, path);
-					currentEntityName = null;
+					getAntModel().addEntity(parseContext.currentEntityName, path);
+					parseContext.currentEntityName = null;
 				}
 			}
 			return source;
@@ -556,11 +586,12 @@ public class ProjectHelper extends ProjectHelper2 {
 
 		@Override
 		public void startEntity(String name) throws SAXException {
-			if (currentEntityPath == null) {
-				currentEntityName = name;
+			ParseContext parseContext = getParseContext();
+			if (parseContext.currentEntityPath == null) {
+				parseContext.currentEntityName = name;
 			} else {
-				getAntModel().addEntity(name, currentEntityPath);
-				currentEntityPath = null;
+				getAntModel().addEntity(name, parseContext.currentEntityPath);
+				parseContext.currentEntityPath = null;
 			}
 		}
 
@@ -619,6 +650,11 @@ public class ProjectHelper extends ProjectHelper2 {
 			if ((source instanceof File)) {
 				buildFile = (File) source;
 				buildFile = getFileUtils().normalize(buildFile.getAbsolutePath());
+				// the buildfile itself is parsed from its text, files are imported or included
+				IAntModel model = getAntModel();
+				if (model != null) {
+					model.addImportedFile(buildFile);
+				}
 				stream = new FileInputStream(buildFile);
 				inputSource = new InputSource(stream);
 			} else if (source instanceof String) {
@@ -696,7 +732,7 @@ public class ProjectHelper extends ProjectHelper2 {
 	 */
 	public void setBuildFile(File file) {
 		buildFile = file;
-		currentImportStackSize = 1;
+		getParseContext().currentImportStackSize = 1;
 	}
 
 	/*
@@ -711,10 +747,10 @@ public class ProjectHelper extends ProjectHelper2 {
 			context = new AntXMLContext(project);
 			project.addReference("ant.parsing.context", context); //$NON-NLS-1$
 			project.addReference("ant.targets", context.getTargets()); //$NON-NLS-1$
-			fgAntContext = context;
+			getParseContext().antContext = context;
 		}
 		getImportStack().addElement(source);
-		currentImportStackSize = getImportStack().size();
+		getParseContext().currentImportStackSize = getImportStack().size();
 		if (getImportStack().size() > 1) {
 			// we are in an imported file.
 			context.setIgnoreProjectTag(true);
@@ -744,30 +780,38 @@ public class ProjectHelper extends ProjectHelper2 {
 	}
 
 	public static void reset() {
-		fgXMLReader = null;
+		fgXMLReaderGeneration++;
 		fu = null;
 	}
 
+	/**
+	 * Sets the model built by the parse that is about to run on the current thread, or <code>null</code> once the parse has completed.
+	 *
+	 * @param antModel
+	 *            the model to build
+	 */
 	public static void setAntModel(IAntModel antModel) {
-		fgAntModel = antModel;
-		((ProjectHelper.ElementHandler) elementHandler).reset();
-		fu = null;
-		fgAntContext = null;
+		ParseContext parseContext = getParseContext();
+		parseContext.antModel = antModel;
+		parseContext.elementHandler.reset();
+		parseContext.antContext = null;
 	}
 
 	public static IAntModel getAntModel() {
-		return fgAntModel;
+		return getParseContext().antModel;
 	}
 
 	public static AntXMLContext getContext() {
-		return fgAntContext;
+		return getParseContext().antContext;
 	}
 
 	private static FileUtils getFileUtils() {
-		if (fu == null) {
-			fu = FileUtils.getFileUtils();
+		FileUtils fileUtils = fu;
+		if (fileUtils == null) {
+			fileUtils = FileUtils.getFileUtils();
+			fu = fileUtils;
 		}
-		return fu;
+		return fileUtils;
 	}
 
 	/**
@@ -777,15 +821,19 @@ public class ProjectHelper extends ProjectHelper2 {
 	 * @since Ant 1.6 from org.apache.tools.ant.util.JAXPUtils
 	 */
 	private XMLReader getNamespaceXMLReader() throws BuildException {
-		if (fgXMLReader == null) {
+		ParseContext parseContext = getParseContext();
+		int generation = fgXMLReaderGeneration;
+		if (parseContext.xmlReader == null || parseContext.xmlReaderGeneration != generation) {
+			parseContext.xmlReader = null;
 			try {
-				fgXMLReader = newSAXParser(getNSParserFactory()).getXMLReader();
+				parseContext.xmlReader = newSAXParser(getNSParserFactory()).getXMLReader();
+				parseContext.xmlReaderGeneration = generation;
 			}
 			catch (SAXException e) {
 				// do nothing
 			}
 		}
-		return fgXMLReader;
+		return parseContext.xmlReader;
 	}
 
 	/**
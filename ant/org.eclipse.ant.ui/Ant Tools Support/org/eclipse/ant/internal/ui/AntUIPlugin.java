@@ -19,6 +19,7 @@ import java.util.Locale;
 import org.eclipse.ant.internal.core.IAntCoreConstants;
 import org.eclipse.ant.internal.ui.editor.DecayCodeCompletionDataStructuresThread;
 import org.eclipse.ant.internal.ui.editor.text.AntEditorDocumentProvider;
+import org.eclipse.ant.internal.ui.model.AntBuildfileIndex;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.dialogs.IDialogSettings;
@@ -84,6 +85,7 @@ public class AntUIPlugin extends AbstractUIPlugin {
 		try {
 			AntUIImages.disposeImageDescriptorRegistry();
 			DecayCodeCompletionDataStructuresThread.cancel();
+			AntBuildfileIndex.shutdown();
 			ColorManager.getDefault().dispose();
 		}
 		finally {
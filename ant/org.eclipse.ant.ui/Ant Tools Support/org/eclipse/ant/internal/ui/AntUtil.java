@@ -21,8 +21,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -49,11 +54,13 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.content.IContentType;
 import org.eclipse.core.variables.IStringVariableManager;
 import org.eclipse.core.variables.VariablesPlugin;
@@ -90,6 +97,12 @@ public final class AntUtil {
 	public static final char ANT_CLASSPATH_DELIMITER = '*';
 	public static final String ANT_HOME_CLASSPATH_PLACEHOLDER = "G"; //$NON-NLS-1$
 	public static final String ANT_GLOBAL_USER_CLASSPATH_PLACEHOLDER = "UG"; //$NON-NLS-1$
+
+	/**
+	 * The maximum number of threads used to resolve the targets of several buildfiles at once
+	 */
+	private static final int MAX_TARGET_RESOLVER_THREADS = 4;
+
 	private static String fgBrowserId;
 
 	/**
@@ -266,6 +279,56 @@ public final class AntUtil {
 		return targets;
 	}
 
+	/**
+	 * Returns the targets of each of the given buildfiles. The buildfiles are parsed concurrently on a bounded number of threads.
+	 * 
+	 * @param paths
+	 *            the absolute paths of the buildfiles
+	 * @param monitor
+	 *            the progress monitor to report progress to and to check for cancellation, or <code>null</code>
+	 * @return the targets of the buildfiles keyed by path, in the order of the given paths. The targets are <code>null</code> for a buildfile that
+	 *         could not be parsed or has no targets, buildfiles that have not been resolved when the operation is canceled are missing.
+	 * @see #getTargets(String)
+	 */
+	public static Map<String, AntTargetNode[]> getTargets(String[] paths, IProgressMonitor monitor) {
+		Map<String, AntTargetNode[]> result = new LinkedHashMap<>(paths.length);
+		if (paths.length == 0) {
+			return result;
+		}
+		SubMonitor progress = SubMonitor.convert(monitor, paths.length);
+		int threadCount = Math.min(paths.length, Math.min(MAX_TARGET_RESOLVER_THREADS, Runtime.getRuntime().availableProcessors()));
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+			Thread thread = new Thread(runnable, "Ant Target Resolver"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<AntTargetNode[]>> futures = new ArrayList<>(paths.length);
+			for (String path : paths) {
+				futures.add(executor.submit(() -> getTargets(path)));
+			}
+			for (int i = 0; i < paths.length && !progress.isCanceled(); i++) {
+				AntTargetNode[] targets = null;
+				try {
+					targets = futures.get(i).get();
+				}
+				catch (ExecutionException e) {
+					AntUIPlugin.log(e.getCause());
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+				result.put(paths[i], targets);
+				progress.worked(1);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		return result;
+	}
+
 	public static IAntModel getAntModel(String buildFilePath, boolean needsLexicalResolution, boolean needsPositionResolution, boolean needsTaskResolution) {
 		IAntModel model = getAntModel(getBuildFile(buildFilePath), null, needsLexicalResolution, needsPositionResolution, needsTaskResolution);
 		return model;
@@ -23,6 +23,7 @@ import org.eclipse.ant.internal.core.IAntCoreConstants;
 import org.eclipse.ant.internal.ui.AntUIPlugin;
 import org.eclipse.ant.internal.ui.AntUtil;
 import org.eclipse.ant.internal.ui.IAntUIConstants;
+import org.eclipse.ant.internal.ui.model.AntBuildfileIndex;
 import org.eclipse.ant.internal.ui.model.AntElementNode;
 import org.eclipse.ant.internal.ui.model.AntProjectNode;
 import org.eclipse.ant.internal.ui.model.AntTargetNode;
@@ -84,7 +85,7 @@ public class AntLaunchShortcut implements ILaunchShortcut2 {
 				}
 				IResource resource = ((IAdaptable) object).getAdapter(IResource.class);
 				if (resource != null) {
-					if (!(AntUtil.isKnownAntFile(resource))) {
+					if (!(isKnownAntFile(resource))) {
 						if (!AntUtil.isKnownBuildfileName(resource.getName())) {
 							if (resource.getType() == IResource.FILE) {
 								resource = resource.getParent();
@@ -163,6 +164,18 @@ public class AntLaunchShortcut implements ILaunchShortcut2 {
 		reportError(AntLaunchConfigurationMessages.AntLaunchShortcut_Unable, null);
 	}
 
+	/**
+	 * Returns whether the given resource is an Ant buildfile, consulting the buildfile index, if it has already been created, before the content
+	 * type of the resource.
+	 */
+	private boolean isKnownAntFile(IResource resource) {
+		AntBuildfileIndex index = AntBuildfileIndex.getIfCreated();
+		if (index != null && resource instanceof IFile && index.getBuildfile((IFile) resource) != null) {
+			return true;
+		}
+		return AntUtil.isKnownAntFile(resource);
+	}
+
 	/**
 	 * Walks the file hierarchy looking for a build file. Returns the first build file found that matches the search criteria.
 	 */
@@ -487,7 +500,7 @@ public class AntLaunchShortcut implements ILaunchShortcut2 {
 				filepath = locationProvider.getPath(input);
 			}
 		}
-		if (filepath != null && (AntUtil.isKnownAntFile(file) || AntUtil.isKnownAntFile(filepath.toFile()))) {
+		if (filepath != null && (isKnownAntFile(file) || AntUtil.isKnownAntFile(filepath.toFile()))) {
 			launch(filepath, (file == null ? null : file.getProject()), mode, null);
 			return;
 		}
@@ -542,7 +555,7 @@ public class AntLaunchShortcut implements ILaunchShortcut2 {
 				}
 				IResource resource = ((IAdaptable) object).getAdapter(IResource.class);
 				if (resource != null) {
-					if (!(AntUtil.isKnownAntFile(resource))) {
+					if (!(isKnownAntFile(resource))) {
 						if (!AntUtil.isKnownBuildfileName(resource.getName())) {
 							if (resource.getType() == IResource.FILE) {
 								resource = resource.getParent();
@@ -593,7 +606,7 @@ public class AntLaunchShortcut implements ILaunchShortcut2 {
 			if (object instanceof IAdaptable) {
 				IResource resource = ((IAdaptable) object).getAdapter(IResource.class);
 				if (resource != null) {
-					if (!(AntUtil.isKnownAntFile(resource))) {
+					if (!(isKnownAntFile(resource))) {
 						if (AntUtil.isKnownBuildfileName(resource.getName())) {
 							return resource;
 						}
@@ -15,11 +15,9 @@ package org.eclipse.ant.internal.ui.launchConfigurations;
 
 import java.io.File;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import org.apache.tools.ant.util.FileUtils;
-import org.eclipse.ant.internal.core.IAntCoreConstants;
 import org.eclipse.ant.internal.launching.AntLaunch;
 import org.eclipse.ant.internal.launching.AntLaunchingUtil;
 import org.eclipse.ant.internal.launching.LinkDescriptor;
@@ -79,22 +77,12 @@ public class TaskLinkManager {
 		return taskLink;
 	}
 
-	private static boolean addLink(IConsole console, IRegion lineRegion, LinkDescriptor descriptor) {
-		try {
-			String text = console.getDocument().get(lineRegion.getOffset(), lineRegion.getLength());
-			if (text.trim().equals(descriptor.getLine())) {
-				int offset = lineRegion.getOffset() + descriptor.getOffset();
-				IHyperlink link = createHyperlink(descriptor);
-				if (link != null) {
-					console.addLink(link, offset, descriptor.getLength());
-				}
-				return true;
-			}
+	private static void addLink(IConsole console, IRegion lineRegion, LinkDescriptor descriptor) {
+		int offset = lineRegion.getOffset() + descriptor.getOffset();
+		IHyperlink link = createHyperlink(descriptor);
+		if (link != null) {
+			console.addLink(link, offset, descriptor.getLength());
 		}
-		catch (BadLocationException e) {
-			// do nothing
-		}
-		return false;
 	}
 
 	/**
@@ -106,16 +94,20 @@ public class TaskLinkManager {
 	 */
 	public static synchronized void processNewLine(IConsole console, IRegion newLine) {
 		AntLaunch launch = (AntLaunch) console.getProcess().getLaunch();
-		List<LinkDescriptor> links = launch.getLinkDescriptors();
+		String text;
+		try {
+			text = console.getDocument().get(newLine.getOffset(), newLine.getLength());
+		}
+		catch (BadLocationException e) {
+			return;
+		}
 
-		if (linkBuildFileMessage(console, newLine)) {
+		if (linkBuildFileMessage(console, newLine, text)) {
 			return;
 		}
-		for (LinkDescriptor descriptor : links) {
-			if (addLink(console, newLine, descriptor)) {
-				launch.removeLinkDescriptor(descriptor);
-				return;
-			}
+		LinkDescriptor descriptor = launch.removeLinkDescriptor(text.trim());
+		if (descriptor != null) {
+			addLink(console, newLine, descriptor);
 		}
 	}
 
@@ -130,16 +122,8 @@ public class TaskLinkManager {
 	}
 
 	@SuppressWarnings("deprecation")
-	private static boolean linkBuildFileMessage(IConsole console, IRegion region) {
-
-		String message = IAntCoreConstants.EMPTY_STRING;
+	private static boolean linkBuildFileMessage(IConsole console, IRegion region, String message) {
 		int offset = region.getOffset();
-		try {
-			message = console.getDocument().get(offset, region.getLength());
-		}
-		catch (BadLocationException e) {
-			// do nothing
-		}
 		if (message.startsWith("Buildfile:")) { //$NON-NLS-1$
 			String fileName = message.substring(10).trim();
 			IFile file = AntUtil.getFileForLocation(fileName, null);
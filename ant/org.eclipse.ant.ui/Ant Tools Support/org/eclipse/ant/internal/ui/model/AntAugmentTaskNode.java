@@ -78,6 +78,11 @@ public class AntAugmentTaskNode extends AntTaskNode {
 		return false;
 	}
 
+	@Override
+	protected void collectOccurrenceTexts(List<String> texts) {
+		texts.add(attrId);
+	}
+
 	@Override
 	public List<Integer> computeIdentifierOffsets(String identifier) {
 		// augment nodes can only contain an occurrence of the id of the task
@@ -0,0 +1,588 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.internal.ui.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.ant.core.AntCorePlugin;
+import org.eclipse.ant.internal.ui.AntUIPlugin;
+import org.eclipse.ant.internal.ui.AntUtil;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.content.IContentType;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * A catalog of the Ant buildfiles of the workspace with their project name, default target and targets.
+ * <p>
+ * A workspace file is an Ant buildfile if its content type is the Ant buildfile content type, as determined by the content describer of that
+ * content type. The index is updated in the background from the resource deltas of the workspace: only files that have been added or whose
+ * contents have changed are parsed again. The catalog is saved in the state location of the Ant UI plug-in, and the entries read back on the
+ * next start are kept as long as the modification stamp of their file has not changed.
+ * </p>
+ * <p>
+ * The index is created on first use. Until its initial scan of the workspace has finished, {@link #isReady()} returns <code>false</code> and
+ * clients are expected to fall back to searching the workspace themselves.
+ * </p>
+ */
+public final class AntBuildfileIndex implements IResourceChangeListener {
+
+	/**
+	 * A buildfile of the index. The data reflects the contents of the buildfile with the modification stamp of the entry.
+	 */
+	public static final class Buildfile {
+		private final IPath fPath;
+		private final long fModificationStamp;
+		private final String fProjectName;
+		private final String fDefaultTargetName;
+		private final String[] fTargetNames;
+		private final boolean fError;
+
+		Buildfile(IPath path, long modificationStamp, String projectName, String defaultTargetName, String[] targetNames, boolean error) {
+			fPath = path;
+			fModificationStamp = modificationStamp;
+			fProjectName = projectName;
+			fDefaultTargetName = defaultTargetName;
+			fTargetNames = targetNames;
+			fError = error;
+		}
+
+		/**
+		 * Returns the workspace path of the buildfile.
+		 */
+		public IPath getPath() {
+			return fPath;
+		}
+
+		/**
+		 * Returns the buildfile.
+		 */
+		public IFile getFile() {
+			return ResourcesPlugin.getWorkspace().getRoot().getFile(fPath);
+		}
+
+		/**
+		 * Returns the modification stamp of the buildfile when it was indexed.
+		 */
+		public long getModificationStamp() {
+			return fModificationStamp;
+		}
+
+		/**
+		 * Returns the name of the project of the buildfile or <code>null</code> if the project has no name.
+		 */
+		public String getProjectName() {
+			return fProjectName;
+		}
+
+		/**
+		 * Returns the name of the default target or <code>null</code> if the project has no default target.
+		 */
+		public String getDefaultTargetName() {
+			return fDefaultTargetName;
+		}
+
+		/**
+		 * Returns the names of the targets in document order, without the implicit target.
+		 */
+		public String[] getTargetNames() {
+			return fTargetNames.clone();
+		}
+
+		/**
+		 * Returns whether the buildfile could not be parsed without errors.
+		 */
+		public boolean isErrorNode() {
+			return fError;
+		}
+	}
+
+	private static final String INDEX_FILENAME = "buildfileIndex.dat"; //$NON-NLS-1$
+
+	private static final int MAGIC = 0x41424649; // "ABFI"
+
+	/**
+	 * Version of the saved catalog, to be increased on every format change
+	 */
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * Delay before changed buildfiles are parsed, so that the changes of one operation are handled together
+	 */
+	private static final long UPDATE_DELAY = 500;
+
+	private static AntBuildfileIndex fgDefault;
+
+	private final Map<IPath, Buildfile> fBuildfiles = new ConcurrentHashMap<>();
+	private final IContentType fAntContentType;
+	private final Job fJob;
+
+	// guarded by this
+	private final Set<IPath> fPendingFiles = new LinkedHashSet<>();
+	private boolean fScanPending = true;
+
+	private volatile boolean fReady = false;
+	private volatile boolean fDisposed = false;
+	private boolean fLoaded = false;
+
+	private AntBuildfileIndex() {
+		fAntContentType = Platform.getContentTypeManager().getContentType(AntCorePlugin.ANT_BUILDFILE_CONTENT_TYPE);
+		fJob = new Job("Ant buildfile index job") { //$NON-NLS-1$
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				update(monitor);
+				return Status.OK_STATUS;
+			}
+
+			@Override
+			public boolean belongsTo(Object family) {
+				return family == AntBuildfileIndex.this;
+			}
+		};
+		fJob.setSystem(true);
+		fJob.setPriority(Job.DECORATE);
+	}
+
+	/**
+	 * Returns the buildfile index of the workspace, creating it and starting its initial scan of the workspace if required.
+	 *
+	 * @return the buildfile index
+	 */
+	public static synchronized AntBuildfileIndex getDefault() {
+		if (fgDefault == null) {
+			fgDefault = new AntBuildfileIndex();
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(fgDefault, IResourceChangeEvent.POST_CHANGE);
+			fgDefault.fJob.schedule();
+		}
+		return fgDefault;
+	}
+
+	/**
+	 * Returns the buildfile index of the workspace if it has already been created. Unlike {@link #getDefault()}, this never starts a scan of the
+	 * workspace.
+	 *
+	 * @return the buildfile index or <code>null</code> if it has not been created
+	 */
+	public static synchronized AntBuildfileIndex getIfCreated() {
+		return fgDefault;
+	}
+
+	/**
+	 * Stops updating the index, if it has been created, and saves its catalog.
+	 */
+	public static void shutdown() {
+		AntBuildfileIndex index;
+		synchronized (AntBuildfileIndex.class) {
+			index = fgDefault;
+			fgDefault = null;
+		}
+		if (index != null) {
+			index.dispose();
+		}
+	}
+
+	private void dispose() {
+		fDisposed = true;
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+		fJob.cancel();
+		try {
+			fJob.join();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (fReady) {
+			save();
+		}
+	}
+
+	/**
+	 * Returns whether the initial scan of the workspace has finished, so that the index knows every buildfile of the workspace.
+	 *
+	 * @return whether the index is ready
+	 */
+	public boolean isReady() {
+		return fReady;
+	}
+
+	/**
+	 * Waits until all pending changes have been indexed.
+	 *
+	 * @param monitor
+	 *            the progress monitor to cancel waiting, or <code>null</code>
+	 * @throws InterruptedException
+	 *             if waiting has been interrupted
+	 */
+	public void join(IProgressMonitor monitor) throws InterruptedException {
+		Job.getJobManager().join(this, monitor);
+	}
+
+	/**
+	 * Returns the entry of the given file if the file is an indexed buildfile and has not changed since it was indexed.
+	 *
+	 * @param file
+	 *            the file
+	 * @return the entry of the buildfile or <code>null</code> if the file is not a buildfile or the index does not know its current contents
+	 */
+	public Buildfile getBuildfile(IFile file) {
+		if (file == null) {
+			return null;
+		}
+		Buildfile buildfile = fBuildfiles.get(file.getFullPath());
+		if (buildfile == null || buildfile.getModificationStamp() != file.getModificationStamp()) {
+			return null;
+		}
+		return buildfile;
+	}
+
+	/**
+	 * Returns whether the buildfile with the given workspace path is indexed, whether or not the index knows its current contents.
+	 *
+	 * @param path
+	 *            the workspace path of the file
+	 * @return whether the file is an indexed buildfile
+	 */
+	public boolean contains(IPath path) {
+		return fBuildfiles.containsKey(path);
+	}
+
+	/**
+	 * Returns the indexed buildfiles within the given resources, sorted by path.
+	 *
+	 * @param scopes
+	 *            the resources to return the buildfiles of, or <code>null</code> for the whole workspace
+	 * @return the buildfiles, never <code>null</code>
+	 */
+	public List<Buildfile> getBuildfiles(IResource[] scopes) {
+		List<Buildfile> result = new ArrayList<>();
+		for (Buildfile buildfile : fBuildfiles.values()) {
+			if (scopes == null) {
+				result.add(buildfile);
+				continue;
+			}
+			for (IResource scope : scopes) {
+				if (scope.getFullPath().isPrefixOf(buildfile.getPath())) {
+					result.add(buildfile);
+					break;
+				}
+			}
+		}
+		result.sort((first, second) -> first.getPath().toString().compareTo(second.getPath().toString()));
+		return result;
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null) {
+			return;
+		}
+		Set<IPath> files = new LinkedHashSet<>();
+		boolean[] scan = new boolean[1];
+		IResourceDeltaVisitor visitor = child -> {
+			IResource resource = child.getResource();
+			switch (resource.getType()) {
+				case IResource.FILE:
+					if (child.getKind() == IResourceDelta.REMOVED || child.getKind() == IResourceDelta.ADDED
+							|| (child.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0) {
+						if (isCandidate(resource.getName()) || fBuildfiles.containsKey(resource.getFullPath())) {
+							files.add(resource.getFullPath());
+						}
+					}
+					return false;
+				case IResource.PROJECT:
+					if ((child.getFlags() & IResourceDelta.OPEN) != 0 || child.getKind() == IResourceDelta.REMOVED) {
+						// closed projects report no children
+						scan[0] = true;
+						return false;
+					}
+					return true;
+				default:
+					return true;
+			}
+		};
+		try {
+			delta.accept(visitor);
+		}
+		catch (CoreException e) {
+			AntUIPlugin.log(e);
+			scan[0] = true;
+		}
+		if (files.isEmpty() && !scan[0]) {
+			return;
+		}
+		synchronized (this) {
+			fPendingFiles.addAll(files);
+			fScanPending |= scan[0];
+		}
+		fJob.schedule(UPDATE_DELAY);
+	}
+
+	private boolean isCandidate(String fileName) {
+		return fAntContentType != null && fAntContentType.isAssociatedWith(fileName);
+	}
+
+	private void update(IProgressMonitor monitor) {
+		if (!fLoaded) {
+			fLoaded = true;
+			load();
+		}
+		Set<IPath> files;
+		boolean scan;
+		synchronized (this) {
+			files = new LinkedHashSet<>(fPendingFiles);
+			scan = fScanPending;
+			fPendingFiles.clear();
+			fScanPending = false;
+		}
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		Set<IPath> removed = new LinkedHashSet<>();
+		if (scan) {
+			Set<IPath> found = new HashSet<>();
+			for (IProject project : root.getProjects()) {
+				if (!project.isAccessible()) {
+					continue;
+				}
+				try {
+					project.accept((IResourceProxy proxy) -> {
+						if (proxy.getType() == IResource.FILE) {
+							if (isCandidate(proxy.getName())) {
+								found.add(proxy.requestFullPath());
+							}
+							return false;
+						}
+						return true;
+					}, IResource.NONE);
+				}
+				catch (CoreException e) {
+					// closed or deleted meanwhile
+				}
+			}
+			for (IPath path : fBuildfiles.keySet()) {
+				if (!found.contains(path)) {
+					removed.add(path);
+				}
+			}
+			files.addAll(found);
+		}
+
+		Map<String, IFile> toParse = new LinkedHashMap<>();
+		for (IPath path : files) {
+			IFile file = root.getFile(path);
+			Buildfile buildfile = fBuildfiles.get(path);
+			if (buildfile != null && file.isAccessible() && buildfile.getModificationStamp() == file.getModificationStamp()) {
+				// unchanged since it was indexed
+				continue;
+			}
+			if (!file.isAccessible() || !AntUtil.isKnownAntFile(file)) {
+				if (buildfile != null) {
+					removed.add(path);
+				}
+			} else {
+				IPath location = file.getLocation();
+				if (location != null) {
+					toParse.put(location.toString(), file);
+				}
+			}
+		}
+
+		Set<IPath> changed = new LinkedHashSet<>();
+		if (!toParse.isEmpty()) {
+			Set<String> locations = toParse.keySet();
+			Map<String, AntTargetNode[]> targets = AntUtil.getTargets(locations.toArray(new String[locations.size()]), monitor);
+			for (Map.Entry<String, IFile> entry : toParse.entrySet()) {
+				IFile file = entry.getValue();
+				if (!targets.containsKey(entry.getKey())) {
+					// canceled, index on the next run
+					synchronized (this) {
+						fPendingFiles.add(file.getFullPath());
+					}
+					continue;
+				}
+				fBuildfiles.put(file.getFullPath(), createBuildfile(file, targets.get(entry.getKey())));
+				changed.add(file.getFullPath());
+			}
+		}
+		for (IPath path : removed) {
+			fBuildfiles.remove(path);
+		}
+		if (scan && !monitor.isCanceled()) {
+			fReady = true;
+		}
+		if (fReady && (!changed.isEmpty() || !removed.isEmpty())) {
+			save();
+		}
+		if (monitor.isCanceled() && !fDisposed) {
+			synchronized (this) {
+				fScanPending |= scan && !fReady;
+			}
+			fJob.schedule(UPDATE_DELAY);
+		}
+	}
+
+	/**
+	 * Creates the entry of the given buildfile from its targets, disposing the model the targets have been resolved with.
+	 */
+	private Buildfile createBuildfile(IFile file, AntTargetNode[] nodes) {
+		long stamp = file.getModificationStamp();
+		if (nodes == null || nodes.length == 0) {
+			return new Buildfile(file.getFullPath(), stamp, null, null, new String[0], true);
+		}
+		AntProjectNode projectNode = nodes[0].getProjectNode();
+		List<String> targetNames = new ArrayList<>(nodes.length);
+		for (AntTargetNode node : nodes) {
+			if (node.getTargetName().length() != 0) {
+				targetNames.add(node.getTargetName());
+			}
+		}
+		String projectName = projectNode.getProject().getName();
+		Buildfile buildfile = new Buildfile(file.getFullPath(), stamp, projectName, projectNode.getDefaultTargetName(), targetNames.toArray(new String[targetNames.size()]), projectNode.isErrorNode());
+		projectNode.getAntModel().dispose();
+		return buildfile;
+	}
+
+	private File getIndexFile() {
+		try {
+			return AntUIPlugin.getDefault().getStateLocation().append(INDEX_FILENAME).toFile();
+		}
+		catch (IllegalStateException e) {
+			// no instance location
+			return null;
+		}
+	}
+
+	/**
+	 * Reads the saved catalog. The entries are validated against the modification stamps of their files by the initial scan.
+	 */
+	private void load() {
+		File file = getIndexFile();
+		if (file == null || !file.isFile()) {
+			return;
+		}
+		Map<IPath, Buildfile> buildfiles = new HashMap<>();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				return;
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				IPath path = new Path(in.readUTF());
+				long stamp = in.readLong();
+				String projectName = readString(in);
+				String defaultTargetName = readString(in);
+				boolean error = in.readBoolean();
+				String[] targetNames = new String[in.readInt()];
+				for (int j = 0; j < targetNames.length; j++) {
+					targetNames[j] = in.readUTF();
+				}
+				buildfiles.put(path, new Buildfile(path, stamp, projectName, defaultTargetName, targetNames, error));
+			}
+		}
+		catch (EOFException | NegativeArraySizeException e) {
+			// truncated, rebuilt by the initial scan
+			return;
+		}
+		catch (IOException e) {
+			AntUIPlugin.log(e);
+			return;
+		}
+		fBuildfiles.putAll(buildfiles);
+	}
+
+	private synchronized void save() {
+		File file = getIndexFile();
+		if (file == null) {
+			return;
+		}
+		List<Buildfile> buildfiles = new ArrayList<>(fBuildfiles.values());
+		try {
+			File temp = File.createTempFile("buildfileIndex", ".tmp", file.getParentFile()); //$NON-NLS-1$ //$NON-NLS-2$
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeInt(buildfiles.size());
+				for (Buildfile buildfile : buildfiles) {
+					out.writeUTF(buildfile.getPath().toString());
+					out.writeLong(buildfile.getModificationStamp());
+					writeString(buildfile.getProjectName(), out);
+					writeString(buildfile.getDefaultTargetName(), out);
+					out.writeBoolean(buildfile.isErrorNode());
+					out.writeInt(buildfile.fTargetNames.length);
+					for (String targetName : buildfile.fTargetNames) {
+						out.writeUTF(targetName);
+					}
+				}
+			}
+			catch (IOException e) {
+				temp.delete();
+				throw e;
+			}
+			try {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch (IOException e) {
+			AntUIPlugin.log(e);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	private static void writeString(String value, DataOutputStream out) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+}
@@ -193,6 +193,19 @@ public class AntElementNode implements IAdaptable, IAntElement {
 		}
 	}
 
+	/**
+	 * Replaces the child at the specified index with the specified element, as when that part of the buildfile has been parsed again.
+	 * <P>
+	 * The specified element will have this assigned as its parent.
+	 */
+	public void replaceChildNode(int index, AntElementNode childElement) {
+		childElement.setParent(this);
+		synchronized (this) {
+			fChildNodes.set(index, childElement);
+			childElement.setIndex(index);
+		}
+	}
+
 	private void setIndex(int index) {
 		fIndex = index;
 	}
@@ -478,6 +491,34 @@ public class AntElementNode implements IAdaptable, IAntElement {
 		fChildNodes = null;
 	}
 
+	/**
+	 * Updates the source range of this node and of its children for a change of the document that does not alter the structure of the
+	 * buildfile, such as a change of the whitespace between two elements.
+	 * 
+	 * @param offset
+	 *            the offset of the change
+	 * @param length
+	 *            the length of the replaced text
+	 * @param delta
+	 *            the length of the inserted text minus the length of the replaced text
+	 */
+	public void adjustSourceRange(int offset, int length, int delta) {
+		if (!isExternal()) {
+			if (offset + length <= fOffset) {
+				fOffset += delta;
+			} else if (fLength != -1 && fOffset < offset && offset + length < fOffset + fLength) {
+				fLength += delta;
+			}
+		}
+		synchronized (this) {
+			if (fChildNodes != null) {
+				for (IAntElement node : fChildNodes) {
+					((AntElementNode) node).adjustSourceRange(offset, length, delta);
+				}
+			}
+		}
+	}
+
 	public void setExternalInfo(int line, int column) {
 		fLine = line;
 		fColumn = column;
@@ -562,6 +603,17 @@ public class AntElementNode implements IAdaptable, IAntElement {
 		return false;
 	}
 
+	/**
+	 * Adds the texts of this node that may contain an occurrence of an identifier, as found by {@link #containsOccurrence(String)}, to the given
+	 * list. Used to build the {@link AntOccurrencesIndex}.
+	 * 
+	 * @param texts
+	 *            the list to add the texts to
+	 */
+	protected void collectOccurrenceTexts(List<String> texts) {
+		// no occurrences
+	}
+
 	/**
 	 * Returns the identifier to use for matching occurrences in the Ant editor.
 	 * 
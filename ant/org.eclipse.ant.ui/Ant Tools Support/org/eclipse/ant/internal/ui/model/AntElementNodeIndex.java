@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.internal.ui.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * An index of the source ranges of the nodes of a buildfile that finds the node containing an offset in logarithmic time.
+ * <p>
+ * The index returns the same node as {@link AntElementNode#getNode(int)}: the first node, in depth-first post-order, whose source range contains
+ * the offset. Elements that are still open contain every offset from their start. The source range of every node is split into segments at the
+ * start and end of all the other nodes and the index records the resulting node for each segment, so that a lookup is a binary search. The index
+ * reflects the nodes at the time it was created and has to be recreated whenever the nodes or their source ranges change.
+ * </p>
+ */
+public final class AntElementNodeIndex {
+
+	/**
+	 * The sorted offsets at which the containing node changes
+	 */
+	private final int[] fBoundaries;
+
+	/**
+	 * The node containing the offsets from the boundary with the same index up to the next boundary, or <code>null</code>
+	 */
+	private final AntElementNode[] fNodes;
+
+	/**
+	 * Creates an index of the given node and all its descendants.
+	 *
+	 * @param root
+	 *            the node to index
+	 */
+	public AntElementNodeIndex(AntElementNode root) {
+		List<AntElementNode> nodes = new ArrayList<>();
+		collectNodes(root, nodes);
+		int count = nodes.size();
+		// the ranges are sorted as (offset, post-order position) pairs packed into longs
+		long[] startKeys = new long[count];
+		long[] endKeys = new long[count];
+		int[] boundaries = new int[count * 2];
+		int ranges = 0;
+		int endCount = 0;
+		int boundaryCount = 0;
+		for (int i = 0; i < count; i++) {
+			AntElementNode node = nodes.get(i);
+			int start = node.getOffset();
+			int end;
+			if (node.getLength() == -1 && !node.isExternal()) {
+				end = Integer.MAX_VALUE;
+			} else {
+				// the last offset considered is offset + length - 2, see AntElementNode.getNode(int)
+				end = start + node.getLength() - 1;
+			}
+			if (end <= start) {
+				continue;
+			}
+			startKeys[ranges++] = ((long) start << 32) | i;
+			boundaries[boundaryCount++] = start;
+			if (end != Integer.MAX_VALUE) {
+				endKeys[endCount++] = ((long) end << 32) | i;
+				boundaries[boundaryCount++] = end;
+			}
+		}
+		startKeys = Arrays.copyOf(startKeys, ranges);
+		endKeys = Arrays.copyOf(endKeys, endCount);
+		Arrays.sort(startKeys);
+		Arrays.sort(endKeys);
+		Arrays.sort(boundaries, 0, boundaryCount);
+
+		int distinct = 0;
+		for (int b = 0; b < boundaryCount; b++) {
+			if (distinct == 0 || boundaries[distinct - 1] != boundaries[b]) {
+				boundaries[distinct++] = boundaries[b];
+			}
+		}
+		fBoundaries = Arrays.copyOf(boundaries, distinct);
+		fNodes = new AntElementNode[distinct];
+
+		// sweep over the boundaries, keeping the post-order positions of the nodes containing the current segment
+		PriorityQueue<Integer> containing = new PriorityQueue<>();
+		boolean[] closed = new boolean[count];
+		int nextStart = 0;
+		int nextEnd = 0;
+		for (int b = 0; b < distinct; b++) {
+			int boundary = fBoundaries[b];
+			while (nextEnd < endCount && (int) (endKeys[nextEnd] >> 32) == boundary) {
+				closed[(int) endKeys[nextEnd++]] = true;
+			}
+			while (nextStart < ranges && (int) (startKeys[nextStart] >> 32) == boundary) {
+				containing.add(Integer.valueOf((int) startKeys[nextStart++]));
+			}
+			while (!containing.isEmpty() && closed[containing.peek().intValue()]) {
+				containing.poll();
+			}
+			if (!containing.isEmpty()) {
+				fNodes[b] = nodes.get(containing.peek().intValue());
+			}
+		}
+	}
+
+	private void collectNodes(AntElementNode node, List<AntElementNode> nodes) {
+		List<IAntElement> children = node.getChildNodes();
+		if (children != null) {
+			for (IAntElement child : children) {
+				collectNodes((AntElementNode) child, nodes);
+			}
+		}
+		nodes.add(node);
+	}
+
+	/**
+	 * Returns the node containing the given offset.
+	 *
+	 * @param sourceOffset
+	 *            the offset in the buildfile
+	 * @return the innermost node containing the offset or <code>null</code> if there is none
+	 */
+	public AntElementNode getNode(int sourceOffset) {
+		int index = Arrays.binarySearch(fBoundaries, sourceOffset);
+		if (index < 0) {
+			// the segment starting at the preceding boundary
+			index = -index - 2;
+		}
+		if (index < 0) {
+			return null;
+		}
+		return fNodes[index];
+	}
+
+	/**
+	 * Returns the number of segments the indexed source ranges have been split into.
+	 *
+	 * @return the number of segments
+	 */
+	public int getSegmentCount() {
+		return fBoundaries.length;
+	}
+}
@@ -14,8 +14,12 @@
 
 package org.eclipse.ant.internal.ui.model;
 
+import java.io.File;
+
 import org.apache.tools.ant.BuildException;
+import org.apache.tools.ant.Location;
 import org.apache.tools.ant.Task;
+import org.apache.tools.ant.util.FileUtils;
 import org.eclipse.ant.core.AntSecurityException;
 import org.eclipse.ant.internal.core.IAntCoreConstants;
 import org.eclipse.ant.internal.ui.AntUIImages;
@@ -71,6 +75,7 @@ public class AntImportNode extends AntTaskNode {
 		try {
 			getTask().maybeConfigure();
 			getTask().execute();
+			addMissingFile();
 			fConfigured = true;
 			return true;
 		}
@@ -84,6 +89,23 @@ public class AntImportNode extends AntTaskNode {
 		return false;
 	}
 
+	/**
+	 * Records the file of an optional import that did not exist with the imported files of the Ant model, so that creating the file changes the
+	 * targets of the buildfile
+	 */
+	protected void addMissingFile() {
+		Location location = getTask().getLocation();
+		if (fFile == null || location == null || location.getFileName() == null) {
+			return;
+		}
+		// resolved as the import task does, relative to the importing file
+		File parent = new File(location.getFileName()).getAbsoluteFile().getParentFile();
+		File file = FileUtils.getFileUtils().resolveFile(parent, getTask().getProject().replaceProperties(fFile));
+		if (!file.exists()) {
+			getAntModel().addImportedFile(file);
+		}
+	}
+
 	@Override
 	public IFile getIFile() {
 		IFile file;
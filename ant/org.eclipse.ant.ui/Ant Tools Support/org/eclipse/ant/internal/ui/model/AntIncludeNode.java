@@ -59,6 +59,7 @@ public class AntIncludeNode extends AntImportNode {
 			}
 
 			getTask().execute();
+			addMissingFile();
 			fConfigured = true;
 			return true;
 		}
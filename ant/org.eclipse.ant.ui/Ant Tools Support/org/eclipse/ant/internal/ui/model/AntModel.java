@@ -24,9 +24,12 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +37,7 @@ import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import org.apache.tools.ant.AntTypeDefinition;
@@ -44,7 +48,6 @@ import org.apache.tools.ant.Location;
 import org.apache.tools.ant.Main;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.ProjectHelperRepository;
-import org.apache.tools.ant.RuntimeConfigurable;
 import org.apache.tools.ant.Target;
 import org.apache.tools.ant.Task;
 import org.apache.tools.ant.TaskAdapter;
@@ -91,11 +94,18 @@ public class AntModel implements IAntModel {
 	private static int fgInstanceCount = 0;
 	private static Object loaderLock = new Object();
 
+	/**
+	 * The number of models currently parsing their buildfile, guarded by {@link #loaderLock}. Models may be parsed concurrently on different
+	 * threads, the VM wide state is only restored once the last of them has finished.
+	 */
+	private static int fgParseCount = 0;
+
 	private IDocument fDocument;
 	private IProblemRequestor fProblemRequestor;
 	private LocationProvider fLocationProvider;
 
 	private AntProjectNode fProjectNode;
+	private volatile AntSymbolTable fSymbolTable;
 	private AntTargetNode fCurrentTargetNode;
 	private AntElementNode fLastNode;
 	private AntElementNode fNodeBeingResolved;
@@ -104,6 +114,12 @@ public class AntModel implements IAntModel {
 
 	private Map<String, String> fEntityNameToPath;
 
+	/**
+	 * The absolute paths of the files imported or included while parsing the buildfile, see {@link #getImportedFiles()}
+	 */
+	private Set<String> fImportedFilesBeingParsed = new HashSet<>();
+	private volatile Set<String> fImportedFiles = Collections.emptySet();
+
 	/**
 	 * Stack of still open elements.
 	 * <P>
@@ -117,6 +133,45 @@ public class AntModel implements IAntModel {
 
 	private final Object fDirtyLock = new Object();
 	private boolean fIsDirty = true;
+
+	/**
+	 * Whether the buildfile has to be parsed again on the next reconcile. When <code>false</code> the pending document changes in
+	 * {@link #fPendingChanges} either do not alter the structure of the buildfile, so that only the source ranges of the nodes need to be updated,
+	 * or all lie within {@link #fChangedTarget}, so that only that target needs to be parsed again.
+	 */
+	private boolean fNeedsFullReconcile = true;
+
+	/**
+	 * The pending document changes, each as offset, length of the replaced text and length delta, in the order they were applied to the document
+	 */
+	private List<int[]> fPendingChanges = new ArrayList<>();
+
+	/**
+	 * The maximum number of pending changes before a full reconcile is requested instead
+	 */
+	private static final int MAX_PENDING_CHANGES = 500;
+
+	/**
+	 * The top level target that contains all pending changes which are not layout changes, or <code>null</code> if there are none
+	 */
+	private AntTargetNode fChangedTarget = null;
+
+	/**
+	 * The top level targets of the buildfile and their source ranges in the current document, as offset and end offset pairs, or <code>null</code>
+	 * if the nodes are not in sync with the document
+	 */
+	private AntTargetNode[] fTargets = null;
+	private int[] fTargetRanges = null;
+
+	/**
+	 * The top level target that is being parsed again on its own, or <code>null</code> during a full parse
+	 */
+	private AntTargetNode fTargetBeingReparsed = null;
+
+	/**
+	 * The number of problems found by the last parse
+	 */
+	private int fProblemCount = 0;
 	private File fEditedFile = null;
 
 	private ClassLoader fLocalClassLoader = null;
@@ -199,13 +254,15 @@ public class AntModel implements IAntModel {
 		fDocument = document;
 		fProblemRequestor = problemRequestor;
 		fLocationProvider = locationProvider;
-		if (fgInstanceCount == 0) {
-			// no other models are open to ensure that the classpath is up to date wrt the
-			// Ant preferences and start listening for breakpoint changes
-			AntDefiningTaskNode.setJavaClassPath();
-			AntModelCore.getDefault().startBreakpointListening();
+		synchronized (loaderLock) {
+			if (fgInstanceCount == 0) {
+				// no other models are open to ensure that the classpath is up to date wrt the
+				// Ant preferences and start listening for breakpoint changes
+				AntDefiningTaskNode.setJavaClassPath();
+				AntModelCore.getDefault().startBreakpointListening();
+			}
+			fgInstanceCount++;
 		}
-		fgInstanceCount++;
 		DecayCodeCompletionDataStructuresThread.cancel();
 		ProjectHelper helper = getProjectHelper();
 		if (helper == null) {
@@ -252,12 +309,14 @@ public class AntModel implements IAntModel {
 		if (node != null) {
 			node.removePreferenceChangeListener(fUIListener);
 		}
-		fgInstanceCount--;
-		if (fgInstanceCount == 0) {
-			fgClassLoader = null;
-			DecayCodeCompletionDataStructuresThread.getDefault().start();
-			AntModelCore.getDefault().stopBreakpointListening();
-			cleanup();
+		synchronized (loaderLock) {
+			fgInstanceCount--;
+			if (fgInstanceCount == 0) {
+				fgClassLoader = null;
+				DecayCodeCompletionDataStructuresThread.getDefault().start();
+				AntModelCore.getDefault().stopBreakpointListening();
+				cleanup();
+			}
 		}
 	}
 
@@ -283,11 +342,20 @@ public class AntModel implements IAntModel {
 
 	@Override
 	public void reconcile() {
+		List<int[]> changes;
+		AntTargetNode changedTarget;
 		synchronized (fDirtyLock) {
 			if (!fShouldReconcile || !fIsDirty) {
 				return;
 			}
 			fIsDirty = false;
+			changes = fNeedsFullReconcile ? null : fPendingChanges;
+			changedTarget = fNeedsFullReconcile ? null : fChangedTarget;
+			fNeedsFullReconcile = false;
+			fPendingChanges = new ArrayList<>();
+			fChangedTarget = null;
+			fTargets = null;
+			fTargetRanges = null;
 		}
 
 		synchronized (getLockObject()) {
@@ -298,15 +366,241 @@ public class AntModel implements IAntModel {
 
 			if (fDocument == null) {
 				fProjectNode = null;
+				fSymbolTable = null;
+				fImportedFiles = Collections.emptySet();
+			} else if (changes != null && fProjectNode != null) {
+				// the structure outside of the changed target is unchanged, no need to parse the buildfile again
+				for (int[] change : changes) {
+					fProjectNode.adjustSourceRange(change[0], change[1], change[2]);
+					for (AntElementNode node : fNonStructuralNodes) {
+						node.adjustSourceRange(change[0], change[1], change[2]);
+					}
+				}
+				if (changedTarget != null) {
+					if (reparseTarget(changedTarget)) {
+						fSymbolTable = new AntSymbolTable(fProjectNode, fTaskToNode.values(), fTaskNameToDefiningNode);
+						checkParsedDocumentCurrent();
+					} else {
+						fullReconcile();
+					}
+				}
 			} else {
-				reset();
-				parseDocument(fDocument);
-				reconcileTaskAndTypes();
+				fullReconcile();
 			}
+			if (fProjectNode != null) {
+				fProjectNode.updateNodeIndex();
+			}
+			updateTargetRanges();
 			AntModelCore.getDefault().notifyAntModelListeners(new AntModelChangeEvent(this));
 		}
 	}
 
+	private void fullReconcile() {
+		reset();
+		parseDocument(fDocument);
+		reconcileTaskAndTypes();
+		fSymbolTable = fProjectNode == null ? null : new AntSymbolTable(fProjectNode, fTaskToNode.values(), fTaskNameToDefiningNode);
+		fImportedFiles = Collections.unmodifiableSet(fImportedFilesBeingParsed);
+		checkParsedDocumentCurrent();
+	}
+
+	private void checkParsedDocumentCurrent() {
+		synchronized (fDirtyLock) {
+			if (!fPendingChanges.isEmpty()) {
+				// the document may have changed after its text was parsed
+				fNeedsFullReconcile = true;
+			}
+		}
+	}
+
+	/**
+	 * Records the source ranges of the top level targets so that changes of the document can be attributed to the target they lie within, as long
+	 * as the nodes are in sync with the document.
+	 */
+	private void updateTargetRanges() {
+		synchronized (fDirtyLock) {
+			if (fNeedsFullReconcile || !fPendingChanges.isEmpty() || fProjectNode == null || !fProjectNode.hasChildren()) {
+				return;
+			}
+			List<AntTargetNode> targets = new ArrayList<>();
+			for (IAntElement node : fProjectNode.getChildNodes()) {
+				if (node instanceof AntTargetNode && !node.isExternal() && node.getOffset() > 0 && node.getLength() > 0) {
+					targets.add((AntTargetNode) node);
+				}
+			}
+			fTargets = targets.toArray(new AntTargetNode[targets.size()]);
+			fTargetRanges = new int[fTargets.length * 2];
+			for (int i = 0; i < fTargets.length; i++) {
+				fTargetRanges[2 * i] = fTargets[i].getOffset();
+				fTargetRanges[2 * i + 1] = fTargets[i].getOffset() + fTargets[i].getLength();
+			}
+		}
+	}
+
+	/**
+	 * Parses the given top level target again after changes that all lie within its source range, and replaces its node, the nodes of its tasks
+	 * and its Ant target with the result. The rest of the buildfile is blanked out of the parsed text so that line and column numbers still match
+	 * the document. Targets that define properties, tasks or types for the rest of the buildfile are not parsed on their own.
+	 *
+	 * @return whether the target was parsed again; if not, the model has to be rebuilt by a full parse
+	 */
+	private boolean reparseTarget(AntTargetNode target) {
+		if (fProblemCount > 0 || target.getParentNode() != fProjectNode || !canGetPositionInfo() || definesForBuildfile(target)) {
+			return false;
+		}
+		String textToParse = getTargetTextToParse(target);
+		if (textToParse == null) {
+			return false;
+		}
+		List<IAntElement> children = fProjectNode.getChildNodes();
+		int childCount = children.size();
+		int index = children.indexOf(target);
+
+		Set<AntTaskNode> oldTaskNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+		collectTaskNodes(target, oldTaskNodes);
+		fTaskToNode.values().removeIf(oldTaskNodes::contains);
+		List<AntTaskNode> taskNodes = fTaskNodes;
+		taskNodes.removeIf(oldTaskNodes::contains);
+		List<AntElementNode> nonStructuralNodes = fNonStructuralNodes;
+		// the implicit target is added again when the project tag is parsed
+		Hashtable<String, Target> targets = fProjectNode.getProject().getTargets();
+		targets.remove(target.getTarget().getName());
+		targets.remove(IAntCoreConstants.EMPTY_STRING);
+
+		fCurrentTargetNode = null;
+		fStillOpenElements = new Stack<>();
+		fLastNode = null;
+		fTaskNodes = new ArrayList<>();
+		fNonStructuralNodes = new ArrayList<>(1);
+		fTargetBeingReparsed = target;
+		try {
+			parseText(textToParse);
+		}
+		finally {
+			fTargetBeingReparsed = null;
+		}
+
+		children = fProjectNode == null ? null : fProjectNode.getChildNodes();
+		if (fProblemCount > 0 || children == null || children.size() != childCount || !(children.get(index) instanceof AntTargetNode)
+				|| children.get(index) == target || definesForBuildfile(children.get(index))) {
+			return false;
+		}
+		AntTargetNode newTarget = (AntTargetNode) children.get(index);
+		String name = newTarget.getTarget().getName();
+		for (IAntElement child : children) {
+			if (child != newTarget && child instanceof AntTargetNode && name != null && name.equals(((AntTargetNode) child).getTarget().getName())) {
+				// duplicate targets are only reported by a full parse
+				return false;
+			}
+		}
+		taskNodes.addAll(fTaskNodes);
+		fTaskNodes = taskNodes;
+		// comments and the DTD outside of the target are not part of the parsed text
+		int start = target.getOffset() - 1;
+		int end = target.getOffset() + target.getLength();
+		List<AntElementNode> newNonStructuralNodes = new ArrayList<>(nonStructuralNodes.size() + fNonStructuralNodes.size());
+		for (AntElementNode node : nonStructuralNodes) {
+			if (node.getOffset() < start || node.getOffset() >= end) {
+				newNonStructuralNodes.add(node);
+			}
+		}
+		start = newTarget.getOffset() - 1;
+		end = newTarget.getOffset() + newTarget.getLength();
+		for (AntElementNode node : fNonStructuralNodes) {
+			if (node.getOffset() >= start && node.getOffset() < end) {
+				newNonStructuralNodes.add(node);
+			}
+		}
+		newNonStructuralNodes.sort((node1, node2) -> Integer.compare(node1.getOffset(), node2.getOffset()));
+		fNonStructuralNodes = newNonStructuralNodes;
+		return true;
+	}
+
+	/**
+	 * Returns whether the given element or any of its descendants sets properties, defines tasks or types or imports other files, which affects
+	 * the parsing of the rest of the buildfile.
+	 */
+	private boolean definesForBuildfile(IAntElement element) {
+		if (element instanceof AntPropertyNode || element instanceof AntDefiningTaskNode || element instanceof AntImportNode
+				|| element instanceof AntIncludeNode) {
+			return true;
+		}
+		if (element.hasChildren()) {
+			for (IAntElement child : element.getChildNodes()) {
+				if (definesForBuildfile(child)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private void collectTaskNodes(IAntElement element, Set<AntTaskNode> taskNodes) {
+		if (element.hasChildren()) {
+			for (IAntElement child : element.getChildNodes()) {
+				if (child instanceof AntTaskNode) {
+					taskNodes.add((AntTaskNode) child);
+				}
+				collectTaskNodes(child, taskNodes);
+			}
+		}
+	}
+
+	/**
+	 * Returns the text of the document with everything but the prolog, the project tags and the given target replaced by whitespace, or
+	 * <code>null</code> if the tags of the project cannot be located.
+	 */
+	private String getTargetTextToParse(AntTargetNode target) {
+		String text = fDocument.get();
+		int projectStart = fProjectNode.getOffset();
+		int projectEnd = projectStart + fProjectNode.getLength();
+		int targetStart = target.getOffset() - 1;
+		int targetEnd = target.getOffset() + target.getLength();
+		if (projectStart <= 0 || fProjectNode.getLength() <= 0 || projectEnd > text.length() || targetStart <= projectStart || targetEnd > projectEnd) {
+			return null;
+		}
+		int projectTagEnd = getTagEnd(text, projectStart);
+		int projectEndTagStart = text.lastIndexOf("</", projectEnd - 1); //$NON-NLS-1$
+		if (projectTagEnd == -1 || projectTagEnd >= targetStart || projectEndTagStart < targetEnd) {
+			return null;
+		}
+		char[] chars = text.toCharArray();
+		blank(chars, projectTagEnd + 1, targetStart);
+		blank(chars, targetEnd, projectEndTagStart);
+		blank(chars, projectEnd, chars.length);
+		return new String(chars);
+	}
+
+	/**
+	 * Returns the offset of the '&gt;' that closes the tag starting before the given offset, skipping quoted attribute values, or -1 if there is none
+	 */
+	private int getTagEnd(String text, int offset) {
+		char quote = 0;
+		for (int i = offset; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+			} else if (c == '"' || c == '\'') {
+				quote = c;
+			} else if (c == '>') {
+				return i;
+			} else if (c == '<') {
+				return -1;
+			}
+		}
+		return -1;
+	}
+
+	private void blank(char[] chars, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (chars[i] != '\n' && chars[i] != '\r') {
+				chars[i] = ' ';
+			}
+		}
+	}
+
 	private void reset() {
 		fCurrentTargetNode = null;
 		fStillOpenElements = new Stack<>();
@@ -317,6 +611,7 @@ public class AntModel implements IAntModel {
 		fLastNode = null;
 		fCurrentNodeIdentifiers = null;
 		fNamespacePrefixMappings = null;
+		fImportedFilesBeingParsed = new HashSet<>();
 
 		fNonStructuralNodes = new ArrayList<>(1);
 		if (fDefinersToText != null) {
@@ -326,20 +621,30 @@ public class AntModel implements IAntModel {
 	}
 
 	private void parseDocument(IDocument input) {
-		boolean parsed = true;
 		if (input.getLength() == 0) {
 			fProjectNode = null;
-			parsed = false;
 			return;
 		}
+		parseText(input.get());
+	}
+
+	private void parseText(String textToParse) {
+		synchronized (loaderLock) {
+			fgParseCount++;
+		}
 		ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
-		ClassLoader parsingClassLoader = getClassLoader(originalClassLoader);
+		ClassLoader parsingClassLoader = getClassLoader();
+		ClassLoader originalPluginContextClassLoader = setPluginContextClassLoader(parsingClassLoader, originalClassLoader);
 		Thread.currentThread().setContextClassLoader(parsingClassLoader);
 		Project project = null;
 		try {
 			ProjectHelper projectHelper = null;
-			String textToParse = input.get();
-			if (fProjectNode == null || !fProjectNode.hasChildren()) {
+			if (fTargetBeingReparsed != null) {
+				// the project and the other targets are kept
+				project = fProjectNode.getProject();
+				projectHelper = (ProjectHelper) project.getReference("ant.projectHelper"); //$NON-NLS-1$
+				projectHelper.setBuildFile(getEditedFile());
+			} else if (fProjectNode == null || !fProjectNode.hasChildren()) {
 				fProjectNode = null;
 				project = new AntModelProject();
 				projectHelper = prepareForFullParse(project, parsingClassLoader);
@@ -360,25 +665,28 @@ public class AntModel implements IAntModel {
 			handleBuildException(e, null);
 		}
 		finally {
-			if (parsed) {
-				SecurityManager origSM = System.getSecurityManager();
-				processAntHome(true);
-				try {
-					// set a security manager to disallow system exit and system property setting
-					System.setSecurityManager(new AntSecurityManager(origSM, Thread.currentThread(), false));
-					resolveBuildfile();
-					endReporting();
-					// clear the additional property-holder(s) to avoid potential memory leaks
-					ProjectHelper.clearAdditionalPropertyHolders();
-				}
-				catch (AntSecurityException e) {
-					// do nothing
-				}
-				finally {
-					Thread.currentThread().setContextClassLoader(originalClassLoader);
-					getClassLoader(null);
-					System.setSecurityManager(origSM);
-					project.fireBuildFinished(null); // cleanup (IntrospectionHelper)
+			try {
+				// set a security manager to disallow system exit and system property setting
+				ResolveSecurityManager.install();
+				resolveBuildfile();
+				endReporting();
+				// clear the additional property-holder(s) to avoid potential memory leaks
+				ProjectHelper.clearAdditionalPropertyHolders();
+			}
+			catch (AntSecurityException e) {
+				// do nothing
+			}
+			finally {
+				Thread.currentThread().setContextClassLoader(originalClassLoader);
+				setPluginContextClassLoader(parsingClassLoader, originalPluginContextClassLoader);
+				ResolveSecurityManager.uninstall();
+				ProjectHelper.setAntModel(null);
+				project.fireBuildFinished(null); // cleanup (IntrospectionHelper)
+				synchronized (loaderLock) {
+					// only restore the VM wide state once no other model is parsing or resolving its buildfile
+					if (--fgParseCount == 0) {
+						processAntHome(true);
+					}
 				}
 			}
 		}
@@ -663,6 +971,7 @@ public class AntModel implements IAntModel {
 
 	@Override
 	public void handleBuildException(BuildException e, AntElementNode node, int severity) {
+		fProblemCount++;
 		try {
 			if (node != null) {
 				markHierarchy(node, severity, e.getMessage());
@@ -750,7 +1059,12 @@ public class AntModel implements IAntModel {
 	@Override
 	public void addTarget(Target newTarget, int line, int column) {
 		AntTargetNode targetNode = AntTargetNode.newAntTargetNode(newTarget);
-		fProjectNode.addChildNode(targetNode);
+		int index = fTargetBeingReparsed == null ? -1 : fProjectNode.getChildNodes().indexOf(fTargetBeingReparsed);
+		if (index == -1) {
+			fProjectNode.addChildNode(targetNode);
+		} else {
+			fProjectNode.replaceChildNode(index, targetNode);
+		}
 		fCurrentTargetNode = targetNode;
 		fStillOpenElements.push(targetNode);
 		if (fNodeBeingResolved instanceof AntImportNode) {
@@ -770,6 +1084,10 @@ public class AntModel implements IAntModel {
 
 	@Override
 	public void addProject(Project project, int line, int column) {
+		if (fTargetBeingReparsed != null) {
+			fStillOpenElements.push(fProjectNode);
+			return;
+		}
 		fProjectNode = new AntProjectNode((AntModelProject) project, this);
 		fStillOpenElements.push(fProjectNode);
 		computeOffset(fProjectNode, line, column);
@@ -838,6 +1156,16 @@ public class AntModel implements IAntModel {
 		}
 	}
 
+	@Override
+	public void addImportedFile(File file) {
+		fImportedFilesBeingParsed.add(file.getAbsolutePath());
+	}
+
+	@Override
+	public Set<String> getImportedFiles() {
+		return fImportedFiles;
+	}
+
 	@Override
 	public void addEntity(String entityName, String entityPath) {
 		if (fEntityNameToPath == null) {
@@ -1102,6 +1430,7 @@ public class AntModel implements IAntModel {
 	}
 
 	private void acceptProblem(IProblem problem) {
+		fProblemCount++;
 		if (fProblemRequestor != null) {
 			fProblemRequestor.acceptProblem(problem);
 		}
@@ -1124,6 +1453,7 @@ public class AntModel implements IAntModel {
 	}
 
 	private void beginReporting() {
+		fProblemCount = 0;
 		if (fProblemRequestor != null) {
 			fProblemRequestor.beginReporting();
 		}
@@ -1181,6 +1511,7 @@ public class AntModel implements IAntModel {
 
 	@Override
 	public void errorFromElementText(Exception exception, int start, int count) {
+		fProblemCount++;
 		AntElementNode node = fLastNode;
 		if (node == null) {
 			if (!fStillOpenElements.empty()) {
@@ -1197,6 +1528,7 @@ public class AntModel implements IAntModel {
 
 	@Override
 	public void errorFromElement(Exception exception, AntElementNode node, int lineNumber, int column) {
+		fProblemCount++;
 		if (node == null) {
 			if (!fStillOpenElements.empty()) {
 				node = fStillOpenElements.peek();
@@ -1284,6 +1616,7 @@ public class AntModel implements IAntModel {
 	}
 
 	private void handleError(Exception exception, int severity) {
+		fProblemCount++;
 		IAntElement node = null;
 		if (fStillOpenElements.isEmpty()) {
 			if (exception instanceof SAXParseException) {
@@ -1365,22 +1698,34 @@ public class AntModel implements IAntModel {
 		return null;
 	}
 
-	private ClassLoader getClassLoader(ClassLoader contextClassLoader) {
+	private ClassLoader getClassLoader() {
 		synchronized (loaderLock) {
 			if (fLocalClassLoader != null) {
-				((AntClassLoader) fLocalClassLoader).setPluginContextClassloader(contextClassLoader);
 				return fLocalClassLoader;
 			}
 			if (fgClassLoader == null) {
 				fgClassLoader = AntCorePlugin.getPlugin().getNewClassLoader(true);
 			}
-			if (fgClassLoader instanceof AntClassLoader) {
-				((AntClassLoader) fgClassLoader).setPluginContextClassloader(contextClassLoader);
-			}
 			return fgClassLoader;
 		}
 	}
 
+	/**
+	 * Sets the class loader the given parsing class loader uses as the context class loader while loading from plug-ins on the current thread.
+	 * The parsing class loader is shared by the models, which may be parsed concurrently, so the setting only applies to the current thread.
+	 *
+	 * @return the previous setting for the current thread, to be restored once the parse has finished
+	 */
+	private ClassLoader setPluginContextClassLoader(ClassLoader parsingClassLoader, ClassLoader contextClassLoader) {
+		if (!(parsingClassLoader instanceof AntClassLoader)) {
+			return null;
+		}
+		AntClassLoader loader = (AntClassLoader) parsingClassLoader;
+		ClassLoader previous = loader.getPluginContextClassloader();
+		loader.setPluginContextClassloader(contextClassLoader);
+		return previous;
+	}
+
 	public String getTargetDescription(String targetName) {
 		AntTargetNode target = getTargetNode(targetName);
 		if (target != null) {
@@ -1390,22 +1735,19 @@ public class AntModel implements IAntModel {
 	}
 
 	public AntTargetNode getTargetNode(String targetName) {
-		AntProjectNode projectNode = getProjectNode();
-		if (projectNode == null) {
+		AntSymbolTable symbols = getSymbolTable();
+		if (symbols == null) {
 			return null;
 		}
-		if (projectNode.hasChildren()) {
-			List<IAntElement> possibleTargets = projectNode.getChildNodes();
-			for (IAntElement node : possibleTargets) {
-				if (node instanceof AntTargetNode) {
-					AntTargetNode targetNode = (AntTargetNode) node;
-					if (targetName.equalsIgnoreCase(targetNode.getTarget().getName())) {
-						return targetNode;
-					}
-				}
-			}
+		return symbols.getTargetNode(targetName);
+	}
+
+	@Override
+	public AntSymbolTable getSymbolTable() {
+		if (getProjectNode() == null) {
+			return null;
 		}
-		return null;
+		return fSymbolTable;
 	}
 
 	@Override
@@ -1524,29 +1866,12 @@ public class AntModel implements IAntModel {
 		return null;
 	}
 
-	private IAntElement findPropertyNode(String text, List<IAntElement> children) {
-		for (IAntElement element : children) {
-			if (element instanceof AntPropertyNode) {
-				if (((AntPropertyNode) element).getProperty(text) != null) {
-					return element;
-				}
-			} else if (element.hasChildren()) {
-				IAntElement found = findPropertyNode(text, element.getChildNodes());
-				if (found != null) {
-					return found;
-				}
-			}
-		}
-		return null;
-	}
-
 	public IAntElement getPropertyNode(String text) {
-		AntProjectNode node = getProjectNode();
-		if (node == null || !node.hasChildren()) {
+		AntSymbolTable symbols = getSymbolTable();
+		if (symbols == null) {
 			return null;
 		}
-
-		return findPropertyNode(text, node.getChildNodes());
+		return symbols.getPropertyNode(text);
 	}
 
 	public List<AntElementNode> getNonStructuralNodes() {
@@ -1575,23 +1900,11 @@ public class AntModel implements IAntModel {
 		if (reference == null) {
 			return null;
 		}
-
-		Set<Task> nodes = fTaskToNode.keySet();
-		Iterator<Task> iter = nodes.iterator();
-		while (iter.hasNext()) {
-			Task task = iter.next();
-			Task tmptask = task;
-			if (tmptask instanceof UnknownElement) {
-				UnknownElement element = (UnknownElement) tmptask;
-				RuntimeConfigurable wrapper = element.getWrapper();
-				Map<String, Object> attributes = wrapper.getAttributeMap();
-				String id = (String) attributes.get("id"); //$NON-NLS-1$
-				if (text.equals(id)) {
-					return fTaskToNode.get(task);
-				}
-			}
+		AntSymbolTable symbols = fSymbolTable;
+		if (symbols == null) {
+			return null;
 		}
-		return null;
+		return symbols.getReferenceNode(text);
 	}
 
 	public Object getReferenceObject(String refId) {
@@ -1626,8 +1939,25 @@ public class AntModel implements IAntModel {
 		fListener = new IDocumentListener() {
 			@Override
 			public void documentAboutToBeChanged(DocumentEvent event) {
+				boolean isLayoutChange = isLayoutChange(event);
 				synchronized (fDirtyLock) {
 					fIsDirty = true;
+					if (fNeedsFullReconcile) {
+						return;
+					}
+					int offset = event.getOffset();
+					int length = event.getLength();
+					if (fPendingChanges.size() < MAX_PENDING_CHANGES && (isLayoutChange || isTargetChange(offset, length))) {
+						int delta = (event.getText() == null ? 0 : event.getText().length()) - length;
+						fPendingChanges.add(new int[] { offset, length, delta });
+						adjustTargetRanges(offset, length, delta);
+					} else {
+						fNeedsFullReconcile = true;
+						fPendingChanges.clear();
+						fChangedTarget = null;
+						fTargets = null;
+						fTargetRanges = null;
+					}
 				}
 			}
 
@@ -1639,6 +1969,139 @@ public class AntModel implements IAntModel {
 		fDocument.addDocumentListener(fListener);
 	}
 
+	/**
+	 * Returns whether the given change lies within a top level target, and within the same target as the other pending changes that are not layout
+	 * changes, in which case only that target has to be parsed again. Records the target if it is the first one changed. The caller must hold
+	 * {@link #fDirtyLock}.
+	 */
+	private boolean isTargetChange(int offset, int length) {
+		if (fTargetRanges == null) {
+			return false;
+		}
+		for (int i = 0; i < fTargets.length; i++) {
+			// same condition as for growing a node in AntElementNode.adjustSourceRange
+			if (fTargetRanges[2 * i] < offset && offset + length < fTargetRanges[2 * i + 1]) {
+				if (fChangedTarget == null) {
+					fChangedTarget = fTargets[i];
+				}
+				return fChangedTarget == fTargets[i];
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Updates the recorded source ranges of the top level targets for a change of the document, the same way as the nodes will be updated on the
+	 * next reconcile. The caller must hold {@link #fDirtyLock}.
+	 */
+	private void adjustTargetRanges(int offset, int length, int delta) {
+		if (fTargetRanges == null) {
+			return;
+		}
+		for (int i = 0; i < fTargetRanges.length; i += 2) {
+			if (offset + length <= fTargetRanges[i]) {
+				fTargetRanges[i] += delta;
+				fTargetRanges[i + 1] += delta;
+			} else if (fTargetRanges[i] < offset && offset + length < fTargetRanges[i + 1]) {
+				fTargetRanges[i + 1] += delta;
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the given change, which is about to be applied to the document, leaves the structure of the buildfile untouched. This is the
+	 * case for changes of the whitespace between two tags and for changes of the text of a comment, which make up most of the edits while
+	 * formatting or documenting a buildfile.
+	 */
+	private boolean isLayoutChange(DocumentEvent event) {
+		String text = event.getText() == null ? IAntCoreConstants.EMPTY_STRING : event.getText();
+		int offset = event.getOffset();
+		int end = offset + event.getLength();
+		try {
+			String replacedText = fDocument.get(offset, event.getLength());
+			if (isWhitespace(text) && isWhitespace(replacedText) && isBetweenTags(offset, end)) {
+				return true;
+			}
+			if (text.indexOf('-') == -1 && text.indexOf('>') == -1 && replacedText.indexOf('-') == -1 && replacedText.indexOf('>') == -1) {
+				return isInComment(offset, end);
+			}
+		}
+		catch (BadLocationException e) {
+			// fall through
+		}
+		return false;
+	}
+
+	private boolean isWhitespace(String text) {
+		for (int i = 0; i < text.length(); i++) {
+			if (!isWhitespace(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+	}
+
+	/**
+	 * Returns whether the given range is part of a run of whitespace that directly follows the end of a tag and directly precedes the start of a
+	 * tag. As '&lt;' may not appear in attribute values, such a range is never part of a tag.
+	 */
+	private boolean isBetweenTags(int offset, int end) throws BadLocationException {
+		int start = offset - 1;
+		while (start >= 0 && isWhitespace(fDocument.getChar(start))) {
+			start--;
+		}
+		if (start < 0 || fDocument.getChar(start) != '>') {
+			return false;
+		}
+		int length = fDocument.getLength();
+		while (end < length && isWhitespace(fDocument.getChar(end))) {
+			end++;
+		}
+		return end < length && fDocument.getChar(end) == '<';
+	}
+
+	/**
+	 * Returns whether the given range lies within the text of a comment, without touching the comment delimiters. The check is conservative: a
+	 * comment that contains a '&lt;' or '&gt;' before or after the range is not recognized.
+	 */
+	private boolean isInComment(int offset, int end) throws BadLocationException {
+		if (offset > 0 && end < fDocument.getLength() && fDocument.getChar(offset - 1) == '-' && fDocument.getChar(end) == '-') {
+			// the change would join two dashes
+			return false;
+		}
+		int start = offset - 1;
+		while (start >= 0) {
+			char c = fDocument.getChar(start);
+			if (c == '>') {
+				return false;
+			}
+			if (c == '<') {
+				break;
+			}
+			start--;
+		}
+		if (start < 0 || start + 4 > offset || !"<!--".equals(fDocument.get(start, 4))) { //$NON-NLS-1$
+			return false;
+		}
+		int length = fDocument.getLength();
+		int commentEnd = end;
+		while (commentEnd < length) {
+			char c = fDocument.getChar(commentEnd);
+			if (c == '<') {
+				return false;
+			}
+			if (c == '>') {
+				break;
+			}
+			commentEnd++;
+		}
+		return commentEnd < length && commentEnd - 2 >= end && "-->".equals(fDocument.get(commentEnd - 2, 3)); //$NON-NLS-1$
+	}
+
 	private void reconcileForPropertyChange(boolean classpathChanged) {
 		if (classpathChanged) {
 			fProjectNode = null; // need to reset tasks, types and properties
@@ -1646,7 +2109,13 @@ public class AntModel implements IAntModel {
 			AntDefiningTaskNode.setJavaClassPath();
 			ProjectHelper.reset();
 		}
-		fIsDirty = true;
+		synchronized (fDirtyLock) {
+			fIsDirty = true;
+			fNeedsFullReconcile = true;
+			fChangedTarget = null;
+			fTargets = null;
+			fTargetRanges = null;
+		}
 		reconcile();
 		AntModelCore.getDefault().notifyAntModelListeners(new AntModelChangeEvent(this, true));
 		fMarkerUpdater.updateMarkers();
@@ -1754,20 +2223,11 @@ public class AntModel implements IAntModel {
 	}
 
 	public AntTaskNode getMacroDefAttributeNode(String macroDefAttributeName) {
-		if (fTaskNameToDefiningNode == null) {
+		AntSymbolTable symbols = fSymbolTable;
+		if (symbols == null) {
 			return null;
 		}
-		for (AntDefiningTaskNode definingNode : fTaskNameToDefiningNode.values()) {
-			List<IAntElement> attributes = definingNode.getChildNodes();
-			if (attributes != null) {
-				for (IAntElement element : attributes) {
-					if (macroDefAttributeName.equals(element.getLabel())) {
-						return (AntTaskNode) element;
-					}
-				}
-			}
-		}
-		return null;
+		return symbols.getMacroDefAttributeNode(macroDefAttributeName);
 	}
 
 	/**
@@ -1850,4 +2310,44 @@ public class AntModel implements IAntModel {
 	public String getEncoding() {
 		return fEncoding;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Security manager disallowing system exit and system property setting for the threads of all the models that are currently resolving their
+	 * buildfile. It is shared so that models resolving concurrently do not replace each other's security manager.
+	 */
+	private static class ResolveSecurityManager extends AntSecurityManager {
+
+		private static final Map<Thread, int[]> fgResolvingThreads = new ConcurrentHashMap<>();
+		private static SecurityManager fgOriginalSecurityManager;
+
+		private ResolveSecurityManager(SecurityManager securityManager) {
+			super(securityManager, null, false);
+		}
+
+		static synchronized void install() {
+			if (fgResolvingThreads.isEmpty()) {
+				SecurityManager original = System.getSecurityManager();
+				System.setSecurityManager(new ResolveSecurityManager(original));
+				fgOriginalSecurityManager = original;
+			}
+			fgResolvingThreads.computeIfAbsent(Thread.currentThread(), thread -> new int[1])[0]++;
+		}
+
+		static synchronized void uninstall() {
+			Thread thread = Thread.currentThread();
+			int[] depth = fgResolvingThreads.get(thread);
+			if (depth != null && --depth[0] == 0) {
+				fgResolvingThreads.remove(thread);
+			}
+			if (fgResolvingThreads.isEmpty() && System.getSecurityManager() instanceof ResolveSecurityManager) {
+				System.setSecurityManager(fgOriginalSecurityManager);
+				fgOriginalSecurityManager = null;
+			}
+		}
+
+		@Override
+		protected boolean isRestrictedThread(Thread thread) {
+			return fgResolvingThreads.containsKey(thread);
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.internal.ui.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A reverse index from the identifiers of targets, properties, references and macro attributes to the nodes of a buildfile that may contain an
+ * occurrence of them.
+ * <p>
+ * The texts of each node that can refer to an identifier, such as its attribute values, are split into words. A word <code>name</code> is
+ * recorded both as <code>name</code> and as the property reference <code>${name}</code>, so that the index covers target names, dependency
+ * lists, <code>if</code> and <code>unless</code> conditions, reference ids and the attributes of macro definitions. The candidates of an
+ * identifier are confirmed with {@link IAntElement#containsOccurrence(String)}, so the index never returns a node that does not contain the
+ * identifier. Identifiers that are not indexed as a word or the property reference of a word, such as property names containing a delimiter or
+ * macro attribute references <code>@{name}</code>, are looked up by checking every node. Like {@link AntElementNodeIndex}, the index reflects the nodes at the time it was created.
+ * </p>
+ */
+public final class AntOccurrencesIndex {
+
+	/**
+	 * The characters ending a word, besides white space
+	 */
+	private static final String DELIMITERS = ",;:/\\\"'(){}[]<>@$=|*!?#&%"; //$NON-NLS-1$
+
+	private final Map<String, List<AntElementNode>> fCandidates = new HashMap<>();
+
+	/**
+	 * All indexed nodes, in the order of a depth-first pre-order traversal
+	 */
+	private final List<AntElementNode> fNodes = new ArrayList<>();
+
+	/**
+	 * Creates an index of the given node and all its descendants.
+	 *
+	 * @param root
+	 *            the node to index
+	 */
+	public AntOccurrencesIndex(AntElementNode root) {
+		indexNodes(root, new ArrayList<>(), new HashSet<>());
+	}
+
+	private void indexNodes(AntElementNode node, List<String> texts, Set<String> keys) {
+		fNodes.add(node);
+		texts.clear();
+		keys.clear();
+		node.collectOccurrenceTexts(texts);
+		for (String text : texts) {
+			if (text != null) {
+				addKeys(text, keys);
+			}
+		}
+		for (String key : keys) {
+			List<AntElementNode> nodes = fCandidates.get(key);
+			if (nodes == null) {
+				nodes = new ArrayList<>(2);
+				fCandidates.put(key, nodes);
+			}
+			nodes.add(node);
+		}
+		List<IAntElement> children = node.getChildNodes();
+		if (children != null) {
+			for (IAntElement child : children) {
+				indexNodes((AntElementNode) child, texts, keys);
+			}
+		}
+	}
+
+	private static void addKeys(String text, Set<String> keys) {
+		String trimmed = text.trim();
+		if (trimmed.isEmpty()) {
+			return;
+		}
+		keys.add(trimmed);
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean delimiter = i == text.length() || isDelimiter(text.charAt(i));
+			if (!delimiter) {
+				if (start == -1) {
+					start = i;
+				}
+			} else if (start != -1) {
+				String word = text.substring(start, i);
+				keys.add(word);
+				keys.add("${" + word + '}'); //$NON-NLS-1$
+				start = -1;
+			}
+		}
+	}
+
+	private static boolean isDelimiter(char c) {
+		return Character.isWhitespace(c) || DELIMITERS.indexOf(c) != -1;
+	}
+
+	/**
+	 * Returns whether the given identifier is recorded by {@link #addKeys(String, Set)} when it occurs in a text: a word or the property reference
+	 * of a word.
+	 */
+	private static boolean isIndexed(String identifier) {
+		int start = 0;
+		int end = identifier.length();
+		if (identifier.startsWith("${") && identifier.endsWith("}")) { //$NON-NLS-1$ //$NON-NLS-2$
+			start = 2;
+			end--;
+		}
+		if (start >= end) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (isDelimiter(identifier.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the nodes containing an occurrence of the given identifier, in the order of a depth-first pre-order traversal.
+	 *
+	 * @param identifier
+	 *            the occurrences identifier, see {@link AntElementNode#getOccurrencesIdentifier()}
+	 * @return the nodes containing the identifier, never <code>null</code>
+	 */
+	public List<IAntElement> getOccurrences(String identifier) {
+		List<AntElementNode> candidates = isIndexed(identifier) ? fCandidates.get(identifier) : fNodes;
+		if (candidates == null) {
+			return Collections.emptyList();
+		}
+		List<IAntElement> result = new ArrayList<>(candidates.size());
+		for (AntElementNode candidate : candidates) {
+			if (candidate.containsOccurrence(identifier)) {
+				result.add(candidate);
+			}
+		}
+		return result;
+	}
+}
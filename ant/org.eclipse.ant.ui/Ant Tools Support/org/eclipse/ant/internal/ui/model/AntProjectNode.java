@@ -31,6 +31,9 @@ public class AntProjectNode extends AntElementNode {
 	protected IAntModel fModel;
 	protected String fLabel;
 
+	private volatile AntElementNodeIndex fNodeIndex;
+	private volatile AntOccurrencesIndex fOccurrencesIndex;
+
 	public AntProjectNode(AntModelProject project, IAntModel antModel) {
 		super("project"); //$NON-NLS-1$
 		fProject = project;
@@ -79,6 +82,42 @@ public class AntProjectNode extends AntElementNode {
 		setProblemMessage(null);
 		fOffset = -1;
 		fLength = -1;
+		fNodeIndex = null;
+		fOccurrencesIndex = null;
+	}
+
+	/**
+	 * Indexes the source ranges of this project and of all its descendants so that {@link #getNode(int)} does not have to traverse the tree, and
+	 * the identifiers they refer to so that occurrences can be found without traversing the tree. Has to be called again once the nodes or their
+	 * source ranges have changed.
+	 */
+	public void updateNodeIndex() {
+		fNodeIndex = new AntElementNodeIndex(this);
+		fOccurrencesIndex = new AntOccurrencesIndex(this);
+	}
+
+	/**
+	 * Returns the index of the identifiers referred to by this project and all its descendants.
+	 * 
+	 * @return the occurrences index or <code>null</code> if the nodes have not been indexed since they were last reset
+	 */
+	public AntOccurrencesIndex getOccurrencesIndex() {
+		return fOccurrencesIndex;
+	}
+
+	@Override
+	public AntElementNode getNode(int sourceOffset) {
+		AntElementNodeIndex index = fNodeIndex;
+		if (index != null) {
+			return index.getNode(sourceOffset);
+		}
+		return super.getNode(sourceOffset);
+	}
+
+	@Override
+	public void adjustSourceRange(int offset, int length, int delta) {
+		fNodeIndex = null;
+		super.adjustSourceRange(offset, length, delta);
 	}
 
 	public String getDescription() {
@@ -122,6 +161,11 @@ public class AntProjectNode extends AntElementNode {
 		return identifier.equals(getDefaultTargetName());
 	}
 
+	@Override
+	protected void collectOccurrenceTexts(List<String> texts) {
+		texts.add(getDefaultTargetName());
+	}
+
 	@Override
 	public List<Integer> computeIdentifierOffsets(String identifier) {
 		String textToSearch = getAntModel().getText(getOffset(), getLength());
@@ -14,12 +14,18 @@
 
 package org.eclipse.ant.internal.ui.model;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 
 import org.eclipse.ant.internal.ui.AntUtil;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
 
 public class AntProjectNodeProxy extends AntProjectNode {
 
@@ -52,17 +58,67 @@ public class AntProjectNodeProxy extends AntProjectNode {
 		if (fParsed && !force) {
 			return;
 		}
+		IPath buildFilePath = startParse();
+		if (buildFilePath != null) {
+			setTargets(AntUtil.getTargets(buildFilePath.toString()));
+		}
+	}
+
+	/**
+	 * Parses the build files of the given project nodes. The build files are parsed concurrently, see {@link AntUtil#getTargets(String[],
+	 * IProgressMonitor)}.
+	 * 
+	 * @param projects
+	 *            the project nodes to parse
+	 * @param monitor
+	 *            the progress monitor to report progress to, or <code>null</code>
+	 */
+	public static void parseBuildFiles(AntProjectNodeProxy[] projects, IProgressMonitor monitor) {
+		Map<String, AntProjectNodeProxy> projectsToParse = new LinkedHashMap<>(projects.length);
+		List<AntProjectNodeProxy> duplicates = new ArrayList<>();
+		for (AntProjectNodeProxy project : projects) {
+			IPath buildFilePath = project.startParse();
+			if (buildFilePath != null) {
+				if (projectsToParse.containsKey(buildFilePath.toString())) {
+					// each node needs its own targets
+					duplicates.add(project);
+				} else {
+					projectsToParse.put(buildFilePath.toString(), project);
+				}
+			}
+		}
+		Set<String> paths = projectsToParse.keySet();
+		Map<String, AntTargetNode[]> targets = AntUtil.getTargets(paths.toArray(new String[paths.size()]), monitor);
+		for (Entry<String, AntProjectNodeProxy> entry : projectsToParse.entrySet()) {
+			if (targets.containsKey(entry.getKey())) {
+				entry.getValue().setTargets(targets.get(entry.getKey()));
+			} else {
+				// canceled, parse on demand
+				entry.getValue().fParsed = false;
+			}
+		}
+		for (AntProjectNodeProxy project : duplicates) {
+			project.parseBuildFile(true);
+		}
+	}
+
+	/**
+	 * Resets this node for parsing its build file.
+	 * 
+	 * @return the location of the build file or <code>null</code> if it could not be determined
+	 */
+	private IPath startParse() {
 		fChildNodes = null;
 		fParsed = true;
-		AntTargetNode[] nodes = null;
 		IPath buildFilePath = AntUtil.getFile(getBuildFileName()).getLocation();
 		if (buildFilePath == null) {
 			setProblemSeverity(AntModelProblem.SEVERITY_ERROR);
 			setProblemMessage(AntModelMessages.AntProjectNodeProxy_0);
-			return;
 		}
-		nodes = AntUtil.getTargets(buildFilePath.toString());
+		return buildFilePath;
+	}
 
+	private void setTargets(AntTargetNode[] nodes) {
 		if (nodes == null || nodes.length < 1) {
 			setProblemSeverity(AntModelProblem.SEVERITY_ERROR);
 			setProblemMessage(AntModelMessages.AntProjectNodeProxy_1);
@@ -87,6 +143,20 @@ public class AntProjectNodeProxy extends AntProjectNode {
 		parseBuildFile(false);
 	}
 
+	/**
+	 * Returns the absolute paths of the files imported or included by the build file when it was last parsed, without parsing it.
+	 * 
+	 * @return the paths of the imported files, never <code>null</code>
+	 * @see IAntModel#getImportedFiles()
+	 */
+	public Set<String> getImportedFiles() {
+		IAntModel model = fModel;
+		if (model == null) {
+			return Collections.emptySet();
+		}
+		return model.getImportedFiles();
+	}
+
 	@Override
 	public String getDescription() {
 		if (fProject == null) {
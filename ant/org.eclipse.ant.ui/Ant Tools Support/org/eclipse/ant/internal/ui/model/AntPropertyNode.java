@@ -15,6 +15,8 @@
 package org.eclipse.ant.internal.ui.model;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -86,6 +88,18 @@ public class AntPropertyNode extends AntTaskNode {
 		return null;
 	}
 
+	/**
+	 * Returns the names of the properties created by this property node declaration.
+	 * 
+	 * @return the names of the properties
+	 */
+	Collection<String> getPropertyNames() {
+		if (fProperties != null) {
+			return fProperties.keySet();
+		}
+		return Collections.emptySet();
+	}
+
 	@Override
 	protected ImageDescriptor getBaseImageDescriptor() {
 		return AntUIImages.getImageDescriptor(IAntUIConstants.IMG_PROPERTY);
@@ -168,6 +182,15 @@ public class AntPropertyNode extends AntTaskNode {
 		return false;
 	}
 
+	@Override
+	protected void collectOccurrenceTexts(List<String> texts) {
+		if (!getTask().getTaskName().equals("property")) { //$NON-NLS-1$
+			super.collectOccurrenceTexts(texts);
+		} else {
+			texts.add(fValue);
+		}
+	}
+
 	@Override
 	public String getOccurrencesIdentifier() {
 		if (fOccurrencesIdentifier == null) {
@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ant.internal.ui.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.tools.ant.RuntimeConfigurable;
+import org.apache.tools.ant.Task;
+import org.apache.tools.ant.UnknownElement;
+import org.eclipse.ant.internal.core.IAntCoreConstants;
+
+/**
+ * The targets, extension points, properties, reference ids, macro definitions and macro definition attributes declared by a buildfile, for
+ * lookups in constant time.
+ * <p>
+ * The symbol table is built by {@link AntModel} whenever the buildfile is parsed and reflects the nodes of that parse. Each lookup returns the
+ * same node as a traversal of the nodes: the first target in document order whose name matches ignoring case, and the first property node in
+ * document order that defines the property.
+ * </p>
+ */
+public final class AntSymbolTable {
+
+	private final Map<String, AntTargetNode> fTargets = new HashMap<>();
+	private final Map<String, AntTargetNode> fExtensionPoints = new HashMap<>();
+	private final Map<String, AntPropertyNode> fProperties = new HashMap<>();
+	private final Map<String, AntTaskNode> fReferences = new HashMap<>();
+	private final Map<String, AntDefiningTaskNode> fDefiningNodes;
+	private final Map<String, AntTaskNode> fMacroDefAttributes = new HashMap<>();
+
+	/**
+	 * Creates the symbol table of the given project.
+	 *
+	 * @param projectNode
+	 *            the project node
+	 * @param taskNodes
+	 *            the nodes of all tasks and types of the buildfile
+	 * @param definingNodes
+	 *            the nodes defining tasks by the name of the defined task, or <code>null</code>
+	 */
+	AntSymbolTable(AntProjectNode projectNode, Collection<AntTaskNode> taskNodes, Map<String, AntDefiningTaskNode> definingNodes) {
+		List<IAntElement> children = projectNode.getChildNodes();
+		if (children != null) {
+			for (IAntElement child : children) {
+				if (child instanceof AntTargetNode) {
+					AntTargetNode targetNode = (AntTargetNode) child;
+					String name = targetNode.getTarget().getName();
+					if (name != null) {
+						fTargets.putIfAbsent(toKey(name), targetNode);
+						if (targetNode.isExtensionPoint()) {
+							fExtensionPoints.putIfAbsent(toKey(name), targetNode);
+						}
+					}
+				}
+			}
+			addProperties(children);
+		}
+		for (AntTaskNode taskNode : taskNodes) {
+			Task task = taskNode.getTask();
+			if (task instanceof UnknownElement) {
+				RuntimeConfigurable wrapper = ((UnknownElement) task).getWrapper();
+				Object id = wrapper.getAttributeMap().get(IAntCoreConstants.ID);
+				if (id instanceof String) {
+					fReferences.putIfAbsent((String) id, taskNode);
+				}
+			}
+		}
+		if (definingNodes == null) {
+			fDefiningNodes = Collections.emptyMap();
+		} else {
+			fDefiningNodes = new HashMap<>(definingNodes);
+			for (AntDefiningTaskNode definingNode : fDefiningNodes.values()) {
+				List<IAntElement> attributes = definingNode.getChildNodes();
+				if (attributes != null) {
+					for (IAntElement element : attributes) {
+						if (element instanceof AntTaskNode && element.getLabel() != null) {
+							fMacroDefAttributes.putIfAbsent(element.getLabel(), (AntTaskNode) element);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private void addProperties(List<IAntElement> children) {
+		for (IAntElement element : children) {
+			if (element instanceof AntPropertyNode) {
+				AntPropertyNode propertyNode = (AntPropertyNode) element;
+				for (String name : propertyNode.getPropertyNames()) {
+					fProperties.putIfAbsent(name, propertyNode);
+				}
+			} else if (element.hasChildren()) {
+				addProperties(element.getChildNodes());
+			}
+		}
+	}
+
+	private static String toKey(String targetName) {
+		return targetName.toLowerCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * Returns the target or extension point with the given name, ignoring case.
+	 *
+	 * @param targetName
+	 *            the name of the target
+	 * @return the target node or <code>null</code> if there is no such target
+	 */
+	public AntTargetNode getTargetNode(String targetName) {
+		return targetName == null ? null : fTargets.get(toKey(targetName));
+	}
+
+	/**
+	 * Returns the extension point with the given name, ignoring case.
+	 *
+	 * @param name
+	 *            the name of the extension point
+	 * @return the extension point node or <code>null</code> if there is no such extension point
+	 */
+	public AntTargetNode getExtensionPointNode(String name) {
+		return name == null ? null : fExtensionPoints.get(toKey(name));
+	}
+
+	/**
+	 * Returns the property node that defines the given property.
+	 *
+	 * @param propertyName
+	 *            the name of the property
+	 * @return the property node or <code>null</code> if no property node of the buildfile defines the property
+	 */
+	public AntPropertyNode getPropertyNode(String propertyName) {
+		return fProperties.get(propertyName);
+	}
+
+	/**
+	 * Returns the node of the task or type with the given id.
+	 *
+	 * @param id
+	 *            the reference id
+	 * @return the node or <code>null</code> if no task or type has the id
+	 */
+	public AntTaskNode getReferenceNode(String id) {
+		return fReferences.get(id);
+	}
+
+	/**
+	 * Returns the node defining the task with the given name, such as a <code>macrodef</code>, <code>presetdef</code> or <code>taskdef</code>.
+	 *
+	 * @param taskName
+	 *            the name of the defined task
+	 * @return the defining node or <code>null</code> if the task is not defined by the buildfile
+	 */
+	public AntDefiningTaskNode getDefiningTaskNode(String taskName) {
+		return fDefiningNodes.get(taskName);
+	}
+
+	/**
+	 * Returns the node declaring the macro definition attribute with the given name.
+	 *
+	 * @param attributeName
+	 *            the name of the attribute
+	 * @return the attribute node or <code>null</code> if no macro definition declares the attribute
+	 */
+	public AntTaskNode getMacroDefAttributeNode(String attributeName) {
+		return fMacroDefAttributes.get(attributeName);
+	}
+}
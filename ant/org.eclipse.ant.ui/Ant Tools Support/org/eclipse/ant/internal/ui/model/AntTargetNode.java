@@ -168,6 +168,17 @@ public class AntTargetNode extends AntElementNode {
 		return false;
 	}
 
+	@Override
+	protected void collectOccurrenceTexts(List<String> texts) {
+		texts.add(getTargetName());
+		Enumeration<String> dependencies = fTarget.getDependencies();
+		while (dependencies.hasMoreElements()) {
+			texts.add(dependencies.nextElement());
+		}
+		texts.add(fTarget.getIf());
+		texts.add(fTarget.getUnless());
+	}
+
 	@Override
 	public String getOccurrencesIdentifier() {
 		return getTargetName();
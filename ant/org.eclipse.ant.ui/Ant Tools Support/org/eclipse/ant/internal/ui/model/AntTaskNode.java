@@ -178,6 +178,20 @@ public class AntTaskNode extends AntElementNode {
 		return false;
 	}
 
+	@Override
+	protected void collectOccurrenceTexts(List<String> texts) {
+		if (getTask() == null) {
+			return;
+		}
+		RuntimeConfigurable wrapper = getTask().getRuntimeConfigurableWrapper();
+		for (Object value : wrapper.getAttributeMap().values()) {
+			if (value instanceof String) {
+				texts.add((String) value);
+			}
+		}
+		texts.add(wrapper.getText().toString());
+	}
+
 	@Override
 	public List<Integer> computeIdentifierOffsets(String identifier) {
 		String textToSearch = getAntModel().getText(getOffset(), getLength());
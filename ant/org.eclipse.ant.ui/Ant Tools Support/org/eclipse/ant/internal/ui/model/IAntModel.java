@@ -16,6 +16,7 @@ package org.eclipse.ant.internal.ui.model;
 import java.io.File;
 import java.net.URLClassLoader;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Project;
@@ -34,6 +35,14 @@ public interface IAntModel {
 	 */
 	AntProjectNode getProjectNode();
 
+	/**
+	 * Returns the targets, properties, references and macro definitions declared by the buildfile of this Ant model, reconciling the model first
+	 * if needed.
+	 * 
+	 * @return the symbol table or <code>null</code> if the buildfile could not be parsed
+	 */
+	AntSymbolTable getSymbolTable();
+
 	/**
 	 * Returns the name of the external entity defined by the specified path
 	 * 
@@ -210,6 +219,23 @@ public interface IAntModel {
 	 */
 	void addEntity(String name, String currentEntityPath);
 
+	/**
+	 * Records that the given file is parsed as it is imported or included by the buildfile, directly or through other imported files, or that it is
+	 * the missing file of an optional import
+	 * 
+	 * @param file
+	 *            the imported or included file
+	 */
+	void addImportedFile(File file);
+
+	/**
+	 * Returns the absolute paths of the files imported or included by the buildfile, directly or through other imported files, when this Ant
+	 * model was last reconciled. A change to any of these files may change the targets of the buildfile.
+	 * 
+	 * @return the paths of the imported files, never <code>null</code>
+	 */
+	Set<String> getImportedFiles();
+
 	/**
 	 * Adds a task element to the Ant model Only called if <code>canGetTaskInfo()</code>() is <code>true</code>
 	 * 
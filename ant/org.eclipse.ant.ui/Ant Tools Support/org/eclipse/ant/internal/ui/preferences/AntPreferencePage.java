@@ -97,6 +97,59 @@ public class AntPreferencePage extends FieldEditorPreferencePage implements IWor
 		}
 	}
 
+	/**
+	 * Allows us to override the default behavior of the default {@link BooleanFieldEditor} to work on a core preference context
+	 * 
+	 * @since 3.7
+	 */
+	class AntBooleanFieldEditor extends BooleanFieldEditor {
+		String node = null, key = null;
+		boolean defaultvalue = false;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param node
+		 *            the identifier of the node we want to set the preference in, i.e. org.eclipse.ant.launching
+		 * @param key
+		 *            the preference key to map the value to
+		 * @param title
+		 *            the title of the field editor
+		 * @param parent
+		 *            the parent to add the field editor to
+		 * @param defaultvalue
+		 *            the default value to return when looking up stored values
+		 */
+		public AntBooleanFieldEditor(String node, String key, String title, Composite parent, boolean defaultvalue) {
+			super(key, title, parent);
+			this.node = node;
+			this.key = key;
+			this.defaultvalue = defaultvalue;
+		}
+
+		@Override
+		protected void doStore() {
+			InstanceScope.INSTANCE.getNode(node).putBoolean(key, getBooleanValue());
+		}
+
+		@Override
+		public void load() {
+			setBooleanValue(Platform.getPreferencesService().getBoolean(node, key, defaultvalue, null));
+		}
+
+		@Override
+		public void loadDefault() {
+			setBooleanValue(DefaultScope.INSTANCE.getNode(node).getBoolean(key, defaultvalue));
+		}
+
+		private void setBooleanValue(boolean value) {
+			Button checkBox = getChangeControl(getFieldEditorParent());
+			if (checkBox != null) {
+				checkBox.setSelection(value);
+			}
+		}
+	}
+
 	private List fConsoleColorList;
 	private ColorSelector fConsoleColorSelector;
 	private IntegerFieldEditor timeout;
@@ -148,6 +201,8 @@ public class AntPreferencePage extends FieldEditorPreferencePage implements IWor
 				Integer.valueOf(maxValue) }));
 		addField(timeout);
 
+		addField(new AntBooleanFieldEditor(AntLaunching.getUniqueIdentifier(), IAntLaunchingPreferenceConstants.ANT_DAEMON, AntPreferencesMessages.AntPreferencePage_17, getFieldEditorParent(), false));
+
 		editor = new URLFieldEditor(IAntUIPreferenceConstants.DOCUMENTATION_URL, AntPreferencesMessages.AntPreferencePage_2, getFieldEditorParent());
 		addField(editor);
 
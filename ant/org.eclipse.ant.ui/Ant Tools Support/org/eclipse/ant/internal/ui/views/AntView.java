@@ -20,8 +20,11 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.ant.internal.core.IAntCoreConstants;
 import org.eclipse.ant.internal.ui.AntUIPlugin;
@@ -47,9 +50,15 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.action.IMenuManager;
 import org.eclipse.jface.action.IToolBarManager;
 import org.eclipse.jface.action.MenuManager;
@@ -151,17 +160,54 @@ public class AntView extends ViewPart implements IResourceChangeListener, IShowI
 	// Context-menu-only actions
 	private AntOpenWithMenu openWithMenu;
 
+	private final BuildFileRefreshJob refreshJob = new BuildFileRefreshJob();
+
 	/**
-	 * The given build file has changed. Refresh the view to pick up any structural changes.
+	 * Parses changed build files again on a background thread and refreshes the view to pick up any structural changes. The build files that
+	 * change together, such as the build files importing the same file, are parsed in one batch.
 	 */
-	private void handleBuildFileChanged(AntProjectNode project) {
-		((AntProjectNodeProxy) project).parseBuildFile(true);
-		Display.getDefault().asyncExec(() -> {
-			// must do a full refresh to re-sort
-			projectViewer.refresh();
-			// update the status line
-			handleSelectionChanged((IStructuredSelection) projectViewer.getSelection());
-		});
+	private class BuildFileRefreshJob extends Job {
+
+		/**
+		 * Delay before changed build files are parsed, so that the changes of one operation are handled together
+		 */
+		private static final long REFRESH_DELAY = 200;
+
+		// guarded by this
+		private final Set<AntProjectNodeProxy> pendingProjects = new LinkedHashSet<>();
+
+		BuildFileRefreshJob() {
+			super("Ant view refresh job"); //$NON-NLS-1$
+			setSystem(true);
+		}
+
+		synchronized void refresh(AntProjectNodeProxy project) {
+			pendingProjects.add(project);
+			schedule(REFRESH_DELAY);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			AntProjectNodeProxy[] projects;
+			synchronized (this) {
+				projects = pendingProjects.toArray(new AntProjectNodeProxy[pendingProjects.size()]);
+				pendingProjects.clear();
+			}
+			if (projects.length == 0) {
+				return Status.OK_STATUS;
+			}
+			AntProjectNodeProxy.parseBuildFiles(projects, monitor);
+			Display.getDefault().asyncExec(() -> {
+				if (projectViewer.getControl().isDisposed()) {
+					return;
+				}
+				// must do a full refresh to re-sort
+				projectViewer.refresh();
+				// update the status line
+				handleSelectionChanged((IStructuredSelection) projectViewer.getSelection());
+			});
+			return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+		}
 	}
 
 	@Override
@@ -592,40 +638,73 @@ public class AntView extends ViewPart implements IResourceChangeListener, IShowI
 			openWithMenu.dispose();
 		}
 		ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+		refreshJob.cancel();
 	}
 
 	@Override
 	public void resourceChanged(IResourceChangeEvent event) {
 		IResourceDelta delta = event.getDelta();
-		if (delta != null) {
-			for (AntProjectNode project : getProjects()) {
-				IPath buildFilePath = new Path(project.getBuildFileName());
-				IResourceDelta change = delta.findMember(buildFilePath);
-				if (change != null) {
-					handleChangeDelta(change, project);
-				}
+		AntProjectNode[] projects = getProjects();
+		if (delta == null || projects.length == 0) {
+			return;
+		}
+		Set<String> changedFiles = getChangedFiles(delta);
+		if (changedFiles.isEmpty()) {
+			return;
+		}
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		for (AntProjectNode project : projects) {
+			IFile buildFile = root.getFile(new Path(project.getBuildFileName()));
+			IResourceDelta change = delta.findMember(buildFile.getFullPath());
+			if (change != null && change.getKind() == IResourceDelta.REMOVED) {
+				Display.getDefault().asyncExec(() -> removeProject(project));
+			} else if (isAffected((AntProjectNodeProxy) project, buildFile, changedFiles)) {
+				refreshJob.refresh((AntProjectNodeProxy) project);
 			}
 		}
 	}
 
 	/**
-	 * Update the view for the given resource delta. The delta is a resource delta for the given build file in the view
-	 * 
-	 * @param delta
-	 *            a delta for a build file in the view
-	 * @param project
-	 *            the project node that has changed
+	 * Returns the absolute paths of the files whose contents have been changed, or which have been added or removed, by the given delta.
 	 */
-	private void handleChangeDelta(IResourceDelta delta, final AntProjectNode project) {
-		IResource resource = delta.getResource();
-		if (resource.getType() != IResource.FILE) {
-			return;
+	private Set<String> getChangedFiles(IResourceDelta delta) {
+		Set<String> changedFiles = new HashSet<>();
+		try {
+			delta.accept(child -> {
+				IResource resource = child.getResource();
+				if (resource.getType() != IResource.FILE) {
+					return true;
+				}
+				if (child.getKind() != IResourceDelta.CHANGED || (child.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0) {
+					IPath location = resource.getLocation();
+					if (location != null) {
+						changedFiles.add(location.toFile().getAbsolutePath());
+					}
+				}
+				return false;
+			});
+		}
+		catch (CoreException e) {
+			AntUIPlugin.log(e);
+		}
+		return changedFiles;
+	}
+
+	/**
+	 * Returns whether the targets of the given project may have changed, that is, whether its build file or any file it imports or includes, as
+	 * recorded when the build file was last parsed, has changed.
+	 */
+	private boolean isAffected(AntProjectNodeProxy project, IFile buildFile, Set<String> changedFiles) {
+		IPath location = buildFile.getLocation();
+		if (location != null && changedFiles.contains(location.toFile().getAbsolutePath())) {
+			return true;
 		}
-		if (delta.getKind() == IResourceDelta.REMOVED) {
-			Display.getDefault().asyncExec(() -> removeProject(project));
-		} else if (delta.getKind() == IResourceDelta.CHANGED && (delta.getFlags() & IResourceDelta.CONTENT) != 0) {
-			handleBuildFileChanged(project);
+		for (String importedFile : project.getImportedFiles()) {
+			if (changedFiles.contains(importedFile)) {
+				return true;
+			}
 		}
+		return false;
 	}
 
 	private void fillMainToolBar() {
@@ -52,7 +52,6 @@ public class AntViewActionMessages extends NLS {
 	public static String SearchForBuildFilesAction_Adding__0__4;
 	public static String RefreshBuildFilesAction_Refresh_Buildfiles_1;
 	public static String RefreshBuildFilesAction_Refreshing_buildfiles_3;
-	public static String RefreshBuildFilesAction_Refreshing__0__4;
 	public static String FilterInternalTargetsAction_0;
 
 	static {
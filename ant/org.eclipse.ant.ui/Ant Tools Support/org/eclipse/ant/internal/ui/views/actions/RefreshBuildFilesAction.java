@@ -14,7 +14,6 @@
 package org.eclipse.ant.internal.ui.views.actions;
 
 import java.lang.reflect.InvocationTargetException;
-import java.text.MessageFormat;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
@@ -26,6 +25,7 @@ import org.eclipse.ant.internal.ui.model.AntProjectNode;
 import org.eclipse.ant.internal.ui.model.AntProjectNodeProxy;
 import org.eclipse.ant.internal.ui.model.AntTargetNode;
 import org.eclipse.ant.internal.ui.views.AntView;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.ui.PlatformUI;
@@ -63,22 +63,16 @@ public class RefreshBuildFilesAction extends Action implements IUpdate {
 				projects.add(antproject);
 			}
 		}
-		final Iterator<AntProjectNode> iter = projects.iterator();
-		if (!iter.hasNext()) {
+		if (projects.isEmpty()) {
 			return;
 		}
 
 		try {
 			PlatformUI.getWorkbench().getProgressService().busyCursorWhile(monitor -> {
-				monitor.beginTask(AntViewActionMessages.RefreshBuildFilesAction_Refreshing_buildfiles_3, projects.size());
-				AntProjectNodeProxy project;
-				while (iter.hasNext()) {
-					project = (AntProjectNodeProxy) iter.next();
-					monitor.subTask(MessageFormat.format(AntViewActionMessages.RefreshBuildFilesAction_Refreshing__0__4, new Object[] {
-							project.getBuildFileName() }));
-					project.parseBuildFile(true);
-					monitor.worked(1);
-				}
+				SubMonitor progress = SubMonitor.convert(monitor, AntViewActionMessages.RefreshBuildFilesAction_Refreshing_buildfiles_3, projects.size());
+				AntProjectNodeProxy[] proxies = projects.toArray(new AntProjectNodeProxy[projects.size()]);
+				// the buildfiles are parsed concurrently
+				AntProjectNodeProxy.parseBuildFiles(proxies, progress);
 			});
 		}
 		catch (InvocationTargetException e) {
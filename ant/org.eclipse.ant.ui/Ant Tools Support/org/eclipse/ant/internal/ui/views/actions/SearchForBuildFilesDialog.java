@@ -23,6 +23,8 @@ import org.eclipse.ant.internal.core.IAntCoreConstants;
 import org.eclipse.ant.internal.ui.AntUIPlugin;
 import org.eclipse.ant.internal.ui.IAntUIHelpContextIds;
 import org.eclipse.ant.internal.ui.IAntUIPreferenceConstants;
+import org.eclipse.ant.internal.ui.model.AntBuildfileIndex;
+import org.eclipse.ant.internal.ui.model.AntBuildfileIndex.Buildfile;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceProxy;
@@ -355,7 +357,16 @@ public class SearchForBuildFilesDialog extends InputDialog {
 		settings.put(IAntUIPreferenceConstants.ANTVIEW_USE_WORKINGSET_SEARCH_SCOPE, workingSetScopeButton.getSelection());
 		results = new ArrayList<>(); // Clear previous results
 		ResourceProxyVisitor visitor = new ResourceProxyVisitor();
-		if (searchScopes == null || searchScopes.isEmpty()) {
+		AntBuildfileIndex index = AntBuildfileIndex.getDefault();
+		if (!includeErrorResultButton.getSelection() && index.isReady()) {
+			// files that are not Ant buildfiles would not be added as they cannot be parsed
+			IResource[] scopes = searchScopes == null || searchScopes.isEmpty() ? null : searchScopes.toArray(new IResource[searchScopes.size()]);
+			for (Buildfile buildfile : index.getBuildfiles(scopes)) {
+				if (!buildfile.isErrorNode() && visitor.pattern.matcher(buildfile.getPath().lastSegment()).find()) {
+					results.add(buildfile.getFile());
+				}
+			}
+		} else if (searchScopes == null || searchScopes.isEmpty()) {
 			try {
 				ResourcesPlugin.getWorkspace().getRoot().accept(visitor, IResource.NONE);
 			}
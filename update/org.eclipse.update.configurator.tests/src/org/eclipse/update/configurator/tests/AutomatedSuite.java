@@ -13,7 +13,12 @@
  *******************************************************************************/
 package org.eclipse.update.configurator.tests;
 
+import org.eclipse.update.internal.configurator.tests.BundleManifestCacheTests;
+import org.eclipse.update.internal.configurator.tests.ConfigurationHistoryTests;
+import org.eclipse.update.internal.configurator.tests.ConfigurationSnapshotTests;
 import org.eclipse.update.internal.configurator.tests.FeatureEntryTests;
+import org.eclipse.update.internal.configurator.tests.PlatformConfigurationTests;
+import org.eclipse.update.internal.configurator.tests.SiteEntryDetectionTests;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -23,7 +28,8 @@ import org.junit.runners.Suite;
  * @since 0.1
  */
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ FeatureEntryTests.class })
+@Suite.SuiteClasses({ FeatureEntryTests.class, SiteEntryDetectionTests.class, BundleManifestCacheTests.class,
+		PlatformConfigurationTests.class, ConfigurationHistoryTests.class, ConfigurationSnapshotTests.class })
 public class AutomatedSuite {
 
 }
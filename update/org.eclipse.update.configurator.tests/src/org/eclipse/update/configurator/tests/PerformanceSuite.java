@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.update.configurator.tests;
+
+import org.eclipse.update.internal.configurator.tests.SiteEntryDetectionPerformanceTests;
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+/**
+ * Performance tests. They are not part of the {@link AutomatedSuite}.
+ */
+@RunWith(Suite.class)
+@Suite.SuiteClasses({ SiteEntryDetectionPerformanceTests.class })
+public class PerformanceSuite {
+
+}
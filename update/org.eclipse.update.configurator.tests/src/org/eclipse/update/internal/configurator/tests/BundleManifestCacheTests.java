@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.update.internal.configurator.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.eclipse.update.internal.configurator.BundleManifestCache;
+import org.eclipse.update.internal.configurator.Configuration;
+import org.eclipse.update.internal.configurator.PluginEntry;
+import org.eclipse.update.internal.configurator.SiteEntry;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SuppressWarnings("restriction")
+public class BundleManifestCacheTests {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@After
+	public void shutdownCache() {
+		BundleManifestCache.shutdown();
+	}
+
+	@Test
+	public void testWarmDetection() throws Exception {
+		File config = folder.newFolder("configuration");
+		File site = folder.newFolder("site");
+		File plugins = new File(site, "plugins");
+		plugins.mkdirs();
+		File jar = new File(plugins, "org.example.packed_1.0.0.jar");
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar), createManifest("org.example.packed", "1.0.0", false))) {
+			// the manifest is the only entry
+		}
+		File manifest = new File(plugins, "org.example.unpacked_1.0.0/META-INF/MANIFEST.MF");
+		writeManifest(manifest, createManifest("org.example.unpacked", "1.0.0", true));
+
+		BundleManifestCache.startup(config.toURI().toURL());
+		Map<String, PluginEntry> cold = detect(site);
+		assertEquals(2, cold.size());
+		BundleManifestCache.shutdown();
+		assertTrue(new File(config, "org.eclipse.update/manifests.cache").isFile());
+
+		BundleManifestCache.startup(config.toURI().toURL());
+		PluginEntry cached = BundleManifestCache.getCurrent().get(jar, jar.length(), jar.lastModified(), "plugins/" + jar.getName());
+		assertNotNull(cached);
+		assertEquals("org.example.packed", cached.getPluginIdentifier());
+		assertNull(BundleManifestCache.getCurrent().get(jar, jar.length() + 1, jar.lastModified(), "plugins/" + jar.getName()));
+
+		Map<String, PluginEntry> warm = detect(site);
+		assertEquals(cold.keySet(), warm.keySet());
+		for (PluginEntry entry : warm.values()) {
+			PluginEntry coldEntry = cold.get(entry.getURL());
+			assertEquals(coldEntry.getPluginIdentifier(), entry.getPluginIdentifier());
+			assertEquals(coldEntry.getPluginVersion(), entry.getPluginVersion());
+			assertEquals(coldEntry.isFragment(), entry.isFragment());
+		}
+
+		// a changed manifest is read again
+		writeManifest(manifest, createManifest("org.example.unpacked", "1.0.1", true));
+		manifest.setLastModified(manifest.lastModified() + 2000);
+		PluginEntry changed = detect(site).get("plugins/org.example.unpacked_1.0.0/");
+		assertEquals("1.0.1", changed.getPluginVersion());
+	}
+
+	@Test
+	public void testWarmDetectionReadsNoManifest() throws Exception {
+		File config = folder.newFolder("configuration");
+		File site = folder.newFolder("site");
+		File plugins = new File(site, "plugins");
+		plugins.mkdirs();
+		File jar = new File(plugins, "org.example.packed_1.0.0.jar");
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar), createManifest("org.example.packed", "1.0.0", false))) {
+			// the manifest is the only entry
+		}
+		File manifest = new File(plugins, "org.example.unpacked_1.0.0/META-INF/MANIFEST.MF");
+		writeManifest(manifest, createManifest("org.example.unpacked", "1.0.0", true));
+
+		BundleManifestCache.startup(config.toURI().toURL());
+		assertEquals(2, detect(site).size());
+		// every manifest of the cold detection is a miss
+		assertEquals(2, BundleManifestCache.getCurrent().getMissCount());
+		BundleManifestCache.shutdown();
+
+		BundleManifestCache.startup(config.toURI().toURL());
+		assertEquals(2, detect(site).size());
+		assertEquals(0, BundleManifestCache.getCurrent().getMissCount());
+	}
+
+	private static Map<String, PluginEntry> detect(File site) throws Exception {
+		SiteEntry siteEntry = new SiteEntry(site.toURI().toURL());
+		siteEntry.setConfig(new Configuration());
+		siteEntry.loadFromDisk(0);
+		Map<String, PluginEntry> result = new HashMap<>();
+		for (PluginEntry entry : siteEntry.getAllPluginEntries()) {
+			result.put(entry.getURL(), entry);
+		}
+		return result;
+	}
+
+	private static Manifest createManifest(String id, String version, boolean isFragment) {
+		Manifest manifest = new Manifest();
+		Attributes attributes = manifest.getMainAttributes();
+		attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		attributes.putValue("Bundle-ManifestVersion", "2");
+		attributes.putValue("Bundle-SymbolicName", id);
+		attributes.putValue("Bundle-Version", version);
+		if (isFragment) {
+			attributes.putValue("Fragment-Host", "org.example.packed");
+		}
+		return manifest;
+	}
+
+	private static void writeManifest(File file, Manifest manifest) throws IOException {
+		file.getParentFile().mkdirs();
+		try (OutputStream out = new FileOutputStream(file)) {
+			manifest.write(out);
+		}
+	}
+}
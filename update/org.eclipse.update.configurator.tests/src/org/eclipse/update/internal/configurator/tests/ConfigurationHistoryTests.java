@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.update.internal.configurator.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.eclipse.update.internal.configurator.ConfigurationHistory;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SuppressWarnings("restriction")
+public class ConfigurationHistoryTests {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@After
+	public void clearProperty() {
+		System.clearProperty(ConfigurationHistory.PROP_MAX_COUNT);
+	}
+
+	@Test
+	public void testCompaction() throws Exception {
+		System.setProperty(ConfigurationHistory.PROP_MAX_COUNT, "20");
+		File workingDir = folder.newFolder("org.eclipse.update");
+		File dir = new File(workingDir, "history");
+		dir.mkdir();
+		// history left by previous versions, without index
+		for (int i = 0; i < 30; i++) {
+			write(new File(dir, (1000000L + i * 1000) + ".xml"), "<config n=\"" + i + "\"/>");
+		}
+
+		ConfigurationHistory history = new ConfigurationHistory(dir);
+		assertEquals(30, history.getSnapshots().size());
+		history.join();
+		assertEquals(20, history.getSnapshots().size());
+		assertTrue(new File(dir, "history.zip").isFile());
+
+		File platformXML = new File(workingDir, "platform.xml");
+		for (int i = 0; i < 10; i++) {
+			write(platformXML, "<config save=\"" + i + "\"/>");
+			platformXML.setLastModified(2000000000000L + i * 1000);
+			assertTrue(history.add(platformXML));
+			history.join();
+		}
+
+		List<ConfigurationHistory.Snapshot> snapshots = history.getSnapshots();
+		assertEquals(20, snapshots.size());
+		assertEquals(2000000009000L, snapshots.get(0).getTimestamp());
+		assertEquals("<config save=\"9\"/>", read(history, snapshots.get(0)));
+		// the oldest snapshots kept are read from the archive
+		assertEquals("<config n=\"20\"/>", read(history, snapshots.get(19)));
+		String[] files = dir.list((d, name) -> name.endsWith(".xml"));
+		assertTrue(files.length < 20);
+
+		// the index is read back, or rebuilt when missing
+		assertEquals(20, new ConfigurationHistory(dir).getSnapshots().size());
+		new File(dir, "history.index").delete();
+		snapshots = new ConfigurationHistory(dir).getSnapshots();
+		assertEquals(20, snapshots.size());
+		assertEquals(2000000009000L, snapshots.get(0).getTimestamp());
+	}
+
+	@Test
+	public void testCompactionDropsUnreadableSnapshots() throws Exception {
+		System.setProperty(ConfigurationHistory.PROP_MAX_COUNT, "20");
+		File workingDir = folder.newFolder("org.eclipse.update");
+		File dir = new File(workingDir, "history");
+		dir.mkdir();
+		for (int i = 0; i < 30; i++) {
+			write(new File(dir, (1000000L + i * 1000) + ".xml"), "<config n=\"" + i + "\"/>");
+		}
+		ConfigurationHistory history = new ConfigurationHistory(dir);
+		history.getSnapshots();
+		history.join();
+		assertEquals(20, history.getSnapshots().size());
+
+		// the archived snapshots are lost, and a file no longer has the size of its snapshot
+		assertTrue(new File(dir, "history.zip").delete());
+		write(new File(dir, "1025000.xml"), "<config n=\"25\" modified=\"true\"/>");
+
+		File platformXML = new File(workingDir, "platform.xml");
+		for (int i = 0; i < 5; i++) {
+			write(platformXML, "<config save=\"" + i + "\"/>");
+			platformXML.setLastModified(2000000000000L + i * 1000);
+			assertTrue(history.add(platformXML));
+			history.join();
+		}
+
+		List<ConfigurationHistory.Snapshot> snapshots = history.getSnapshots();
+		assertEquals(9, snapshots.size());
+		for (ConfigurationHistory.Snapshot snapshot : snapshots) {
+			read(history, snapshot);
+		}
+		assertEquals("<config n=\"26\"/>", read(history, snapshots.get(8)));
+		assertTrue(new File(dir, "history.zip").isFile());
+		assertEquals(9, new ConfigurationHistory(dir).getSnapshots().size());
+	}
+
+	private static String read(ConfigurationHistory history, ConfigurationHistory.Snapshot snapshot) throws IOException {
+		try (InputStream in = history.open(snapshot)) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1024];
+			int read;
+			while ((read = in.read(buffer)) != -1)
+				out.write(buffer, 0, read);
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private static void write(File file, String contents) throws IOException {
+		Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.update.internal.configurator.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.eclipse.update.configurator.IPlatformConfiguration.ISiteEntry;
+import org.eclipse.update.configurator.IPlatformConfiguration.ISitePolicy;
+import org.eclipse.update.internal.configurator.ConfigurationSnapshot;
+import org.eclipse.update.internal.configurator.FeatureEntry;
+import org.eclipse.update.internal.configurator.PlatformConfiguration;
+import org.eclipse.update.internal.configurator.PluginEntry;
+import org.eclipse.update.internal.configurator.SiteEntry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SuppressWarnings("restriction")
+public class ConfigurationSnapshotTests {
+
+	private static final int PLUGINS = 3;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File plugins;
+	private URL installURL;
+	private File platformXML;
+	private URL platformURL;
+
+	@Before
+	public void saveConfiguration() throws Exception {
+		File install = folder.newFolder("install");
+		plugins = new File(install, "plugins");
+		plugins.mkdirs();
+		for (int i = 0; i < PLUGINS; i++) {
+			writeJar(new File(plugins, "org.example.bundle" + i + "_1.0.0.jar"), "org.example.bundle" + i);
+		}
+		File feature = new File(install, "features/org.example.feature_1.0.0/feature.xml");
+		feature.getParentFile().mkdirs();
+		Files.write(feature.toPath(), "<feature id=\"org.example.feature\" version=\"1.0.0\"/>".getBytes(StandardCharsets.UTF_8));
+
+		installURL = install.toURI().toURL();
+		PlatformConfiguration configuration = new PlatformConfiguration(null, installURL);
+		ISitePolicy policy = configuration.createSitePolicy(ISitePolicy.USER_EXCLUDE, null);
+		SiteEntry site = (SiteEntry) configuration.createSiteEntry(installURL, policy);
+		configuration.configureSite(site);
+		site.loadFromDisk(0);
+		platformXML = new File(folder.newFolder("configuration"), "platform.xml");
+		platformURL = platformXML.toURI().toURL();
+		configuration.save(platformURL);
+	}
+
+	@After
+	public void clearProperty() {
+		System.clearProperty(ConfigurationSnapshot.PROP_SNAPSHOT);
+	}
+
+	@Test
+	public void testWarmStartup() throws Exception {
+		assertTrue(ConfigurationSnapshot.getFile(platformXML).isFile());
+		assertNotNull(ConfigurationSnapshot.read(platformXML, platformURL, installURL));
+
+		System.setProperty(ConfigurationSnapshot.PROP_SNAPSHOT, "false");
+		String fromXML = describe(new PlatformConfiguration(platformURL, installURL));
+		System.clearProperty(ConfigurationSnapshot.PROP_SNAPSHOT);
+		String fromSnapshot = describe(new PlatformConfiguration(platformURL, installURL));
+		assertEquals(fromXML, fromSnapshot);
+		assertTrue(fromSnapshot.contains("org.example.feature 1.0.0 features/org.example.feature_1.0.0/"));
+
+		// a plugin added since the configuration was saved is detected
+		writeJar(new File(plugins, "org.example.added_1.0.0.jar"), "org.example.added");
+		plugins.setLastModified(plugins.lastModified() + 2000);
+		assertTrue(describe(new PlatformConfiguration(platformURL, installURL)).contains("plugins/org.example.added_1.0.0.jar"));
+	}
+
+	@Test
+	public void testTouchedPlatformXML() throws Exception {
+		assertNotNull(ConfigurationSnapshot.read(platformXML, platformURL, installURL));
+		platformXML.setLastModified(platformXML.lastModified() + 2000);
+		assertNull(ConfigurationSnapshot.read(platformXML, platformURL, installURL));
+	}
+
+	@Test
+	public void testChangedPluginJar() throws Exception {
+		assertNotNull(ConfigurationSnapshot.read(platformXML, platformURL, installURL));
+		File jar = new File(plugins, "org.example.bundle0_1.0.0.jar");
+		jar.setLastModified(jar.lastModified() + 2000);
+		assertNull(ConfigurationSnapshot.read(platformXML, platformURL, installURL));
+	}
+
+	private static String describe(PlatformConfiguration configuration) {
+		StringBuilder result = new StringBuilder();
+		for (ISiteEntry entry : configuration.getConfiguredSites()) {
+			SiteEntry site = (SiteEntry) entry;
+			result.append(site.getURL()).append(' ').append(site.getSitePolicy().getType()).append(' ').append(site.isUpdateable())
+					.append(' ').append(site.isEnabled()).append('\n');
+			Map<String, String> sorted = new TreeMap<>();
+			for (FeatureEntry feature : site.getFeatureEntries()) {
+				sorted.put(feature.getFeatureIdentifier(), feature.getFeatureVersion() + ' ' + feature.getURL() + ' '
+						+ feature.getFeaturePluginIdentifier() + ' ' + feature.getFeaturePluginVersion() + ' ' + feature.canBePrimary());
+			}
+			for (PluginEntry plugin : site.getPluginEntries()) {
+				sorted.put(plugin.getURL(), plugin.toString());
+			}
+			for (Map.Entry<String, String> line : sorted.entrySet()) {
+				result.append(line.getKey()).append(' ').append(line.getValue()).append('\n');
+			}
+		}
+		return result.toString();
+	}
+
+	private static void writeJar(File jar, String id) throws IOException {
+		Manifest manifest = new Manifest();
+		Attributes attributes = manifest.getMainAttributes();
+		attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		attributes.putValue("Bundle-ManifestVersion", "2");
+		attributes.putValue("Bundle-SymbolicName", id);
+		attributes.putValue("Bundle-Version", "1.0.0");
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar), manifest)) {
+			// the manifest is the only entry
+		}
+	}
+}
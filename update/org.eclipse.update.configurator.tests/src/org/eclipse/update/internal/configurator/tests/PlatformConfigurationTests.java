@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.update.internal.configurator.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.update.configurator.IPlatformConfiguration.ISitePolicy;
+import org.eclipse.update.internal.configurator.FeatureEntry;
+import org.eclipse.update.internal.configurator.PlatformConfiguration;
+import org.eclipse.update.internal.configurator.SiteEntry;
+import org.eclipse.update.internal.configurator.Utils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SuppressWarnings("restriction")
+public class PlatformConfigurationTests {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * platform.xml must be written exactly as it was written out of a DOM:
+	 * attributes in alphabetical order, a line break after each tag and
+	 * escaped values.
+	 */
+	@Test
+	public void testSavedPlatformXML() throws Exception {
+		URL installURL = folder.newFolder("install").toURI().toURL();
+		PlatformConfiguration configuration = new PlatformConfiguration(null, installURL);
+		configuration.isTransient(true);
+
+		ISitePolicy policy = configuration.createSitePolicy(ISitePolicy.USER_EXCLUDE,
+				new String[] { "plugins/a&b_1.0.0.jar", "plugins/\"q'\"_1.0.0/" });
+		SiteEntry site = (SiteEntry) configuration.createSiteEntry(new URL("file:/site/"), policy);
+		configuration.configureSite(site);
+		URL rootURL = new URL(installURL, "root/");
+		FeatureEntry feature = (FeatureEntry) configuration.createFeatureEntry("org.example.feature", "1.0.0",
+				"org.example.branding", "1.0.1", true, "org.example.<app>\u00e9", new URL[] { rootURL });
+		feature.setURL("features/org.example.feature_1.0.0/");
+		site.addFeatureEntry(feature);
+
+		File platformXML = new File(folder.getRoot(), "platform.xml");
+		configuration.save(platformXML.toURI().toURL());
+
+		String expected = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<config date=\"" + configuration.getConfiguration().getDate().getTime() + "\" transient=\"true\" version=\"3.0\">\n"
+				+ "<site enabled=\"true\" list=\"plugins/a&amp;b_1.0.0.jar,plugins/&quot;q&apos;&quot;_1.0.0/\" policy=\"USER-EXCLUDE\" updateable=\"true\" url=\"file:/site/\">\n"
+				+ "<feature application=\"org.example.&lt;app&gt;\u00e9\" id=\"org.example.feature\" plugin-identifier=\"org.example.branding\" plugin-version=\"1.0.1\" primary=\"true\" url=\"features/org.example.feature_1.0.0/\" version=\"1.0.0\">\n"
+				+ "<root>\n"
+				+ Utils.makeRelative(installURL, rootURL).toExternalForm() + "</root>\n"
+				+ "</feature>\n"
+				+ "</site>\n"
+				+ "</config>\n";
+		assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), Files.readAllBytes(platformXML.toPath()));
+	}
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.update.internal.configurator.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.update.internal.configurator.SiteEntry;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Measures the serial and the parallel detection of a synthetic site holding
+ * {@link #BUNDLES} bundles and prints the time taken by each mode.
+ */
+@SuppressWarnings("restriction")
+public class SiteEntryDetectionPerformanceTests {
+
+	private static final int BUNDLES = 5000;
+	private static final int FEATURES = 200;
+
+	@ClassRule
+	public static TemporaryFolder folder = new TemporaryFolder();
+
+	private static File site;
+
+	@BeforeClass
+	public static void createSite() throws IOException {
+		site = SiteEntryDetectionTests.createSite(folder.newFolder("site"), BUNDLES, FEATURES);
+	}
+
+	@After
+	public void clearProperty() {
+		System.clearProperty(SiteEntry.PROP_PARALLEL_DETECTION);
+	}
+
+	@Test
+	public void testDetectionTime() throws Exception {
+		System.setProperty(SiteEntry.PROP_PARALLEL_DETECTION, "false");
+		// warm up the file system cache so that both modes read the same way
+		SiteEntryDetectionTests.detect(site);
+		long start = System.nanoTime();
+		SiteEntry serial = SiteEntryDetectionTests.detect(site);
+		long serialTime = System.nanoTime() - start;
+
+		System.setProperty(SiteEntry.PROP_PARALLEL_DETECTION, "true");
+		start = System.nanoTime();
+		SiteEntry parallel = SiteEntryDetectionTests.detect(site);
+		long parallelTime = System.nanoTime() - start;
+
+		System.out.println("Detection of " + BUNDLES + " bundles and " + FEATURES + " features: serial " + serialTime / 1000000
+				+ " ms, parallel " + parallelTime / 1000000 + " ms");
+
+		assertEquals(BUNDLES, serial.getAllPluginEntries().length);
+		assertEquals(BUNDLES, parallel.getAllPluginEntries().length);
+	}
+}
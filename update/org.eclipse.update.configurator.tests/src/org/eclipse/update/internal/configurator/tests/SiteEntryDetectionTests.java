@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ *  This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License 2.0
+ *  which accompanies this distribution, and is available at
+ *  https://www.eclipse.org/legal/epl-2.0/
+ *
+ *  SPDX-License-Identifier: EPL-2.0
+ *
+ *  Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.update.internal.configurator.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.eclipse.update.internal.configurator.Configuration;
+import org.eclipse.update.internal.configurator.FeatureEntry;
+import org.eclipse.update.internal.configurator.PluginEntry;
+import org.eclipse.update.internal.configurator.SiteEntry;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Compares the serial and the parallel detection of a small synthetic site.
+ * The timing of both modes on a large site is measured by
+ * {@link SiteEntryDetectionPerformanceTests}.
+ */
+@SuppressWarnings("restriction")
+public class SiteEntryDetectionTests {
+
+	private static final int BUNDLES = 50;
+	private static final int FEATURES = 10;
+
+	@ClassRule
+	public static TemporaryFolder folder = new TemporaryFolder();
+
+	private static File site;
+
+	@BeforeClass
+	public static void createSite() throws IOException {
+		site = createSite(folder.newFolder("site"), BUNDLES, FEATURES);
+	}
+
+	/**
+	 * Creates a site with the given number of bundles, half of them jarred and
+	 * every fifth one a fragment, and the given number of features.
+	 */
+	static File createSite(File location, int bundles, int features) throws IOException {
+		File plugins = new File(location, "plugins");
+		plugins.mkdirs();
+		for (int i = 0; i < bundles; i++) {
+			String name = "org.example.bundle" + i;
+			Manifest manifest = new Manifest();
+			Attributes attributes = manifest.getMainAttributes();
+			attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+			attributes.putValue("Bundle-ManifestVersion", "2");
+			attributes.putValue("Bundle-SymbolicName", name + ";singleton:=true");
+			attributes.putValue("Bundle-Version", "1.0." + i);
+			if (i % 5 == 0) {
+				attributes.putValue("Fragment-Host", "org.example.bundle" + (i + 1));
+			}
+			if (i % 2 == 0) {
+				try (JarOutputStream out = new JarOutputStream(new FileOutputStream(new File(plugins, name + "_1.0." + i + ".jar")), manifest)) {
+					// the manifest is the only entry
+				}
+			} else {
+				File metaInf = new File(plugins, name + "_1.0." + i + "/META-INF");
+				metaInf.mkdirs();
+				try (OutputStream out = new FileOutputStream(new File(metaInf, "MANIFEST.MF"))) {
+					manifest.write(out);
+				}
+			}
+		}
+		File featuresDir = new File(location, "features");
+		featuresDir.mkdirs();
+		for (int i = 0; i < features; i++) {
+			File feature = new File(featuresDir, "org.example.feature" + i + "_1.0." + i);
+			feature.mkdirs();
+			String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<feature id=\"org.example.feature" + i + "\" version=\"1.0." + i + "\">\n</feature>\n";
+			Files.write(new File(feature, "feature.xml").toPath(), xml.getBytes(StandardCharsets.UTF_8));
+		}
+		return location;
+	}
+
+	@After
+	public void clearProperty() {
+		System.clearProperty(SiteEntry.PROP_PARALLEL_DETECTION);
+	}
+
+	@Test
+	public void testParallelDetection() throws Exception {
+		System.setProperty(SiteEntry.PROP_PARALLEL_DETECTION, "false");
+		SiteEntry serial = detect(site);
+		System.setProperty(SiteEntry.PROP_PARALLEL_DETECTION, "true");
+		SiteEntry parallel = detect(site);
+
+		assertEquals(BUNDLES, serial.getAllPluginEntries().length);
+		assertEquals(describePlugins(serial), describePlugins(parallel));
+		assertEquals(FEATURES, serial.getFeatureEntries().length);
+		assertEquals(describeFeatures(serial), describeFeatures(parallel));
+	}
+
+	@Test
+	public void testChangedPluginXMLOfLegacyPluginDetected() throws Exception {
+		File legacySite = folder.newFolder("legacy");
+		File plugin = new File(legacySite, "plugins/org.example.legacy_1.0.0");
+		File metaInf = new File(plugin, "META-INF");
+		metaInf.mkdirs();
+		// a manifest that is not a bundle manifest, the plugin is described by its plugin.xml
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		File manifestFile = new File(metaInf, "MANIFEST.MF");
+		try (OutputStream out = new FileOutputStream(manifestFile)) {
+			manifest.write(out);
+		}
+		File pluginXML = new File(plugin, "plugin.xml");
+		Files.write(pluginXML.toPath(), "<plugin id=\"org.example.legacy\" version=\"1.0.0\"/>".getBytes(StandardCharsets.UTF_8));
+		long lastChange = 1000000000000L;
+		for (File file : new File[] { manifestFile, pluginXML, metaInf, plugin }) {
+			file.setLastModified(lastChange - 10000);
+		}
+
+		SiteEntry siteEntry = new SiteEntry(legacySite.toURI().toURL());
+		siteEntry.setConfig(new Configuration());
+		siteEntry.loadFromDisk(lastChange);
+		assertEquals("1.0.0", siteEntry.getAllPluginEntries()[0].getPluginVersion());
+
+		// editing plugin.xml does not change the modification time of the plugin directory
+		Files.write(pluginXML.toPath(), "<plugin id=\"org.example.legacy\" version=\"1.0.1\"/>".getBytes(StandardCharsets.UTF_8));
+		pluginXML.setLastModified(lastChange + 10000);
+		plugin.setLastModified(lastChange - 10000);
+		siteEntry.loadFromDisk(lastChange);
+		List<String> versions = new ArrayList<>();
+		for (PluginEntry entry : siteEntry.getAllPluginEntries()) {
+			versions.add(entry.getPluginVersion());
+		}
+		assertTrue(versions.toString(), versions.contains("1.0.1"));
+	}
+
+	static SiteEntry detect(File location) throws Exception {
+		SiteEntry siteEntry = new SiteEntry(location.toURI().toURL());
+		siteEntry.setConfig(new Configuration());
+		siteEntry.loadFromDisk(0);
+		return siteEntry;
+	}
+
+	static List<String> describePlugins(SiteEntry siteEntry) {
+		List<String> result = new ArrayList<>();
+		for (PluginEntry entry : siteEntry.getAllPluginEntries()) {
+			result.add(entry.getPluginIdentifier() + '_' + entry.getPluginVersion() + ' ' + entry.isFragment() + ' ' + entry.getURL());
+		}
+		// the plugins are detected in the order of the file system
+		return result;
+	}
+
+	static List<String> describeFeatures(SiteEntry siteEntry) {
+		List<String> result = new ArrayList<>();
+		for (FeatureEntry entry : siteEntry.getFeatureEntries()) {
+			result.add(entry.getFeatureIdentifier() + '_' + entry.getFeatureVersion() + ' ' + entry.getURL());
+		}
+		String[] sorted = result.toArray(new String[result.size()]);
+		Arrays.sort(sorted);
+		return Arrays.asList(sorted);
+	}
+}
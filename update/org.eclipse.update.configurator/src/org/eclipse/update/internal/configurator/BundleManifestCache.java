@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.update.internal.configurator;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Remembers the bundle manifests read while detecting the plugins of the sites, so
+ * that the manifests of the bundles that did not change since the last detection
+ * are not read again. A bundle is identified by the path of its jar or of its
+ * MANIFEST.MF, and is considered unchanged as long as the size and the modification
+ * time of that file are.
+ * <p>
+ * The cache is kept in the configuration area and read in a single read on startup.
+ * </p>
+ */
+public class BundleManifestCache {
+
+	private static final String CACHE_FILE = "manifests.cache"; //$NON-NLS-1$
+	private static final String CACHE_FILE_TEMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+	private static final int MAGIC = 0x55424d43;
+	private static final int FORMAT_VERSION = 1;
+
+	private static BundleManifestCache current;
+
+	private final File file;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private volatile boolean dirty;
+	private final AtomicInteger missCount = new AtomicInteger();
+
+	private static class Entry {
+		final long size;
+		final long lastModified;
+		final String id;
+		final String version;
+		final boolean isFragment;
+		volatile boolean used;
+
+		Entry(long size, long lastModified, String id, String version, boolean isFragment) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.id = id;
+			this.version = version;
+			this.isFragment = isFragment;
+		}
+	}
+
+	private BundleManifestCache(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Loads the cache of the given configuration area. Nothing is cached when the
+	 * configuration area is not on the local file system.
+	 *
+	 * @param configLocation the configuration area
+	 */
+	public static synchronized void startup(URL configLocation) {
+		current = null;
+		if (configLocation == null || !"file".equals(configLocation.getProtocol())) //$NON-NLS-1$
+			return;
+		File dir = new File(configLocation.getFile().replace('/', File.separatorChar), ConfigurationActivator.NAME_SPACE);
+		current = new BundleManifestCache(new File(dir, CACHE_FILE));
+		current.load();
+	}
+
+	/**
+	 * Saves the current cache if it has changed and discards it.
+	 */
+	public static synchronized void shutdown() {
+		save();
+		current = null;
+	}
+
+	/**
+	 * Saves the current cache if it has changed.
+	 */
+	public static synchronized void save() {
+		if (current != null && current.dirty)
+			current.store();
+	}
+
+	/**
+	 * @return the current cache, or <code>null</code> if manifests are not cached
+	 */
+	public static BundleManifestCache getCurrent() {
+		return current;
+	}
+
+	/**
+	 * Returns the plugin of an unchanged bundle.
+	 *
+	 * @param manifestFile the jar or the MANIFEST.MF of the bundle
+	 * @param size the size of the file
+	 * @param lastModified the modification time of the file
+	 * @param url the url of the plugin, relative to the site
+	 * @return the plugin, or <code>null</code> if the bundle is not cached or has changed
+	 */
+	public PluginEntry get(File manifestFile, long size, long lastModified, String url) {
+		Entry entry = entries.get(manifestFile.getAbsolutePath());
+		if (entry == null || entry.size != size || entry.lastModified != lastModified) {
+			missCount.incrementAndGet();
+			return null;
+		}
+		entry.used = true;
+		PluginEntry plugin = new PluginEntry();
+		plugin.setPluginIdentifier(entry.id);
+		plugin.setPluginVersion(entry.version);
+		plugin.isFragment(entry.isFragment);
+		plugin.setURL(url);
+		return plugin;
+	}
+
+	/**
+	 * @return the number of lookups of bundles that were not cached or had changed,
+	 *         that is the number of manifests read since the cache was loaded
+	 */
+	public int getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * Remembers the plugin read from the manifest of a bundle. The size and the
+	 * modification time must have been read before the manifest, so that a bundle
+	 * changed while it is read is read again next time.
+	 *
+	 * @param manifestFile the jar or the MANIFEST.MF of the bundle
+	 * @param size the size of the file
+	 * @param lastModified the modification time of the file
+	 * @param plugin the plugin read from the manifest
+	 */
+	public void put(File manifestFile, long size, long lastModified, PluginEntry plugin) {
+		if (lastModified == 0 || plugin.getPluginIdentifier() == null || plugin.getPluginVersion() == null)
+			return;
+		Entry entry = new Entry(size, lastModified, plugin.getPluginIdentifier(), plugin.getPluginVersion(), plugin.isFragment());
+		entry.used = true;
+		entries.put(manifestFile.getAbsolutePath(), entry);
+		dirty = true;
+	}
+
+	private void load() {
+		if (!file.isFile())
+			return;
+		try {
+			byte[] bytes = Files.readAllBytes(file.toPath());
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION)
+				return;
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String path = in.readUTF();
+				entries.put(path, new Entry(in.readLong(), in.readLong(), in.readUTF(), in.readUTF(), in.readBoolean()));
+			}
+		} catch (IOException e) {
+			// a corrupted cache is the same as no cache
+			entries.clear();
+			Utils.debug("Unable to read bundle manifest cache " + e.toString()); //$NON-NLS-1$
+		}
+	}
+
+	private void store() {
+		// forget the bundles that have been removed since they were cached
+		for (Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<String, Entry> entry = it.next();
+			if (!entry.getValue().used && !new File(entry.getKey()).exists())
+				it.remove();
+		}
+		// bundles cached while saving are saved next time
+		dirty = false;
+		Map<String, Entry> snapshot = new HashMap<>(entries);
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(snapshot.size() * 128);
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(snapshot.size());
+			for (Map.Entry<String, Entry> mapEntry : snapshot.entrySet()) {
+				Entry entry = mapEntry.getValue();
+				out.writeUTF(mapEntry.getKey());
+				out.writeLong(entry.size);
+				out.writeLong(entry.lastModified);
+				out.writeUTF(entry.id);
+				out.writeUTF(entry.version);
+				out.writeBoolean(entry.isFragment);
+			}
+			out.flush();
+
+			File dir = file.getParentFile();
+			if (dir != null && !dir.exists())
+				dir.mkdirs();
+			File tmp = new File(file.getAbsolutePath() + CACHE_FILE_TEMP_SUFFIX);
+			Files.write(tmp.toPath(), bytes.toByteArray());
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			// the configuration area may be read-only, the manifests will be read again
+			Utils.debug("Unable to save bundle manifest cache " + e.toString()); //$NON-NLS-1$
+		}
+	}
+}
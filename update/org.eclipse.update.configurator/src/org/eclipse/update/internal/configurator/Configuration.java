@@ -15,6 +15,7 @@
 package org.eclipse.update.internal.configurator;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.net.*;
 import java.util.ArrayList;
 import java.util.Date;
@@ -22,7 +23,6 @@ import java.util.HashMap;
 
 import org.eclipse.core.runtime.*;
 import org.eclipse.update.configurator.*;
-import org.w3c.dom.*;
 
 public class Configuration implements IConfigurationConstants {
 	
@@ -145,33 +145,30 @@ public class Configuration implements IConfigurationConstants {
 		return combinedSites.toArray(new SiteEntry[combinedSites.size()]);
 	}
 	
-	public Element toXML(Document doc) throws CoreException {	
-		try {
-			Element configElement = doc.createElement(CFG);
+	/**
+	 * Writes the config element, attributes in alphabetical order as platform.xml
+	 * has always been written
+	 */
+	public void toXML(Writer xmlWriter) throws IOException {
+		XMLPrintHandler.printStartElement(xmlWriter, CFG);
+		XMLPrintHandler.printAttribute(xmlWriter, CFG_DATE, String.valueOf(date.getTime()));
+		if (linkedConfig != null) {
+			// make externalized URL install relative 
+			XMLPrintHandler.printAttribute(xmlWriter, CFG_SHARED_URL, Utils.makeRelative(getInstallURL(), linkedConfig.getURL()).toExternalForm());
+		}
+		String transitory = isTransient() ? "true" : "false"; //$NON-NLS-1$ //$NON-NLS-2$
+		XMLPrintHandler.printAttribute(xmlWriter, CFG_TRANSIENT, transitory);
+		XMLPrintHandler.printAttribute(xmlWriter, CFG_VERSION, VERSION);
+		XMLPrintHandler.printEndAttributes(xmlWriter);
 
-			configElement.setAttribute(CFG_VERSION, VERSION);
-			configElement.setAttribute(CFG_DATE, String.valueOf(date.getTime()));
-			String transitory = isTransient() ? "true" : "false"; //$NON-NLS-1$ //$NON-NLS-2$
-			configElement.setAttribute(CFG_TRANSIENT, transitory);
-						
-			if (linkedConfig != null) {
-				// make externalized URL install relative 
-				configElement.setAttribute(CFG_SHARED_URL, Utils.makeRelative(getInstallURL(), linkedConfig.getURL()).toExternalForm());
-			}
+		// collect site entries
+		for (SiteEntry element : sites.values()) {
+			if (linkedConfig != null && linkedConfig.getSiteEntry(element.getURL().toExternalForm()) != null)
+				continue;
+			element.toXML(xmlWriter);
+		}
 
-			// collect site entries
-			for (SiteEntry element : sites.values()) {
-				if (linkedConfig != null && linkedConfig.getSiteEntry(element.getURL().toExternalForm()) != null)
-					continue;
-				Element siteElement = element.toXML(doc);
-				configElement.appendChild(siteElement);
-			}
-			
-			return configElement;
-			
-		} catch (Exception e) {
-			throw Utils.newCoreException("", e); //$NON-NLS-1$
-		} 
+		XMLPrintHandler.printEndElement(xmlWriter, CFG);
 	}
 	
 	public boolean isTransient() {
@@ -0,0 +1,461 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.update.internal.configurator;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.*;
+
+/**
+ * The history of platform.xml. Every save moves the previous platform.xml into the
+ * history directory as <code>&lt;timestamp&gt;.xml</code>.
+ * <p>
+ * The most recent snapshots are kept as files. Older snapshots are compacted in the
+ * background into a single compressed archive, and dropped once they exceed the
+ * retention limits on count, age and size. An index file lists the snapshots from
+ * the oldest to the newest, so that the recovery finds the newest snapshot without
+ * listing the directory.
+ * </p>
+ */
+public class ConfigurationHistory {
+
+	/**
+	 * The framework or system property limiting the number of snapshots kept
+	 */
+	public static final String PROP_MAX_COUNT = "org.eclipse.update.configurator.history.maxCount"; //$NON-NLS-1$
+	/**
+	 * The framework or system property limiting the age of the snapshots kept, in days, 0 for no limit
+	 */
+	public static final String PROP_MAX_AGE = "org.eclipse.update.configurator.history.maxAge"; //$NON-NLS-1$
+	/**
+	 * The framework or system property limiting the total size of the snapshots kept, in kilobytes
+	 */
+	public static final String PROP_MAX_SIZE = "org.eclipse.update.configurator.history.maxSize"; //$NON-NLS-1$
+
+	private static final int DEFAULT_MAX_COUNT = 100;
+	private static final int DEFAULT_MAX_AGE = 0;
+	private static final int DEFAULT_MAX_SIZE = 10 * 1024;
+	// the newest snapshots stay files and are never dropped
+	private static final int LOOSE_SNAPSHOTS = 5;
+	// compact once there are that many files
+	private static final int COMPACTION_THRESHOLD = 2 * LOOSE_SNAPSHOTS;
+
+	private static final String INDEX_FILE = "history.index"; //$NON-NLS-1$
+	private static final String ARCHIVE_FILE = "history.zip"; //$NON-NLS-1$
+	private static final String TEMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+	private static final String SNAPSHOT_SUFFIX = ".xml"; //$NON-NLS-1$
+	private static final String INDEX_HEADER = "# platform.xml history 1"; //$NON-NLS-1$
+	private static final char LOOSE = 'F';
+	private static final char ARCHIVED = 'A';
+
+	/**
+	 * A saved platform.xml
+	 */
+	public static class Snapshot {
+		final long timestamp;
+		final long size;
+		boolean archived;
+
+		Snapshot(long timestamp, long size, boolean archived) {
+			this.timestamp = timestamp;
+			this.size = size;
+			this.archived = archived;
+		}
+
+		/**
+		 * @return the time the platform.xml of this snapshot was saved
+		 */
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		String getName() {
+			return timestamp + SNAPSHOT_SUFFIX;
+		}
+	}
+
+	private final File dir;
+	// oldest first
+	private List<Snapshot> snapshots;
+	private Thread compactor;
+	private boolean compacting;
+
+	public ConfigurationHistory(File dir) {
+		this.dir = dir;
+	}
+
+	public File getDirectory() {
+		return dir;
+	}
+
+	/**
+	 * Moves the given platform.xml into the history.
+	 *
+	 * @param config the platform.xml to preserve
+	 * @return <code>false</code> if the file could not be moved
+	 */
+	public synchronized boolean add(File config) {
+		ensureLoaded();
+		if (!dir.exists())
+			dir.mkdir();
+		long timestamp = config.lastModified();
+		long size = config.length();
+		// If the target file exists, increment the timestamp. Try at most 100 times.
+		long increment = 1;
+		while (exists(timestamp) && increment < 100)
+			timestamp = config.lastModified() + increment++;
+		if (exists(timestamp) || !config.renameTo(new File(dir, timestamp + SNAPSHOT_SUFFIX)))
+			return false;
+		Snapshot snapshot = new Snapshot(timestamp, size, false);
+		int i = snapshots.size();
+		while (i > 0 && snapshots.get(i - 1).timestamp > timestamp)
+			i--;
+		snapshots.add(i, snapshot);
+		writeIndex();
+		if (countLoose() >= COMPACTION_THRESHOLD)
+			scheduleCompaction();
+		return true;
+	}
+
+	/**
+	 * @return the snapshots, newest first
+	 */
+	public synchronized List<Snapshot> getSnapshots() {
+		ensureLoaded();
+		List<Snapshot> result = new ArrayList<>(snapshots);
+		Collections.reverse(result);
+		return result;
+	}
+
+	/**
+	 * Opens a snapshot for reading. The snapshot is read into memory, so that the archive is not
+	 * kept open.
+	 *
+	 * @param snapshot a snapshot of {@link #getSnapshots()}
+	 * @return the contents of the snapshot
+	 * @throws IOException if the snapshot is missing or has not the size it was saved with
+	 */
+	public synchronized InputStream open(Snapshot snapshot) throws IOException {
+		return new ByteArrayInputStream(read(snapshot));
+	}
+
+	/**
+	 * Waits for the running compaction, if any.
+	 */
+	public void join() throws InterruptedException {
+		Thread thread;
+		synchronized (this) {
+			thread = compactor;
+		}
+		if (thread != null)
+			thread.join();
+	}
+
+	private byte[] read(Snapshot snapshot) throws IOException {
+		byte[] bytes;
+		if (snapshot.archived) {
+			try (ZipFile archive = new ZipFile(new File(dir, ARCHIVE_FILE))) {
+				ZipEntry entry = archive.getEntry(snapshot.getName());
+				if (entry == null)
+					throw new FileNotFoundException(snapshot.getName());
+				bytes = readAll(archive.getInputStream(entry));
+			}
+		} else {
+			bytes = Files.readAllBytes(new File(dir, snapshot.getName()).toPath());
+		}
+		if (bytes.length != snapshot.size)
+			throw new IOException(snapshot.getName());
+		return bytes;
+	}
+
+	private boolean exists(long timestamp) {
+		for (Snapshot snapshot : snapshots) {
+			if (snapshot.timestamp == timestamp)
+				return true;
+		}
+		return new File(dir, timestamp + SNAPSHOT_SUFFIX).exists();
+	}
+
+	private int countLoose() {
+		int count = 0;
+		for (Snapshot snapshot : snapshots) {
+			if (!snapshot.archived)
+				count++;
+		}
+		return count;
+	}
+
+	private void scheduleCompaction() {
+		if (compactor != null)
+			return;
+		compactor = new Thread(() -> {
+			try {
+				compact();
+			} finally {
+				synchronized (ConfigurationHistory.this) {
+					compactor = null;
+				}
+			}
+		}, "Configuration history compaction"); //$NON-NLS-1$
+		compactor.setDaemon(true);
+		compactor.start();
+	}
+
+	/**
+	 * Applies the retention limits and moves all but the newest snapshots into the archive.
+	 * The archive is written without holding the lock of the history, and replaced together
+	 * with the index under the lock. Snapshots that can no longer be read are dropped.
+	 */
+	void compact() {
+		List<Snapshot> dropped = new ArrayList<>();
+		List<Snapshot> archived;
+		synchronized (this) {
+			if (compacting)
+				return;
+			ensureLoaded();
+			int maxCount = Math.max(getLimit(PROP_MAX_COUNT, DEFAULT_MAX_COUNT), LOOSE_SNAPSHOTS);
+			long maxAge = TimeUnit.DAYS.toMillis(getLimit(PROP_MAX_AGE, DEFAULT_MAX_AGE));
+			long maxSize = getLimit(PROP_MAX_SIZE, DEFAULT_MAX_SIZE) * 1024L;
+			long now = System.currentTimeMillis();
+
+			// walk from the newest to the oldest snapshot
+			List<Snapshot> kept = new ArrayList<>();
+			long size = 0;
+			for (int i = snapshots.size() - 1; i >= 0; i--) {
+				Snapshot snapshot = snapshots.get(i);
+				size += snapshot.size;
+				boolean keep = kept.size() < LOOSE_SNAPSHOTS || (kept.size() < maxCount
+						&& (maxAge <= 0 || now - snapshot.timestamp <= maxAge)
+						&& (maxSize <= 0 || size <= maxSize));
+				(keep ? kept : dropped).add(snapshot);
+			}
+			Collections.reverse(kept);
+			archived = new ArrayList<>(kept.subList(0, kept.size() - Math.min(kept.size(), LOOSE_SNAPSHOTS)));
+
+			boolean rewrite = !dropped.isEmpty();
+			for (Snapshot snapshot : archived)
+				rewrite |= !snapshot.archived;
+			if (!rewrite)
+				return;
+			compacting = true;
+		}
+		try {
+			// only a compaction replaces the archive or deletes files, so both can be read unlocked
+			File archiveFile = new File(dir, ARCHIVE_FILE);
+			File tmp = new File(dir, ARCHIVE_FILE + TEMP_SUFFIX);
+			List<Snapshot> unreadable = new ArrayList<>();
+			boolean written;
+			try {
+				written = writeArchive(tmp, archived, unreadable);
+			} catch (IOException e) {
+				// keep the history as it is, compaction is tried again on the next save
+				tmp.delete();
+				Utils.debug("Unable to compact configuration history " + e.toString()); //$NON-NLS-1$
+				return;
+			}
+
+			synchronized (this) {
+				try {
+					if (written)
+						Files.move(tmp.toPath(), archiveFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+					else
+						Files.deleteIfExists(archiveFile.toPath());
+				} catch (IOException e) {
+					tmp.delete();
+					Utils.debug("Unable to compact configuration history " + e.toString()); //$NON-NLS-1$
+					return;
+				}
+
+				// the archive is in place, the index can drop the files
+				dropped.addAll(unreadable);
+				archived.removeAll(unreadable);
+				List<File> obsolete = new ArrayList<>();
+				for (Snapshot snapshot : dropped) {
+					if (!snapshot.archived)
+						obsolete.add(new File(dir, snapshot.getName()));
+				}
+				for (Snapshot snapshot : archived) {
+					if (!snapshot.archived)
+						obsolete.add(new File(dir, snapshot.getName()));
+					snapshot.archived = true;
+				}
+				// snapshots added meanwhile are newer and stay in the index
+				snapshots.removeAll(dropped);
+				writeIndex();
+				for (File file : obsolete)
+					file.delete();
+			}
+		} finally {
+			synchronized (this) {
+				compacting = false;
+			}
+		}
+	}
+
+	/**
+	 * Writes the given snapshots into a new archive, skipping the snapshots that cannot be read.
+	 *
+	 * @param tmp the new archive
+	 * @param archived the snapshots to archive
+	 * @param unreadable collects the snapshots that could not be read
+	 * @return <code>false</code> if no snapshot could be read and no archive has been written
+	 * @throws IOException if the new archive cannot be written
+	 */
+	private boolean writeArchive(File tmp, List<Snapshot> archived, List<Snapshot> unreadable) throws IOException {
+		ZipOutputStream out = null;
+		try {
+			for (Snapshot snapshot : archived) {
+				byte[] bytes;
+				try {
+					bytes = read(snapshot);
+				} catch (IOException e) {
+					// the archive or the file is gone, or has been modified
+					unreadable.add(snapshot);
+					Utils.debug("Dropping unreadable configuration history snapshot " + e.toString()); //$NON-NLS-1$
+					continue;
+				}
+				if (out == null)
+					out = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+				out.putNextEntry(new ZipEntry(snapshot.getName()));
+				out.write(bytes);
+				out.closeEntry();
+			}
+		} finally {
+			if (out != null)
+				out.close();
+		}
+		return out != null;
+	}
+
+	private void ensureLoaded() {
+		if (snapshots != null)
+			return;
+		snapshots = readIndex();
+		if (snapshots == null) {
+			// no index yet, or an unreadable one
+			snapshots = scan();
+			if (!snapshots.isEmpty())
+				writeIndex();
+		}
+		if (countLoose() >= COMPACTION_THRESHOLD)
+			scheduleCompaction();
+	}
+
+	private List<Snapshot> readIndex() {
+		File index = new File(dir, INDEX_FILE);
+		if (!index.isFile())
+			return null;
+		try {
+			List<String> lines = Files.readAllLines(index.toPath(), StandardCharsets.UTF_8);
+			if (lines.isEmpty() || !INDEX_HEADER.equals(lines.get(0)))
+				return null;
+			List<Snapshot> result = new ArrayList<>(lines.size());
+			for (String line : lines.subList(1, lines.size())) {
+				// <timestamp> <size> <F|A>
+				String[] fields = line.split(" "); //$NON-NLS-1$
+				if (fields.length != 3 || fields[2].length() != 1)
+					return null;
+				result.add(new Snapshot(Long.parseLong(fields[0]), Long.parseLong(fields[1]), fields[2].charAt(0) == ARCHIVED));
+			}
+			return result;
+		} catch (IOException | NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private void writeIndex() {
+		StringBuilder sb = new StringBuilder(INDEX_HEADER).append('\n');
+		for (Snapshot snapshot : snapshots)
+			sb.append(snapshot.timestamp).append(' ').append(snapshot.size).append(' ').append(snapshot.archived ? ARCHIVED : LOOSE).append('\n');
+		File index = new File(dir, INDEX_FILE);
+		File tmp = new File(dir, INDEX_FILE + TEMP_SUFFIX);
+		try {
+			Files.write(tmp.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+			Files.move(tmp.toPath(), index.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			// the index is rebuilt from the directory next time
+			index.delete();
+			Utils.debug("Unable to save configuration history index " + e.toString()); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Rebuilds the snapshots from the files and the archive of the directory.
+	 */
+	private List<Snapshot> scan() {
+		Map<Long, Snapshot> result = new TreeMap<>();
+		File archiveFile = new File(dir, ARCHIVE_FILE);
+		if (archiveFile.isFile()) {
+			try (ZipFile archive = new ZipFile(archiveFile)) {
+				for (Enumeration<? extends ZipEntry> entries = archive.entries(); entries.hasMoreElements();) {
+					ZipEntry entry = entries.nextElement();
+					long timestamp = getTimestamp(entry.getName());
+					if (timestamp >= 0 && entry.getSize() >= 0)
+						result.put(timestamp, new Snapshot(timestamp, entry.getSize(), true));
+				}
+			} catch (IOException e) {
+				Utils.debug("Unable to read configuration history archive " + e.toString()); //$NON-NLS-1$
+			}
+		}
+		File[] files = dir.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				long timestamp = getTimestamp(file.getName());
+				// a file wins over an archived copy left by an interrupted compaction
+				if (timestamp >= 0 && file.isFile())
+					result.put(timestamp, new Snapshot(timestamp, file.length(), false));
+			}
+		}
+		return new ArrayList<>(result.values());
+	}
+
+	private static long getTimestamp(String name) {
+		if (!name.endsWith(SNAPSHOT_SUFFIX))
+			return -1;
+		try {
+			return Long.parseLong(name.substring(0, name.length() - SNAPSHOT_SUFFIX.length()));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private static int getLimit(String key, int defaultValue) {
+		String value = Utils.getProperty(key);
+		if (value == null)
+			return defaultValue;
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+		try (InputStream input = in) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			copy(input, out);
+			return out.toByteArray();
+		}
+	}
+
+	private static void copy(InputStream in, OutputStream out) throws IOException {
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = in.read(buffer)) != -1)
+			out.write(buffer, 0, read);
+	}
+}
@@ -41,7 +41,7 @@ import org.xml.sax.helpers.DefaultHandler;
 
 public class ConfigurationParser extends DefaultHandler implements IConfigurationConstants {
 	
-	private static final String URL_PROPERTY = "org.eclipse.update.resolution_url"; //$NON-NLS-1$
+	static final String URL_PROPERTY = "org.eclipse.update.resolution_url"; //$NON-NLS-1$
 	private static final String EMPTY_STRING = ""; //$NON-NLS-1$
 	private final static SAXParserFactory parserFactory =
 		SAXParserFactory.newInstance();
@@ -105,6 +105,28 @@ public class ConfigurationParser extends DefaultHandler implements IConfiguratio
 		}
 	}
 
+	/**
+	 * Parses a configuration read from a stream, such as a snapshot of the history.
+	 * 
+	 * @param in the configuration, closed by the caller
+	 * @param url the url of the configuration the stream stands for
+	 * @param installLocation the install location
+	 * @return the configuration
+	 */
+	public Configuration parse(InputStream in, URL url, URL installLocation) throws Exception {
+		Utils.debug("Start parsing Configuration:" + url); //$NON-NLS-1$	
+		configURL = url;
+		this.installLocation = installLocation;
+		config = null;
+		try {
+			parser.parse(new InputSource(in), this);
+			return config;
+		} catch (Exception e) {
+			Utils.log(Utils.newStatus("ConfigurationParser.parse() error:", e)); //$NON-NLS-1$
+			throw e;
+		}
+	}
+
 	@Override
 	public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
 
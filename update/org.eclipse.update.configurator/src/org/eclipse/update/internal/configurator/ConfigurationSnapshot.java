@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.update.internal.configurator;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Date;
+import java.util.StringTokenizer;
+
+import org.eclipse.update.configurator.IPlatformConfiguration.ISitePolicy;
+
+/**
+ * A binary snapshot of the configuration resolved out of platform.xml, written next
+ * to platform.xml each time the configuration is saved. Besides the sites and their
+ * features, the snapshot holds the plugins detected on the sites, so that a warm
+ * startup neither parses platform.xml nor detects the plugins again.
+ * <p>
+ * The snapshot is used only as long as platform.xml, the features and plugins
+ * directories of the sites and each of the plugins are unchanged since it was written.
+ * Otherwise the configuration is read from platform.xml as usual.
+ * </p>
+ */
+public class ConfigurationSnapshot implements IConfigurationConstants {
+
+	/**
+	 * Property set to <code>false</code> to neither read nor write the snapshot
+	 */
+	public static final String PROP_SNAPSHOT = "org.eclipse.update.configurator.snapshot"; //$NON-NLS-1$
+
+	private static final String SNAPSHOT_SUFFIX = ".snapshot"; //$NON-NLS-1$
+	private static final String SNAPSHOT_TEMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+	private static final int MAGIC = 0x55435353;
+	private static final int FORMAT_VERSION = 1;
+
+	private ConfigurationSnapshot() {
+		// only static methods
+	}
+
+	/**
+	 * @return whether the configuration is read from and written to snapshots
+	 */
+	public static boolean isEnabled() {
+		return !"false".equalsIgnoreCase(Utils.getProperty(PROP_SNAPSHOT)); //$NON-NLS-1$
+	}
+
+	/**
+	 * @param platformXML the platform.xml file
+	 * @return the snapshot of the configuration saved in the file
+	 */
+	public static File getFile(File platformXML) {
+		return new File(platformXML.getPath() + SNAPSHOT_SUFFIX);
+	}
+
+	/**
+	 * Deletes the snapshot of the configuration saved in the given file.
+	 */
+	static void delete(File platformXML) {
+		File file = getFile(platformXML);
+		if (file.exists() && !file.delete())
+			Utils.debug("Unable to delete configuration snapshot " + file); //$NON-NLS-1$
+	}
+
+	/**
+	 * Writes the snapshot of a configuration that has just been saved. The plugins of
+	 * the sites are detected again, so that the snapshot holds the plugins as they are
+	 * on disk.
+	 *
+	 * @param config the configuration
+	 * @param platformXML the file the configuration has been saved to
+	 */
+	static void write(Configuration config, File platformXML) {
+		File file = getFile(platformXML);
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeLong(platformXML.lastModified());
+			out.writeLong(platformXML.length());
+			writeString(out, config.getInstallURL() == null ? null : config.getInstallURL().toExternalForm());
+			out.writeLong(config.getDate().getTime());
+			out.writeBoolean(config.isTransient());
+			SiteEntry[] sites = config.getSites();
+			out.writeInt(sites.length);
+			for (SiteEntry site : sites)
+				writeSite(out, config, site);
+			out.flush();
+
+			File tmp = new File(file.getAbsolutePath() + SNAPSHOT_TEMP_SUFFIX);
+			Files.write(tmp.toPath(), bytes.toByteArray());
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			// the configuration will be read from platform.xml
+			Utils.debug("Unable to save configuration snapshot " + e.toString()); //$NON-NLS-1$
+			delete(platformXML);
+		}
+	}
+
+	/**
+	 * Writes a site, its features as they are read back from platform.xml and its plugins.
+	 */
+	private static void writeSite(DataOutputStream out, Configuration config, SiteEntry site) throws IOException {
+		URL url = config.isTransient() ? site.getURL() : Utils.makeRelative(Utils.getInstallURL(), site.getURL());
+		out.writeUTF(url.toString());
+		ISitePolicy policy = site.getSitePolicy();
+		out.writeInt(policy.getType());
+		writeString(out, policy.getList().length > 0 ? String.join(",", policy.getList()) : null); //$NON-NLS-1$
+		out.writeBoolean(site.isUpdateable());
+		out.writeBoolean(site.isEnabled());
+		writeString(out, site.isExternallyLinkedSite() ? site.getLinkFileName().trim().replace(File.separatorChar, '/') : null);
+
+		// the stamps are read before the plugins are detected, so that a plugin changed meanwhile invalidates the snapshot
+		out.writeLong(site.readFeaturesChangeStamp());
+		out.writeLong(site.readPluginsChangeStamp());
+
+		FeatureEntry[] features = site.getFeatureEntries();
+		out.writeInt(features.length);
+		for (FeatureEntry feature : features) {
+			String id = feature.getFeatureIdentifier();
+			String version = feature.getFeatureVersion();
+			String pluginIdentifier = feature.getFeaturePluginIdentifier();
+			String pluginVersion = feature.getFeaturePluginVersion();
+			out.writeUTF(id);
+			writeString(out, version);
+			writeString(out, id.equals(pluginIdentifier) ? null : pluginIdentifier);
+			writeString(out, pluginVersion != null ? pluginVersion : version);
+			out.writeBoolean(feature.canBePrimary());
+			writeString(out, feature.getFeatureApplication());
+			writeString(out, feature.getURL() == null ? null : Utils.makeRelative(config.getInstallURL(), feature.getURL()));
+		}
+
+		File root = new File(site.getResolvedURL().getFile().replace('/', File.separatorChar));
+		PluginEntry[] plugins = site.readPluginEntries();
+		out.writeInt(plugins.length);
+		for (PluginEntry plugin : plugins) {
+			writeString(out, plugin.getPluginIdentifier());
+			writeString(out, plugin.getPluginVersion());
+			out.writeBoolean(plugin.isFragment());
+			writeString(out, plugin.getURL());
+			out.writeLong(getStamp(root, plugin.getURL()));
+		}
+	}
+
+	/**
+	 * Reads the snapshot of the configuration saved in the given file.
+	 *
+	 * @param platformXML the platform.xml file
+	 * @param url the url of the configuration
+	 * @param installLocation the install location of the configuration
+	 * @return the configuration, or <code>null</code> if there is no snapshot or it is out of date
+	 */
+	public static Configuration read(File platformXML, URL url, URL installLocation) {
+		File file = getFile(platformXML);
+		if (!file.isFile())
+			return null;
+		try {
+			DataInputStream in = new DataInputStream(new ByteBufferInputStream(map(file)));
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION)
+				return null;
+			long lastModified = platformXML.lastModified();
+			if (in.readLong() != lastModified || in.readLong() != platformXML.length())
+				return null;
+			String installURL = readString(in);
+			if (installURL == null ? installLocation != null : installLocation == null || !installURL.equals(installLocation.toExternalForm()))
+				return null;
+
+			Configuration config = new Configuration(new Date(in.readLong()));
+			config.setURL(url);
+			config.setInstallLocation(installLocation);
+			config.setTransient(in.readBoolean());
+
+			// site urls are made absolute as when read from platform.xml
+			String property = System.getProperty(ConfigurationParser.URL_PROPERTY, ""); //$NON-NLS-1$
+			URL root = property.length() == 0 ? Utils.getInstallURL() : new URL(property);
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				if (!readSite(in, config, root))
+					return null;
+			}
+			config.setLastModified(lastModified);
+			return config;
+		} catch (IOException | RuntimeException e) {
+			// a corrupted snapshot is the same as no snapshot
+			Utils.debug("Unable to read configuration snapshot " + e.toString()); //$NON-NLS-1$
+			return null;
+		}
+	}
+
+	/**
+	 * Reads a site into the configuration.
+	 *
+	 * @return <code>false</code> if the site has changed since the snapshot was written
+	 */
+	private static boolean readSite(DataInputStream in, Configuration config, URL root) throws IOException {
+		URL url = Utils.makeAbsolute(root, new URL(in.readUTF()));
+		int type = in.readInt();
+		String list = readString(in);
+		String[] policyList = null;
+		if (list != null) {
+			StringTokenizer st = new StringTokenizer(list, ","); //$NON-NLS-1$
+			policyList = new String[st.countTokens()];
+			for (int i = 0; i < policyList.length; i++)
+				policyList[i] = st.nextToken();
+		}
+		SiteEntry site = new SiteEntry(url, new SitePolicy(type, policyList));
+		site.setUpdateable(in.readBoolean());
+		site.setEnabled(in.readBoolean());
+		String linkFileName = readString(in);
+		if (linkFileName != null && !linkFileName.isEmpty())
+			site.setLinkFileName(linkFileName.replace('/', File.separatorChar));
+		long featuresStamp = in.readLong();
+		long pluginsStamp = in.readLong();
+
+		config.addSiteEntry(site.getURL().toExternalForm(), site);
+		if (config.getSiteEntry(site.getURL().toExternalForm()) != site)
+			return false;
+		URL resolvedURL = site.getResolvedURL();
+		if (!PlatformConfiguration.supportsDetection(resolvedURL, config.getInstallURL()))
+			return false;
+		File siteRoot = new File(resolvedURL.getFile().replace('/', File.separatorChar));
+		if (!siteRoot.exists())
+			return false;
+
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			String id = in.readUTF();
+			String version = readString(in);
+			String pluginIdentifier = readString(in);
+			String pluginVersion = readString(in);
+			boolean primary = in.readBoolean();
+			String application = readString(in);
+			String featureURL = readString(in);
+			FeatureEntry feature = new FeatureEntry(id, version, pluginIdentifier, pluginVersion, primary, application, new URL[0]);
+			if (featureURL != null && featureURL.trim().length() > 0)
+				feature.setURL(featureURL);
+			site.addFeatureEntry(feature);
+		}
+		site.initialized();
+
+		count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			PluginEntry plugin = new PluginEntry();
+			plugin.setPluginIdentifier(readString(in));
+			plugin.setPluginVersion(readString(in));
+			plugin.isFragment(in.readBoolean());
+			plugin.setURL(readString(in));
+			if (in.readLong() != getStamp(siteRoot, plugin.getURL()))
+				return false;
+			site.addPluginEntry(plugin);
+		}
+
+		// the site is reconciled on startup when it changed after the configuration was saved,
+		// which starts from the plugins detected out of platform.xml
+		if (site.getFeaturesChangeStamp() != featuresStamp || site.getPluginsChangeStamp() != pluginsStamp)
+			return false;
+		return site.getChangeStamp() <= config.getDate().getTime();
+	}
+
+	/**
+	 * @return the modification time of the jar of a plugin, or of its directory and manifest
+	 */
+	private static long getStamp(File siteRoot, String url) {
+		if (url == null)
+			return 0;
+		File file = new File(siteRoot, url);
+		if (!url.endsWith("/")) //$NON-NLS-1$
+			return file.lastModified();
+		long manifestStamp = new File(file, META_MANIFEST_MF).lastModified();
+		if (manifestStamp == 0)
+			manifestStamp = Math.max(new File(file, PLUGIN_XML).lastModified(), new File(file, FRAGMENT_XML).lastModified());
+		return Math.max(file.lastModified(), manifestStamp);
+	}
+
+	/**
+	 * Maps the snapshot in memory. On Windows a mapped file cannot be replaced as long
+	 * as the mapping is not collected, so the snapshot is read in a single read instead.
+	 */
+	private static ByteBuffer map(File file) throws IOException {
+		if (Utils.isWindows)
+			return ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null)
+			out.writeUTF(value);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	private static class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if (length == 0)
+				return 0;
+			if (!buffer.hasRemaining())
+				return -1;
+			length = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, length);
+			return length;
+		}
+	}
+}
@@ -13,6 +13,8 @@
  *******************************************************************************/
 package org.eclipse.update.internal.configurator;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.net.*;
 import java.util.ArrayList;
 import java.util.MissingResourceException;
@@ -22,7 +24,6 @@ import org.eclipse.core.runtime.*;
 import org.eclipse.update.configurator.*;
 import org.eclipse.update.internal.configurator.branding.*;
 import org.osgi.framework.*;
-import org.w3c.dom.*;
 
 
 /**
@@ -141,38 +142,44 @@ public class FeatureEntry
 		return primary;
 	}
 
-	public Element toXML(Document doc) {
+	/**
+	 * Writes the feature element, attributes in alphabetical order as platform.xml
+	 * has always been written
+	 */
+	public void toXML(Writer xmlWriter) throws IOException {
 		URL installURL = getSite().getConfig().getInstallURL();	
 		
-		Element featureElement = doc.createElement(CFG_FEATURE_ENTRY);		
+		XMLPrintHandler.printStartElement(xmlWriter, CFG_FEATURE_ENTRY);		
 		// write out feature entry settings
+		if (application != null)
+			XMLPrintHandler.printAttribute(xmlWriter, CFG_FEATURE_ENTRY_APPLICATION, application);
 		if (id != null)
-			featureElement.setAttribute(CFG_FEATURE_ENTRY_ID, id); 
-		if (primary)
-			featureElement.setAttribute(CFG_FEATURE_ENTRY_PRIMARY, "true"); //$NON-NLS-1$
-		if (version != null)
-			featureElement.setAttribute(CFG_FEATURE_ENTRY_VERSION, version); 
-		if (pluginVersion != null && !pluginVersion.equals(version) && pluginVersion.length() > 0)
-			featureElement.setAttribute(CFG_FEATURE_ENTRY_PLUGIN_VERSION, pluginVersion); 
+			XMLPrintHandler.printAttribute(xmlWriter, CFG_FEATURE_ENTRY_ID, id); 
 		if (pluginIdentifier != null && !pluginIdentifier.equals(id) && pluginIdentifier.length() > 0)
-			featureElement.setAttribute(CFG_FEATURE_ENTRY_PLUGIN_IDENTIFIER, pluginIdentifier);
-		if (application != null)
-			featureElement.setAttribute(CFG_FEATURE_ENTRY_APPLICATION, application);
+			XMLPrintHandler.printAttribute(xmlWriter, CFG_FEATURE_ENTRY_PLUGIN_IDENTIFIER, pluginIdentifier);
+		if (pluginVersion != null && !pluginVersion.equals(version) && pluginVersion.length() > 0)
+			XMLPrintHandler.printAttribute(xmlWriter, CFG_FEATURE_ENTRY_PLUGIN_VERSION, pluginVersion); 
+		if (primary)
+			XMLPrintHandler.printAttribute(xmlWriter, CFG_FEATURE_ENTRY_PRIMARY, "true"); //$NON-NLS-1$
 		if (url != null)
 			// make externalized URL install relative
-			featureElement.setAttribute(CFG_URL, Utils.makeRelative(installURL, url));
+			XMLPrintHandler.printAttribute(xmlWriter, CFG_URL, Utils.makeRelative(installURL, url));
+		if (version != null)
+			XMLPrintHandler.printAttribute(xmlWriter, CFG_FEATURE_ENTRY_VERSION, version); 
+		XMLPrintHandler.printEndAttributes(xmlWriter);
 		
 		for (URL url : getFeatureRootURLs()) {
 			// make externalized URL install relative
 			String root = Utils.makeRelative(installURL, url).toExternalForm();
 			if (root.trim().length() > 0){
-				Element rootElement = doc.createElement(CFG_FEATURE_ENTRY_ROOT);
-				rootElement.appendChild(doc.createTextNode(root));
-				featureElement.appendChild(rootElement);
+				XMLPrintHandler.printStartElement(xmlWriter, CFG_FEATURE_ENTRY_ROOT);
+				XMLPrintHandler.printEndAttributes(xmlWriter);
+				XMLPrintHandler.printText(xmlWriter, root);
+				XMLPrintHandler.printEndElement(xmlWriter, CFG_FEATURE_ENTRY_ROOT);
 			}
 		}
 		
-		return featureElement;
+		XMLPrintHandler.printEndElement(xmlWriter, CFG_FEATURE_ENTRY);
 	}
 	
 	public void setDescription(String description) {
@@ -43,9 +43,12 @@ public class FeatureParser extends DefaultHandler {
 	 */
 	public FeatureParser() {
 		super();
+		// parsers are created concurrently when the site is detected in parallel
 		try {
-			parserFactory.setNamespaceAware(true);
-			this.parser = parserFactory.newSAXParser();
+			synchronized (parserFactory) {
+				parserFactory.setNamespaceAware(true);
+				this.parser = parserFactory.newSAXParser();
+			}
 		} catch (ParserConfigurationException e) {
 			System.out.println(e);
 		} catch (SAXException e) {
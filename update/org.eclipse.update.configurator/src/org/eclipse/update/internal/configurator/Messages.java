@@ -60,6 +60,4 @@ public final class Messages extends NLS {
 	static {
 		NLS.initializeMessages(BUNDLE_NAME, Messages.class);
 	}
-
-	public static String XMLPrintHandler_unsupportedNodeType;
 }
\ No newline at end of file
@@ -16,9 +16,9 @@ package org.eclipse.update.internal.configurator;
 
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileFilter;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.SyncFailedException;
@@ -34,17 +34,12 @@ import java.util.HashSet;
 import java.util.Properties;
 import java.util.Set;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.osgi.service.datalocation.Location;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.update.configurator.IPlatformConfiguration;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 
 /**
  * This class is responsible for providing the features and plugins (bundles) to
@@ -75,6 +70,7 @@ public class PlatformConfiguration implements IPlatformConfiguration, IConfigura
 	//PAL nio optional
 	//private FileLock lock;
 	private Locker lock = null;
+	private ConfigurationHistory history;
 	private static int defaultPolicy = DEFAULT_POLICY_TYPE;
 
 	private static final String CONFIG_HISTORY = "history"; //$NON-NLS-1$
@@ -529,21 +525,9 @@ public class PlatformConfiguration implements IPlatformConfiguration, IConfigura
 
 			// Backup old file
 			if (cfigFile.exists()) {
-				File backupDir = new File(workingDir, CONFIG_HISTORY);
-				if (!backupDir.exists())
-					backupDir.mkdir();
-				long timestamp = cfigFile.lastModified();
-				File preservedFile = new File(backupDir, String.valueOf(timestamp) + ".xml"); //$NON-NLS-1$
-				// If the target file exists, increment the timestamp. Try at most 100 times.
-				long increment = 1;
-				while (preservedFile.exists() && increment < 100) {
-					preservedFile = new File(backupDir, String.valueOf(timestamp + increment++) + ".xml"); //$NON-NLS-1$
-				}
-				if (!preservedFile.exists()) {
-					// try renaming current config to backup copy
-					if (!cfigFile.renameTo(preservedFile))
-						Utils.log(Messages.PlatformConfiguration_cannotBackupConfig);
-				}
+				// try moving current config to the history
+				if (!getHistory(workingDir).add(cfigFile))
+					Utils.log(Messages.PlatformConfiguration_cannotBackupConfig);
 			}
 
 			// first save the file as temp
@@ -588,6 +572,13 @@ public class PlatformConfiguration implements IPlatformConfiguration, IConfigura
 
 				throw new IOException(NLS.bind(Messages.cfig_unableToSave, (new String[] {cfigTmp.getAbsolutePath()})));
 			}
+
+			// the snapshot read on next startup instead of platform.xml, not kept
+			// for a linked configuration that must be read along with the shared one
+			if (config.getLinkedConfig() == null && ConfigurationSnapshot.isEnabled())
+				ConfigurationSnapshot.write(config, cfigFileOriginal);
+			else
+				ConfigurationSnapshot.delete(cfigFileOriginal);
 		}
 	}
 
@@ -603,6 +594,8 @@ public class PlatformConfiguration implements IPlatformConfiguration, IConfigura
 
 		// create current configuration
 		if (currentPlatformConfiguration == null) {
+			// the manifests of the bundles detected while reconciling the sites are cached
+			BundleManifestCache.startup(platformConfigLocation.getURL());
 			currentPlatformConfiguration = new PlatformConfiguration(platformConfigLocation);
 			if (currentPlatformConfiguration.config == null)
 				throw new Exception(Messages.PlatformConfiguration_cannotLoadConfig + platformConfigLocation.getURL());
@@ -611,6 +604,7 @@ public class PlatformConfiguration implements IPlatformConfiguration, IConfigura
 				// otherwise, save the configuration with proper date
 				if (!currentPlatformConfiguration.isTransient())
 					currentPlatformConfiguration.save();
+			BundleManifestCache.save();
 		}
 	}
 
@@ -629,6 +623,7 @@ public class PlatformConfiguration implements IPlatformConfiguration, IConfigura
 				}
 			}
 		}
+		BundleManifestCache.shutdown();
 	}
 
 	private synchronized void initializeCurrent(Location platformConfigLocation) throws IOException {
@@ -820,6 +815,17 @@ public class PlatformConfiguration implements IPlatformConfiguration, IConfigura
 		}
 	}
 
+	/**
+	 * @param workingDir the directory of platform.xml
+	 * @return the history of the platform.xml of the given directory
+	 */
+	private synchronized ConfigurationHistory getHistory(File workingDir) {
+		File dir = new File(workingDir, CONFIG_HISTORY);
+		if (history == null || !history.getDirectory().equals(dir))
+			history = new ConfigurationHistory(dir);
+		return history;
+	}
+
 	private Configuration loadConfig(URL url, URL installLocation) throws Exception {
 		if (url == null)
 			throw new IOException(Messages.cfig_unableToLoad_noURL);
@@ -833,6 +839,15 @@ public class PlatformConfiguration implements IPlatformConfiguration, IConfigura
 		}
 
 		config = null;
+		long start = System.currentTimeMillis();
+		if ("file".equals(url.getProtocol()) && ConfigurationSnapshot.isEnabled()) { //$NON-NLS-1$
+			config = ConfigurationSnapshot.read(new File(url.getFile().replace('/', File.separatorChar)), url, installLocation);
+			if (config != null) {
+				Utils.debug("Configuration loaded from snapshot in " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+				return config;
+			}
+		}
+
 		Exception originalException = null;
 		try {
 			config = parser.parse(url, installLocation);
@@ -849,15 +864,21 @@ public class PlatformConfiguration implements IPlatformConfiguration, IConfigura
 				config.setDirty(true); // force saving to platform.xml
 			} catch (Exception e2) {
 				try {
-					// check the backup
+					// check the backup, the newest snapshot of the history that can be read
 					if ("file".equals(url.getProtocol())) { //$NON-NLS-1$
 						File cfigFile = new File(url.getFile().replace('/', File.separatorChar));
 						File workingDir = cfigFile.getParentFile();
 						if (workingDir != null && workingDir.exists()) {
-							File[] backups = workingDir.listFiles((FileFilter) pathname -> pathname.isFile() && pathname.getName().endsWith(".xml"));
-							if (backups != null && backups.length > 0) {
-								URL backupUrl = backups[backups.length - 1].toURL();
-								config = parser.parse(backupUrl, installLocation);
+							ConfigurationHistory history = getHistory(workingDir);
+							for (ConfigurationHistory.Snapshot snapshot : history.getSnapshots()) {
+								try (InputStream in = history.open(snapshot)) {
+									config = parser.parse(in, url, installLocation);
+								} catch (Exception e4) {
+									Utils.debug("Unable to recover configuration from snapshot " + snapshot.getTimestamp() + " " + e4.toString()); //$NON-NLS-1$ //$NON-NLS-2$
+									config = null;
+								}
+								if (config != null)
+									break;
 							}
 						}
 					}
@@ -870,6 +891,7 @@ public class PlatformConfiguration implements IPlatformConfiguration, IConfigura
 			}
 		}
 
+		Utils.debug("Configuration loaded from XML in " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
 		return config;
 	}
 
@@ -958,23 +980,15 @@ public class PlatformConfiguration implements IPlatformConfiguration, IConfigura
 	private void saveAsXML(OutputStream stream) throws CoreException, IOException {
 		BufferedWriter xmlWriter = new BufferedWriter(new OutputStreamWriter(stream, XML_ENCODING));
 		try {
-			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-			factory.setExpandEntityReferences(false);
-			factory.setValidating(false);
-			factory.setIgnoringComments(true);
-			DocumentBuilder docBuilder = factory.newDocumentBuilder();
-			Document doc = docBuilder.newDocument();
-
 			if (config == null)
 				throw Utils.newCoreException(Messages.PlatformConfiguration_cannotSaveNonExistingConfig, null);
 
 			config.setDate(new Date());
-			Element configElement = config.toXML(doc);
-			doc.appendChild(configElement);
 
 			// This is not DBCS friendly... PAL
 			//XMLPrintHandler.printComment(xmlWriter,"Created on " + config.getDate().toString());
-			XMLPrintHandler.printNode(xmlWriter, doc, XML_ENCODING);
+			XMLPrintHandler.printHead(xmlWriter, XML_ENCODING);
+			config.toXML(xmlWriter);
 
 		} catch (Exception e) {
 			throw Utils.newCoreException("", e); //$NON-NLS-1$
@@ -22,6 +22,10 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 import java.util.zip.*;
 
 import org.eclipse.core.runtime.*;
@@ -29,7 +33,6 @@ import org.eclipse.osgi.service.environment.*;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.update.configurator.*;
 import org.eclipse.update.configurator.IPlatformConfiguration.*;
-import org.w3c.dom.*;
 import org.xml.sax.*;
 
 
@@ -49,8 +52,16 @@ public class SiteEntry implements IPlatformConfiguration.ISiteEntry, IConfigurat
 	private boolean enabled = true;
 	private Configuration config;
 	
-	private static FeatureParser featureParser = new FeatureParser();
-	private static PluginParser pluginParser = new PluginParser();
+	/**
+	 * The framework or system property enabling the parallel detection of features and plugins
+	 */
+	public static final String PROP_PARALLEL_DETECTION = "org.eclipse.update.configurator.parallelDetection"; //$NON-NLS-1$
+	// sites with fewer entries are detected serially
+	private static final int PARALLEL_DETECTION_THRESHOLD = 32;
+
+	// the parsers keep the state of the current parse, each detecting thread has its own
+	private static final ThreadLocal<FeatureParser> featureParser = ThreadLocal.withInitial(FeatureParser::new);
+	private static final ThreadLocal<PluginParser> pluginParser = ThreadLocal.withInitial(PluginParser::new);
 	private static boolean isMacOS = Utils.getOS().equals(Constants.OS_MACOSX);
 
 	public SiteEntry(URL url) {
@@ -262,28 +273,12 @@ public class SiteEntry implements IPlatformConfiguration.ISiteEntry, IConfigurat
 		File featuresDir = new File(siteRoot, FEATURES);
 		if (featuresDir.exists()) {
 			// handle the installed features under the features directory
-			File[] dirs = featuresDir.listFiles((FileFilter) f -> {
-				// mac os folders contain a file .DS_Store in each folder, and we need to skip it (bug 76869) 
-				if (isMacOS && f.getName().equals(MAC_OS_MARKER))
-					return false;
-				boolean valid = f.isDirectory() && (new File(f,FEATURE_XML).exists());
-				if (!valid)
-					Utils.log(NLS.bind(Messages.SiteEntry_cannotFindFeatureInDir, (new String[] { f.getAbsolutePath() })));
-				return valid;
-			});
-		
-			for (File dir : dirs) {
-				try {
-					File featureXML = new File(dir, FEATURE_XML);
-					if (featureXML.lastModified() <= featuresChangeStamp &&
-						dir.lastModified() <= featuresChangeStamp)
-						continue;
-					URL featureURL = featureXML.toURL();
-					FeatureEntry featureEntry = featureParser.parse(featureURL);
+			File[] dirs = featuresDir.listFiles();
+			if (dirs != null) {
+				// merged in the order of the directories, as when detected serially
+				for (FeatureEntry featureEntry : detect(dirs, new FeatureEntry[dirs.length], this::detectFeature)) {
 					if (featureEntry != null)
 						addFeatureEntry(featureEntry);
-				} catch (MalformedURLException e) {
-					Utils.log(NLS.bind(Messages.InstalledSiteParser_UnableToCreateURLForFile, (new String[] { featuresDir.getAbsolutePath() })));
 				}
 			}
 		}
@@ -291,6 +286,30 @@ public class SiteEntry implements IPlatformConfiguration.ISiteEntry, IConfigurat
 		Utils.debug(resolvedURL.toString() + " located  " + featureEntries.size() + " feature(s)"); //$NON-NLS-1$ //$NON-NLS-2$
 	}
 	
+	/**
+	 * @param dir an entry of the features directory
+	 * @return the feature of the directory or <code>null</code> if the directory holds no feature or the feature has not changed
+	 */
+	private FeatureEntry detectFeature(File dir) {
+		// mac os folders contain a file .DS_Store in each folder, and we need to skip it (bug 76869) 
+		if (isMacOS && dir.getName().equals(MAC_OS_MARKER))
+			return null;
+		File featureXML = new File(dir, FEATURE_XML);
+		if (!dir.isDirectory() || !featureXML.exists()) {
+			Utils.log(NLS.bind(Messages.SiteEntry_cannotFindFeatureInDir, (new String[] { dir.getAbsolutePath() })));
+			return null;
+		}
+		if (featureXML.lastModified() <= featuresChangeStamp &&
+			dir.lastModified() <= featuresChangeStamp)
+			return null;
+		try {
+			return featureParser.get().parse(featureXML.toURL());
+		} catch (MalformedURLException e) {
+			Utils.log(NLS.bind(Messages.InstalledSiteParser_UnableToCreateURLForFile, (new String[] { dir.getParentFile().getAbsolutePath() })));
+			return null;
+		}
+	}
+
 	/**
 	 * Detect new plugins (timestamp &gt; current site timestamp)
 	 * and validates existing plugins (they might have been removed)
@@ -306,37 +325,110 @@ public class SiteEntry implements IPlatformConfiguration.ISiteEntry, IConfigurat
 		if (!PlatformConfiguration.supportsDetection(resolvedURL, config.getInstallURL()))
 			return;
 
+		// merged in the order of the files, as when detected serially
+		for (PluginEntry entry : detectPluginFiles(compareTimeStamps)) {
+			if (entry != null)
+				addPluginEntry(entry);
+		}
+		
+		Utils.debug(resolvedURL.toString() + " located  " + pluginEntries.size() + " plugin(s)"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Detects the plugins of the site as they are on disk now, the detected plugins are left as they are
+	 * @return the plugins, in the order of the files of the plugins directory
+	 */
+	PluginEntry[] readPluginEntries() {
+		if (!PlatformConfiguration.supportsDetection(resolvedURL, config.getInstallURL()))
+			return new PluginEntry[0];
+		ArrayList<PluginEntry> plugins = new ArrayList<>();
+		for (PluginEntry entry : detectPluginFiles(false)) {
+			if (entry != null)
+				plugins.add(entry);
+		}
+		return plugins.toArray(new PluginEntry[plugins.size()]);
+	}
+
+	/**
+	 * @param compareTimeStamps set to true when looking for plugins changed since last time they were detected
+	 * @return the plugin of each file of the plugins directory, <code>null</code> for the files holding no plugin
+	 */
+	private PluginEntry[] detectPluginFiles(boolean compareTimeStamps) {
 		// locate plugin entries on site
 		File pluginsDir = new File(resolvedURL.getFile(), PLUGINS);
 		
-		if (pluginsDir.exists() && pluginsDir.isDirectory()) {
-			for (File file : pluginsDir.listFiles()) {
-				if(file.isDirectory()){
-					detectUnpackedPlugin(file, compareTimeStamps);
-				}else if(file.getName().endsWith(".jar")){ //$NON-NLS-1$
-					detectPackedPlugin(file, compareTimeStamps);
-				}else{
-					// not bundle file
-				}
+		if (!pluginsDir.exists() || !pluginsDir.isDirectory())
+			return new PluginEntry[0];
+		File[] files = pluginsDir.listFiles();
+		if (files == null)
+			return new PluginEntry[0];
+		return detect(files, new PluginEntry[files.length], file -> {
+			if(file.isDirectory()){
+				return detectUnpackedPlugin(file, compareTimeStamps);
+			}else if(file.getName().endsWith(".jar")){ //$NON-NLS-1$
+				return detectPackedPlugin(file, compareTimeStamps);
+			}else{
+				// not bundle file
+				return null;
 			}
-		} 
-		
-		Utils.debug(resolvedURL.toString() + " located  " + pluginEntries.size() + " plugin(s)"); //$NON-NLS-1$ //$NON-NLS-2$
+		});
+	}
+
+	/**
+	 * Applies the detector to each of the given files. In parallel detection mode, see {@link #PROP_PARALLEL_DETECTION}, the files are
+	 * detected on a fork-join pool. The result of each file is stored at the index of the file, so that the results are merged in the same
+	 * order in both modes.
+	 * 
+	 * @param files the files to detect
+	 * @param results the array for the results, as long as the files
+	 * @param detector the detector returning the entry of a file or <code>null</code>
+	 * @return the results
+	 */
+	private static <T> T[] detect(File[] files, T[] results, Function<File, T> detector) {
+		if (files.length < PARALLEL_DETECTION_THRESHOLD || !isParallelDetection()) {
+			for (int i = 0; i < files.length; i++)
+				results[i] = detector.apply(files[i]);
+			return results;
+		}
+		// detection mostly waits for the file system, which may be a network share
+		ForkJoinPool pool = new ForkJoinPool(Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+		try {
+			pool.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, files.length).parallel().forEach(i -> results[i] = detector.apply(files[i]))));
+		} finally {
+			pool.shutdown();
+		}
+		return results;
+	}
+
+	/**
+	 * @return whether features and plugins are detected in parallel
+	 */
+	public static boolean isParallelDetection() {
+		return "true".equalsIgnoreCase(Utils.getProperty(PROP_PARALLEL_DETECTION)); //$NON-NLS-1$
 	}
 
 	/**
 	 * @param file a plugin jar
 	 * @param compareTimeStamps set to true when looking for plugins changed since last time they were detected
+	 * @return the plugin of the jar or <code>null</code> if the jar holds no plugin or the plugin has not changed
 	 */
-	private void detectPackedPlugin(File file, boolean compareTimeStamps) {
+	private PluginEntry detectPackedPlugin(File file, boolean compareTimeStamps) {
 		// plugin to run directly from jar
-		if (compareTimeStamps && file.lastModified() <= pluginsChangeStamp) {
-			return;
+		long timestamp = file.lastModified();
+		if (compareTimeStamps && timestamp <= pluginsChangeStamp) {
+			return null;
 		}
 		String entryName = META_MANIFEST_MF;
 		InputStream bundleManifestIn = null;
 		InputStream pluginManifestIn = null;
 		String pluginURL = PLUGINS + "/" + file.getName(); //$NON-NLS-1$
+		BundleManifestCache manifestCache = BundleManifestCache.getCurrent();
+		long size = file.length();
+		if (manifestCache != null) {
+			PluginEntry entry = manifestCache.get(file, size, timestamp, pluginURL);
+			if (entry != null)
+				return entry;
+		}
 		try (ZipFile z = new ZipFile(file)){
 			// First, check if has valid bundle manifest
 			
@@ -345,8 +437,10 @@ public class SiteEntry implements IPlatformConfiguration.ISiteEntry, IConfigurat
 				BundleManifest manifest = new BundleManifest(bundleManifestIn,
 						pluginURL);
 				if (manifest.exists()) {
-					addPluginEntry(manifest.getPluginEntry());
-					return;
+					PluginEntry entry = manifest.getPluginEntry();
+					if (manifestCache != null)
+						manifestCache.put(file, size, timestamp, entry);
+					return entry;
 				}
 			}
 			// no bundle manifest, check for plugin.xml or fragment.xml
@@ -356,9 +450,8 @@ public class SiteEntry implements IPlatformConfiguration.ISiteEntry, IConfigurat
 			}
 			if (z.getEntry(entryName) != null) {
 				pluginManifestIn = z.getInputStream(new ZipEntry(entryName));
-				PluginEntry entry1 = pluginParser.parse(pluginManifestIn,
+				return pluginParser.get().parse(pluginManifestIn,
 						pluginURL);
-				addPluginEntry(entry1);
 			}
 		} catch (IOException e5) {
 			String pluginFileString2 = pluginURL + "!" + entryName; //$NON-NLS-1$
@@ -380,25 +473,45 @@ public class SiteEntry implements IPlatformConfiguration.ISiteEntry, IConfigurat
 				}
 			}
 		}
+		return null;
 	}
 	/**
 	 * @param file a plugin directory
 	 * @param compareTimeStamps set to true when looking for plugins changed since last time they were detected
+	 * @return the plugin of the directory or <code>null</code> if the directory holds no plugin or the plugin has not changed
 	 */
-	private void detectUnpackedPlugin(File file, boolean compareTimeStamps) {
+	private PluginEntry detectUnpackedPlugin(File file, boolean compareTimeStamps) {
 		// unpacked plugin
 		long dirTimestamp = file.lastModified();
 		File pluginFile = new File(file, META_MANIFEST_MF);
 		try {
 			// First, check if has valid bundle manifest
-			BundleManifest bundleManifest = new BundleManifest(pluginFile);
-			if (bundleManifest.exists()) {
-				if (compareTimeStamps
-						&& dirTimestamp <= pluginsChangeStamp
-						&& pluginFile.lastModified() <= pluginsChangeStamp)
-					return;
-				PluginEntry entry = bundleManifest.getPluginEntry();
-				addPluginEntry(entry);
+			long manifestTimestamp = pluginFile.isDirectory() ? 0 : pluginFile.lastModified();
+			boolean unchanged = manifestTimestamp != 0
+					&& compareTimeStamps
+					&& dirTimestamp <= pluginsChangeStamp
+					&& manifestTimestamp <= pluginsChangeStamp;
+			// an unchanged plugin is neither read nor looked up, unless the manifest is not a bundle manifest
+			// and the plugin.xml or fragment.xml it falls back to has changed
+			if (unchanged
+					&& new File(file, PLUGIN_XML).lastModified() <= pluginsChangeStamp
+					&& new File(file, FRAGMENT_XML).lastModified() <= pluginsChangeStamp)
+				return null;
+			// a manifest known from the cache is not read again
+			BundleManifestCache manifestCache = manifestTimestamp == 0 ? null : BundleManifestCache.getCurrent();
+			long manifestSize = manifestCache == null ? 0 : pluginFile.length();
+			PluginEntry entry = manifestCache == null ? null
+					: manifestCache.get(pluginFile, manifestSize, manifestTimestamp, PLUGINS + "/" + file.getName() + "/"); //$NON-NLS-1$ //$NON-NLS-2$
+			BundleManifest bundleManifest = entry != null || manifestTimestamp == 0 ? null : new BundleManifest(pluginFile);
+			if (entry != null || (bundleManifest != null && bundleManifest.exists())) {
+				if (unchanged)
+					return null;
+				if (entry == null) {
+					entry = bundleManifest.getPluginEntry();
+					if (manifestCache != null)
+						manifestCache.put(pluginFile, manifestSize, manifestTimestamp, entry);
+				}
+				return entry;
 			} else {
 				// no bundle manifest, check for plugin.xml or fragment.xml
 				pluginFile = new File(file, PLUGIN_XML);
@@ -416,9 +529,8 @@ public class SiteEntry implements IPlatformConfiguration.ISiteEntry, IConfigurat
 					if (compareTimeStamps 
 							&& dirTimestamp <= pluginsChangeStamp
 							&& pluginFile.lastModified() <= pluginsChangeStamp)
-						return;
-					PluginEntry entry = pluginParser.parse(pluginFile);
-					addPluginEntry(entry);
+						return null;
+					return pluginParser.get().parse(pluginFile);
 				}
 			}
 		} catch (IOException e) {
@@ -431,6 +543,7 @@ public class SiteEntry implements IPlatformConfiguration.ISiteEntry, IConfigurat
 			String pluginFileString = pluginFile.getAbsolutePath();
 			Utils.log(NLS.bind(Messages.InstalledSiteParser_ErrorParsingFile, (new String[] { pluginFileString })));
 		}
+		return null;
 	}
 
 	/**
@@ -471,6 +584,18 @@ public class SiteEntry implements IPlatformConfiguration.ISiteEntry, IConfigurat
 		long start = 0;
 		if (ConfigurationActivator.DEBUG)
 			start = (new Date()).getTime();
+		featuresChangeStamp = readFeaturesChangeStamp();
+		if (ConfigurationActivator.DEBUG) {
+			long end = (new Date()).getTime();
+			Utils.debug(resolvedURL.toString() + " feature stamp: " + featuresChangeStamp + " in " + (end - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$   
+		}
+		return featuresChangeStamp;
+	}
+
+	/**
+	 * @return the stamp of the features as they are on disk now, the computed stamp is left as it is
+	 */
+	synchronized long readFeaturesChangeStamp() {
 		String[] features = getFeatures();
 	
 		// compute stamp for the features directory
@@ -480,12 +605,7 @@ public class SiteEntry implements IPlatformConfiguration.ISiteEntry, IConfigurat
 			File featuresDir = new File(root, FEATURES);
 			dirStamp = featuresDir.lastModified();
 		}
-		featuresChangeStamp = Math.max(dirStamp, computeStamp(features));
-		if (ConfigurationActivator.DEBUG) {
-			long end = (new Date()).getTime();
-			Utils.debug(resolvedURL.toString() + " feature stamp: " + featuresChangeStamp + " in " + (end - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$   
-		}
-		return featuresChangeStamp;
+		return Math.max(dirStamp, computeStamp(features));
 	}
 
 	private synchronized long computePluginsChangeStamp() {
@@ -497,6 +617,17 @@ public class SiteEntry implements IPlatformConfiguration.ISiteEntry, IConfigurat
 			return 0;
 		}
 
+		pluginsChangeStamp = readPluginsChangeStamp();
+		return pluginsChangeStamp;
+	}
+
+	/**
+	 * @return the stamp of the plugins as they are on disk now, the computed stamp is left as it is
+	 */
+	synchronized long readPluginsChangeStamp() {
+		if (!PlatformConfiguration.supportsDetection(resolvedURL, config.getInstallURL()))
+			return 0;
+
 		// compute stamp for the plugins directory
 		File root = new File(resolvedURL.getFile().replace('/', File.separatorChar));
 		File pluginsDir = new File(root, PLUGINS);
@@ -505,8 +636,7 @@ public class SiteEntry implements IPlatformConfiguration.ISiteEntry, IConfigurat
 			return 0;
 		}
 
-		pluginsChangeStamp = pluginsDir.lastModified();
-		return pluginsChangeStamp;
+		return pluginsDir.lastModified();
 	}
 
 	private long computeStamp(String[] targets) {
@@ -623,31 +753,18 @@ public class SiteEntry implements IPlatformConfiguration.ISiteEntry, IConfigurat
 	}
 	
 	/**
-	 * Saves state as xml content in a given parent element
-	 * @param doc
+	 * Writes state as xml content, attributes in alphabetical order as platform.xml
+	 * has always been written
+	 * @param xmlWriter
 	 */
-	public Element toXML(Document doc) {
+	public void toXML(Writer xmlWriter) throws IOException {
 
-		Element siteElement = doc.createElement(CFG_SITE);
+		XMLPrintHandler.printStartElement(xmlWriter, CFG_SITE);
 		
-		if (getURL() != null) {
-			URL toPersist = (config == null || config.isTransient()) ? getURL() : Utils.makeRelative(Utils.getInstallURL(), getURL());
-			siteElement.setAttribute(CFG_URL, toPersist.toString());
-		}
-		
-		siteElement.setAttribute(CFG_ENABLED, isEnabled() ? "true" : "false"); //$NON-NLS-1$ //$NON-NLS-2$
-		siteElement.setAttribute(CFG_UPDATEABLE, isUpdateable() ? "true" : "false"); //$NON-NLS-1$ //$NON-NLS-2$
+		XMLPrintHandler.printAttribute(xmlWriter, CFG_ENABLED, isEnabled() ? "true" : "false"); //$NON-NLS-1$ //$NON-NLS-2$
 		if (isExternallyLinkedSite()) 
-			siteElement.setAttribute(CFG_LINK_FILE, getLinkFileName().trim().replace(File.separatorChar, '/')); 
+			XMLPrintHandler.printAttribute(xmlWriter, CFG_LINK_FILE, getLinkFileName().trim().replace(File.separatorChar, '/')); 
 
-		int type = getSitePolicy().getType();
-		String typeString = CFG_POLICY_TYPE_UNKNOWN;
-		try {
-			typeString = CFG_POLICY_TYPE[type];
-		} catch (IndexOutOfBoundsException e) {
-			// ignore bad attribute ...
-		}
-		siteElement.setAttribute(CFG_POLICY, typeString); 
 		String[] list = getSitePolicy().getList();
 		if (list.length > 0) {
 			StringBuilder sb = new StringBuilder(256);
@@ -656,18 +773,33 @@ public class SiteEntry implements IPlatformConfiguration.ISiteEntry, IConfigurat
 				sb.append(',');
 			}
 			sb.append(list[list.length-1]);
-			siteElement.setAttribute(CFG_LIST, sb.toString());
+			XMLPrintHandler.printAttribute(xmlWriter, CFG_LIST, sb.toString());
+		}
+
+		int type = getSitePolicy().getType();
+		String typeString = CFG_POLICY_TYPE_UNKNOWN;
+		try {
+			typeString = CFG_POLICY_TYPE[type];
+		} catch (IndexOutOfBoundsException e) {
+			// ignore bad attribute ...
+		}
+		XMLPrintHandler.printAttribute(xmlWriter, CFG_POLICY, typeString); 
+		XMLPrintHandler.printAttribute(xmlWriter, CFG_UPDATEABLE, isUpdateable() ? "true" : "false"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		if (getURL() != null) {
+			URL toPersist = (config == null || config.isTransient()) ? getURL() : Utils.makeRelative(Utils.getInstallURL(), getURL());
+			XMLPrintHandler.printAttribute(xmlWriter, CFG_URL, toPersist.toString());
 		}
+		XMLPrintHandler.printEndAttributes(xmlWriter);
 //		// note: we don't save features inside the site element.
 		
 		// collect feature entries
 //		configElement.setAttribute(CFG_FEATURE_ENTRY_DEFAULT, defaultFeature);
 		for (FeatureEntry feat : getFeatureEntries()) {
-			Element featureElement = feat.toXML(doc);
-			siteElement.appendChild(featureElement);
+			feat.toXML(xmlWriter);
 		}
 		
-		return siteElement;
+		XMLPrintHandler.printEndElement(xmlWriter, CFG_SITE);
 	}
 	
 	private void validateFeatureEntries() {
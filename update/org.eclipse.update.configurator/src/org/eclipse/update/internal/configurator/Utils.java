@@ -232,6 +232,15 @@ public class Utils {
 		return null;
 	}
 
+	/**
+	 * Returns the value of a framework property, or of the system property when the bundle is not started.
+	 */
+	public static String getProperty(String key) {
+		BundleContext context = getContext();
+		String value = context == null ? null : context.getProperty(key);
+		return value != null ? value : System.getProperty(key);
+	}
+
 	/*
 	 * Return the bundle context for this bundle.
 	 */
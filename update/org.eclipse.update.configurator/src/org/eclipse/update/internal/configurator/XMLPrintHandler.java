@@ -16,9 +16,12 @@ package org.eclipse.update.internal.configurator;
 
 import java.io.*;
 
-import org.w3c.dom.*;
-
-
+/**
+ * Writes the XML of the configuration straight to a writer. An element is written as
+ * <code>printStartElement</code>, <code>printAttribute</code> for each of its attributes,
+ * <code>printEndAttributes</code>, its content and <code>printEndElement</code>.
+ * Attributes are written in the order they are printed.
+ */
 public class XMLPrintHandler {
 	//	used to print XML file
 	public static final String XML_HEAD = "<?xml version=\"1.0\" encoding=\""; //$NON-NLS-1$
@@ -30,107 +33,73 @@ public class XMLPrintHandler {
 	public static final String XML_EQUAL = "="; //$NON-NLS-1$
 	public static final String XML_SLASH = "/"; //$NON-NLS-1$
 
-	public static void printBeginElement(Writer xmlWriter, String elementString) throws IOException{
-		StringBuilder temp = new StringBuilder(XML_BEGIN_TAG);
-		temp.append(elementString).append(XML_END_TAG).append("\n"); //$NON-NLS-1$
-		xmlWriter.write(temp.toString());
-
+	public static void printHead(Writer xmlWriter, String encoding) throws IOException {
+		xmlWriter.write(XML_HEAD);
+		xmlWriter.write(encoding);
+		xmlWriter.write(XML_DBL_QUOTES);
+		xmlWriter.write(XML_HEAD_END_TAG);
+		xmlWriter.write('\n');
 	}
 
-	public static void printEndElement(Writer xmlWriter, String elementString) throws IOException{
-		StringBuilder temp = new StringBuilder(XML_BEGIN_TAG);
-		temp.append(XML_SLASH).append(elementString).append(XML_END_TAG).append("\n"); //$NON-NLS-1$
-		xmlWriter.write(temp.toString());
-
+	public static void printStartElement(Writer xmlWriter, String elementName) throws IOException {
+		xmlWriter.write(XML_BEGIN_TAG);
+		xmlWriter.write(elementName);
 	}
 
-	public static void printHead(Writer xmlWriter, String encoding) throws IOException {
-		StringBuilder temp = new StringBuilder(XML_HEAD);
-		temp.append(encoding).append(XML_DBL_QUOTES).append(XML_HEAD_END_TAG).append("\n"); //$NON-NLS-1$
-		xmlWriter.write(temp.toString());
+	public static void printAttribute(Writer xmlWriter, String attribute, String value) throws IOException {
+		xmlWriter.write(XML_SPACE);
+		xmlWriter.write(attribute);
+		xmlWriter.write(XML_EQUAL);
+		xmlWriter.write(XML_DBL_QUOTES);
+		encode(xmlWriter, value);
+		xmlWriter.write(XML_DBL_QUOTES);
 	}
 
-	public static String wrapAttributeForPrint(String attribute, String value) throws IOException {
-		StringBuilder temp = new StringBuilder(XML_SPACE);
-		temp.append(attribute).append(XML_EQUAL).append(XML_DBL_QUOTES)
-				.append(encode(value).toString()).append(XML_DBL_QUOTES);
-		return temp.toString();
-
+	public static void printEndAttributes(Writer xmlWriter) throws IOException {
+		xmlWriter.write(XML_END_TAG);
+		xmlWriter.write('\n');
 	}
 
-	public static void printNode(Writer xmlWriter, Node node,String encoding)  throws Exception{
-		if (node == null) {
-			return;
-		}
-
-		switch (node.getNodeType()) {
-		case Node.DOCUMENT_NODE: {
-			printHead(xmlWriter,encoding);
-			printNode(xmlWriter, ((Document) node).getDocumentElement(),encoding);
-			break;
-		}
-		case Node.ELEMENT_NODE: {
-			//get the attribute list for this node.
-			StringBuilder tempElementString = new StringBuilder(node.getNodeName());
-			NamedNodeMap attributeList = node.getAttributes();
-			if ( attributeList != null ) {
-				for(int i= 0; i <attributeList.getLength();i++){
-					Node attribute = attributeList.item(i);
-					tempElementString.append(wrapAttributeForPrint(attribute.getNodeName(),attribute.getNodeValue()));
-				}
-			}
-			printBeginElement(xmlWriter,tempElementString.toString());
-			
-			// do this recursively for the child nodes.
-			NodeList childNodes = node.getChildNodes();
-			if (childNodes != null) {
-				int length = childNodes.getLength();
-				for (int i = 0; i < length; i++) {
-					printNode(xmlWriter, childNodes.item(i),encoding);
-				}
-			}
-			
-			printEndElement(xmlWriter,node.getNodeName());
-			break;
-		}
-		
-		case Node.TEXT_NODE: {
-			xmlWriter.write(encode(node.getNodeValue()).toString());
-			break;
-		}
-		default: {
-			throw new UnsupportedOperationException(Messages.XMLPrintHandler_unsupportedNodeType);
-			
-		}
-		}
+	public static void printEndElement(Writer xmlWriter, String elementName) throws IOException {
+		xmlWriter.write(XML_BEGIN_TAG);
+		xmlWriter.write(XML_SLASH);
+		xmlWriter.write(elementName);
+		xmlWriter.write(XML_END_TAG);
+		xmlWriter.write('\n');
+	}
 
+	public static void printText(Writer xmlWriter, String text) throws IOException {
+		encode(xmlWriter, text);
 	}
 
-	public static StringBuffer encode(String value) {
-		StringBuffer buf = new StringBuffer();
+	public static void encode(Writer xmlWriter, String value) throws IOException {
+		int start = 0;
 		for (int i = 0; i < value.length(); i++) {
-			char c = value.charAt(i);
-			switch (c) {
+			String replacement;
+			switch (value.charAt(i)) {
 				case '&' :
-					buf.append("&amp;"); //$NON-NLS-1$
+					replacement = "&amp;"; //$NON-NLS-1$
 					break;
 				case '<' :
-					buf.append("&lt;"); //$NON-NLS-1$
+					replacement = "&lt;"; //$NON-NLS-1$
 					break;
 				case '>' :
-					buf.append("&gt;"); //$NON-NLS-1$
+					replacement = "&gt;"; //$NON-NLS-1$
 					break;
 				case '\'' :
-					buf.append("&apos;"); //$NON-NLS-1$
+					replacement = "&apos;"; //$NON-NLS-1$
 					break;
 				case '\"' :
-					buf.append("&quot;"); //$NON-NLS-1$
+					replacement = "&quot;"; //$NON-NLS-1$
 					break;
 				default :
-					buf.append(c);
-					break;
+					continue;
 			}
+			// write the unescaped run before the character at once
+			xmlWriter.write(value, start, i - start);
+			xmlWriter.write(replacement);
+			start = i + 1;
 		}
-		return buf;
+		xmlWriter.write(value, start, value.length() - start);
 	}
 }